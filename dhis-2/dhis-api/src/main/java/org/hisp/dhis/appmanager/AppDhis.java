@@ -28,8 +28,11 @@
 package org.hisp.dhis.appmanager;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.hisp.dhis.common.DxfNamespaces;
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex.IndexType;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
@@ -55,6 +58,13 @@ public class AppDhis
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     private String namespace;
 
+    /**
+     * Paths of values in the app's namespace that should be indexed.
+     */
+    @JsonProperty( "indexes" )
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    private List<Index> indexes = new ArrayList<>();
+
     public String getHref()
     {
         return href;
@@ -74,4 +84,48 @@ public class AppDhis
     {
         this.namespace = namespace;
     }
-}
\ No newline at end of file
+
+    public List<Index> getIndexes()
+    {
+        return indexes;
+    }
+
+    public void setIndexes( List<Index> indexes )
+    {
+        this.indexes = indexes;
+    }
+
+    public static class Index
+        implements Serializable
+    {
+        private static final long serialVersionUID = 4913251760263542816L;
+
+        @JsonProperty( "path" )
+        @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+        private String path;
+
+        @JsonProperty( "type" )
+        @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+        private IndexType type = IndexType.TEXT;
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public void setPath( String path )
+        {
+            this.path = path;
+        }
+
+        public IndexType getType()
+        {
+            return type;
+        }
+
+        public void setType( IndexType type )
+        {
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.common;
+
+import java.util.Date;
+
+import lombok.Value;
+
+/**
+ * The modification state of all objects of a type, which changes whenever an
+ * object of the type is created, updated or deleted.
+ */
+@Value
+public class ModificationState
+{
+    /**
+     * The type of the objects.
+     */
+    Class<?> type;
+
+    /**
+     * The latest last updated timestamp of the objects, or null if there are
+     * no objects.
+     */
+    Date lastUpdated;
+
+    /**
+     * The latest timestamp at which an object was deleted, or null if no
+     * object has been deleted.
+     */
+    Date lastDeleted;
+
+    /**
+     * The number of objects.
+     */
+    long count;
+
+    /**
+     * Returns the latest timestamp at which an object was updated or deleted,
+     * or null if no object was ever updated or deleted.
+     *
+     * @return the last modified timestamp, or null.
+     */
+    public Date getLastModified()
+    {
+        if ( lastUpdated == null || lastDeleted == null )
+        {
+            return lastUpdated != null ? lastUpdated : lastDeleted;
+        }
+
+        return lastUpdated.after( lastDeleted ) ? lastUpdated : lastDeleted;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datastore;
+
+import java.util.Objects;
+
+/**
+ * The {@link DatastoreNamespaceIndex} declares that values at a particular
+ * path of the {@link DatastoreEntry}s in a namespace are frequently used in
+ * query filters or orders so that a database index scoped to that namespace
+ * should exist for the path.
+ * <p>
+ * Note that this is configured programmatically only (or through the manifest
+ * of the app owning the namespace).
+ */
+public class DatastoreNamespaceIndex
+{
+    /**
+     * The type decides which expression is indexed and therefore which
+     * filters and orders can make use of the index.
+     */
+    public enum IndexType
+    {
+        /**
+         * Indexes the text of the value at the path. Used by string filters
+         * like {@code eq}, {@code lt} or {@code in}.
+         */
+        TEXT,
+
+        /**
+         * Indexes the lower case text of the value at the path. Used by case
+         * insensitive string filters like {@code ieq} or {@code ilike}.
+         */
+        TEXT_IGNORE_CASE,
+
+        /**
+         * Indexes the JSON value at the path. Used by number and boolean
+         * filters as well as non-numeric orders by the path.
+         */
+        JSON
+    }
+
+    private final String namespace;
+
+    private final String path;
+
+    private final IndexType type;
+
+    public DatastoreNamespaceIndex( String namespace, String path )
+    {
+        this( namespace, path, IndexType.TEXT );
+    }
+
+    public DatastoreNamespaceIndex( String namespace, String path, IndexType type )
+    {
+        this.namespace = namespace;
+        this.path = path;
+        this.type = type;
+    }
+
+    public String getNamespace()
+    {
+        return namespace;
+    }
+
+    /**
+     * @return the dot separated path of the indexed value within the JSON
+     *         value of an entry, for example {@code person.name}
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    public IndexType getType()
+    {
+        return type;
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( obj == null || getClass() != obj.getClass() )
+        {
+            return false;
+        }
+        DatastoreNamespaceIndex other = (DatastoreNamespaceIndex) obj;
+        return namespace.equals( other.namespace ) && path.equals( other.path ) && type == other.type;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( namespace, path, type );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "DatastoreNamespaceIndex{%s %s:%s}", namespace, path, type );
+    }
+}
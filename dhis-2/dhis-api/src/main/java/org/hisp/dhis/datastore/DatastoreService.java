@@ -29,6 +29,7 @@ package org.hisp.dhis.datastore;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -64,6 +65,29 @@ public interface DatastoreService
      */
     void removeProtection( String namespace );
 
+    /**
+     * Makes sure a database index exists for the path declared by the
+     * provided index and that queries to the index's namespace are built so
+     * that they can make use of it.
+     *
+     * @param index configuration of the index
+     */
+    void addIndex( DatastoreNamespaceIndex index );
+
+    /**
+     * Drops all {@link DatastoreNamespaceIndex}es of the given namespace (if
+     * any exist).
+     *
+     * @param namespace the namespace for which to remove the indexes
+     */
+    void removeIndexes( String namespace );
+
+    /**
+     * @param namespace the namespace to check
+     * @return the indexes declared for the namespace, empty if none exist
+     */
+    Set<DatastoreNamespaceIndex> getIndexes( String namespace );
+
     /**
      * True, if there is at least a single value for the provided namespace.
      *
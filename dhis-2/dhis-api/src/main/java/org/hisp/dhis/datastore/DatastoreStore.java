@@ -29,6 +29,7 @@ package org.hisp.dhis.datastore;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -90,6 +91,36 @@ public interface DatastoreStore
      */
     <T> T getFields( DatastoreQuery query, Function<Stream<DatastoreFields>, T> transform );
 
+    /**
+     * Same as {@link #getFields(DatastoreQuery, Function)} but the query is
+     * built in a form that can use the provided indexes declared for the
+     * namespace of the query.
+     *
+     * @param query query parameters
+     * @param indexes the indexes declared for the namespace of the query
+     * @param transform transformer or consumer for the stream of matches
+     * @param <T> type of the transformed stream
+     * @return the transformed stream
+     */
+    <T> T getFields( DatastoreQuery query, Set<DatastoreNamespaceIndex> indexes,
+        Function<Stream<DatastoreFields>, T> transform );
+
+    /**
+     * Creates the database index for the provided index declaration unless it
+     * already exists.
+     *
+     * @param index the index to create
+     */
+    void createIndex( DatastoreNamespaceIndex index );
+
+    /**
+     * Drops the database index for the provided index declaration if it
+     * exists.
+     *
+     * @param index the index to drop
+     */
+    void dropIndex( DatastoreNamespaceIndex index );
+
     /**
      * Retrieves a KeyJsonValue based on the associated key and namespace
      *
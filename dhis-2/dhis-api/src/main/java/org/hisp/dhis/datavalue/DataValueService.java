@@ -29,6 +29,7 @@ package org.hisp.dhis.datavalue;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
@@ -176,6 +177,16 @@ public interface DataValueService
      */
     List<DeflatedDataValue> getDeflatedDataValues( DataExportParams params );
 
+    /**
+     * Reads deflated data values for the given data export parameters and
+     * passes them to the given consumer as they are read from the database,
+     * without holding all of them in memory.
+     *
+     * @param params the data export parameters.
+     * @param consumer the consumer of the deflated data values.
+     */
+    void getDeflatedDataValues( DataExportParams params, Consumer<DeflatedDataValue> consumer );
+
     /**
      * Gets the number of DataValues persisted since the given number of days.
      *
@@ -30,6 +30,7 @@ package org.hisp.dhis.datavalue;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
@@ -145,6 +146,16 @@ public interface DataValueStore
      */
     List<DeflatedDataValue> getDeflatedDataValues( DataExportParams params );
 
+    /**
+     * Reads deflated data values for the given data export parameters and
+     * passes them to the given consumer as they are read from the database,
+     * without holding all of them in memory.
+     *
+     * @param params the data export parameters.
+     * @param consumer the consumer of the deflated data values.
+     */
+    void getDeflatedDataValues( DataExportParams params, Consumer<DeflatedDataValue> consumer );
+
     /**
      * Gets the number of DataValues which have been updated between the given
      * start and end date. Either the start or end date can be null, but they
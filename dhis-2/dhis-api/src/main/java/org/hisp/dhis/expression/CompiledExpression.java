@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.expression;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+
+/**
+ * An expression which has been parsed once and can be evaluated any number of
+ * times, concurrently, without being parsed again. The dimensional items of the
+ * expression are bound to indexes, so that item values can be given as a flat
+ * array where the value at index {@code i} is the value of the item with id
+ * {@code getItemIds().get( i )}.
+ */
+public interface CompiledExpression
+{
+    /**
+     * Returns the expression string.
+     */
+    String getExpression();
+
+    /**
+     * Returns the parse type of the expression.
+     */
+    ParseType getParseType();
+
+    /**
+     * Returns the ids of the dimensional items of the expression, in the order
+     * of their indexes.
+     */
+    List<DimensionalItemId> getItemIds();
+
+    /**
+     * Returns the dimensional item objects of the expression by index.
+     *
+     * @param itemMap map from dimensional item id to object.
+     * @return the item objects, null for items not found in the map.
+     */
+    default DimensionalItemObject[] getItems( Map<DimensionalItemId, DimensionalItemObject> itemMap )
+    {
+        List<DimensionalItemId> itemIds = getItemIds();
+
+        DimensionalItemObject[] items = new DimensionalItemObject[itemIds.size()];
+
+        for ( int i = 0; i < items.length; i++ )
+        {
+            items[i] = itemMap.get( itemIds.get( i ) );
+        }
+
+        return items;
+    }
+
+    /**
+     * Returns the values of the given dimensional item objects by index.
+     *
+     * @param items the item objects by index, see {@link #getItems(Map)}.
+     * @param valueMap map from dimensional item object to value.
+     * @return the item values, null for missing values.
+     */
+    default Object[] getItemValues( DimensionalItemObject[] items, Map<DimensionalItemObject, Object> valueMap )
+    {
+        Object[] values = new Object[items.length];
+
+        for ( int i = 0; i < items.length; i++ )
+        {
+            values[i] = items[i] != null ? valueMap.get( items[i] ) : null;
+        }
+
+        return values;
+    }
+}
@@ -273,6 +273,32 @@ public interface ExpressionService
      */
     Object getExpressionValue( ExpressionParams params );
 
+    /**
+     * Compiles an expression for repeated evaluation. Compiled expressions are
+     * cached by expression and parse type.
+     *
+     * @param expression the expression string.
+     * @param parseType the type of expression to parse.
+     * @return the compiled expression.
+     */
+    CompiledExpression compileExpression( String expression, ParseType parseType );
+
+    /**
+     * Generates the calculated value for a compiled expression. The values of
+     * the dimensional items of the expression are taken from the given arrays,
+     * by the index of the item in {@link CompiledExpression#getItemIds()}. The
+     * value map of the parameters is only used for items whose values are not
+     * given by index, such as the sampled items of vector functions.
+     *
+     * @param expression the compiled expression.
+     * @param params the expression parameters.
+     * @param items the dimensional item objects of the expression by index.
+     * @param itemValues the values of the dimensional items by index.
+     * @return the calculated value.
+     */
+    Object getExpressionValue( CompiledExpression expression, ExpressionParams params,
+        DimensionalItemObject[] items, Object[] itemValues );
+
     // -------------------------------------------------------------------------
     // Gets a (possibly cached) constant map
     // -------------------------------------------------------------------------
@@ -298,6 +298,7 @@ public enum ErrorCode
     E7132( "An indicator expression caused division by zero operation" ),
     E7133( "Query cannot be executed, possibly because of invalid types or invalid operation" ),
     E7134( "Cannot retrieve total value for data elements with skip total category combination" ),
+    E7135( "Query timed out while waiting for an available analytics query thread" ),
 
     /* Event analytics */
     E7200( "At least one organisation unit must be specified" ),
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.organisationunit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Immutable in-memory representation of the organisation unit hierarchy.
+ * <p>
+ * Organisation units are numbered in pre-order, which means that the subtree
+ * of an organisation unit occupies the consecutive positions from the position
+ * of the organisation unit to the position of its last descendant. Descendant
+ * checks are hence interval checks which do not require any database access or
+ * traversal of the object graph. Parents and levels are held in arrays indexed
+ * by position.
+ * <p>
+ * An index is built for a version. Consumers can compare versions to detect
+ * that the hierarchy has been rebuilt.
+ */
+public final class OrganisationUnitHierarchyIndex
+{
+    private static final String PATH_SEP = "/";
+
+    private static final int NO_PARENT = -1;
+
+    private final long version;
+
+    private final Map<String, Integer> positions;
+
+    private final String[] uids;
+
+    private final int[] parents;
+
+    private final int[] levels;
+
+    private final int[] subtreeEnds;
+
+    private OrganisationUnitHierarchyIndex( long version, Map<String, Integer> positions, String[] uids,
+        int[] parents, int[] levels, int[] subtreeEnds )
+    {
+        this.version = version;
+        this.positions = positions;
+        this.uids = uids;
+        this.parents = parents;
+        this.levels = levels;
+        this.subtreeEnds = subtreeEnds;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Returns an empty index for the given version.
+     *
+     * @param version the version.
+     * @return an empty index.
+     */
+    public static OrganisationUnitHierarchyIndex empty( long version )
+    {
+        return builder().build( version );
+    }
+
+    // -------------------------------------------------------------------------
+    // Logic
+    // -------------------------------------------------------------------------
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the number of organisation units in the index.
+     */
+    public int size()
+    {
+        return uids.length;
+    }
+
+    /**
+     * Indicates whether the organisation unit with the given uid is part of
+     * the index.
+     *
+     * @param uid the organisation unit uid.
+     * @return true if the organisation unit is part of the index.
+     */
+    public boolean contains( String uid )
+    {
+        return uid != null && positions.containsKey( uid );
+    }
+
+    /**
+     * Returns the uid of the parent of the given organisation unit.
+     *
+     * @param uid the organisation unit uid.
+     * @return the parent uid, or null if the organisation unit is a root or not
+     *         part of the index.
+     */
+    public String getParent( String uid )
+    {
+        Integer position = getPosition( uid );
+
+        return position != null && parents[position] != NO_PARENT ? uids[parents[position]] : null;
+    }
+
+    /**
+     * Returns the level of the given organisation unit, where roots are at
+     * level 1.
+     *
+     * @param uid the organisation unit uid.
+     * @return the level, or 0 if the organisation unit is not part of the
+     *         index.
+     */
+    public int getLevel( String uid )
+    {
+        Integer position = getPosition( uid );
+
+        return position != null ? levels[position] : 0;
+    }
+
+    /**
+     * Indicates whether the given organisation unit is equal to or a
+     * descendant of the given ancestor.
+     *
+     * @param uid the organisation unit uid.
+     * @param ancestorUid the ancestor uid.
+     * @return true if the organisation unit is in the subtree of the ancestor.
+     */
+    public boolean isDescendant( String uid, String ancestorUid )
+    {
+        Integer position = getPosition( uid );
+
+        return position != null && isInSubtree( position, getPosition( ancestorUid ) );
+    }
+
+    /**
+     * Indicates whether the given organisation unit is equal to or a
+     * descendant of any of the given ancestors.
+     *
+     * @param uid the organisation unit uid.
+     * @param ancestorUids the ancestor uids.
+     * @return true if the organisation unit is in the subtree of any of the
+     *         ancestors.
+     */
+    public boolean isDescendant( String uid, Collection<String> ancestorUids )
+    {
+        Integer position = getPosition( uid );
+
+        if ( position == null || ancestorUids == null )
+        {
+            return false;
+        }
+
+        for ( String ancestorUid : ancestorUids )
+        {
+            if ( isInSubtree( position, getPosition( ancestorUid ) ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the uids of the given organisation unit and all of its
+     * descendants, in pre-order.
+     *
+     * @param uid the organisation unit uid.
+     * @return the subtree uids, empty if the organisation unit is not part of
+     *         the index.
+     */
+    public List<String> getSubtree( String uid )
+    {
+        Integer position = getPosition( uid );
+
+        if ( position == null )
+        {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(
+            Arrays.asList( uids ).subList( position, subtreeEnds[position] + 1 ) );
+    }
+
+    /**
+     * Returns the uids of the organisation units at the given level within the
+     * subtree of the given organisation unit.
+     *
+     * @param uid the organisation unit uid.
+     * @param level the level.
+     * @return the uids, empty if the organisation unit is not part of the
+     *         index.
+     */
+    public List<String> getSubtreeAtLevel( String uid, int level )
+    {
+        Integer position = getPosition( uid );
+
+        if ( position == null || level < levels[position] )
+        {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+
+        for ( int i = position; i <= subtreeEnds[position]; i++ )
+        {
+            if ( levels[i] == level )
+            {
+                result.add( uids[i] );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of organisation units in the subtree of the given
+     * organisation unit, including the organisation unit itself.
+     *
+     * @param uid the organisation unit uid.
+     * @return the subtree size, 0 if the organisation unit is not part of the
+     *         index.
+     */
+    public int getSubtreeSize( String uid )
+    {
+        Integer position = getPosition( uid );
+
+        return position != null ? subtreeEnds[position] - position + 1 : 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private Integer getPosition( String uid )
+    {
+        return uid != null ? positions.get( uid ) : null;
+    }
+
+    private boolean isInSubtree( int position, Integer ancestorPosition )
+    {
+        return ancestorPosition != null && ancestorPosition <= position && position <= subtreeEnds[ancestorPosition];
+    }
+
+    // -------------------------------------------------------------------------
+    // Builder
+    // -------------------------------------------------------------------------
+
+    /**
+     * Builds an index from organisation unit uids and paths. The parent of an
+     * organisation unit is the second last segment of its path. Organisation
+     * units which are not reachable from a root, i.e. which are part of a
+     * cyclic reference, are left out of the index.
+     */
+    public static final class Builder
+    {
+        private final List<String> uids = new ArrayList<>();
+
+        private final List<String> parentUids = new ArrayList<>();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Adds an organisation unit.
+         *
+         * @param uid the organisation unit uid.
+         * @param path the organisation unit path, such as
+         *        {@code /ImspTQPwCqd/O6uvpzGd5pu}.
+         * @return this builder.
+         */
+        public Builder add( String uid, String path )
+        {
+            String[] segments = StringUtils.split( path, PATH_SEP );
+
+            uids.add( uid );
+            parentUids.add( segments != null && segments.length > 1 ? segments[segments.length - 2] : null );
+
+            return this;
+        }
+
+        public OrganisationUnitHierarchyIndex build( long version )
+        {
+            int size = uids.size();
+
+            Map<String, Integer> inputIndexes = new HashMap<>( size * 2 );
+
+            for ( int i = 0; i < size; i++ )
+            {
+                inputIndexes.put( uids.get( i ), i );
+            }
+
+            // Children as linked lists, built backwards to keep input order
+
+            int[] firstChild = new int[size];
+            int[] nextSibling = new int[size];
+            Arrays.fill( firstChild, NO_PARENT );
+            Arrays.fill( nextSibling, NO_PARENT );
+
+            List<Integer> roots = new ArrayList<>();
+
+            for ( int i = size - 1; i >= 0; i-- )
+            {
+                Integer parent = parentUids.get( i ) != null ? inputIndexes.get( parentUids.get( i ) ) : null;
+
+                if ( parent == null )
+                {
+                    roots.add( 0, i );
+                }
+                else
+                {
+                    nextSibling[i] = firstChild[parent];
+                    firstChild[parent] = i;
+                }
+            }
+
+            // Pre-order numbering
+
+            int[] order = new int[size];
+            int[] parentPositions = new int[size];
+            int[] inputPositions = new int[size];
+            Arrays.fill( inputPositions, NO_PARENT );
+
+            int[] stack = new int[size];
+            int count = 0;
+
+            for ( int root : roots )
+            {
+                int top = 0;
+                stack[top++] = root;
+
+                while ( top > 0 )
+                {
+                    int node = stack[--top];
+                    Integer parent = parentUids.get( node ) != null ? inputIndexes.get( parentUids.get( node ) ) : null;
+
+                    order[count] = node;
+                    parentPositions[count] = parent != null ? inputPositions[parent] : NO_PARENT;
+                    inputPositions[node] = count++;
+
+                    int childCount = 0;
+
+                    for ( int child = firstChild[node]; child != NO_PARENT; child = nextSibling[child] )
+                    {
+                        stack[top + childCount++] = child;
+                    }
+
+                    reverse( stack, top, top + childCount );
+                    top += childCount;
+                }
+            }
+
+            // Levels in position order, subtree ends in reverse position order
+
+            String[] positionUids = new String[count];
+            int[] parents = Arrays.copyOf( parentPositions, count );
+            int[] levels = new int[count];
+            int[] subtreeEnds = new int[count];
+            Map<String, Integer> positions = new HashMap<>( count * 2 );
+
+            for ( int p = 0; p < count; p++ )
+            {
+                positionUids[p] = uids.get( order[p] );
+                positions.put( positionUids[p], p );
+                levels[p] = parents[p] == NO_PARENT ? 1 : levels[parents[p]] + 1;
+                subtreeEnds[p] = p;
+            }
+
+            for ( int p = count - 1; p >= 0; p-- )
+            {
+                if ( parents[p] != NO_PARENT )
+                {
+                    subtreeEnds[parents[p]] = Math.max( subtreeEnds[parents[p]], subtreeEnds[p] );
+                }
+            }
+
+            return new OrganisationUnitHierarchyIndex( version, Collections.unmodifiableMap( positions ),
+                positionUids, parents, levels, subtreeEnds );
+        }
+
+        private static void reverse( int[] array, int from, int to )
+        {
+            for ( int i = from, j = to - 1; i < j; i++, j-- )
+            {
+                int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        }
+    }
+}
@@ -370,8 +370,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserHierarchy(OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param organisationUnit the organisation unit.
      * @return true if the given organisation unit is part of the hierarchy.
@@ -381,8 +380,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserHierarchy(User,OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param user the user to check for.
      * @param organisationUnit the organisation unit.
@@ -416,8 +414,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserDataViewHierarchy(OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param organisationUnit the organisation unit.
      * @return true if the given organisation unit is part of the hierarchy.
@@ -438,8 +435,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserDataViewHierarchy(User,OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param user the user to check for.
      * @param organisationUnit the organisation unit.
@@ -461,8 +457,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserSearchHierarchy(OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param organisationUnit the organisation unit.
      * @return true if the given organisation unit is part of the hierarchy.
@@ -472,8 +467,7 @@ public interface OrganisationUnitService extends OrganisationUnitDataIntegrityPr
     /**
      * Equal to
      * {@link OrganisationUnitService#isInUserSearchHierarchy(User,OrganisationUnit)}
-     * except adds a caching layer on top. Use this method when performance is
-     * imperative and the risk of a stale result is tolerable.
+     * as both are served by the {@link OrganisationUnitHierarchyIndex}.
      *
      * @param user the user to check for.
      * @param organisationUnit the organisation unit.
@@ -155,4 +155,13 @@ public interface OrganisationUnitStore
      * @return the list of org unit uids satisfying the params criteria
      */
     List<String> getOrganisationUnitUids( OrganisationUnitQueryParams params );
+
+    /**
+     * Builds an index of the organisation unit hierarchy based on the paths of
+     * all organisation units.
+     *
+     * @param version the version of the index.
+     * @return the {@link OrganisationUnitHierarchyIndex}.
+     */
+    OrganisationUnitHierarchyIndex getHierarchyIndex( long version );
 }
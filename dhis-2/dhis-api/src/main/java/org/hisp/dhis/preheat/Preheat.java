@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -115,6 +116,12 @@ public class Preheat
      */
     private Map<Class<? extends IdentifiableObject>, Set<Attribute>> attributesByTargetObjectType = new HashMap<>();
 
+    /**
+     * Time in milliseconds spent loading objects, mapped by class type. Loads
+     * can run concurrently, hence the concurrent map.
+     */
+    private final Map<Class<?>, Long> loadTimes = new ConcurrentHashMap<>();
+
     public Preheat()
     {
         for ( PreheatIdentifier identifier : PreheatIdentifier.values() )
@@ -371,6 +378,16 @@ public class Preheat
         return uniquenessMap;
     }
 
+    public Map<Class<?>, Long> getLoadTimes()
+    {
+        return loadTimes;
+    }
+
+    public void addLoadTime( Class<?> klass, long millis )
+    {
+        loadTimes.merge( klass, millis, Long::sum );
+    }
+
     public Map<String, Period> getPeriodMap()
     {
         return periodMap;
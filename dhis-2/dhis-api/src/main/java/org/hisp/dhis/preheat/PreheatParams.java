@@ -70,6 +70,13 @@ public class PreheatParams
      */
     private Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects = new HashMap<>();
 
+    /**
+     * Whether session independent lookups can run concurrently on separate
+     * sessions. These only see committed data, so this must only be enabled
+     * when nothing has been written in the current transaction.
+     */
+    private boolean concurrent;
+
     public PreheatParams()
     {
     }
@@ -127,6 +134,17 @@ public class PreheatParams
         this.objects = objects;
     }
 
+    public boolean isConcurrent()
+    {
+        return concurrent;
+    }
+
+    public PreheatParams setConcurrent( boolean concurrent )
+    {
+        this.concurrent = concurrent;
+        return this;
+    }
+
     @SuppressWarnings( "unchecked" )
     public PreheatParams addObject( IdentifiableObject object )
     {
@@ -149,6 +167,7 @@ public class PreheatParams
             .add( "preheatMode", preheatMode )
             .add( "preheatIdentifier", preheatIdentifier )
             .add( "classes", classes )
+            .add( "concurrent", concurrent )
             .add( "objects", objects )
             .toString();
     }
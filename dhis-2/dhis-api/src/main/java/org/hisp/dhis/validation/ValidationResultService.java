@@ -48,6 +48,16 @@ public interface ValidationResultService
      */
     void saveValidationResults( Collection<ValidationResult> validationResults );
 
+    /**
+     * Inserts a set of ValidationResults in batches through JDBC. This is
+     * faster than {@link #saveValidationResults(Collection)} for large numbers
+     * of results, but the identifiers of the inserted results are not set on
+     * the given objects.
+     *
+     * @param validationResults a collection of validation results.
+     */
+    void insertValidationResults( Collection<ValidationResult> validationResults );
+
     /**
      * Returns a list of all existing ValidationResults.
      *
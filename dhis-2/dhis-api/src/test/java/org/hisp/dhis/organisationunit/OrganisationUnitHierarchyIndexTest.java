@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.organisationunit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrganisationUnitHierarchyIndexTest
+{
+    private OrganisationUnitHierarchyIndex index;
+
+    @BeforeEach
+    void setUp()
+    {
+        // Input deliberately not in hierarchy order
+        index = OrganisationUnitHierarchyIndex.builder()
+            .add( "C", "/A/B/C" )
+            .add( "A", "/A" )
+            .add( "B", "/A/B" )
+            .add( "D", "/A/D" )
+            .add( "E", "/A/B/E" )
+            .add( "F", "/F" )
+            .add( "P", "/Q/P" )
+            .add( "Q", "/P/Q" )
+            .build( 7 );
+    }
+
+    @Test
+    void testSizeAndVersion()
+    {
+        assertEquals( 6, index.size() );
+        assertEquals( 7, index.getVersion() );
+        assertTrue( index.contains( "E" ) );
+        assertFalse( index.contains( "X" ) );
+        assertFalse( index.contains( null ) );
+    }
+
+    @Test
+    void testCyclicReferencesAreLeftOut()
+    {
+        assertFalse( index.contains( "P" ) );
+        assertFalse( index.contains( "Q" ) );
+    }
+
+    @Test
+    void testIsDescendant()
+    {
+        assertTrue( index.isDescendant( "C", "A" ) );
+        assertTrue( index.isDescendant( "C", "B" ) );
+        assertTrue( index.isDescendant( "C", "C" ) );
+        assertFalse( index.isDescendant( "D", "B" ) );
+        assertFalse( index.isDescendant( "A", "C" ) );
+        assertFalse( index.isDescendant( "F", "A" ) );
+        assertFalse( index.isDescendant( "X", "A" ) );
+        assertFalse( index.isDescendant( "A", "X" ) );
+    }
+
+    @Test
+    void testIsDescendantOfAny()
+    {
+        assertTrue( index.isDescendant( "E", List.of( "F", "B" ) ) );
+        assertTrue( index.isDescendant( "F", List.of( "F", "B" ) ) );
+        assertFalse( index.isDescendant( "D", List.of( "F", "B" ) ) );
+        assertFalse( index.isDescendant( "D", List.of() ) );
+    }
+
+    @Test
+    void testGetParentAndLevel()
+    {
+        assertEquals( "B", index.getParent( "E" ) );
+        assertEquals( "A", index.getParent( "D" ) );
+        assertNull( index.getParent( "A" ) );
+        assertNull( index.getParent( "X" ) );
+        assertEquals( 1, index.getLevel( "A" ) );
+        assertEquals( 2, index.getLevel( "B" ) );
+        assertEquals( 3, index.getLevel( "C" ) );
+        assertEquals( 0, index.getLevel( "X" ) );
+    }
+
+    @Test
+    void testGetSubtree()
+    {
+        assertEquals( List.of( "A", "B", "C", "E", "D" ), index.getSubtree( "A" ) );
+        assertEquals( List.of( "B", "C", "E" ), index.getSubtree( "B" ) );
+        assertEquals( List.of( "F" ), index.getSubtree( "F" ) );
+        assertEquals( List.of(), index.getSubtree( "X" ) );
+        assertEquals( 5, index.getSubtreeSize( "A" ) );
+        assertEquals( 0, index.getSubtreeSize( "X" ) );
+    }
+
+    @Test
+    void testGetSubtreeAtLevel()
+    {
+        assertEquals( List.of( "B", "D" ), index.getSubtreeAtLevel( "A", 2 ) );
+        assertEquals( List.of( "C", "E" ), index.getSubtreeAtLevel( "A", 3 ) );
+        assertEquals( List.of(), index.getSubtreeAtLevel( "B", 1 ) );
+    }
+
+    @Test
+    void testEmpty()
+    {
+        OrganisationUnitHierarchyIndex empty = OrganisationUnitHierarchyIndex.empty( 1 );
+
+        assertEquals( 0, empty.size() );
+        assertFalse( empty.isDescendant( "A", "A" ) );
+    }
+}
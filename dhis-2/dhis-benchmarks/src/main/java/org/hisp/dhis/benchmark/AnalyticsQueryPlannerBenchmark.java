@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.benchmark;
+
+import static org.hisp.dhis.DhisConvenienceTest.createDataElement;
+import static org.hisp.dhis.DhisConvenienceTest.createOrganisationUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryGroups;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.Partitions;
+import org.hisp.dhis.analytics.QueryPlanner;
+import org.hisp.dhis.analytics.QueryPlannerParams;
+import org.hisp.dhis.analytics.data.DefaultQueryPlanner;
+import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.QuarterlyPeriodType;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link DataQueryParams#getKey()}, which is computed for every
+ * analytics request as cache key, and planning of an aggregate analytics query
+ * by the {@link DefaultQueryPlanner}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class AnalyticsQueryPlannerBenchmark
+{
+    private DataQueryParams params;
+
+    private QueryPlannerParams plannerParams;
+
+    private QueryPlanner queryPlanner;
+
+    @Setup
+    public void setUp()
+    {
+        List<DimensionalItemObject> dataElements = new ArrayList<>();
+
+        for ( char c = 'A'; c <= 'Z'; c++ )
+        {
+            dataElements.add( createDataElement( c, new CategoryCombo() ) );
+        }
+
+        List<DimensionalItemObject> periods = new ArrayList<>();
+
+        for ( int month = 1; month <= 12; month++ )
+        {
+            periods.add( new MonthlyPeriodType().createPeriod( new DateTime( 2021, month, 1, 0, 0 ).toDate() ) );
+        }
+
+        for ( int month = 1; month <= 12; month += 3 )
+        {
+            periods.add( new QuarterlyPeriodType().createPeriod( new DateTime( 2022, month, 1, 0, 0 ).toDate() ) );
+        }
+
+        OrganisationUnit root = createOrganisationUnit( 'R' );
+        root.setPath( "/" + root.getUid() );
+
+        List<DimensionalItemObject> organisationUnits = new ArrayList<>();
+        organisationUnits.add( root );
+
+        for ( char c = 'A'; c <= 'J'; c++ )
+        {
+            OrganisationUnit organisationUnit = createOrganisationUnit( c, root );
+            organisationUnit.setPath( root.getPath() + "/" + organisationUnit.getUid() );
+            organisationUnits.add( organisationUnit );
+        }
+
+        params = DataQueryParams.newBuilder()
+            .withDataElements( dataElements )
+            .withPeriods( periods )
+            .withOrganisationUnits( organisationUnits )
+            .build();
+
+        plannerParams = QueryPlannerParams.newBuilder()
+            .withTableType( AnalyticsTableType.DATA_VALUE )
+            .build();
+
+        queryPlanner = new DefaultQueryPlanner( new AllPartitionsExistPartitionManager() );
+    }
+
+    @Benchmark
+    public String getKey()
+    {
+        return params.getKey();
+    }
+
+    @Benchmark
+    public DataQueryGroups planQuery()
+    {
+        return queryPlanner.planQuery( params, plannerParams );
+    }
+
+    /**
+     * Partition manager which considers all partitions to exist, so that query
+     * planning does not need a database.
+     */
+    private static class AllPartitionsExistPartitionManager
+        implements PartitionManager
+    {
+        @Override
+        public Set<String> getAnalyticsPartitions( AnalyticsTableType tableType )
+        {
+            return Set.of();
+        }
+
+        @Override
+        public boolean tableExists( String table )
+        {
+            return true;
+        }
+
+        @Override
+        public void filterNonExistingPartitions( Partitions partitions, String tableName )
+        {
+        }
+
+        @Override
+        public void handleApplicationCachesCleared( ApplicationCacheClearedEvent event )
+        {
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CappedLocalCache;
+import org.hisp.dhis.cache.GenericSizeof;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks concurrent reads and writes of a {@link CappedLocalCache} region,
+ * including the size estimation done for every written entry.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Threads( 4 )
+@Fork( 1 )
+public class CappedLocalCacheBenchmark
+{
+    @Param( { "10000" } )
+    public int keys;
+
+    private Cache<String> region;
+
+    @Setup
+    public void setUp()
+    {
+        CappedLocalCache cache = new CappedLocalCache( new GenericSizeof( 20L, obj -> obj ), 10 );
+
+        region = cache.createRegion( new SimpleCacheBuilder<String>()
+            .forRegion( "benchmark" )
+            .expireAfterWrite( 1, TimeUnit.HOURS )
+            .forceInMemory() );
+
+        for ( int i = 0; i < keys; i++ )
+        {
+            region.put( "key" + i, "value" + i );
+        }
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return region.get( "key" + ThreadLocalRandom.current().nextInt( keys ) );
+    }
+
+    @Benchmark
+    public Object getWithFetcher()
+    {
+        return region.get( "key" + ThreadLocalRandom.current().nextInt( keys * 2 ), key -> "fetched" + key );
+    }
+
+    @Benchmark
+    public void put()
+    {
+        int i = ThreadLocalRandom.current().nextInt( keys );
+        region.put( "key" + i, "value" + i );
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.benchmark;
+
+import static org.hisp.dhis.DhisConvenienceTest.createUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.analytics.AggregationType;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.category.CategoryService;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementDomain;
+import org.hisp.dhis.fieldfiltering.FieldFilterParams;
+import org.hisp.dhis.fieldfiltering.FieldFilterService;
+import org.hisp.dhis.node.types.CollectionNode;
+import org.hisp.dhis.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Benchmarks field filtering of metadata objects with the Jackson based
+ * {@link FieldFilterService} and the node based field filter service, which
+ * render the metadata API responses.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class FieldFilterBenchmark
+{
+    @Param( { "id,name,code", "id,displayName,valueType,categoryCombo[id,name]", "*" } )
+    public String fields;
+
+    @Param( { "1000" } )
+    public int objects;
+
+    private ConfigurableApplicationContext context;
+
+    private FieldFilterService fieldFilterService;
+
+    private org.hisp.dhis.fieldfilter.FieldFilterService nodeFieldFilterService;
+
+    private List<DataElement> dataElements;
+
+    private User user;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        context = H2ApplicationContext.start();
+
+        fieldFilterService = context.getBean( FieldFilterService.class );
+        nodeFieldFilterService = context.getBean( org.hisp.dhis.fieldfilter.FieldFilterService.class );
+
+        CategoryCombo categoryCombo = context.getBean( CategoryService.class ).getDefaultCategoryCombo();
+
+        dataElements = new ArrayList<>( objects );
+
+        for ( int i = 0; i < objects; i++ )
+        {
+            DataElement dataElement = new DataElement( "DataElement" + i );
+            dataElement.setAutoFields();
+            dataElement.setShortName( "DataElementShort" + i );
+            dataElement.setCode( "DataElementCode" + i );
+            dataElement.setValueType( ValueType.INTEGER );
+            dataElement.setDomainType( DataElementDomain.AGGREGATE );
+            dataElement.setAggregationType( AggregationType.SUM );
+            dataElement.setCategoryCombo( categoryCombo );
+            dataElements.add( dataElement );
+        }
+
+        user = createUser( 'A', List.of( "ALL" ) );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ObjectNode> fieldFilter()
+    {
+        return fieldFilterService.toObjectNodes( FieldFilterParams.<DataElement> builder()
+            .objects( dataElements )
+            .filters( Set.of( fields ) )
+            .user( user )
+            .build() );
+    }
+
+    @Benchmark
+    public CollectionNode nodeFieldFilter()
+    {
+        return nodeFieldFilterService.toCollectionNode( DataElement.class,
+            new org.hisp.dhis.fieldfilter.FieldFilterParams( dataElements, List.of( fields ) ).setUser( user ) );
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.system.grid.ColumnarGrid;
+import org.hisp.dhis.system.grid.ListGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building, sorting, limiting and cloning of {@link ListGrid},
+ * which is the response model of analytics queries, and copying of the
+ * {@link ColumnarGrid} the analytics cache stores grids as.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ListGridBenchmark
+{
+    @Param( { "1000", "100000" } )
+    public int rows;
+
+    private Grid grid;
+
+    private ColumnarGrid columnarGrid;
+
+    @Setup( Level.Invocation )
+    public void setUp()
+    {
+        grid = buildGrid();
+        columnarGrid = ColumnarGrid.of( grid );
+    }
+
+    @Benchmark
+    public Grid build()
+    {
+        return buildGrid();
+    }
+
+    @Benchmark
+    public Grid sort()
+    {
+        return grid.sortGrid( 4, 1 );
+    }
+
+    @Benchmark
+    public Grid limit()
+    {
+        return grid.limitGrid( rows / 4, rows / 2 );
+    }
+
+    @Benchmark
+    public Grid copy()
+    {
+        return SerializationUtils.clone( grid );
+    }
+
+    @Benchmark
+    public Grid columnarCopy()
+    {
+        return columnarGrid.copy();
+    }
+
+    @Benchmark
+    public Grid columnarCopyAndSort()
+    {
+        return columnarGrid.copy().sortGrid( 4, 1 );
+    }
+
+    private Grid buildGrid()
+    {
+        Grid listGrid = new ListGrid();
+        listGrid.addHeader( new GridHeader( "dx", "Data", ValueType.TEXT, false, true ) );
+        listGrid.addHeader( new GridHeader( "pe", "Period", ValueType.TEXT, false, true ) );
+        listGrid.addHeader( new GridHeader( "ou", "Organisation unit", ValueType.TEXT, false, true ) );
+        listGrid.addHeader( new GridHeader( "co", "Category option combo", ValueType.TEXT, false, true ) );
+        listGrid.addHeader( new GridHeader( "value", "Value", ValueType.NUMBER, false, false ) );
+
+        for ( int i = 0; i < rows; i++ )
+        {
+            listGrid.addRow()
+                .addValue( "DataElmnt" + (i % 50) )
+                .addValue( "2022" + String.format( "%02d", i % 12 + 1 ) )
+                .addValue( "OrgUnit" + (i % 1000) )
+                .addValue( "CatOptCmb" + (i % 5) )
+                .addValue( (double) ((i * 7919) % 10007) );
+        }
+
+        return listGrid;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.hisp.dhis.dxf2.common.ImportOptions;
+import org.hisp.dhis.dxf2.datavalue.DataValue;
+import org.hisp.dhis.system.util.CsvUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks the JSON and CSV {@link DataValueSetReader} and
+ * {@link DataValueSetWriter} implementations used by data value set imports
+ * and exports. Lives in the package of the readers and writers as these are
+ * package private.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DataValueSetBenchmark
+{
+    @Param( { "10000" } )
+    public int values;
+
+    private final ObjectMapper jsonMapper = JacksonObjectMapperConfig.staticJsonMapper();
+
+    private List<DataValue> dataValues;
+
+    private byte[] json;
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp()
+    {
+        dataValues = new ArrayList<>( values );
+
+        for ( int i = 0; i < values; i++ )
+        {
+            DataValue dataValue = new DataValue();
+            dataValue.setDataElement( String.format( "DataElmt%03d", i % 100 ) );
+            dataValue.setPeriod( "2022" + String.format( "%02d", i % 12 + 1 ) );
+            dataValue.setOrgUnit( String.format( "OrgUnit%04d", i % 1000 ) );
+            dataValue.setCategoryOptionCombo( "CatOptCombo" );
+            dataValue.setAttributeOptionCombo( "AttOptCombo" );
+            dataValue.setValue( String.valueOf( i ) );
+            dataValue.setStoredBy( "admin" );
+            dataValue.setLastUpdated( "2022-01-01T00:00:00.000" );
+            dataValue.setComment( "Comment " + i );
+            dataValues.add( dataValue );
+        }
+
+        json = writeJson();
+        csv = writeCsv();
+    }
+
+    @Benchmark
+    public byte[] writeJson()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
+        {
+            writeValues( writer );
+        }
+
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeCsv()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new CsvDataValueSetWriter(
+            CsvUtils.getWriter( new OutputStreamWriter( out, StandardCharsets.UTF_8 ) ) ) )
+        {
+            writeValues( writer );
+        }
+
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public void readJson( Blackhole blackhole )
+    {
+        try ( DataValueSetReader reader = new JsonDataValueSetReader( new ByteArrayInputStream( json ),
+            jsonMapper ) )
+        {
+            reader.readHeader().getDataValues().forEach( blackhole::consume );
+        }
+    }
+
+    @Benchmark
+    public void readCsv( Blackhole blackhole )
+    {
+        try ( DataValueSetReader reader = new CsvDataValueSetReader(
+            CsvUtils.getReader( new ByteArrayInputStream( csv ) ), new ImportOptions() ) )
+        {
+            reader.readHeader();
+
+            for ( DataValueEntry entry = reader.readNext(); entry != null; entry = reader.readNext() )
+            {
+                blackhole.consume( entry.getDataElement() );
+                blackhole.consume( entry.getValue() );
+            }
+        }
+    }
+
+    private void writeValues( DataValueSetWriter writer )
+    {
+        writer.writeHeader();
+
+        for ( DataValue dataValue : dataValues )
+        {
+            writer.writeValue( dataValue );
+        }
+    }
+}
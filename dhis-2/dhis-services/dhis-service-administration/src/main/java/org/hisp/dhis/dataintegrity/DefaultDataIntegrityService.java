@@ -27,7 +27,6 @@
  */
 package org.hisp.dhis.dataintegrity;
 
-import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.stream.Collectors.groupingBy;
@@ -53,8 +52,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -81,6 +89,8 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expression.ExpressionValidationOutcome;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.indicator.Indicator;
@@ -105,7 +115,13 @@ import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.validation.ValidationRule;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Lars Helge Overland
@@ -153,10 +169,26 @@ public class DefaultDataIntegrityService
 
     private final DataIntegrityStore dataIntegrityStore;
 
+    private final DhisConfigurationProvider config;
+
+    private final PlatformTransactionManager transactionManager;
+
     private Cache<DataIntegritySummary> summaryCache;
 
     private Cache<DataIntegrityDetails> detailsCache;
 
+    /**
+     * Futures of callers awaiting a summary which is not yet cached, by check
+     * name, completed when the summary is published.
+     */
+    private final Map<String, CompletableFuture<DataIntegritySummary>> pendingSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * Futures of callers awaiting details which are not yet cached, by check
+     * name, completed when the details are published.
+     */
+    private final Map<String, CompletableFuture<DataIntegrityDetails>> pendingDetails = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init()
     {
@@ -810,10 +842,12 @@ public class DefaultDataIntegrityService
         return unmodifiableCollection( checksByName.values() );
     }
 
+    // OBS! No transaction so that awaiting results does not hold a connection
     @Override
+    @Transactional( propagation = Propagation.NOT_SUPPORTED )
     public Map<String, DataIntegritySummary> getSummaries( Set<String> checks, long timeout )
     {
-        return getCached( checks, timeout, summaryCache );
+        return getCached( checks, timeout, summaryCache, pendingSummaries );
     }
 
     // OBS! We intentionally do not open the transaction here to have each check
@@ -822,14 +856,15 @@ public class DefaultDataIntegrityService
     public void runSummaryChecks( Set<String> checks, JobProgress progress )
     {
         runDataIntegrityChecks( "Data Integrity summary checks", expandChecks( checks ), progress, summaryCache,
-            check -> check.getRunSummaryCheck().apply( check ),
+            pendingSummaries, check -> check.getRunSummaryCheck().apply( check ),
             ( check, ex ) -> new DataIntegritySummary( check, new Date(), ex.getMessage(), -1, null ) );
     }
 
     @Override
+    @Transactional( propagation = Propagation.NOT_SUPPORTED )
     public Map<String, DataIntegrityDetails> getDetails( Set<String> checks, long timeout )
     {
-        return getCached( checks, timeout, detailsCache );
+        return getCached( checks, timeout, detailsCache, pendingDetails );
     }
 
     // OBS! We intentionally do not open the transaction here to have each check
@@ -838,70 +873,179 @@ public class DefaultDataIntegrityService
     public void runDetailsChecks( Set<String> checks, JobProgress progress )
     {
         runDataIntegrityChecks( "Data Integrity details checks", expandChecks( checks ), progress, detailsCache,
-            check -> check.getRunDetailsCheck().apply( check ),
+            pendingDetails, check -> check.getRunDetailsCheck().apply( check ),
             ( check, ex ) -> new DataIntegrityDetails( check, new Date(), ex.getMessage(), List.of() ) );
     }
 
-    private <T> Map<String, T> getCached( Set<String> checks, long timeout, Cache<T> cache )
+    /**
+     * Returns the cached results of the given checks. Results which are not
+     * cached yet are awaited until they are published by a running or later
+     * started check run, or until the timeout has passed. A negative timeout
+     * waits indefinitely, a timeout of 0 does not wait.
+     */
+    private <T> Map<String, T> getCached( Set<String> checks, long timeout, Cache<T> cache,
+        Map<String, CompletableFuture<T>> pending )
     {
         Set<String> names = expandChecks( checks );
-        long giveUpTime = currentTimeMillis() + timeout;
+        Map<String, CompletableFuture<T>> awaited = new LinkedHashMap<>();
+        for ( String name : names )
+        {
+            if ( cache.get( name ).isEmpty() && timeout != 0 && checksByName.containsKey( name ) )
+            {
+                CompletableFuture<T> result = pending.computeIfAbsent( name, key -> new CompletableFuture<>() );
+                // published between the lookup and registering the future
+                cache.get( name ).ifPresent( result::complete );
+                awaited.put( name, result );
+            }
+        }
+        if ( !awaited.isEmpty() )
+        {
+            await( CompletableFuture.allOf( awaited.values().toArray( new CompletableFuture[0] ) ), timeout );
+        }
         Map<String, T> resByName = new LinkedHashMap<>();
-        boolean retry = false;
-        do
+        for ( String name : names )
         {
-            if ( retry )
+            CompletableFuture<T> result = awaited.get( name );
+            if ( result != null && result.isDone() )
             {
-                try
-                {
-                    Thread.sleep( Math.max( 10, Math.min( 50, (giveUpTime - currentTimeMillis()) / 2 ) ) );
-                }
-                catch ( InterruptedException ex )
-                {
-                    Thread.currentThread().interrupt();
-                    return resByName;
-                }
+                pending.remove( name, result );
+                resByName.put( name, result.join() );
             }
-            for ( String name : names )
+            else
             {
-                if ( !resByName.containsKey( name ) )
-                {
-                    cache.get( name ).ifPresent( res -> resByName.put( name, res ) );
-                }
+                cache.get( name ).ifPresent( res -> resByName.put( name, res ) );
             }
-            retry = resByName.size() < names.size() && (timeout < 0 || currentTimeMillis() < giveUpTime);
         }
-        while ( retry );
         return resByName;
     }
 
+    private static void await( Future<?> future, long timeout )
+    {
+        try
+        {
+            if ( timeout < 0 )
+            {
+                future.get();
+            }
+            else
+            {
+                future.get( timeout, TimeUnit.MILLISECONDS );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException | TimeoutException ex )
+        {
+            // return the results which are available
+        }
+    }
+
+    /**
+     * Runs the given checks concurrently on a bounded pool, each in its own
+     * read-only transaction. Each result is published to the cache and to the
+     * callers awaiting it as soon as the check completes.
+     */
     private <T> void runDataIntegrityChecks( String stageDesc, Set<String> checks, JobProgress progress,
-        Cache<T> cache, Function<DataIntegrityCheck, T> runCheck,
+        Cache<T> cache, Map<String, CompletableFuture<T>> pending, Function<DataIntegrityCheck, T> runCheck,
         BiFunction<DataIntegrityCheck, RuntimeException, T> createErrorReport )
     {
+        List<DataIntegrityCheck> toRun = checks.stream().map( checksByName::get ).filter( Objects::nonNull )
+            .collect( toList() );
+
         progress.startingProcess( "Data Integrity check" );
-        progress.startingStage( stageDesc, checks.size() );
-        progress.runStage( checks.stream().map( checksByName::get ).filter( Objects::nonNull ),
-            DataIntegrityCheck::getDescription,
-            check -> {
-                T res = null;
-                try
-                {
-                    res = runCheck.apply( check );
-                }
-                catch ( RuntimeException ex )
-                {
-                    cache.put( check.getName(), createErrorReport.apply( check, ex ) );
-                    throw ex;
-                }
-                if ( res != null )
-                {
-                    cache.put( check.getName(), res );
-                }
-            } );
+        progress.startingStage( stageDesc, toRun.size() );
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+        transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+        transactionTemplate.setReadOnly( true );
+
+        int parallelism = Integer.parseInt( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_PARALLELISM ) );
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, Math.min( parallelism, toRun.size() ) ),
+            new ThreadFactoryBuilder().setNameFormat( "data-integrity-%d" ).setDaemon( true ).build() );
+
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for ( DataIntegrityCheck check : toRun )
+            {
+                futures.add( executor.submit( () -> {
+                    if ( progress.isCancellationRequested() )
+                    {
+                        return;
+                    }
+                    progress.startingWorkItem( check.getDescription() );
+                    T res;
+                    try
+                    {
+                        res = transactionTemplate.execute( status -> runCheck.apply( check ) );
+                    }
+                    catch ( RuntimeException ex )
+                    {
+                        failed.incrementAndGet();
+                        publish( check.getName(), createErrorReport.apply( check, ex ), cache, pending );
+                        progress.failedWorkItem( ex );
+                        return;
+                    }
+                    if ( res != null )
+                    {
+                        publish( check.getName(), res, cache, pending );
+                    }
+                    progress.completedWorkItem( null );
+                } ) );
+            }
+
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            futures.forEach( future -> future.cancel( true ) );
+            throw new RuntimeException( "Interrupted while running data integrity checks", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            futures.forEach( future -> future.cancel( true ) );
+
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new RuntimeException( "Error while running data integrity checks", ex );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if ( progress.isCancellationRequested() )
+        {
+            progress.failedStage( new CancellationException( "cancelled data integrity checks" ) );
+        }
+        else
+        {
+            progress.completedStage( failed.get() == 0 ? null : failed.get() + " checks failed" );
+        }
         progress.completedProcess( null );
     }
 
+    private static <T> void publish( String name, T res, Cache<T> cache, Map<String, CompletableFuture<T>> pending )
+    {
+        cache.put( name, res );
+        CompletableFuture<T> result = pending.remove( name );
+        if ( result != null )
+        {
+            result.complete( res );
+        }
+    }
+
     private Set<String> expandChecks( Set<String> names )
     {
         ensureConfigurationsAreLoaded();
@@ -35,11 +35,14 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
 import org.hisp.dhis.dataintegrity.DataIntegrityCheck;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataintegrity.DataIntegrityStore;
 import org.hisp.dhis.dataintegrity.DataIntegritySummary;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,12 +58,13 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore
 {
     private final SessionFactory sessionFactory;
 
+    private final DhisConfigurationProvider config;
+
     @Override
     @Transactional( readOnly = true )
     public DataIntegritySummary querySummary( DataIntegrityCheck check, String sql )
     {
-        Object summary = sessionFactory.getCurrentSession()
-            .createNativeQuery( sql ).getSingleResult();
+        Object summary = createQuery( sql ).getSingleResult();
         return new DataIntegritySummary( check, new Date(), null, parseCount( summary ),
             parsePercentage( summary ) );
     }
@@ -70,14 +74,32 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore
     public DataIntegrityDetails queryDetails( DataIntegrityCheck check, String sql )
     {
         @SuppressWarnings( "unchecked" )
-        List<Object[]> rows = sessionFactory.getCurrentSession().createNativeQuery( sql )
-            .getResultList();
+        List<Object[]> rows = createQuery( sql ).getResultList();
         return new DataIntegrityDetails( check, new Date(), null, rows.stream()
             .map( row -> new DataIntegrityIssue(
                 getIndex( row, 0 ), getIndex( row, 1 ), getIndex( row, 2 ), getRefs( row, 3 ) ) )
             .collect( toUnmodifiableList() ) );
     }
 
+    /**
+     * Creates a native query which is cancelled by the database when it runs
+     * longer than the configured data integrity check timeout.
+     */
+    @SuppressWarnings( "rawtypes" )
+    private NativeQuery createQuery( String sql )
+    {
+        NativeQuery query = sessionFactory.getCurrentSession().createNativeQuery( sql );
+
+        int timeout = Integer.parseInt( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT ) );
+
+        if ( timeout > 0 )
+        {
+            query.setTimeout( timeout );
+        }
+
+        return query;
+    }
+
     private static String getIndex( Object[] row, int index )
     {
         return row.length <= index ? null : (String) row[index];
@@ -29,6 +29,9 @@ package org.hisp.dhis.resourcetable.jdbc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +45,9 @@ import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
 import org.hisp.dhis.system.util.Clock;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -113,7 +119,7 @@ public class JdbcResourceTableStore
         jdbcTemplate.execute( createTableSql );
 
         // ---------------------------------------------------------------------
-        // Populate temporary table through SQL or object batch update
+        // Populate temporary table through SQL, or object COPY or batch update
         // ---------------------------------------------------------------------
 
         if ( populateTableSql.isPresent() )
@@ -132,7 +138,10 @@ public class JdbcResourceTableStore
             {
                 int columns = content.get( 0 ).length;
 
-                batchUpdate( columns, resourceTable.getTempTableName(), content );
+                if ( !copy( resourceTable.getTempTableName(), content ) )
+                {
+                    batchUpdate( columns, resourceTable.getTempTableName(), content );
+                }
             }
         }
 
@@ -211,4 +220,90 @@ public class JdbcResourceTableStore
 
         jdbcTemplate.batchUpdate( builder.toString(), batchArgs );
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Streams the given rows into the given table with the PostgreSQL
+     * {@code COPY ... FROM STDIN} protocol on the connection of the current
+     * transaction, so that the rows are visible to the remaining statements
+     * of the resource table generation.
+     *
+     * @param tableName the table name.
+     * @param content the rows.
+     * @return true if the rows were copied, false if the database does not
+     *         support COPY.
+     */
+    private boolean copy( String tableName, List<Object[]> content )
+    {
+        return jdbcTemplate.execute( (ConnectionCallback<Boolean>) connection -> {
+            if ( !connection.isWrapperFor( PGConnection.class ) )
+            {
+                return false;
+            }
+
+            CopyIn copyIn = connection.unwrap( PGConnection.class ).getCopyAPI()
+                .copyIn( "copy " + tableName + " from stdin (format csv)" );
+
+            try
+            {
+                StringBuilder row = new StringBuilder();
+
+                for ( Object[] values : content )
+                {
+                    row.setLength( 0 );
+                    appendRow( row, values );
+
+                    byte[] bytes = row.toString().getBytes( StandardCharsets.UTF_8 );
+                    copyIn.writeToCopy( bytes, 0, bytes.length );
+                }
+
+                copyIn.endCopy();
+            }
+            finally
+            {
+                if ( copyIn.isActive() )
+                {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            return true;
+        } );
+    }
+
+    /**
+     * Appends the given values as a CSV row. Null values are written as empty
+     * unquoted fields, which is null in the COPY CSV format, while strings are
+     * always quoted so that empty strings are preserved.
+     */
+    static void appendRow( StringBuilder row, Object[] values )
+    {
+        for ( int i = 0; i < values.length; i++ )
+        {
+            Object value = values[i];
+
+            if ( i > 0 )
+            {
+                row.append( ',' );
+            }
+
+            if ( value instanceof String )
+            {
+                row.append( '"' ).append( ((String) value).replace( "\"", "\"\"" ) ).append( '"' );
+            }
+            else if ( value instanceof Date && !(value instanceof java.sql.Date) )
+            {
+                row.append( new Timestamp( ((Date) value).getTime() ) );
+            }
+            else if ( value != null )
+            {
+                row.append( value );
+            }
+        }
+
+        row.append( '\n' );
+    }
 }
@@ -57,12 +57,15 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.hisp.dhis.antlr.ParserException;
 import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.TestCache;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
@@ -72,6 +75,8 @@ import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.indicator.Indicator;
 import org.hisp.dhis.indicator.IndicatorGroup;
@@ -95,12 +100,14 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.random.BeanRandomizer;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * @author Lars Helge Overland
@@ -217,7 +224,8 @@ class DataIntegrityServiceTest
             programRuleVariableService, dataElementService, indicatorService, dataSetService,
             organisationUnitService, organisationUnitGroupService, validationRuleService, expressionService,
             dataEntryFormService, categoryService, periodService, programIndicatorService,
-            mock( CacheProvider.class ), mock( DataIntegrityStore.class ) );
+            mock( CacheProvider.class ), mock( DataIntegrityStore.class ), mock( DhisConfigurationProvider.class ),
+            mock( PlatformTransactionManager.class ) );
         setUpFixtures();
     }
 
@@ -564,6 +572,58 @@ class DataIntegrityServiceTest
         assertTrue( issues.isEmpty() );
     }
 
+    @Test
+    void testRunSummaryChecks()
+    {
+        DefaultDataIntegrityService service = createRunnableService();
+        String withoutDataSets = DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_DATA_SETS.getName();
+        String withoutGroups = DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName();
+        when( dataElementService.getDataElementsWithoutDataSets() ).thenReturn( List.of( elementA ) );
+        when( dataElementService.getDataElementsWithoutGroups() ).thenReturn( List.of( elementA, elementB ) );
+
+        service.runSummaryChecks( Set.of( withoutDataSets, withoutGroups ), NoopJobProgress.INSTANCE );
+
+        Map<String, DataIntegritySummary> summaries = service.getSummaries( Set.of( withoutDataSets, withoutGroups ),
+            0L );
+        assertEquals( 2, summaries.size() );
+        assertEquals( 1, summaries.get( withoutDataSets ).getCount() );
+        assertEquals( 2, summaries.get( withoutGroups ).getCount() );
+    }
+
+    @Test
+    void testGetSummariesAwaitsRunningChecks()
+    {
+        DefaultDataIntegrityService service = createRunnableService();
+        String withoutGroups = DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName();
+        when( dataElementService.getDataElementsWithoutGroups() ).thenReturn( List.of( elementA ) );
+
+        CompletableFuture<Map<String, DataIntegritySummary>> summaries = CompletableFuture
+            .supplyAsync( () -> service.getSummaries( Set.of( withoutGroups ), 10_000L ) );
+
+        service.runSummaryChecks( Set.of( withoutGroups ), NoopJobProgress.INSTANCE );
+
+        assertEquals( 1, summaries.join().get( withoutGroups ).getCount() );
+    }
+
+    private DefaultDataIntegrityService createRunnableService()
+    {
+        CacheProvider cacheProvider = mock( CacheProvider.class );
+        when( cacheProvider.<DataIntegritySummary> createDataIntegritySummaryCache() )
+            .thenReturn( new TestCache<>() );
+        when( cacheProvider.<DataIntegrityDetails> createDataIntegrityDetailsCache() )
+            .thenReturn( new TestCache<>() );
+        DhisConfigurationProvider config = mock( DhisConfigurationProvider.class );
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_PARALLELISM ) ).thenReturn( "2" );
+        DefaultDataIntegrityService service = new DefaultDataIntegrityService( i18nManager, programRuleService,
+            programRuleActionService, programRuleVariableService, dataElementService, indicatorService,
+            dataSetService, organisationUnitService, organisationUnitGroupService, validationRuleService,
+            expressionService, dataEntryFormService, categoryService, periodService, programIndicatorService,
+            cacheProvider, mock( DataIntegrityStore.class ), config, mock( PlatformTransactionManager.class ) );
+        service.init();
+        service.initIntegrityChecks();
+        return service;
+    }
+
     private Map<String, DataElement> createRandomDataElements( int quantity, String uidSeed )
     {
 
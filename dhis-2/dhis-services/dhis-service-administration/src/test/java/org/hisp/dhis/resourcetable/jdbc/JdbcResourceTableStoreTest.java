@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.resourcetable.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.GregorianCalendar;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CSV rows written by {@link JdbcResourceTableStore} for the
+ * PostgreSQL {@code COPY ... (format csv)} protocol.
+ */
+class JdbcResourceTableStoreTest
+{
+    @Test
+    void appendRowWritesNullAsEmptyUnquotedField()
+    {
+        assertEquals( "1,,3\n", toRow( 1, null, 3 ) );
+        assertEquals( ",\n", toRow( null, null ) );
+    }
+
+    @Test
+    void appendRowQuotesEmptyString()
+    {
+        assertEquals( "1,\"\",3\n", toRow( 1, "", 3 ) );
+    }
+
+    @Test
+    void appendRowEscapesQuotes()
+    {
+        assertEquals( "\"say \"\"hi\"\"\"\n", toRow( "say \"hi\"" ) );
+    }
+
+    @Test
+    void appendRowKeepsSeparatorsAndNewlinesWithinQuotes()
+    {
+        assertEquals( "\"a,b\",\"line1\nline2\",\"cr\r\"\n", toRow( "a,b", "line1\nline2", "cr\r" ) );
+    }
+
+    @Test
+    void appendRowWritesNumbersAndBooleansUnquoted()
+    {
+        assertEquals( "42,7,1.5,true\n", toRow( 42, 7L, 1.5d, true ) );
+    }
+
+    @Test
+    void appendRowFormatsDates()
+    {
+        assertEquals( "2021-01-15 10:30:05.0\n",
+            toRow( new GregorianCalendar( 2021, 0, 15, 10, 30, 5 ).getTime() ) );
+        assertEquals( "2021-01-15\n", toRow( java.sql.Date.valueOf( "2021-01-15" ) ) );
+    }
+
+    private static String toRow( Object... values )
+    {
+        StringBuilder row = new StringBuilder();
+        JdbcResourceTableStore.appendRow( row, values );
+        return row.toString();
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Map;
 
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 
 /**
@@ -126,6 +127,16 @@ public interface AnalyticsService
      */
     Grid getRawDataValues( DataQueryParams params );
 
+    /**
+     * Writes raw data values for the given query to the given grid writer.
+     * Rows are written as they are read from the database, which makes this
+     * suitable for large exports. Meta data is not included.
+     *
+     * @param params the data query parameters.
+     * @param writer the grid writer.
+     */
+    void getRawDataValues( DataQueryParams params, GridWriter writer );
+
     /**
      * Generates a data value set for the given query. The query must contain a
      * data, period and organisation unit dimension.
@@ -90,6 +90,39 @@ public interface AnalyticsTableManager
         // NOOP by default
     }
 
+    /**
+     * Indicates whether this table manager supports incremental updates of the
+     * "latest" partition, where only data changed since the last successful
+     * update is merged into the existing analytics table.
+     */
+    default boolean supportsIncrementalUpdate()
+    {
+        return false;
+    }
+
+    /**
+     * Creates a standalone temporary table for the given "latest" partition,
+     * used to hold the data changed since the last successful update.
+     *
+     * @param partition the analytics table partition.
+     */
+    default void createDeltaTable( AnalyticsTablePartition partition )
+    {
+        // NOOP by default
+    }
+
+    /**
+     * Replaces the rows of the analytics table which were updated or deleted
+     * within the date range of the given "latest" partition with the rows of
+     * the temporary table of the partition.
+     *
+     * @param partition the analytics table partition.
+     */
+    default void mergeDeltaTable( AnalyticsTablePartition partition )
+    {
+        // NOOP by default
+    }
+
     /**
      * Attempts to drop and then create analytics table.
      *
@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.analytics;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.hisp.dhis.common.Grid;
 
 /**
@@ -44,4 +47,13 @@ public interface RawAnalyticsManager
      * @return a grid with data.
      */
     Grid getRawDataValues( DataQueryParams params, Grid grid );
+
+    /**
+     * Passes raw analytics data based on the given query to the given consumer
+     * as rows, one at a time as they are read from the database.
+     *
+     * @param params the query.
+     * @param consumer the consumer of rows.
+     */
+    void getRawDataValues( DataQueryParams params, Consumer<List<Object>> consumer );
 }
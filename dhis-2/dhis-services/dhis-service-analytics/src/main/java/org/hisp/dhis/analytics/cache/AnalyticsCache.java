@@ -40,11 +40,16 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.ColumnarGrid;
 import org.springframework.stereotype.Component;
 
 /**
  * This is a wrapper class responsible for keeping and isolating all cache
  * definitions related to the analytics.
+ *
+ * Grids are cached as {@link ColumnarGrid}, and every grid returned from the
+ * cache is a copy which shares the cached rows until it is modified. Grids
+ * with rows of different lengths are cached as plain clones.
  */
 @Component
 public class AnalyticsCache
@@ -76,7 +81,7 @@ public class AnalyticsCache
 
     public Optional<Grid> get( final String key )
     {
-        return getGridClone( queryCache.get( key ) );
+        return queryCache.get( key ).map( this::getGridCopy );
     }
 
     /**
@@ -99,7 +104,7 @@ public class AnalyticsCache
 
         if ( cachedGrid.isPresent() )
         {
-            return getGridClone( cachedGrid.get() );
+            return cachedGrid.get();
         }
         else
         {
@@ -107,7 +112,7 @@ public class AnalyticsCache
 
             put( params, grid );
 
-            return getGridClone( grid );
+            return grid;
         }
     }
 
@@ -146,7 +151,7 @@ public class AnalyticsCache
      */
     public void put( final String key, final Grid grid, final long ttlInSeconds )
     {
-        queryCache.put( key, getGridClone( grid ), ttlInSeconds );
+        queryCache.put( key, getCacheableGrid( grid ), ttlInSeconds );
     }
 
     /**
@@ -164,18 +169,32 @@ public class AnalyticsCache
         return analyticsCacheSettings.isCachingEnabled();
     }
 
-    private Grid getGridClone( Grid grid )
+    /**
+     * Returns a {@link ColumnarGrid} of the given grid, or a plain clone if the
+     * rows of the grid do not have the same number of cells. Caching never
+     * fails the request.
+     */
+    private Grid getCacheableGrid( Grid grid )
     {
-        if ( grid != null )
+        try
         {
-            return SerializationUtils.clone( grid );
+            return ColumnarGrid.of( grid );
         }
+        catch ( IllegalArgumentException ex )
+        {
+            log.warn( "Caching grid without columnar storage: " + ex.getMessage() );
 
-        return null;
+            return SerializationUtils.clone( grid );
+        }
     }
 
-    private Optional<Grid> getGridClone( Optional<Grid> grid )
+    private Grid getGridCopy( Grid grid )
     {
-        return grid.map( SerializationUtils::clone );
+        if ( grid instanceof ColumnarGrid )
+        {
+            return ((ColumnarGrid) grid).copy();
+        }
+
+        return SerializationUtils.clone( grid );
     }
 }
@@ -27,9 +27,18 @@
  */
 package org.hisp.dhis.analytics.config;
 
+import static org.hisp.dhis.commons.util.SystemUtils.getCpuCores;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_POOL_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_QUEUE_TIMEOUT;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_REQUEST_CONCURRENCY;
+
+import java.util.concurrent.TimeUnit;
+
 import org.hisp.dhis.analytics.AnalyticsTableManager;
+import org.hisp.dhis.analytics.data.AnalyticsQueryExecutor;
 import org.hisp.dhis.analytics.table.DefaultAnalyticsTableService;
 import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -113,4 +122,15 @@ public class ServiceConfig
         return new DefaultAnalyticsTableService( tableManager, organisationUnitService, dataElementService,
             resourceTableService, systemSettingManager );
     }
+
+    @Bean( destroyMethod = "shutdown" )
+    public AnalyticsQueryExecutor analyticsQueryExecutor( DhisConfigurationProvider config )
+    {
+        int poolSize = Integer.parseInt( config.getProperty( ANALYTICS_QUERY_POOL_SIZE ) );
+        int requestConcurrency = Integer.parseInt( config.getProperty( ANALYTICS_QUERY_REQUEST_CONCURRENCY ) );
+        long queueTimeout = Long.parseLong( config.getProperty( ANALYTICS_QUERY_QUEUE_TIMEOUT ) );
+
+        return new AnalyticsQueryExecutor( poolSize > 0 ? poolSize : getCpuCores(),
+            Math.max( 1, requestConcurrency ), TimeUnit.SECONDS.toMillis( queueTimeout ) );
+    }
 }
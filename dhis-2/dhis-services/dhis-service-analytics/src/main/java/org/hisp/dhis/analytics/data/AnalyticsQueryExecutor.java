@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.common.QueryRuntimeException;
+import org.hisp.dhis.feedback.ErrorCode;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executes analytics queries on a dedicated, bounded thread pool. Each call to
+ * {@link #executeAll(String, List)} represents one stage of one analytics
+ * request, and runs at most the configured number of queries concurrently so
+ * that a single request cannot occupy the entire pool. Queries waiting longer
+ * than the queue timeout for a thread fail the request, and the remaining
+ * queries of the request are cancelled.
+ * <p>
+ * The time queries spend waiting in the queue and the time spent executing are
+ * recorded per stage when bound to a {@link MeterRegistry}.
+ */
+@Slf4j
+public class AnalyticsQueryExecutor
+    implements MeterBinder
+{
+    private static final String METRIC_QUEUE_WAIT = "analytics.query.queue.wait";
+
+    private static final String METRIC_EXECUTION = "analytics.query.execution";
+
+    private static final String TAG_STAGE = "stage";
+
+    private final ExecutorService executor;
+
+    private final int requestConcurrency;
+
+    private final long queueTimeoutMillis;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * @param poolSize the number of threads of the pool.
+     * @param requestConcurrency the max number of queries executed
+     *        concurrently per call.
+     * @param queueTimeoutMillis the max time in milliseconds a query can wait
+     *        for a thread.
+     */
+    public AnalyticsQueryExecutor( int poolSize, int requestConcurrency, long queueTimeoutMillis )
+    {
+        checkArgument( poolSize > 0, "Pool size must be greater than zero" );
+        checkArgument( requestConcurrency > 0, "Request concurrency must be greater than zero" );
+
+        this.executor = new ThreadPoolExecutor( poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat( "analytics-query-%d" ).setDaemon( true ).build() );
+        this.requestConcurrency = requestConcurrency;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+
+        log.info( String.format( "Analytics query pool size: %d, request concurrency: %d, queue timeout: %d ms",
+            poolSize, requestConcurrency, queueTimeoutMillis ) );
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Executes the given tasks and returns their results in the order of the
+     * tasks. Blocks until all tasks are complete.
+     *
+     * @param stage the name of the stage the tasks belong to.
+     * @param tasks the tasks to execute.
+     * @return the results of the tasks.
+     * @throws QueryRuntimeException if a task waited longer than the queue
+     *         timeout.
+     */
+    public <T> List<T> executeAll( String stage, List<Callable<T>> tasks )
+    {
+        Semaphore permits = new Semaphore( requestConcurrency );
+
+        List<QueuedTask<T>> queued = new ArrayList<>( tasks.size() );
+
+        try
+        {
+            for ( Callable<T> task : tasks )
+            {
+                while ( !permits.tryAcquire( getRemainingMillis( queued ), TimeUnit.MILLISECONDS ) )
+                {
+                    // Check the queue timeout of the tasks holding permits
+                }
+
+                QueuedTask<T> queuedTask = new QueuedTask<>( System.nanoTime() );
+
+                queuedTask.future = executor.submit( () -> {
+                    try
+                    {
+                        return execute( stage, task, queuedTask );
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                } );
+
+                queued.add( queuedTask );
+            }
+
+            List<T> results = new ArrayList<>( queued.size() );
+
+            for ( QueuedTask<T> queuedTask : queued )
+            {
+                results.add( getResult( queued, queuedTask ) );
+            }
+
+            return results;
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            cancelAll( queued );
+            throw new RuntimeException( "Interrupted while executing analytics queries", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            cancelAll( queued );
+
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new RuntimeException( "Error during execution of aggregation query task", ex );
+        }
+        catch ( QueryRuntimeException ex )
+        {
+            cancelAll( queued );
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits for the result of the given task. Waiting is done in steps bounded
+     * by the remaining queue time of the tasks not yet started, so that a
+     * task stuck in the queue fails the call while another task is running.
+     * Started tasks are awaited until they complete, as the execution time of
+     * queries is bounded by the statement timeout.
+     */
+    private <T> T getResult( List<QueuedTask<T>> queued, QueuedTask<T> queuedTask )
+        throws InterruptedException,
+        ExecutionException
+    {
+        while ( true )
+        {
+            try
+            {
+                return queuedTask.future.get( getRemainingMillis( queued ), TimeUnit.MILLISECONDS );
+            }
+            catch ( TimeoutException ex )
+            {
+                // Check the queue timeout of the tasks not yet started
+            }
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds until the first of the given tasks
+     * which have not yet started reaches the queue timeout, or the queue
+     * timeout if all tasks have started.
+     *
+     * @throws QueryRuntimeException if a task has reached the queue timeout.
+     */
+    private <T> long getRemainingMillis( List<QueuedTask<T>> queued )
+    {
+        long now = System.nanoTime();
+        long remainingMillis = queueTimeoutMillis;
+
+        for ( QueuedTask<T> queuedTask : queued )
+        {
+            if ( !queuedTask.started && !queuedTask.future.isDone() )
+            {
+                long waitedMillis = TimeUnit.NANOSECONDS.toMillis( now - queuedTask.submitted );
+
+                if ( waitedMillis >= queueTimeoutMillis )
+                {
+                    log.warn( String.format( "Analytics query waited %d ms for a thread, queue timeout is %d ms",
+                        waitedMillis, queueTimeoutMillis ) );
+
+                    throw new QueryRuntimeException( ErrorCode.E7135, null );
+                }
+
+                remainingMillis = Math.min( remainingMillis, queueTimeoutMillis - waitedMillis );
+            }
+        }
+
+        return remainingMillis;
+    }
+
+    private <T> T execute( String stage, Callable<T> task, QueuedTask<T> queuedTask )
+        throws Exception
+    {
+        long started = System.nanoTime();
+        long waitNanos = started - queuedTask.submitted;
+
+        record( METRIC_QUEUE_WAIT, stage, waitNanos );
+
+        if ( TimeUnit.NANOSECONDS.toMillis( waitNanos ) > queueTimeoutMillis )
+        {
+            throw new QueryRuntimeException( ErrorCode.E7135, null );
+        }
+
+        queuedTask.started = true;
+
+        try
+        {
+            return task.call();
+        }
+        finally
+        {
+            record( METRIC_EXECUTION, stage, System.nanoTime() - started );
+        }
+    }
+
+    private <T> void cancelAll( List<QueuedTask<T>> queued )
+    {
+        queued.forEach( queuedTask -> queuedTask.future.cancel( true ) );
+    }
+
+    private void record( String metric, String stage, long nanos )
+    {
+        MeterRegistry meterRegistry = registry;
+
+        if ( meterRegistry != null )
+        {
+            Timer.builder( metric )
+                .tag( TAG_STAGE, stage )
+                .register( meterRegistry )
+                .record( nanos, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    /**
+     * Shuts down the underlying thread pool.
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A task submitted to the pool, with the time of submission and whether
+     * the task has been taken from the queue and started.
+     */
+    private static class QueuedTask<T>
+    {
+        private final long submitted;
+
+        private volatile boolean started;
+
+        private Future<T> future;
+
+        QueuedTask( long submitted )
+        {
+            this.submitted = submitted;
+        }
+    }
+}
@@ -51,6 +51,7 @@ import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.CombinationGenerator;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 import org.hisp.dhis.system.grid.ListGrid;
@@ -131,6 +132,16 @@ public class DefaultAnalyticsService
         return dataAggregator.getRawDataGrid( params );
     }
 
+    @Override
+    public void getRawDataValues( DataQueryParams params, GridWriter writer )
+    {
+        params = checkSecurityConstraints( params );
+
+        queryValidator.validate( params );
+
+        dataAggregator.streamRawDataGrid( params, writer );
+    }
+
     @Override
     public DataValueSet getAggregatedDataValueSet( DataQueryParams params )
     {
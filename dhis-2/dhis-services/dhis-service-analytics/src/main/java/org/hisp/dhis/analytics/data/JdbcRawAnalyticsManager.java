@@ -30,12 +30,14 @@ package org.hisp.dhis.analytics.data;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.analytics.DataQueryParams.*;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.ANALYTICS_TBL_ALIAS;
+import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.queryWithCursor;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
 import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -52,7 +54,6 @@ import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -82,6 +83,14 @@ public class JdbcRawAnalyticsManager
 
     @Override
     public Grid getRawDataValues( DataQueryParams params, Grid grid )
+    {
+        getRawDataValues( params, row -> grid.addRow().addValuesAsList( row ) );
+
+        return grid;
+    }
+
+    @Override
+    public void getRawDataValues( DataQueryParams params, Consumer<List<Object>> consumer )
     {
         Assert.isTrue( params.hasStartEndDate(), "Start and end dates must be specified" );
 
@@ -101,21 +110,23 @@ public class JdbcRawAnalyticsManager
 
         log.debug( "Get raw data SQL: " + sql );
 
-        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+        queryWithCursor( jdbcTemplate, sql, resultSet -> {
+            while ( resultSet.next() )
+            {
+                List<Object> row = new ArrayList<>( dimensions.size() + 1 );
 
-        while ( rowSet.next() )
-        {
-            grid.addRow();
+                for ( DimensionalObject dim : dimensions )
+                {
+                    row.add( resultSet.getString( dim.getDimensionName() ) );
+                }
 
-            for ( DimensionalObject dim : dimensions )
-            {
-                grid.addValue( rowSet.getString( dim.getDimensionName() ) );
-            }
+                row.add( resultSet.getDouble( "value" ) );
 
-            grid.addValue( rowSet.getDouble( "value" ) );
-        }
+                consumer.accept( row );
+            }
 
-        return grid;
+            return null;
+        } );
     }
 
     // -------------------------------------------------------------------------
@@ -36,11 +36,15 @@ import static org.hisp.dhis.analytics.ProcessingHint.SINGLE_PROGRAM_INDICATOR_RE
 import static org.hisp.dhis.analytics.SortOrder.ASC;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 
+import java.util.List;
+import java.util.function.UnaryOperator;
+
 import javax.annotation.PostConstruct;
 
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.springframework.stereotype.Component;
 
@@ -144,6 +148,28 @@ public class DataAggregator
         return grid;
     }
 
+    /**
+     * Writes headers and raw data to the given grid writer. Rows are written as
+     * they are read from the database, and meta data is not included.
+     *
+     * @param params the {@link DataQueryParams}.
+     * @param writer the {@link GridWriter}.
+     */
+    public void streamRawDataGrid( DataQueryParams params, GridWriter writer )
+    {
+        Grid grid = new ListGrid();
+
+        params = dataHandler.prepareForRawDataQuery( params );
+
+        headerHandler.addHeaders( params, grid );
+
+        UnaryOperator<List<Object>> idSchemeMapper = metaDataHandler.getIdSchemeRowMapper( params, grid );
+
+        writer.writeHeaders( grid.getHeaders() );
+
+        dataHandler.streamRawData( params, row -> writer.writeRow( idSchemeMapper.apply( row ) ) );
+    }
+
     /**
      * Performs pre-handling of the given query and returns the immutable,
      * handled query. If the query has a single indicator as item for the data
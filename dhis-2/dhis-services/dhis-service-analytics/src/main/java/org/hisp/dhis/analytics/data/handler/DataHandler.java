@@ -109,7 +109,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -127,6 +128,7 @@ import org.hisp.dhis.analytics.QueryPlannerParams;
 import org.hisp.dhis.analytics.QueryValidator;
 import org.hisp.dhis.analytics.RawAnalyticsManager;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.data.AnalyticsQueryExecutor;
 import org.hisp.dhis.analytics.event.EventAnalyticsService;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.analytics.resolver.ExpressionResolver;
@@ -191,11 +193,13 @@ public class DataHandler
 
     private final ExecutionPlanStore executionPlanStore;
 
+    private final AnalyticsQueryExecutor queryExecutor;
+
     public DataHandler( EventAnalyticsService eventAnalyticsService, RawAnalyticsManager rawAnalyticsManager,
         ConstantService constantService, ExpressionResolvers resolvers, ExpressionService expressionService,
         QueryPlanner queryPlanner, QueryValidator queryValidator, SystemSettingManager systemSettingManager,
         AnalyticsManager analyticsManager, OrganisationUnitService organisationUnitService,
-        ExecutionPlanStore executionPlanStore )
+        ExecutionPlanStore executionPlanStore, AnalyticsQueryExecutor queryExecutor )
     {
         checkNotNull( eventAnalyticsService );
         checkNotNull( rawAnalyticsManager );
@@ -208,6 +212,7 @@ public class DataHandler
         checkNotNull( analyticsManager );
         checkNotNull( organisationUnitService );
         checkNotNull( executionPlanStore );
+        checkNotNull( queryExecutor );
 
         this.eventAnalyticsService = eventAnalyticsService;
         this.rawAnalyticsManager = rawAnalyticsManager;
@@ -220,6 +225,7 @@ public class DataHandler
         this.analyticsManager = analyticsManager;
         this.organisationUnitService = organisationUnitService;
         this.executionPlanStore = executionPlanStore;
+        this.queryExecutor = queryExecutor;
     }
 
     void addPerformanceMetrics( DataQueryParams params, Grid grid )
@@ -519,6 +525,26 @@ public class DataHandler
         }
     }
 
+    /**
+     * Passes raw data for the given data query parameters to the given
+     * consumer as rows, without adding them to a grid.
+     *
+     * @param params the {@link DataQueryParams}.
+     * @param consumer the consumer of rows.
+     */
+    void streamRawData( DataQueryParams params, Consumer<List<Object>> consumer )
+    {
+        if ( !params.isSkipData() )
+        {
+            QueryPlannerParams plannerParams = QueryPlannerParams.newBuilder()
+                .withTableType( DATA_VALUE ).build();
+
+            params = queryPlanner.withTableNameAndPartitions( params, plannerParams );
+
+            rawAnalyticsManager.getRawDataValues( params, consumer );
+        }
+    }
+
     /**
      * Prepares the given data query parameters.
      *
@@ -1117,9 +1143,11 @@ public class DataHandler
 
         Map<String, Object> map = new HashMap<>();
 
+        int stage = 0;
+
         for ( List<DataQueryParams> queries : queryGroups.getSequentialQueries() )
         {
-            executeQueries( tableType, maxLimit, map, queries );
+            executeQueries( tableType, maxLimit, map, queries, stage++ );
         }
 
         timer.getTime( "Got analytics values" );
@@ -1127,41 +1155,43 @@ public class DataHandler
         return map;
     }
 
+    /**
+     * Executes the given queries concurrently on the analytics query executor
+     * and puts the values into the given map.
+     *
+     * @param tableType the {@link AnalyticsTableType}.
+     * @param maxLimit the max number of records to retrieve.
+     * @param map the map to put values into.
+     * @param queries the queries of one sequential query group.
+     * @param stage the index of the sequential query group.
+     */
     private void executeQueries( AnalyticsTableType tableType, int maxLimit, Map<String, Object> map,
-        List<DataQueryParams> queries )
+        List<DataQueryParams> queries, int stage )
     {
-        List<Future<Map<String, Object>>> futures = new ArrayList<>();
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>();
 
         for ( DataQueryParams query : queries )
         {
-            futures.add( analyticsManager.getAggregatedDataValues( query, tableType, maxLimit ) );
+            tasks.add( () -> analyticsManager.getAggregatedDataValues( query, tableType, maxLimit ).get() );
         }
 
-        for ( Future<Map<String, Object>> future : futures )
+        List<Map<String, Object>> results;
+
+        try
         {
-            try
-            {
-                Map<String, Object> taskValues = future.get();
+            results = queryExecutor.executeAll( tableType.getTableName() + "_" + stage, tasks );
+        }
+        catch ( RuntimeException ex )
+        {
+            log.error( getStackTrace( ex ) );
+            throw ex;
+        }
 
-                if ( taskValues != null )
-                {
-                    map.putAll( taskValues );
-                }
-            }
-            catch ( Exception ex )
+        for ( Map<String, Object> taskValues : results )
+        {
+            if ( taskValues != null )
             {
-                log.error( getStackTrace( ex ) );
-                log.error( getStackTrace( ex.getCause() ) );
-
-                if ( ex.getCause() instanceof RuntimeException )
-                {
-                    // Throw the real exception
-                    throw (RuntimeException) ex.getCause();
-                }
-                else
-                {
-                    throw new RuntimeException( "Error during execution of aggregation query task", ex );
-                }
+                map.putAll( taskValues );
             }
         }
     }
@@ -52,6 +52,7 @@ import static org.hisp.dhis.organisationunit.OrganisationUnit.getParentNameGraph
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataQueryService;
@@ -192,4 +193,41 @@ public class MetadataHandler
             }
         }
     }
+
+    /**
+     * Returns a function which substitutes the meta data values of a row with
+     * the identifier scheme set in the given query, for rows which are not
+     * added to the given grid. Substitutes the header names of the grid.
+     *
+     * @param params the {@link DataQueryParams}.
+     * @param grid the grid with headers matching the rows.
+     * @return a function which substitutes the values of a row.
+     */
+    UnaryOperator<List<Object>> getIdSchemeRowMapper( DataQueryParams params, Grid grid )
+    {
+        if ( params.isSkipMeta() || !params.hasCustomIdSchemaSet() )
+        {
+            return UnaryOperator.identity();
+        }
+
+        Map<String, String> idSchemeMap = schemaIdResponseMapper.getSchemeIdResponseMap( params );
+
+        grid.substituteMetaData( idSchemeMap );
+
+        List<Integer> metaColumnIndexes = grid.getMetaColumnIndexes();
+
+        return row -> {
+            for ( Integer index : metaColumnIndexes )
+            {
+                String value = idSchemeMap.get( row.get( index ) );
+
+                if ( value != null )
+                {
+                    row.set( index, value );
+                }
+            }
+
+            return row;
+        };
+    }
 }
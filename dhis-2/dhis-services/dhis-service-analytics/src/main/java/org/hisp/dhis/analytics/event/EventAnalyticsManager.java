@@ -27,8 +27,12 @@
  */
 package org.hisp.dhis.analytics.event;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.hisp.dhis.analytics.Rectangle;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
 
 /**
  * @author Lars Helge Overland
@@ -39,6 +43,23 @@ public interface EventAnalyticsManager
 
     Grid getEvents( EventQueryParams params, Grid grid, int maxLimit );
 
+    /**
+     * Passes the events matching the given query to the given consumer as they
+     * are read from the database, without collecting them in memory. The
+     * values of each row are in the order of the given headers. With a max
+     * limit greater than zero, the number of events is checked before events
+     * are read, so that no event is passed on when the max limit is exceeded.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @param headers the {@link GridHeader} of the event columns.
+     * @param consumer the consumer of event rows.
+     * @param maxLimit the max number of events to retrieve, 0 for no limit.
+     * @throws org.hisp.dhis.common.IllegalQueryException if the number of
+     *         events exceeds the max limit.
+     */
+    void getEvents( EventQueryParams params, List<GridHeader> headers, Consumer<List<Object>> consumer,
+        int maxLimit );
+
     Grid getEventClusters( EventQueryParams params, Grid grid, int maxLimit );
 
     long getEventCount( EventQueryParams params );
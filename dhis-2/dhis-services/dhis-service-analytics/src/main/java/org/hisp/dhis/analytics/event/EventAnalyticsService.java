@@ -33,6 +33,7 @@ import org.hisp.dhis.analytics.AnalyticsMetaDataKey;
 import org.hisp.dhis.analytics.Rectangle;
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 
 /**
  * This interface is responsible for retrieving aggregated event data. Data will
@@ -129,6 +130,16 @@ public interface EventAnalyticsService
      */
     Grid getEvents( EventQueryParams params );
 
+    /**
+     * Writes the events matching the given query to the given writer. Unpaged
+     * queries without meta data substitution are streamed from the database
+     * row by row, other queries are written from a Grid.
+     *
+     * @param params the event query parameters.
+     * @param writer the {@link GridWriter}.
+     */
+    void getEvents( EventQueryParams params, GridWriter writer );
+
     /**
      * Returns a list of event clusters matching the given query.
      *
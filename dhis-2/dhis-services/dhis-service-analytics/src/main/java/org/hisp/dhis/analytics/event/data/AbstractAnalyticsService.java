@@ -102,11 +102,7 @@ public abstract class AbstractAnalyticsService
         // Decide access, add constraints and validate
         // ---------------------------------------------------------------------
 
-        securityManager.decideAccessEventQuery( params );
-
-        params = securityManager.withUserConstraints( params );
-
-        queryValidator.validate( params );
+        params = decideAccessAndValidate( params );
 
         // keywords as well as their periods are removed in the next step,
         // params object is modified
@@ -125,6 +121,72 @@ public abstract class AbstractAnalyticsService
 
         Grid grid = createGridWithHeaders( params );
 
+        addItemHeaders( params, grid );
+
+        // ---------------------------------------------------------------------
+        // Data
+        // ---------------------------------------------------------------------
+
+        long count = 0;
+
+        if ( !params.isSkipData() || params.analyzeOnly() )
+        {
+            count = addEventData( grid, params );
+        }
+
+        // ---------------------------------------------------------------------
+        // Meta-data
+        // ---------------------------------------------------------------------
+
+        addMetadata( params, periodKeywords, grid );
+
+        // ---------------------------------------------------------------------
+        // Data ID scheme
+        // ---------------------------------------------------------------------
+
+        if ( params.hasDataIdScheme() )
+        {
+            substituteData( grid );
+        }
+
+        // ---------------------------------------------------------------------
+        // Paging
+        // ---------------------------------------------------------------------
+
+        maybeApplyPaging( params, count, grid );
+
+        maybeApplyHeaders( params, grid );
+
+        return grid;
+    }
+
+    /**
+     * Decides access to the given query, adds user constraints and validates
+     * the query.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @return the {@link EventQueryParams} with user constraints.
+     */
+    protected EventQueryParams decideAccessAndValidate( EventQueryParams params )
+    {
+        securityManager.decideAccessEventQuery( params );
+
+        params = securityManager.withUserConstraints( params );
+
+        queryValidator.validate( params );
+
+        return params;
+    }
+
+    /**
+     * Adds headers for the dimensions and query items of the given query to
+     * the given grid.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @param grid the {@link Grid}.
+     */
+    protected void addItemHeaders( EventQueryParams params, Grid grid )
+    {
         for ( DimensionalObject dimension : params.getDimensions() )
         {
             grid.addHeader( new GridHeader( dimension.getDimension(), dimension.getDimensionDisplayName(),
@@ -169,42 +231,6 @@ public abstract class AbstractAnalyticsService
                     false, true, item.getOptionSet(), item.getLegendSet() ) );
             }
         }
-
-        // ---------------------------------------------------------------------
-        // Data
-        // ---------------------------------------------------------------------
-
-        long count = 0;
-
-        if ( !params.isSkipData() || params.analyzeOnly() )
-        {
-            count = addEventData( grid, params );
-        }
-
-        // ---------------------------------------------------------------------
-        // Meta-data
-        // ---------------------------------------------------------------------
-
-        addMetadata( params, periodKeywords, grid );
-
-        // ---------------------------------------------------------------------
-        // Data ID scheme
-        // ---------------------------------------------------------------------
-
-        if ( params.hasDataIdScheme() )
-        {
-            substituteData( grid );
-        }
-
-        // ---------------------------------------------------------------------
-        // Paging
-        // ---------------------------------------------------------------------
-
-        maybeApplyPaging( params, count, grid );
-
-        maybeApplyHeaders( params, grid );
-
-        return grid;
     }
 
     private static void maybeApplyPaging( EventQueryParams params, long count, Grid grid )
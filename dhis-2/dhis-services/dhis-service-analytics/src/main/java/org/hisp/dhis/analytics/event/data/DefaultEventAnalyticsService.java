@@ -80,6 +80,7 @@ import org.hisp.dhis.common.DimensionalObjectUtils;
 import org.hisp.dhis.common.EventAnalyticalObject;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.common.MetadataItem;
 import org.hisp.dhis.common.QueryItem;
@@ -644,6 +645,52 @@ public class DefaultEventAnalyticsService
         return grid;
     }
 
+    @Override
+    public void getEvents( EventQueryParams params, GridWriter writer )
+    {
+        if ( !isStreamable( params ) )
+        {
+            writer.write( getEvents( params ) );
+
+            return;
+        }
+
+        params = new EventQueryParams.Builder( decideAccessAndValidate( params ) )
+            .withStartEndDatesForPeriods()
+            .build();
+
+        Grid grid = createGridWithHeaders( params );
+
+        addItemHeaders( params, grid );
+
+        writer.writeHeaders( grid.getHeaders() );
+
+        if ( !params.isSkipData() )
+        {
+            params = queryPlanner.planEventQuery( params );
+
+            if ( params.getPartitions().hasAny() || params.isSkipPartitioning() )
+            {
+                eventAnalyticsManager.getEvents( params, grid.getHeaders(), writer::writeRow,
+                    queryValidator.getMaxLimit() );
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the events of the given query can be written as they
+     * are read. Paging, header selection and ID scheme substitution operate on
+     * the full grid and require the grid to be materialized.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @return true if the events can be streamed.
+     */
+    private boolean isStreamable( EventQueryParams params )
+    {
+        return !params.isPaging() && !params.hasHeaders() && !params.hasDataIdScheme() && !params.analyzeOnly()
+            && (params.isSkipMeta() || !params.hasCustomIdSchemaSet());
+    }
+
     @Override
     public Grid getEventClusters( EventQueryParams params )
     {
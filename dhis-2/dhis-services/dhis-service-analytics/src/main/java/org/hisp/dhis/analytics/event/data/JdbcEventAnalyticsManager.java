@@ -36,12 +36,15 @@ import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.ANALYTICS_TBL_ALIAS
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.DATE_PERIOD_STRUCT_ALIAS;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.ORG_UNIT_STRUCT_ALIAS;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.encode;
+import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.queryWithCursor;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quoteAlias;
+import static org.hisp.dhis.analytics.util.AnalyticsUtils.throwIllegalQueryEx;
 import static org.hisp.dhis.common.AnalyticsDateFilter.SCHEDULED_DATE;
 import static org.hisp.dhis.common.DimensionalObject.ORGUNIT_DIM_ID;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
 import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString;
+import static org.hisp.dhis.feedback.ErrorCode.E7128;
 import static org.hisp.dhis.feedback.ErrorCode.E7131;
 import static org.hisp.dhis.feedback.ErrorCode.E7132;
 import static org.hisp.dhis.feedback.ErrorCode.E7133;
@@ -51,6 +54,7 @@ import static org.postgresql.util.PSQLState.DIVISION_BY_ZERO;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -83,11 +87,13 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.program.AnalyticsType;
 import org.hisp.dhis.program.ProgramIndicatorService;
+import org.hisp.dhis.system.grid.ListGrid;
 import org.postgresql.util.PSQLException;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.ResultSetWrappingSqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -168,24 +174,84 @@ public class JdbcEventAnalyticsManager
                 continue;
             }
 
-            grid.addRow();
+            addEventRow( params, grid, rowSet );
+        }
+    }
+
+    @Override
+    public void getEvents( EventQueryParams params, List<GridHeader> headers, Consumer<List<Object>> consumer,
+        int maxLimit )
+    {
+        String sql = getEventsOrEnrollmentsSql( params, maxLimit );
 
-            int index = 1;
+        log.debug( String.format( "Analytics event query SQL: %s", sql ) );
 
-            for ( GridHeader header : grid.getHeaders() )
-            {
-                if ( ITEM_LONGITUDE.equals( header.getName() ) || ITEM_LATITUDE.equals( header.getName() ) )
-                {
-                    double val = rowSet.getDouble( index );
-                    grid.addValue( Precision.round( val, COORD_DEC ) );
-                }
-                else
+        // Single row grid reused for converting each row to grid values
+
+        Grid grid = new ListGrid();
+
+        headers.forEach( grid::addHeader );
+
+        // The query is limited to one row more than the max limit, so that
+        // counting its rows tells whether the limit is exceeded before any
+        // row is written, as for the non-streamed query
+
+        if ( maxLimit > 0 )
+        {
+            withExceptionHandling( () -> {
+                Integer rowCount = jdbcTemplate.queryForObject(
+                    "select count(*) from (" + sql + ") as limitedrows", Integer.class );
+
+                if ( rowCount != null && rowCount > maxLimit )
                 {
-                    addGridValue( grid, header, index, rowSet, params );
+                    throwIllegalQueryEx( E7128, maxLimit );
                 }
+            } );
+        }
+
+        withExceptionHandling( () -> queryWithCursor( jdbcTemplate, sql, resultSet -> {
+            SqlRowSet rowSet = new ResultSetWrappingSqlRowSet( resultSet );
+
+            while ( rowSet.next() )
+            {
+                addEventRow( params, grid, rowSet );
 
-                index++;
+                consumer.accept( grid.getRow( 0 ) );
+
+                grid.removeCurrentWriteRow();
             }
+
+            return null;
+        } ) );
+    }
+
+    /**
+     * Adds a row with the values of the current event of the given row set to
+     * the given grid.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @param grid the {@link Grid}.
+     * @param rowSet the {@link SqlRowSet} positioned at the event.
+     */
+    private void addEventRow( EventQueryParams params, Grid grid, SqlRowSet rowSet )
+    {
+        grid.addRow();
+
+        int index = 1;
+
+        for ( GridHeader header : grid.getHeaders() )
+        {
+            if ( ITEM_LONGITUDE.equals( header.getName() ) || ITEM_LATITUDE.equals( header.getName() ) )
+            {
+                double val = rowSet.getDouble( index );
+                grid.addValue( Precision.round( val, COORD_DEC ) );
+            }
+            else
+            {
+                addGridValue( grid, header, index, rowSet, params );
+            }
+
+            index++;
         }
     }
 
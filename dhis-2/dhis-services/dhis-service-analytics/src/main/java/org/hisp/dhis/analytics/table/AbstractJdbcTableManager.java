@@ -39,6 +39,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -108,6 +109,14 @@ public abstract class AbstractJdbcTableManager
 
     protected static final String PREFIX_ORGUNITLEVEL = "uidlevel";
 
+    /**
+     * Time in milliseconds by which the start of an incremental update
+     * overlaps the previous update, so that data values which were stamped
+     * before the previous update started but committed after it are picked
+     * up. Rows in the overlap are processed again, which has no effect.
+     */
+    protected static final long INCREMENTAL_UPDATE_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis( 60 );
+
     protected final IdentifiableObjectManager idObjectManager;
 
     protected final OrganisationUnitService organisationUnitService;
@@ -425,8 +434,12 @@ public abstract class AbstractJdbcTableManager
     /**
      * Creates a {@link AnalyticsTable} with a partition for the "latest" data.
      * The start date of the partition is the time of the last successful full
-     * analytics table update. The end date of the partition is the start time
-     * of this analytics table update process.
+     * analytics table update. For incremental updates, the start date is the
+     * time of the last successful update of any kind, moved back by
+     * {@link #INCREMENTAL_UPDATE_OVERLAP_MILLIS} but not before the last full
+     * update, so that only data changed since then is processed. The end date
+     * of the partition is the start time of this analytics table update
+     * process.
      *
      * @param params the {@link AnalyticsTableUpdateParams}.
      * @param dimensionColumns the list of dimension
@@ -445,21 +458,25 @@ public abstract class AbstractJdbcTableManager
         Assert.notNull( lastFullTableUpdate,
             "A full analytics table update process must be run prior to a latest partition update process" );
 
+        boolean incremental = params.isIncrementalUpdate() && supportsIncrementalUpdate();
+        Date startDate = incremental ? DateUtils.getLatest( lastFullTableUpdate,
+            new Date( lastAnyTableUpdate.getTime() - INCREMENTAL_UPDATE_OVERLAP_MILLIS ) ) : lastFullTableUpdate;
+        Date checkDate = incremental ? startDate : lastAnyTableUpdate;
         Date endDate = params.getStartTime();
-        boolean hasUpdatedData = hasUpdatedLatestData( lastAnyTableUpdate, endDate );
+        boolean hasUpdatedData = hasUpdatedLatestData( checkDate, endDate );
 
         AnalyticsTable table = new AnalyticsTable( getAnalyticsTableType(), dimensionColumns, valueColumns );
 
         if ( hasUpdatedData )
         {
-            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, lastFullTableUpdate, endDate );
+            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, startDate, endDate );
             log.info( "Added latest analytics partition with start: '{}' and end: '{}'",
-                getLongDateString( lastFullTableUpdate ), getLongDateString( endDate ) );
+                getLongDateString( startDate ), getLongDateString( endDate ) );
         }
         else
         {
             log.info( "No updated latest data found with start: '{}' and end: '{}'",
-                getLongDateString( lastAnyTableUpdate ), getLongDateString( endDate ) );
+                getLongDateString( checkDate ), getLongDateString( endDate ) );
         }
 
         return table;
@@ -30,9 +30,7 @@ package org.hisp.dhis.analytics.table;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
 import java.util.Date;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -46,6 +44,8 @@ import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
 import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobProgress;
@@ -73,6 +73,8 @@ public class DefaultAnalyticsTableGenerator
 
     private final AnalyticsCache analyticsCache;
 
+    private final DhisConfigurationProvider config;
+
     // TODO introduce last successful timestamps per table type
 
     @Override
@@ -179,26 +181,29 @@ public class DefaultAnalyticsTableGenerator
     {
         resourceTableService.dropAllSqlViews( progress );
 
-        Map<String, Runnable> generators = new LinkedHashMap<>();
-        generators.put( "generating OrganisationUnit structures",
-            resourceTableService::generateOrganisationUnitStructures );
-        generators.put( "generating DataSetOrganisationUnitCategory table",
-            resourceTableService::generateDataSetOrganisationUnitCategoryTable );
-        generators.put( "generating CategoryOptionCombo names",
-            resourceTableService::generateCategoryOptionComboNames );
-        generators.put( "generating DataElementGroupSet table",
-            resourceTableService::generateDataElementGroupSetTable );
-        generators.put( "generating IndicatorGroupSet table", resourceTableService::generateIndicatorGroupSetTable );
-        generators.put( "generating OrganisationUnitGroupSet table",
-            resourceTableService::generateOrganisationUnitGroupSetTable );
-        generators.put( "generating Category table", resourceTableService::generateCategoryTable );
-        generators.put( "generating  DataElement table", resourceTableService::generateDataElementTable );
-        generators.put( "generating Period table", resourceTableService::generatePeriodTable );
-        generators.put( "generating DatePeriod table", resourceTableService::generateDatePeriodTable );
-        generators.put( "generating  CategoryOptionCombo table",
-            resourceTableService::generateCategoryOptionComboTable );
+        final String orgUnitStructures = "generating OrganisationUnit structures";
+
+        // The OrganisationUnitGroupSet table joins the OrganisationUnit
+        // structure table, all other tables are independent
+
+        TaskGraph generators = new TaskGraph()
+            .add( orgUnitStructures, resourceTableService::generateOrganisationUnitStructures )
+            .add( "generating DataSetOrganisationUnitCategory table",
+                resourceTableService::generateDataSetOrganisationUnitCategoryTable )
+            .add( "generating CategoryOptionCombo names", resourceTableService::generateCategoryOptionComboNames )
+            .add( "generating DataElementGroupSet table", resourceTableService::generateDataElementGroupSetTable )
+            .add( "generating IndicatorGroupSet table", resourceTableService::generateIndicatorGroupSetTable )
+            .add( "generating OrganisationUnitGroupSet table",
+                resourceTableService::generateOrganisationUnitGroupSetTable, orgUnitStructures )
+            .add( "generating Category table", resourceTableService::generateCategoryTable )
+            .add( "generating  DataElement table", resourceTableService::generateDataElementTable )
+            .add( "generating Period table", resourceTableService::generatePeriodTable )
+            .add( "generating DatePeriod table", resourceTableService::generateDatePeriodTable )
+            .add( "generating  CategoryOptionCombo table", resourceTableService::generateCategoryOptionComboTable );
+
         progress.startingStage( "Generating resource tables", generators.size() );
-        progress.runStage( generators );
+        generators.run( progress,
+            Integer.parseInt( config.getProperty( ConfigurationKey.ANALYTICS_RESOURCE_TABLE_PARALLELISM ) ) );
 
         resourceTableService.createAllSqlViews( progress );
     }
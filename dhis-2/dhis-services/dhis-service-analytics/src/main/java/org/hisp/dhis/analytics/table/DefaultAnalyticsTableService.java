@@ -116,6 +116,13 @@ public class DefaultAnalyticsTableService
 
         clock.logTime( String.format( "Table update start: %s, earliest: %s, parameters: %s",
             tableType.getTableName(), getLongDateString( params.getFromDate() ), params.toString() ) );
+
+        if ( params.isLatestUpdate() && params.isIncrementalUpdate() && tableManager.supportsIncrementalUpdate() )
+        {
+            updateIncremental( params, tables, progress, clock );
+            return;
+        }
+
         progress.startingStage( "Performing pre-create table work" );
         progress.runStage( () -> tableManager.preCreateTables( params ) );
         clock.logTime( "Performed pre-create table work " + tableType );
@@ -169,6 +176,62 @@ public class DefaultAnalyticsTableService
         clock.logTime( "Table update done: " + tableType.getTableName() );
     }
 
+    /**
+     * Updates the analytics tables incrementally. The data changed since the
+     * last successful update is populated into a standalone delta table,
+     * aggregation levels are applied to the changed rows only, and the rows
+     * are then merged into the existing analytics table in place of the
+     * updated and deleted rows. Tables are not swapped.
+     */
+    private void updateIncremental( AnalyticsTableUpdateParams params, List<AnalyticsTable> tables,
+        JobProgress progress, Clock clock )
+    {
+        AnalyticsTableType tableType = getAnalyticsTableType();
+        AnalyticsTablePartition partition = PartitionUtils.getLatestTablePartition( tables );
+        List<AnalyticsTablePartition> partitions = List.of( partition );
+
+        progress.startingStage( "Performing pre-create table work" );
+        progress.runStage( () -> tableManager.preCreateTables( params ) );
+        clock.logTime( "Performed pre-create table work " + tableType );
+
+        progress.startingStage( "Creating delta table " + tableType );
+        boolean success = progress.runStage( () -> {
+            tableManager.dropTempTablePartition( partition );
+            tableManager.createDeltaTable( partition );
+        } );
+        clock.logTime( String.format( "Created delta table with start: '%s' and end: '%s'",
+            getLongDateString( partition.getStartDate() ), getLongDateString( partition.getEndDate() ) ) );
+
+        if ( success )
+        {
+            progress.startingStage( "Populating delta table " + tableType );
+            success = progress.runStage( () -> tableManager.populateTablePartition( params, partition ) );
+            clock.logTime( "Populated delta table" );
+        }
+
+        if ( success )
+        {
+            applyAggregationLevels( tableType, partitions, progress );
+            clock.logTime( "Applied aggregation levels" );
+
+            progress.startingStage( "Merging delta table " + tableType );
+            success = progress.runStage( () -> tableManager.mergeDeltaTable( partition ) );
+            clock.logTime( "Merged delta table" );
+        }
+
+        tableManager.dropTempTablePartition( partition );
+
+        if ( !success )
+        {
+            // Fail so that the time of this update is not recorded as the
+            // start of the next incremental update
+
+            throw new IllegalStateException( "Incremental analytics table update failed: " + tableType );
+        }
+
+        clock.logTime( "Incremental table update done: " + tableType.getTableName() );
+    }
+
     @Override
     public void dropTables()
     {
@@ -35,6 +35,7 @@ import static org.hisp.dhis.analytics.ColumnDataType.TEXT;
 import static org.hisp.dhis.analytics.ColumnDataType.TIMESTAMP;
 import static org.hisp.dhis.analytics.ColumnNotNullConstraint.NOT_NULL;
 import static org.hisp.dhis.analytics.table.PartitionUtils.getLatestTablePartition;
+import static org.hisp.dhis.analytics.util.AnalyticsIndexHelper.getIndexes;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString;
 import static org.hisp.dhis.dataapproval.DataApprovalLevelService.APPROVAL_LEVEL_UNAPPROVED;
@@ -45,6 +46,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -203,7 +205,115 @@ public class JdbcAnalyticsTableManager
     public void removeUpdatedData( List<AnalyticsTable> tables )
     {
         AnalyticsTablePartition partition = getLatestTablePartition( tables );
-        String sql = "delete from " + quote( getAnalyticsTableType().getTableName() ) + " ax " +
+
+        invokeTimeAndLog( getRemoveUpdatedDataSql( partition ), "Remove updated data values" );
+    }
+
+    @Override
+    public boolean supportsIncrementalUpdate()
+    {
+        return true;
+    }
+
+    @Override
+    public void createDeltaTable( AnalyticsTablePartition partition )
+    {
+        List<AnalyticsTableColumn> columns = getDeltaColumns( partition );
+
+        Set<String> existingColumns = Sets.newHashSet( jdbcTemplate.queryForList(
+            "select column_name from information_schema.columns where table_name = ?", String.class,
+            getTableName() ) );
+
+        List<String> missingColumns = columns.stream()
+            .map( col -> StringUtils.remove( col.getName(), '"' ) )
+            .filter( col -> !existingColumns.contains( col ) )
+            .collect( Collectors.toList() );
+
+        if ( !missingColumns.isEmpty() )
+        {
+            throw new IllegalStateException( String.format(
+                "Analytics table columns changed since last full update, a full update is required, missing: %s",
+                missingColumns ) );
+        }
+
+        String sql = "create table " + partition.getTempTableName() + " (" + columns.stream()
+            .map( col -> col.getName() + " " + col.getDataType().getValue() +
+                (col.getNotNull().isNotNull() ? " not null" : "") )
+            .collect( Collectors.joining( "," ) ) + ")";
+
+        log.debug( "Create delta table SQL: '{}'", sql );
+
+        jdbcTemplate.execute( sql );
+    }
+
+    @Override
+    public void mergeDeltaTable( AnalyticsTablePartition partition )
+    {
+        final String tableName = quote( getTableName() );
+        final String deltaTableName = partition.getTempTableName();
+
+        List<Integer> years = jdbcTemplate.queryForList(
+            "select distinct year from " + deltaTableName, Integer.class );
+
+        for ( Integer year : years )
+        {
+            createPartitionIfNotExists( partition, year );
+        }
+
+        String columns = getDeltaColumns( partition ).stream()
+            .map( AnalyticsTableColumn::getName )
+            .collect( Collectors.joining( "," ) );
+
+        // Delete and insert in a single statement so that queries never see
+        // the table without the updated rows
+
+        String sql = "with removed as (" + getRemoveUpdatedDataSql( partition ) + ") " +
+            "insert into " + tableName + " (" + columns + ") " +
+            "select " + columns + " from " + deltaTableName;
+
+        invokeTimeAndLog( sql, String.format( "Merge %s into %s for years: %s", deltaTableName, tableName, years ) );
+    }
+
+    /**
+     * Creates the partition of the analytics table for the given year unless
+     * it exists. A new partition is given the same indexes as partitions
+     * created by a full update.
+     *
+     * @param partition the "latest" {@link AnalyticsTablePartition}.
+     * @param year the year of the partition.
+     */
+    private void createPartitionIfNotExists( AnalyticsTablePartition partition, Integer year )
+    {
+        final String partitionTableName = getTableName() + PartitionUtils.SEP + year;
+
+        Boolean exists = jdbcTemplate.queryForObject(
+            "select exists (select 1 from information_schema.tables where table_name = ?)", Boolean.class,
+            partitionTableName );
+
+        if ( Boolean.TRUE.equals( exists ) )
+        {
+            return;
+        }
+
+        jdbcTemplate.execute( "create table " + partitionTableName + " partition of " +
+            quote( getTableName() ) + " for values in (" + year + ")" );
+
+        getIndexes( partitionTableName, partition.getMasterTable().getDimensionColumns() )
+            .forEach( this::createIndex );
+
+        log.info( "Created partition: '{}' with indexes", partitionTableName );
+    }
+
+    /**
+     * Returns a statement which deletes the rows of the analytics table for
+     * data values updated or deleted within the date range of the given
+     * partition.
+     *
+     * @param partition the "latest" {@link AnalyticsTablePartition}.
+     */
+    private String getRemoveUpdatedDataSql( AnalyticsTablePartition partition )
+    {
+        return "delete from " + quote( getAnalyticsTableType().getTableName() ) + " ax " +
             "where ax.id in (" +
             "select (de.uid || '-' || ps.iso || '-' || ou.uid || '-' || co.uid || '-' || ao.uid) as id " +
             "from datavalue dv " +
@@ -214,8 +324,17 @@ public class JdbcAnalyticsTableManager
             "inner join categoryoptioncombo ao on dv.attributeoptioncomboid=ao.categoryoptioncomboid " +
             "where dv.lastupdated >= '" + getLongDateString( partition.getStartDate() ) + "' " +
             "and dv.lastupdated < '" + getLongDateString( partition.getEndDate() ) + "')";
+    }
 
-        invokeTimeAndLog( sql, "Remove updated data values" );
+    /**
+     * Returns the columns of the delta table for the given partition.
+     *
+     * @param partition the "latest" {@link AnalyticsTablePartition}.
+     */
+    private List<AnalyticsTableColumn> getDeltaColumns( AnalyticsTablePartition partition )
+    {
+        return ListUtils.union( getDimensionColumns( partition.getYear() ),
+            partition.getMasterTable().getValueColumns() );
     }
 
     @Override
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.system.util.Clock;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Graph of named tasks with dependencies between them which are run as the
+ * work items of a single {@link JobProgress} stage. A task is started as soon
+ * as all tasks it depends on have completed successfully, so that independent
+ * tasks run concurrently. Tasks depending on a failed task are skipped.
+ * <p>
+ * The time each task took is reported as the summary of its work item.
+ */
+public class TaskGraph
+{
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+    /**
+     * Adds a task to the graph. Dependencies must be added before the tasks
+     * which depend on them, which rules out cycles.
+     *
+     * @param name the unique name of the task, used as work item description.
+     * @param work the work of the task.
+     * @param dependencies the names of the tasks which must complete before
+     *        the task is started.
+     * @return this graph.
+     */
+    public TaskGraph add( String name, Runnable work, String... dependencies )
+    {
+        checkArgument( !tasks.containsKey( name ), "Task already exists: " + name );
+
+        for ( String dependency : dependencies )
+        {
+            checkArgument( tasks.containsKey( dependency ), "Task depends on unknown task: " + dependency );
+        }
+
+        tasks.put( name, new Task( name, work, List.of( dependencies ) ) );
+
+        return this;
+    }
+
+    /**
+     * Returns the number of tasks of this graph.
+     */
+    public int size()
+    {
+        return tasks.size();
+    }
+
+    /**
+     * Runs the tasks of this graph and blocks until all tasks are done. The
+     * stage must have been started by the caller.
+     *
+     * @param progress the job progress.
+     * @param parallelism the max number of tasks running concurrently.
+     * @return true if all tasks completed successfully, otherwise false.
+     */
+    public boolean run( JobProgress progress, int parallelism )
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, Math.min( parallelism, size() ) ),
+            new ThreadFactoryBuilder().setNameFormat( "task-graph-%d" ).setDaemon( true ).build() );
+
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        AtomicInteger failed = new AtomicInteger();
+
+        try
+        {
+            for ( Task task : tasks.values() )
+            {
+                CompletableFuture<?>[] dependencies = task.dependencies.stream()
+                    .map( futures::get )
+                    .toArray( CompletableFuture[]::new );
+
+                futures.put( task.name, CompletableFuture.allOf( dependencies )
+                    .thenRunAsync( () -> runTask( task, progress, failed ), executor ) );
+            }
+
+            CompletableFuture.allOf( futures.values().toArray( new CompletableFuture[0] ) ).join();
+        }
+        catch ( CompletionException | CancellationException ex )
+        {
+            // Reported per task, remaining tasks have completed
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        int skipped = (int) futures.values().stream().filter( CompletableFuture::isCompletedExceptionally ).count()
+            - failed.get();
+
+        if ( progress.isCancellationRequested() )
+        {
+            progress.failedStage( new CancellationException( String.format(
+                "cancelled after %d successful, %d failed and %d skipped tasks",
+                size() - failed.get() - skipped, failed.get(), skipped ) ) );
+
+            return false;
+        }
+
+        progress.completedStage( failed.get() == 0 ? null
+            : String.format( "%d failed and %d skipped tasks", failed.get(), skipped ) );
+
+        return failed.get() == 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void runTask( Task task, JobProgress progress, AtomicInteger failed )
+    {
+        if ( progress.isCancellationRequested() )
+        {
+            throw new CancellationException( "Cancellation requested" );
+        }
+
+        Clock clock = new Clock().startClock();
+
+        progress.startingWorkItem( task.name );
+
+        try
+        {
+            task.work.run();
+
+            progress.completedWorkItem( clock.time() );
+        }
+        catch ( RuntimeException ex )
+        {
+            failed.incrementAndGet();
+
+            progress.failedWorkItem( ex );
+
+            throw ex;
+        }
+    }
+
+    private static final class Task
+    {
+        private final String name;
+
+        private final Runnable work;
+
+        private final List<String> dependencies;
+
+        private Task( String name, Runnable work, List<String> dependencies )
+        {
+            this.name = name;
+            this.work = work;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -135,6 +135,7 @@ public class ContinuousAnalyticsTableJob implements Job
 
             AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
                 .withLatestPartition()
+                .withIncrementalUpdate( parameters.isIncrementalUpdate() )
                 .withSkipResourceTables( true )
                 .withSkipTableTypes( parameters.getSkipTableTypes() )
                 .withJobId( jobConfiguration )
@@ -75,19 +75,34 @@ public class AnalyticsIndexHelper
 
         for ( final AnalyticsTablePartition partition : partitions )
         {
-            final List<AnalyticsTableColumn> columns = partition.getMasterTable().getDimensionColumns();
+            indexes.addAll( getIndexes( partition.getTempTableName(),
+                partition.getMasterTable().getDimensionColumns() ) );
+        }
+
+        return indexes;
+    }
 
-            for ( final AnalyticsTableColumn col : columns )
+    /**
+     * Returns the indexes of the given table for the given dimension columns.
+     *
+     * @param tableName the table name.
+     * @param columns the list of dimension {@link AnalyticsTableColumn}.
+     * @return a list of indexes.
+     */
+    public static List<AnalyticsIndex> getIndexes( final String tableName, final List<AnalyticsTableColumn> columns )
+    {
+        final List<AnalyticsIndex> indexes = new ArrayList<>();
+
+        for ( final AnalyticsTableColumn col : columns )
+        {
+            if ( !col.isSkipIndex() )
             {
-                if ( !col.isSkipIndex() )
-                {
-                    final List<String> indexColumns = col.hasIndexColumns() ? col.getIndexColumns()
-                        : Lists.newArrayList( col.getName() );
+                final List<String> indexColumns = col.hasIndexColumns() ? col.getIndexColumns()
+                    : Lists.newArrayList( col.getName() );
 
-                    indexes.add( new AnalyticsIndex( partition.getTempTableName(), indexColumns, col.getIndexType() ) );
+                indexes.add( new AnalyticsIndex( tableName, indexColumns, col.getIndexType() ) );
 
-                    maybeAddTextLowerIndex( indexes, partition.getTempTableName(), col, indexColumns );
-                }
+                maybeAddTextLowerIndex( indexes, tableName, col, indexColumns );
             }
         }
 
@@ -27,7 +27,13 @@
  */
 package org.hisp.dhis.analytics.util;
 
+import java.sql.ResultSet;
+import java.sql.Statement;
+
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.util.Assert;
 
 /**
@@ -164,4 +170,43 @@ public class AnalyticsSqlUtils
 
         return StringUtils.repeat( ")", open );
     }
+
+    /**
+     * Executes the given query and passes the result set to the given
+     * extractor. Rows are fetched in batches of the fetch size of the given
+     * JDBC template as the extractor advances the result set, which requires
+     * the query to run within a transaction for PostgreSQL to use a cursor
+     * instead of reading the entire result into memory.
+     *
+     * @param jdbcTemplate the {@link JdbcTemplate}.
+     * @param sql the SQL query.
+     * @param extractor the {@link ResultSetExtractor}.
+     * @return the result of the extractor.
+     */
+    public static <T> T queryWithCursor( JdbcTemplate jdbcTemplate, String sql, ResultSetExtractor<T> extractor )
+    {
+        return jdbcTemplate.execute( (ConnectionCallback<T>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+
+            connection.setAutoCommit( false );
+
+            try ( Statement statement = connection.createStatement() )
+            {
+                statement.setFetchSize( jdbcTemplate.getFetchSize() );
+
+                try ( ResultSet resultSet = statement.executeQuery( sql ) )
+                {
+                    return extractor.extractData( resultSet );
+                }
+            }
+            finally
+            {
+                if ( autoCommit )
+                {
+                    connection.rollback();
+                    connection.setAutoCommit( true );
+                }
+            }
+        } );
+    }
 }
@@ -28,6 +28,7 @@
 package org.hisp.dhis.analytics.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 
@@ -124,4 +125,92 @@ class AnalyticsCacheTest
 
         assertEquals( 2, optCachedGrid.get().getRows().size() );
     }
+
+    @Test
+    void returnSameObjectAfterModifyReturnedObject()
+    {
+        // arrange
+        final AnalyticsCacheSettings settings = new AnalyticsCacheSettings( systemSettingManager );
+
+        final CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+        cacheBuilder.expireAfterWrite( 1L, TimeUnit.MINUTES );
+
+        final Cache<Grid> cache = new LocalCache<>( cacheBuilder );
+
+        Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsResponseCache( any( Duration.class ) ) )
+            .thenReturn( cache );
+
+        final AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings );
+
+        final Grid grid = new ListGrid();
+        grid.addHeader( new GridHeader( "Header1" ) )
+            .addHeader( new GridHeader( "Header2" ) )
+            .addRow()
+            .addValue( "Value11" )
+            .addValue( 12d )
+            .addRow()
+            .addValue( "Value21" )
+            .addValue( 22d );
+
+        // act, assert
+        analyticsCache.put( "key", grid, 60 );
+
+        Grid cachedGrid = analyticsCache.get( "key" ).get();
+
+        cachedGrid.getRow( 0 ).set( 1, 99d );
+        cachedGrid.addRow()
+            .addValue( "Value31" )
+            .addValue( 32d );
+        cachedGrid.addMetaData( "key", "value" );
+
+        cachedGrid = analyticsCache.get( "key" ).get();
+
+        assertEquals( 2, cachedGrid.getHeight() );
+
+        assertEquals( 12d, cachedGrid.getValue( 0, 1 ) );
+
+        assertFalse( cachedGrid.hasMetaDataKey( "key" ) );
+    }
+
+    @Test
+    void cacheGridWithRowsOfDifferentLength()
+    {
+        // arrange
+        final AnalyticsCacheSettings settings = new AnalyticsCacheSettings( systemSettingManager );
+
+        final CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+        cacheBuilder.expireAfterWrite( 1L, TimeUnit.MINUTES );
+
+        final Cache<Grid> cache = new LocalCache<>( cacheBuilder );
+
+        Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsResponseCache( any( Duration.class ) ) )
+            .thenReturn( cache );
+
+        final AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings );
+
+        final Grid grid = new ListGrid();
+        grid.addHeader( new GridHeader( "Header1" ) )
+            .addHeader( new GridHeader( "Header2" ) )
+            .addRow()
+            .addValue( "Value11" )
+            .addValue( "Value12" )
+            .addRow()
+            .addValue( "Value21" );
+
+        // act, assert
+        analyticsCache.put( "key", grid, 60 );
+
+        Grid cachedGrid = analyticsCache.get( "key" ).get();
+
+        assertEquals( 2, cachedGrid.getHeight() );
+        assertEquals( 2, cachedGrid.getRow( 0 ).size() );
+        assertEquals( 1, cachedGrid.getRow( 1 ).size() );
+        assertEquals( "Value21", cachedGrid.getValue( 1, 0 ) );
+
+        cachedGrid.getRow( 1 ).add( "Value22" );
+
+        assertEquals( 1, analyticsCache.get( "key" ).get().getRow( 1 ).size() );
+    }
 }
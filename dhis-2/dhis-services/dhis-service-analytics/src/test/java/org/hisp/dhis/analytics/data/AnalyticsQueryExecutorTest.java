@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.common.QueryRuntimeException;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Lists;
+
+class AnalyticsQueryExecutorTest
+{
+    private AnalyticsQueryExecutor executor;
+
+    @AfterEach
+    void tearDown()
+    {
+        if ( executor != null )
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testExecuteAllInOrder()
+    {
+        executor = new AnalyticsQueryExecutor( 2, 2, 60000 );
+
+        List<Callable<Integer>> tasks = Lists.newArrayList( () -> 1, () -> 2, () -> 3, () -> 4, () -> 5 );
+
+        assertEquals( List.of( 1, 2, 3, 4, 5 ), executor.executeAll( "test", tasks ) );
+    }
+
+    @Test
+    void testExecuteAllRethrowsTaskException()
+    {
+        executor = new AnalyticsQueryExecutor( 2, 2, 60000 );
+
+        List<Callable<Integer>> tasks = Lists.newArrayList( () -> 1, () -> {
+            throw new IllegalStateException( "Failed" );
+        } );
+
+        IllegalStateException ex = assertThrows( IllegalStateException.class,
+            () -> executor.executeAll( "test", tasks ) );
+        assertEquals( "Failed", ex.getMessage() );
+    }
+
+    @Test
+    void testQueueTimeoutBehindRunningTask()
+    {
+        executor = new AnalyticsQueryExecutor( 1, 2, 100 );
+
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        List<Callable<Integer>> tasks = Lists.newArrayList( () -> {
+            release.await();
+            return 1;
+        }, () -> 2 );
+
+        QueryRuntimeException ex = assertTimeoutPreemptively( Duration.ofSeconds( 10 ),
+            () -> assertThrows( QueryRuntimeException.class, () -> executor.executeAll( "test", tasks ) ) );
+        assertEquals( ErrorCode.E7135, ex.getErrorCode() );
+    }
+
+    @Test
+    void testQueueTimeoutWhenPoolSaturated()
+        throws Exception
+    {
+        executor = new AnalyticsQueryExecutor( 1, 1, 100 );
+
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        List<Callable<Integer>> blocking = Lists.newArrayList( () -> {
+            started.countDown();
+            release.await();
+            return 1;
+        } );
+
+        CompletableFuture<List<Integer>> other = CompletableFuture
+            .supplyAsync( () -> executor.executeAll( "other", blocking ) );
+
+        started.await( 10, TimeUnit.SECONDS );
+
+        List<Callable<Integer>> tasks = Lists.newArrayList( () -> 2 );
+
+        QueryRuntimeException ex = assertTimeoutPreemptively( Duration.ofSeconds( 10 ),
+            () -> assertThrows( QueryRuntimeException.class, () -> executor.executeAll( "test", tasks ) ) );
+        assertEquals( ErrorCode.E7135, ex.getErrorCode() );
+
+        release.countDown();
+
+        assertEquals( List.of( 1 ), other.get( 10, TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    void testRequestConcurrencyLimitsRunningTasks()
+    {
+        executor = new AnalyticsQueryExecutor( 4, 1, 60000 );
+
+        CountDownLatch running = new CountDownLatch( 2 );
+
+        List<Callable<Long>> tasks = Lists.newArrayList( () -> {
+            running.countDown();
+            TimeUnit.MILLISECONDS.sleep( 200 );
+            return running.getCount();
+        }, () -> {
+            running.countDown();
+            return running.getCount();
+        } );
+
+        assertEquals( List.of( 1L, 0L ), executor.executeAll( "test", tasks ) );
+    }
+}
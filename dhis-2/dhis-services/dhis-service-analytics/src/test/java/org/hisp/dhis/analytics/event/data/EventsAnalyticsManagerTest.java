@@ -45,13 +45,26 @@ import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.hisp.dhis.common.QueryOperator.EQ;
 import static org.hisp.dhis.common.QueryOperator.IN;
 import static org.hisp.dhis.common.QueryOperator.NE;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.hisp.dhis.analytics.AggregationType;
@@ -65,11 +78,13 @@ import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.common.QueryFilter;
 import org.hisp.dhis.common.QueryItem;
 import org.hisp.dhis.common.QueryOperator;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.jdbc.statementbuilder.PostgreSQLStatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -85,11 +100,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.google.common.collect.ImmutableList;
@@ -485,6 +502,57 @@ class EventsAnalyticsManagerTest extends EventAnalyticsTest
 
     }
 
+    @Test
+    void verifyStreamEventsWithinMaxLimit()
+        throws Exception
+    {
+        mockCursor( 3 );
+
+        List<List<Object>> rows = new ArrayList<>();
+
+        subject.getEvents( createRequestParams(), createGrid().getHeaders(), rows::add, 3 );
+
+        verify( jdbcTemplate ).queryForObject( sql.capture(), eq( Integer.class ) );
+        verify( jdbcTemplate ).execute( ArgumentMatchers.<ConnectionCallback<Object>> any() );
+
+        assertThat( sql.getValue(), containsString( "limit 4) as limitedrows" ) );
+
+        assertThat( rows, hasSize( 3 ) );
+        assertThat( rows.get( 0 ), hasSize( 3 ) );
+    }
+
+    @Test
+    void verifyStreamEventsWithoutMaxLimit()
+        throws Exception
+    {
+        mockCursor( 3 );
+
+        List<List<Object>> rows = new ArrayList<>();
+
+        subject.getEvents( createRequestParams(), createGrid().getHeaders(), rows::add, 0 );
+
+        verify( jdbcTemplate, never() ).queryForObject( anyString(), eq( Integer.class ) );
+
+        assertThat( rows, hasSize( 3 ) );
+    }
+
+    @Test
+    void verifyStreamEventsExceedingMaxLimit()
+        throws Exception
+    {
+        mockCursor( 3 );
+
+        List<List<Object>> rows = new ArrayList<>();
+
+        IllegalQueryException ex = assertThrows( IllegalQueryException.class,
+            () -> subject.getEvents( createRequestParams(), createGrid().getHeaders(), rows::add, 2 ) );
+
+        assertThat( ex.getErrorCode(), is( ErrorCode.E7128 ) );
+        assertThat( rows, hasSize( 0 ) );
+
+        verify( jdbcTemplate, never() ).execute( ArgumentMatchers.<ConnectionCallback<Object>> any() );
+    }
+
     private EventQueryParams createRequestParamsWithFilter( ValueType queryItemValueType )
     {
         EventQueryParams.Builder params = new EventQueryParams.Builder( createRequestParams( queryItemValueType ) );
@@ -515,6 +583,31 @@ class EventsAnalyticsManagerTest extends EventAnalyticsTest
         when( rowSet.getInt( "value" ) ).thenReturn( 100 );
     }
 
+    /**
+     * Simulates a database cursor returning the given number of rows.
+     */
+    private void mockCursor( int rowCount )
+        throws SQLException
+    {
+        ResultSet resultSet = mock( ResultSet.class );
+        Statement statement = mock( Statement.class );
+        Connection connection = mock( Connection.class );
+
+        AtomicInteger remainingRows = new AtomicInteger( rowCount );
+
+        when( resultSet.getMetaData() ).thenReturn( mock( ResultSetMetaData.class ) );
+        when( resultSet.next() ).thenAnswer( invocation -> remainingRows.getAndDecrement() > 0 );
+        when( resultSet.getString( anyInt() ) ).thenReturn( "A" );
+        when( statement.executeQuery( anyString() ) ).thenReturn( resultSet );
+        when( connection.createStatement() ).thenReturn( statement );
+        when( connection.getAutoCommit() ).thenReturn( true );
+        when( jdbcTemplate.execute( ArgumentMatchers.<ConnectionCallback<Object>> any() ) )
+            .thenAnswer( invocation -> invocation.<ConnectionCallback<Object>> getArgument( 0 )
+                .doInConnection( connection ) );
+        when( jdbcTemplate.queryForObject( startsWith( "select count(*) from (" ), eq( Integer.class ) ) )
+            .thenReturn( rowCount );
+    }
+
     private void assertSql( String expected, String actual )
     {
         expected = "select " + DEFAULT_COLUMNS_WITH_REGISTRATION + "," + expected;
@@ -27,17 +27,26 @@
  */
 package org.hisp.dhis.analytics.table;
 
+import static org.hisp.dhis.util.DateUtils.getLongDateString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsTable;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
@@ -46,6 +55,7 @@ import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.commons.collection.ListUtils;
 import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -57,6 +67,7 @@ import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -170,6 +181,178 @@ class JdbcAnalyticsTableManagerTest
         assertEquals( startTime, partition.getEndDate() );
     }
 
+    @Test
+    void testGetIncrementalLatestAnalyticsTable()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 2, 0 ).toDate();
+        Date lastLatestPartitionUpdate = new DateTime( 2019, 3, 1, 9, 0 ).toDate();
+        Date startTime = new DateTime( 2019, 3, 1, 10, 0 ).toDate();
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( startTime )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        List<Map<String, Object>> queryResp = Lists.newArrayList();
+        queryResp.add( ImmutableMap.of( "dataelementid", 1 ) );
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE ) )
+            .thenReturn( lastLatestPartitionUpdate );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) ).thenReturn( queryResp );
+
+        List<AnalyticsTable> tables = subject.getAnalyticsTables( params );
+
+        assertEquals( 1, tables.size() );
+
+        AnalyticsTablePartition partition = tables.get( 0 ).getLatestPartition();
+
+        assertNotNull( partition );
+        assertTrue( partition.isLatestPartition() );
+        assertEquals( new DateTime( 2019, 3, 1, 8, 0 ).toDate(), partition.getStartDate() );
+        assertEquals( startTime, partition.getEndDate() );
+    }
+
+    @Test
+    void testGetIncrementalLatestAnalyticsTableLateCommit()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 2, 0 ).toDate();
+        Date lastLatestPartitionUpdate = new DateTime( 2019, 3, 1, 9, 0 ).toDate();
+        Date startTime = new DateTime( 2019, 3, 1, 10, 0 ).toDate();
+
+        // Data value stamped before the last update but committed after it,
+        // and the only change since the last update
+
+        Date lateLastUpdated = new DateTime( 2019, 3, 1, 8, 55 ).toDate();
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( startTime )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE ) )
+            .thenReturn( lastLatestPartitionUpdate );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) ).thenAnswer( invocation -> {
+            String sql = invocation.getArgument( 0 );
+            String start = StringUtils.substringBetween( sql, "dv.lastupdated >= '", "'" );
+            return start.compareTo( getLongDateString( lateLastUpdated ) ) <= 0
+                ? Lists.newArrayList( ImmutableMap.of( "dataelementid", 1 ) )
+                : Lists.newArrayList();
+        } );
+
+        AnalyticsTablePartition partition = subject.getAnalyticsTables( params ).get( 0 ).getLatestPartition();
+
+        assertNotNull( partition );
+        assertTrue( partition.getStartDate().compareTo( lateLastUpdated ) <= 0 );
+        assertEquals( startTime, partition.getEndDate() );
+    }
+
+    @Test
+    void testGetIncrementalLatestAnalyticsTableOverlapAfterFullUpdate()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 8, 30 ).toDate();
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE ) )
+            .thenReturn( new DateTime( 2019, 3, 1, 9, 0 ).toDate() );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) )
+            .thenReturn( Lists.newArrayList( ImmutableMap.of( "dataelementid", 1 ) ) );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( new DateTime( 2019, 3, 1, 10, 0 ).toDate() )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        AnalyticsTablePartition partition = subject.getAnalyticsTables( params ).get( 0 ).getLatestPartition();
+
+        assertEquals( lastFullTableUpdate, partition.getStartDate() );
+    }
+
+    @Test
+    void testCreateDeltaTable()
+    {
+        AnalyticsTablePartition partition = getIncrementalLatestPartition();
+
+        List<String> columns = ListUtils.union( partition.getMasterTable().getDimensionColumns(),
+            partition.getMasterTable().getValueColumns() ).stream()
+            .map( col -> StringUtils.remove( col.getName(), '"' ) )
+            .collect( Collectors.toList() );
+
+        when( jdbcTemplate.queryForList( anyString(), eq( String.class ), eq( "analytics" ) ) ).thenReturn( columns );
+
+        subject.createDeltaTable( partition );
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).execute( sqlCaptor.capture() );
+
+        String sql = sqlCaptor.getValue();
+
+        assertTrue( sql.startsWith( "create table analytics_temp_0 (" ), sql );
+        assertTrue( sql.contains( "\"dx\" character(11) not null" ), sql );
+        assertTrue( sql.contains( "\"year\" integer not null" ), sql );
+        assertTrue( sql.contains( "\"value\" double precision" ), sql );
+    }
+
+    @Test
+    void testCreateDeltaTableColumnsChanged()
+    {
+        AnalyticsTablePartition partition = getIncrementalLatestPartition();
+
+        when( jdbcTemplate.queryForList( anyString(), eq( String.class ), eq( "analytics" ) ) )
+            .thenReturn( Lists.newArrayList( "dx", "year" ) );
+
+        assertThrows( IllegalStateException.class, () -> subject.createDeltaTable( partition ) );
+        verify( jdbcTemplate, never() ).execute( anyString() );
+    }
+
+    @Test
+    void testMergeDeltaTable()
+    {
+        AnalyticsTablePartition partition = getIncrementalLatestPartition();
+
+        when( jdbcTemplate.queryForList( "select distinct year from analytics_temp_0", Integer.class ) )
+            .thenReturn( Lists.newArrayList( 2019, 2020 ) );
+        when( jdbcTemplate.queryForObject( anyString(), eq( Boolean.class ), eq( "analytics_2019" ) ) )
+            .thenReturn( true );
+        when( jdbcTemplate.queryForObject( anyString(), eq( Boolean.class ), eq( "analytics_2020" ) ) )
+            .thenReturn( false );
+
+        subject.mergeDeltaTable( partition );
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate, atLeastOnce() ).execute( sqlCaptor.capture() );
+
+        List<String> statements = sqlCaptor.getAllValues();
+
+        assertEquals( "create table analytics_2020 partition of \"analytics\" for values in (2020)",
+            statements.get( 0 ) );
+        assertTrue( statements.stream().noneMatch( sql -> sql.contains( "analytics_2019" ) ) );
+
+        List<String> indexes = statements.stream()
+            .filter( sql -> sql.startsWith( "create index " ) )
+            .collect( Collectors.toList() );
+
+        assertFalse( indexes.isEmpty() );
+        assertTrue( indexes.stream().allMatch( sql -> sql.contains( " on analytics_2020 using " ) ) );
+        assertTrue( indexes.stream().anyMatch( sql -> sql.endsWith( "using btree (\"dx\");" ) ) );
+
+        String mergeSql = statements.get( statements.size() - 1 );
+
+        assertTrue( mergeSql.startsWith( "with removed as (delete from \"analytics\" ax where ax.id in (" ),
+            mergeSql );
+        assertTrue( mergeSql.contains( "where dv.lastupdated >= '2019-03-01T08:00:00' " +
+            "and dv.lastupdated < '2019-03-01T10:00:00')" ), mergeSql );
+        assertTrue( mergeSql.contains( ") insert into \"analytics\" (\"dx\"," ), mergeSql );
+        assertTrue( mergeSql.endsWith( " from analytics_temp_0" ), mergeSql );
+    }
+
     @Test
     void testGetLatestAnalyticsTableNoFullTableUpdate()
     {
@@ -187,4 +370,22 @@ class JdbcAnalyticsTableManagerTest
             .thenReturn( lastLatestPartitionUpdate );
         assertThrows( IllegalArgumentException.class, () -> subject.getAnalyticsTables( params ) );
     }
+
+    private AnalyticsTablePartition getIncrementalLatestPartition()
+    {
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( new DateTime( 2019, 3, 1, 2, 0 ).toDate() );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE ) )
+            .thenReturn( new DateTime( 2019, 3, 1, 9, 0 ).toDate() );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) )
+            .thenReturn( Lists.newArrayList( ImmutableMap.of( "dataelementid", 1 ) ) );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( new DateTime( 2019, 3, 1, 10, 0 ).toDate() )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        return subject.getAnalyticsTables( params ).get( 0 ).getLatestPartition();
+    }
 }
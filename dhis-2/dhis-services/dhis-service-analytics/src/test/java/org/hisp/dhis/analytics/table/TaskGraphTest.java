@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.scheduling.NoopJobProgress;
+import org.junit.jupiter.api.Test;
+
+class TaskGraphTest
+{
+    @Test
+    void testRunRespectsDependencies()
+    {
+        List<String> completed = new CopyOnWriteArrayList<>();
+
+        TaskGraph graph = new TaskGraph()
+            .add( "A", () -> completed.add( "A" ) )
+            .add( "B", () -> completed.add( "B" ), "A" )
+            .add( "C", () -> completed.add( "C" ), "A", "B" );
+
+        assertTrue( graph.run( NoopJobProgress.INSTANCE, 4 ) );
+        assertEquals( List.of( "A", "B", "C" ), completed );
+    }
+
+    @Test
+    void testRunIndependentTasksConcurrently()
+    {
+        CountDownLatch started = new CountDownLatch( 2 );
+
+        Runnable work = () -> {
+            started.countDown();
+
+            try
+            {
+                // Completes only if both tasks are running at the same time
+                if ( !started.await( 10, TimeUnit.SECONDS ) )
+                {
+                    throw new IllegalStateException( "Tasks did not run concurrently" );
+                }
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( ex );
+            }
+        };
+
+        TaskGraph graph = new TaskGraph()
+            .add( "A", work )
+            .add( "B", work );
+
+        assertTrue( graph.run( NoopJobProgress.INSTANCE, 2 ) );
+        assertEquals( 0, started.getCount() );
+    }
+
+    @Test
+    void testRunSkipsDependantsOfFailedTask()
+    {
+        List<String> completed = new CopyOnWriteArrayList<>();
+
+        TaskGraph graph = new TaskGraph()
+            .add( "A", () -> {
+                throw new IllegalStateException( "A failed" );
+            } )
+            .add( "B", () -> completed.add( "B" ), "A" )
+            .add( "C", () -> completed.add( "C" ) );
+
+        assertFalse( graph.run( NoopJobProgress.INSTANCE, 1 ) );
+        assertEquals( List.of( "C" ), completed );
+    }
+
+    @Test
+    void testAddUnknownDependency()
+    {
+        TaskGraph graph = new TaskGraph();
+
+        assertThrows( IllegalArgumentException.class, () -> graph.add( "A", () -> {
+        }, "B" ) );
+    }
+}
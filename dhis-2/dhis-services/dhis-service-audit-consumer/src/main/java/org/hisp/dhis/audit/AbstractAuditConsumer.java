@@ -28,7 +28,10 @@
 package org.hisp.dhis.audit;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.jms.JMSException;
 import javax.jms.TextMessage;
 
 import lombok.extern.slf4j.Slf4j;
@@ -50,24 +53,21 @@ public abstract class AbstractAuditConsumer
 
     protected boolean isAuditDatabaseEnabled;
 
+    /**
+     * Name of the topic consumed.
+     */
+    protected String topic;
+
+    public String getTopic()
+    {
+        return topic;
+    }
+
     protected void _consume( TextMessage message )
     {
         try
         {
-            org.hisp.dhis.artemis.audit.Audit auditMessage = objectMapper.readValue( message.getText(),
-                org.hisp.dhis.artemis.audit.Audit.class );
-
-            if ( auditMessage.getData() != null && !(auditMessage.getData() instanceof String) )
-            {
-                auditMessage.setData( objectMapper.writeValueAsString( auditMessage.getData() ) );
-            }
-
-            org.hisp.dhis.audit.Audit audit = auditMessage.toAudit();
-
-            if ( isAuditLogEnabled )
-            {
-                log.info( objectMapper.writeValueAsString( audit ) );
-            }
+            org.hisp.dhis.audit.Audit audit = toAudit( message );
 
             if ( isAuditDatabaseEnabled )
             {
@@ -85,4 +85,58 @@ public abstract class AbstractAuditConsumer
             log.error( "An error occurred persisting an Audit message of type 'TRACKER'", e );
         }
     }
+
+    /**
+     * Consumes a batch of messages, writing the audits of the batch with a
+     * single batched statement. Messages which can not be de-serialized are
+     * skipped, while errors persisting the audits are thrown so that the batch
+     * can be rolled back and redelivered.
+     *
+     * @param messages the messages of the batch.
+     */
+    public void consumeBatch( List<TextMessage> messages )
+    {
+        List<org.hisp.dhis.audit.Audit> audits = new ArrayList<>( messages.size() );
+
+        for ( TextMessage message : messages )
+        {
+            try
+            {
+                audits.add( toAudit( message ) );
+            }
+            catch ( IOException | JMSException e )
+            {
+                log.error(
+                    "An error occurred de-serializing the message payload. The message can not be de-serialized to an Audit object.",
+                    e );
+            }
+        }
+
+        if ( isAuditDatabaseEnabled && !audits.isEmpty() )
+        {
+            auditService.addAudits( audits );
+        }
+    }
+
+    private org.hisp.dhis.audit.Audit toAudit( TextMessage message )
+        throws IOException,
+        JMSException
+    {
+        org.hisp.dhis.artemis.audit.Audit auditMessage = objectMapper.readValue( message.getText(),
+            org.hisp.dhis.artemis.audit.Audit.class );
+
+        if ( auditMessage.getData() != null && !(auditMessage.getData() instanceof String) )
+        {
+            auditMessage.setData( objectMapper.writeValueAsString( auditMessage.getData() ) );
+        }
+
+        org.hisp.dhis.audit.Audit audit = auditMessage.toAudit();
+
+        if ( isAuditLogEnabled )
+        {
+            log.info( objectMapper.writeValueAsString( audit ) );
+        }
+
+        return audit;
+    }
 }
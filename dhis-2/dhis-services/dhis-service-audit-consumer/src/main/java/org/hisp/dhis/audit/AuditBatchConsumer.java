@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_ENABLED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_TIMEOUT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.artemis.ArtemisManager;
+import org.hisp.dhis.artemis.config.NameDestinationResolver;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Consumes the audit topics in batches, as an alternative to the message by
+ * message {@link AuditConsumer} listeners. Enabled with the config key
+ * {@code audit.consumer.batch.enabled}, in which case the listeners are not
+ * started.
+ * <p>
+ * Each topic is consumed on a dedicated thread with a transacted session.
+ * Messages are received until the batch is full or the batch timeout has
+ * passed, the audits of the batch are written with a single batched statement
+ * and the session is committed. If writing fails the session is rolled back,
+ * so that the messages of the batch are redelivered.
+ * <p>
+ * The number of consumed messages, the write time of batches and the number of
+ * received messages pending a write are recorded per topic when bound to a
+ * {@link MeterRegistry}.
+ */
+@Slf4j
+@Component
+public class AuditBatchConsumer
+    implements SmartLifecycle, MeterBinder
+{
+    private static final String METRIC_MESSAGES = "audit.consumer.messages";
+
+    private static final String METRIC_WRITE = "audit.consumer.write";
+
+    private static final String METRIC_PENDING = "audit.consumer.pending";
+
+    private static final String TAG_TOPIC = "topic";
+
+    /**
+     * Max time in milliseconds to wait for the first message of a batch, before
+     * checking whether the consumer is still running.
+     */
+    private static final long RECEIVE_TIMEOUT = 1_000;
+
+    /**
+     * Time in milliseconds to wait before reconnecting after a failure.
+     */
+    private static final long RECONNECT_DELAY = 5_000;
+
+    private final List<AbstractAuditConsumer> consumers;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final NameDestinationResolver destinationResolver;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final long batchTimeout;
+
+    private final List<TopicReceiver> receivers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * @param artemisManager not used, makes sure an embedded broker is started
+     *        first.
+     */
+    public AuditBatchConsumer( List<AbstractAuditConsumer> consumers, ConnectionFactory connectionFactory,
+        NameDestinationResolver destinationResolver, DhisConfigurationProvider dhisConfig,
+        ArtemisManager artemisManager )
+    {
+        this.consumers = consumers;
+        this.connectionFactory = connectionFactory;
+        this.destinationResolver = destinationResolver;
+        this.enabled = dhisConfig.isEnabled( AUDIT_CONSUMER_BATCH_ENABLED );
+        this.batchSize = Integer.parseInt( dhisConfig.getProperty( AUDIT_CONSUMER_BATCH_SIZE ) );
+        this.batchTimeout = Long.parseLong( dhisConfig.getProperty( AUDIT_CONSUMER_BATCH_TIMEOUT ) );
+
+        for ( AbstractAuditConsumer consumer : consumers )
+        {
+            receivers.add( new TopicReceiver( consumer ) );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // SmartLifecycle implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void start()
+    {
+        if ( !enabled || running )
+        {
+            return;
+        }
+
+        running = true;
+
+        log.info( String.format( "Starting batched audit consumer for %d topics, batch size: %d, timeout: %d ms",
+            consumers.size(), batchSize, batchTimeout ) );
+
+        for ( TopicReceiver receiver : receivers )
+        {
+            Thread thread = new Thread( receiver, "audit-consumer-" + receiver.consumer.getTopic() );
+            thread.setDaemon( true );
+            thread.start();
+
+            receiver.thread = thread;
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        running = false;
+
+        for ( TopicReceiver receiver : receivers )
+        {
+            if ( receiver.thread != null )
+            {
+                try
+                {
+                    receiver.thread.join( RECEIVE_TIMEOUT + batchTimeout );
+                }
+                catch ( InterruptedException ex )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    // -------------------------------------------------------------------------
+    // MeterBinder implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        this.registry = registry;
+
+        for ( TopicReceiver receiver : receivers )
+        {
+            Gauge.builder( METRIC_PENDING, receiver.pending, AtomicInteger::get )
+                .tag( TAG_TOPIC, receiver.consumer.getTopic() )
+                .register( registry );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void recordBatch( String topic, int messages, long nanos )
+    {
+        MeterRegistry meterRegistry = registry;
+
+        if ( meterRegistry != null )
+        {
+            Counter.builder( METRIC_MESSAGES )
+                .tag( TAG_TOPIC, topic )
+                .register( meterRegistry )
+                .increment( messages );
+
+            Timer.builder( METRIC_WRITE )
+                .tag( TAG_TOPIC, topic )
+                .register( meterRegistry )
+                .record( nanos, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    /**
+     * Receives the messages of the topic of one consumer in batches, until the
+     * batch consumer is stopped.
+     */
+    private class TopicReceiver
+        implements Runnable
+    {
+        private final AbstractAuditConsumer consumer;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Thread thread;
+
+        TopicReceiver( AbstractAuditConsumer consumer )
+        {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run()
+        {
+            while ( running )
+            {
+                try ( Connection connection = connectionFactory.createConnection() )
+                {
+                    Session session = connection.createSession( true, Session.SESSION_TRANSACTED );
+                    MessageConsumer messageConsumer = session.createConsumer(
+                        destinationResolver.resolveDestinationName( session, consumer.getTopic(), true ) );
+
+                    connection.start();
+
+                    while ( running )
+                    {
+                        consumeBatch( session, messageConsumer );
+                    }
+                }
+                catch ( JMSException ex )
+                {
+                    log.error( String.format( "Batched audit consumer of topic '%s' failed, reconnecting",
+                        consumer.getTopic() ), ex );
+
+                    pending.set( 0 );
+
+                    sleep( RECONNECT_DELAY );
+                }
+            }
+        }
+
+        private void consumeBatch( Session session, MessageConsumer messageConsumer )
+            throws JMSException
+        {
+            List<TextMessage> batch = receiveBatch( messageConsumer );
+
+            if ( batch.isEmpty() )
+            {
+                return;
+            }
+
+            long started = System.nanoTime();
+
+            try
+            {
+                consumer.consumeBatch( batch );
+
+                session.commit();
+
+                recordBatch( consumer.getTopic(), batch.size(), System.nanoTime() - started );
+            }
+            catch ( RuntimeException ex )
+            {
+                log.error( String.format( "Failed to write batch of %d audits of topic '%s', rolling back",
+                    batch.size(), consumer.getTopic() ), ex );
+
+                session.rollback();
+
+                sleep( RECONNECT_DELAY );
+            }
+            finally
+            {
+                pending.set( 0 );
+            }
+        }
+
+        private List<TextMessage> receiveBatch( MessageConsumer messageConsumer )
+            throws JMSException
+        {
+            List<TextMessage> batch = new ArrayList<>();
+
+            Message message = messageConsumer.receive( RECEIVE_TIMEOUT );
+
+            long deadline = System.currentTimeMillis() + batchTimeout;
+
+            while ( message != null )
+            {
+                if ( message instanceof TextMessage )
+                {
+                    batch.add( (TextMessage) message );
+                    pending.set( batch.size() );
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+
+                if ( batch.size() >= batchSize || remaining <= 0 )
+                {
+                    break;
+                }
+
+                message = messageConsumer.receive( remaining );
+            }
+
+            return batch;
+        }
+
+        private void sleep( long millis )
+        {
+            try
+            {
+                Thread.sleep( millis );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
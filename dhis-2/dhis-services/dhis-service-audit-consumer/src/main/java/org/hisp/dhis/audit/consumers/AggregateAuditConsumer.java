@@ -53,12 +53,13 @@ public class AggregateAuditConsumer
     {
         this.auditService = auditService;
         this.objectMapper = objectMapper;
+        this.topic = Topics.AGGREGATE_TOPIC_NAME;
 
         this.isAuditLogEnabled = dhisConfig.isEnabled( ConfigurationKey.AUDIT_LOGGER );
         this.isAuditDatabaseEnabled = dhisConfig.isEnabled( ConfigurationKey.AUDIT_DATABASE );
     }
 
-    @JmsListener( destination = Topics.AGGREGATE_TOPIC_NAME )
+    @JmsListener( destination = Topics.AGGREGATE_TOPIC_NAME, containerFactory = "jmsAuditListenerContainerFactory" )
     public void consume( TextMessage message )
     {
         _consume( message );
@@ -57,6 +57,7 @@ public class TrackerAuditConsumer
     {
         this.auditService = auditService;
         this.objectMapper = objectMapper;
+        this.topic = Topics.TRACKER_TOPIC_NAME;
 
         // for legacy reasons we are overriding the default here and using "off"
         // for tracking logger (we don't have a specific key for tracker logger)
@@ -65,7 +66,7 @@ public class TrackerAuditConsumer
         this.isAuditDatabaseEnabled = dhisConfig.isEnabled( ConfigurationKey.AUDIT_DATABASE );
     }
 
-    @JmsListener( destination = Topics.TRACKER_TOPIC_NAME )
+    @JmsListener( destination = Topics.TRACKER_TOPIC_NAME, containerFactory = "jmsAuditListenerContainerFactory" )
     public void consume( TextMessage message )
     {
         _consume( message );
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_ENABLED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.AUDIT_CONSUMER_BATCH_TIMEOUT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.hisp.dhis.artemis.config.NameDestinationResolver;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+class AuditBatchConsumerTest
+{
+    private static final long VERIFY_TIMEOUT = 5_000;
+
+    private AbstractAuditConsumer consumer;
+
+    private Session session;
+
+    private MessageConsumer messageConsumer;
+
+    private ConnectionFactory connectionFactory;
+
+    private NameDestinationResolver destinationResolver;
+
+    private AuditBatchConsumer subject;
+
+    @BeforeEach
+    void setUp()
+        throws Exception
+    {
+        consumer = mock( AbstractAuditConsumer.class );
+        when( consumer.getTopic() ).thenReturn( "AUDIT_METADATA" );
+
+        session = mock( Session.class );
+        messageConsumer = mock( MessageConsumer.class );
+        when( session.createConsumer( any( Destination.class ) ) ).thenReturn( messageConsumer );
+
+        Connection connection = mock( Connection.class );
+        when( connection.createSession( anyBoolean(), anyInt() ) ).thenReturn( session );
+
+        connectionFactory = mock( ConnectionFactory.class );
+        when( connectionFactory.createConnection() ).thenReturn( connection );
+
+        destinationResolver = mock( NameDestinationResolver.class );
+        when( destinationResolver.resolveDestinationName( any( Session.class ), anyString(), anyBoolean() ) )
+            .thenReturn( mock( Destination.class ) );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        if ( subject != null )
+        {
+            subject.stop();
+        }
+    }
+
+    @Test
+    void testFlushWhenBatchIsFull()
+        throws Exception
+    {
+        List<TextMessage> messages = createMessages( 5 );
+        mockReceive( messages, 0 );
+
+        subject = createSubject( 2, 60_000 );
+        subject.start();
+
+        List<List<TextMessage>> batches = captureBatches( 3 );
+
+        assertEquals( List.of( messages.subList( 0, 2 ), messages.subList( 2, 4 ), messages.subList( 4, 5 ) ),
+            batches );
+        verify( session, timeout( VERIFY_TIMEOUT ).times( 3 ) ).commit();
+        verify( session, never() ).rollback();
+    }
+
+    @Test
+    void testFlushWhenBatchTimeoutPassed()
+        throws Exception
+    {
+        // Messages keep arriving every 20 ms, so the batch is only written
+        // because the batch timeout passed
+
+        mockReceive( createMessages( 1_000 ), 20 );
+
+        subject = createSubject( 1_000, 200 );
+        subject.start();
+
+        List<TextMessage> batch = captureBatches( 1 ).get( 0 );
+
+        assertTrue( batch.size() > 1 && batch.size() < 1_000, "Batch size: " + batch.size() );
+        verify( session, timeout( VERIFY_TIMEOUT ).atLeastOnce() ).commit();
+    }
+
+    @Test
+    void testRollbackWhenWriteFails()
+        throws Exception
+    {
+        List<TextMessage> messages = createMessages( 2 );
+        mockReceive( messages, 0 );
+
+        doThrow( new IllegalStateException( "Failed to write audits" ) ).when( consumer ).consumeBatch( any() );
+
+        subject = createSubject( 2, 100 );
+        subject.start();
+
+        verify( session, timeout( VERIFY_TIMEOUT ) ).rollback();
+
+        InOrder inOrder = inOrder( consumer, session );
+        inOrder.verify( consumer ).consumeBatch( messages );
+        inOrder.verify( session ).rollback();
+
+        verify( session, never() ).commit();
+
+        for ( TextMessage message : messages )
+        {
+            verify( message, never() ).acknowledge();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private AuditBatchConsumer createSubject( int batchSize, long batchTimeout )
+    {
+        DhisConfigurationProvider config = mock( DhisConfigurationProvider.class );
+        when( config.isEnabled( AUDIT_CONSUMER_BATCH_ENABLED ) ).thenReturn( true );
+        when( config.getProperty( AUDIT_CONSUMER_BATCH_SIZE ) ).thenReturn( String.valueOf( batchSize ) );
+        when( config.getProperty( AUDIT_CONSUMER_BATCH_TIMEOUT ) ).thenReturn( String.valueOf( batchTimeout ) );
+
+        return new AuditBatchConsumer( List.of( consumer ), connectionFactory, destinationResolver, config, null );
+    }
+
+    private List<TextMessage> createMessages( int count )
+    {
+        List<TextMessage> messages = new ArrayList<>();
+
+        for ( int i = 0; i < count; i++ )
+        {
+            messages.add( mock( TextMessage.class ) );
+        }
+
+        return messages;
+    }
+
+    /**
+     * Makes the message consumer return the given messages, each after the
+     * given delay in milliseconds, and then no message.
+     */
+    private void mockReceive( List<TextMessage> messages, long delay )
+        throws Exception
+    {
+        AtomicInteger next = new AtomicInteger();
+
+        when( messageConsumer.receive( anyLong() ) ).thenAnswer( invocation -> {
+            int index = next.getAndIncrement();
+
+            if ( index < messages.size() )
+            {
+                Thread.sleep( delay );
+                return messages.get( index );
+            }
+
+            Thread.sleep( 10 );
+            return null;
+        } );
+    }
+
+    /**
+     * Waits for the given number of batches to be written and returns them.
+     */
+    @SuppressWarnings( "unchecked" )
+    private List<List<TextMessage>> captureBatches( int count )
+    {
+        ArgumentCaptor<List<TextMessage>> captor = ArgumentCaptor.forClass( List.class );
+
+        verify( consumer, timeout( VERIFY_TIMEOUT ).atLeast( count ) ).consumeBatch( captor.capture() );
+
+        return captor.getAllValues().subList( 0, count );
+    }
+}
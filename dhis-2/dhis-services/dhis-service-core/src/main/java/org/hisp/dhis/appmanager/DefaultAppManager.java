@@ -48,6 +48,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheBuilderProvider;
+import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex;
 import org.hisp.dhis.datastore.DatastoreNamespaceProtection;
 import org.hisp.dhis.datastore.DatastoreNamespaceProtection.ProtectionType;
 import org.hisp.dhis.datastore.DatastoreService;
@@ -438,6 +440,29 @@ public class DefaultAppManager
                 : new String[] { WEB_MAINTENANCE_APPMANAGER_AUTHORITY, app.getSeeAppAuthority() };
             datastoreService.addProtection(
                 new DatastoreNamespaceProtection( namespace, ProtectionType.RESTRICTED, true, authorities ) );
+            registerKeyJsonValueIndexes( app, namespace );
+        }
+    }
+
+    private void registerKeyJsonValueIndexes( App app, String namespace )
+    {
+        List<AppDhis.Index> indexes = app.getActivities().getDhis().getIndexes();
+        if ( indexes == null )
+        {
+            return;
+        }
+        for ( AppDhis.Index index : indexes )
+        {
+            try
+            {
+                datastoreService.addIndex( new DatastoreNamespaceIndex( namespace, index.getPath(),
+                    index.getType() ) );
+            }
+            catch ( IllegalArgumentException | IllegalQueryException ex )
+            {
+                log.warn( String.format( "Ignoring invalid datastore index '%s' of app '%s': %s",
+                    index.getPath(), app.getKey(), ex.getMessage() ) );
+            }
         }
     }
 
@@ -447,6 +472,7 @@ public class DefaultAppManager
         if ( namespace != null && !namespace.isEmpty() )
         {
             datastoreService.removeProtection( namespace );
+            datastoreService.removeIndexes( namespace );
         }
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.common;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Caches the {@link ModificationState} per type. Each type has a version
+ * which is incremented when the type is invalidated, and cached states are
+ * tagged with the version they were computed for, so that a state computed
+ * concurrently with a change of the type is never returned from the cache.
+ * States also expire shortly after they were computed, which covers changes
+ * made on other nodes of a cluster.
+ */
+@Service( "org.hisp.dhis.common.ModificationStateService" )
+public class DefaultModificationStateService
+    implements ModificationStateService
+{
+    private static final String LAST_UPDATED = "lastUpdated";
+
+    private final SessionFactory sessionFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<VersionedState> cache;
+
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public DefaultModificationStateService( SessionFactory sessionFactory,
+        PlatformTransactionManager transactionManager, CacheProvider cacheProvider )
+    {
+        checkNotNull( sessionFactory );
+        checkNotNull( transactionManager );
+        checkNotNull( cacheProvider );
+
+        this.sessionFactory = sessionFactory;
+        this.cache = cacheProvider.createModificationStateCache();
+
+        // Separate read-only transaction so that uncommitted changes of the
+        // calling transaction never end up in the shared cache
+
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+        this.transactionTemplate.setReadOnly( true );
+    }
+
+    // -------------------------------------------------------------------------
+    // ModificationStateService implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public ModificationState getModificationState( Class<?> type )
+    {
+        long version = getVersion( type ).get();
+
+        Optional<VersionedState> cached = cache.get( type.getName() );
+
+        if ( cached.isPresent() && cached.get().version == version )
+        {
+            return cached.get().state;
+        }
+
+        ModificationState state = transactionTemplate.execute( status -> computeModificationState( type ) );
+
+        cache.put( type.getName(), new VersionedState( version, state ) );
+
+        return state;
+    }
+
+    /**
+     * Invalidates the cached modification state of the given type and of its
+     * super types, as the objects of a type are included in the state of its
+     * super types.
+     */
+    @Override
+    public void invalidate( Class<?> type )
+    {
+        for ( Class<?> klass = type; klass != null && klass != Object.class; klass = klass.getSuperclass() )
+        {
+            getVersion( klass ).incrementAndGet();
+            cache.invalidate( klass.getName() );
+        }
+    }
+
+    @EventListener
+    public void handleApplicationCachesCleared( ApplicationCacheClearedEvent event )
+    {
+        versions.values().forEach( AtomicLong::incrementAndGet );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private AtomicLong getVersion( Class<?> type )
+    {
+        return versions.computeIfAbsent( type, key -> new AtomicLong() );
+    }
+
+    private ModificationState computeModificationState( Class<?> type )
+    {
+        Session session = sessionFactory.getCurrentSession();
+
+        EntityPersister persister = ((MetamodelImplementor) sessionFactory.getMetamodel()).entityPersister( type );
+
+        String entityName = persister.getEntityName();
+
+        Date lastUpdated = null;
+        long count;
+
+        if ( Arrays.asList( persister.getPropertyNames() ).contains( LAST_UPDATED ) )
+        {
+            Object[] result = session.createQuery(
+                "select max(" + LAST_UPDATED + "), count(*) from " + entityName, Object[].class )
+                .getSingleResult();
+
+            lastUpdated = (Date) result[0];
+            count = (Long) result[1];
+        }
+        else
+        {
+            count = session.createQuery( "select count(*) from " + entityName, Long.class )
+                .getSingleResult();
+        }
+
+        Date lastDeleted = session.createQuery(
+            "select max(deletedAt) from DeletedObject where klass = :klass", Date.class )
+            .setParameter( "klass", ClassUtils.getShortName( type ) )
+            .getSingleResult();
+
+        return new ModificationState( type, lastUpdated, lastDeleted, count );
+    }
+
+    @RequiredArgsConstructor
+    private static final class VersionedState
+    {
+        private final long version;
+
+        private final ModificationState state;
+    }
+}
@@ -28,6 +28,7 @@
 package org.hisp.dhis.datastore;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
@@ -42,6 +43,7 @@ import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.datastore.DatastoreNamespaceProtection.ProtectionType;
@@ -49,6 +51,7 @@ import org.hisp.dhis.render.RenderService;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,6 +60,7 @@ import org.springframework.transaction.annotation.Transactional;
  * @author Stian Sandvold (initial)
  * @author Jan Bernitt (namespace protection)
  */
+@Slf4j
 @AllArgsConstructor
 @Service
 public class DefaultDatastoreService
@@ -64,6 +68,8 @@ public class DefaultDatastoreService
 {
     private final Map<String, DatastoreNamespaceProtection> protectionByNamespace = new ConcurrentHashMap<>();
 
+    private final Map<String, Set<DatastoreNamespaceIndex>> indexesByNamespace = new ConcurrentHashMap<>();
+
     private final DatastoreStore store;
 
     private final CurrentUserService currentUserService;
@@ -84,6 +90,48 @@ public class DefaultDatastoreService
         protectionByNamespace.remove( namespace );
     }
 
+    @Override
+    public void addIndex( DatastoreNamespaceIndex declaration )
+    {
+        String path = DatastoreQuery.normalisePath( declaration.getPath() );
+        if ( ".".equals( path ) || "_".equals( path ) )
+        {
+            throw new IllegalArgumentException( String.format(
+                "Index path must refer to a property of the value but was: '%s'", path ) );
+        }
+        // filters use the normalised path so the index has to as well
+        DatastoreNamespaceIndex index = new DatastoreNamespaceIndex( declaration.getNamespace(), path,
+            declaration.getType() );
+        try
+        {
+            store.createIndex( index );
+        }
+        catch ( DataAccessException ex )
+        {
+            // queries still work without the index, just slower
+            log.warn( String.format( "Failed to create datastore index %s", index ), ex );
+            return;
+        }
+        indexesByNamespace.computeIfAbsent( index.getNamespace(), ns -> ConcurrentHashMap.newKeySet() )
+            .add( index );
+    }
+
+    @Override
+    public void removeIndexes( String namespace )
+    {
+        Set<DatastoreNamespaceIndex> indexes = indexesByNamespace.remove( namespace );
+        if ( indexes != null )
+        {
+            indexes.forEach( store::dropIndex );
+        }
+    }
+
+    @Override
+    public Set<DatastoreNamespaceIndex> getIndexes( String namespace )
+    {
+        return indexesByNamespace.getOrDefault( namespace, emptySet() );
+    }
+
     @Override
     @Transactional( readOnly = true )
     public List<String> getNamespaces()
@@ -113,7 +161,7 @@ public class DefaultDatastoreService
     {
         DatastoreQueryValidator.validate( query );
         return readProtectedIn( query.getNamespace(), null,
-            () -> store.getFields( query, transform ) );
+            () -> store.getFields( query, getIndexes( query.getNamespace() ), transform ) );
     }
 
     @Override
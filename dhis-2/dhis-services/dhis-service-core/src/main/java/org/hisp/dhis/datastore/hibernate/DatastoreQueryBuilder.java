@@ -31,17 +31,22 @@ import static java.lang.Boolean.parseBoolean;
 import static java.lang.Double.parseDouble;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
 
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex;
 import org.hisp.dhis.datastore.DatastoreQuery;
 import org.hisp.dhis.datastore.DatastoreQuery.Comparison;
 import org.hisp.dhis.datastore.DatastoreQuery.Filter;
@@ -52,28 +57,48 @@ import org.hisp.dhis.system.util.SqlUtils;
  * Creates the HQL from a {@link DatastoreQuery} using {@link #createFetchHQL()}
  * and can set parameters for the filter value placeholders in that query using
  * {@link #applyParameterValues(BiConsumer)}.
+ * <p>
+ * When {@link DatastoreNamespaceIndex}es are declared for the namespace of the
+ * query the namespace is inlined as a literal so that the partial indexes
+ * created by {@link #createIndexSQL(DatastoreNamespaceIndex)} can be used also
+ * when the database switches to a generic plan for the prepared statement. The
+ * filter and order expressions are the same expressions that are indexed.
  *
  * @author Jan Bernitt
  */
 @AllArgsConstructor
 public class DatastoreQueryBuilder
 {
+    private static final String INDEX_NAME_PREFIX = "in_keyjsonvalue_";
+
     private final DatastoreQuery query;
 
+    private final Set<DatastoreNamespaceIndex> indexes;
+
+    public DatastoreQueryBuilder( DatastoreQuery query )
+    {
+        this( query, emptySet() );
+    }
+
     String createFetchHQL()
     {
+        String namespace = createNamespaceFilterHQL();
         String fields = createFieldsHQL();
         String nonNullFilters = createHasNonNullFieldsFilters();
         String orders = createOrderHQL();
         String filters = createFilterHQL();
 
         return format(
-            "select key %s from DatastoreEntry where namespace = :namespace and (%s) and (%s) order by %s",
-            fields, nonNullFilters, filters, orders );
+            "select key %s from DatastoreEntry where %s and (%s) and (%s) order by %s",
+            fields, namespace, nonNullFilters, filters, orders );
     }
 
     void applyParameterValues( BiConsumer<String, Object> setParameter )
     {
+        if ( !isNamespaceInlined() )
+        {
+            setParameter.accept( "namespace", query.getNamespace() );
+        }
         int i = 0;
         for ( Filter f : query.getFilters() )
         {
@@ -85,6 +110,78 @@ public class DatastoreQueryBuilder
         }
     }
 
+    /**
+     * The index is built concurrently so that writes to the table are not
+     * blocked while it is built. The statement must run outside of a
+     * transaction.
+     *
+     * @param index the index to create
+     * @return the SQL to create the partial expression index for the provided
+     *         index declaration
+     */
+    static String createIndexSQL( DatastoreNamespaceIndex index )
+    {
+        return format( "create index concurrently if not exists %s on keyjsonvalue (%s) where namespace = %s",
+            createIndexName( index ), createIndexExpressionSQL( index ),
+            SqlUtils.singleQuote( index.getNamespace() ) );
+    }
+
+    /**
+     * @param index the index to drop
+     * @return the SQL to drop the index for the provided index declaration
+     */
+    static String createDropIndexSQL( DatastoreNamespaceIndex index )
+    {
+        return "drop index concurrently if exists " + createIndexName( index );
+    }
+
+    /**
+     * The name is derived from the declaration so that the same declaration
+     * always refers to the same database index.
+     */
+    static String createIndexName( DatastoreNamespaceIndex index )
+    {
+        String declaration = index.getNamespace() + ":" + index.getPath() + ":" + index.getType();
+        return INDEX_NAME_PREFIX + UUID.nameUUIDFromBytes( declaration.getBytes( StandardCharsets.UTF_8 ) )
+            .toString().replace( "-", "" );
+    }
+
+    /**
+     * The indexed expressions are the SQL form of the HQL expressions used
+     * for the same path in {@link #createFilterHQL(Filter, int)} and
+     * {@link #createOrderHQL()}. Numeric orders cast the value to double and
+     * are not indexed, as an index on the cast would reject writes of
+     * non-numeric values at the path.
+     */
+    private static String createIndexExpressionSQL( DatastoreNamespaceIndex index )
+    {
+        String path = toPathSegments( index.getPath() );
+        switch ( index.getType() )
+        {
+        case TEXT_IGNORE_CASE:
+            // pattern ops allow to use the index for like with a fixed start
+            return "(lower(jsonb_extract_path_text(jbvalue, " + path + " ))) text_pattern_ops";
+        case JSON:
+            return "(jsonb_extract_path(jbvalue, " + path + " ))";
+        default:
+            return "(jsonb_extract_path_text(jbvalue, " + path + " ))";
+        }
+    }
+
+    private boolean isNamespaceInlined()
+    {
+        return indexes != null && !indexes.isEmpty();
+    }
+
+    private String createNamespaceFilterHQL()
+    {
+        // a parameter would hide the namespace from the planner when a
+        // generic plan is used so that partial indexes cannot be matched
+        return isNamespaceInlined()
+            ? "namespace = " + SqlUtils.singleQuote( query.getNamespace() )
+            : "namespace = :namespace";
+    }
+
     private String createFieldsHQL()
     {
         return query.getFields().isEmpty()
@@ -30,30 +30,43 @@ package org.hisp.dhis.datastore.hibernate;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOfRange;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.persistence.criteria.CriteriaBuilder;
 
+import lombok.extern.slf4j.Slf4j;
+
 import org.hibernate.SessionFactory;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.Query;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
 import org.hisp.dhis.datastore.DatastoreEntry;
 import org.hisp.dhis.datastore.DatastoreFields;
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex;
 import org.hisp.dhis.datastore.DatastoreQuery;
 import org.hisp.dhis.datastore.DatastoreStore;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.user.CurrentUserService;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 /**
  * @author Stian Sandvold
  */
+@Slf4j
 @Repository
 public class HibernateDatastoreStore
     extends HibernateIdentifiableObjectStore<DatastoreEntry>
@@ -114,11 +127,17 @@ public class HibernateDatastoreStore
     @Override
     public <T> T getFields( DatastoreQuery query, Function<Stream<DatastoreFields>, T> transform )
     {
-        DatastoreQueryBuilder builder = new DatastoreQueryBuilder( query );
+        return getFields( query, emptySet(), transform );
+    }
+
+    @Override
+    public <T> T getFields( DatastoreQuery query, Set<DatastoreNamespaceIndex> indexes,
+        Function<Stream<DatastoreFields>, T> transform )
+    {
+        DatastoreQueryBuilder builder = new DatastoreQueryBuilder( query, indexes );
         String hql = builder.createFetchHQL();
 
         Query<?> hQuery = getSession().createQuery( hql, Object[].class )
-            .setParameter( "namespace", query.getNamespace() )
             .setCacheable( false );
 
         builder.applyParameterValues( hQuery::setParameter );
@@ -169,4 +188,59 @@ public class HibernateDatastoreStore
         Query<Long> count = getTypedQuery( hql );
         return count.setParameter( "namespace", namespace ).getSingleResult().intValue();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void createIndex( DatastoreNamespaceIndex index )
+    {
+        if ( !isPostgres() )
+        {
+            log.debug( String.format( "Skipping creation of datastore index %s, not supported by dialect", index ) );
+            return;
+        }
+
+        try
+        {
+            executeWithoutTransaction( DatastoreQueryBuilder.createIndexSQL( index ) );
+        }
+        catch ( DataAccessException ex )
+        {
+            // a failed concurrent build leaves an invalid index behind which
+            // would otherwise prevent creating it again
+            executeWithoutTransaction( DatastoreQueryBuilder.createDropIndexSQL( index ) );
+            throw ex;
+        }
+    }
+
+    @Override
+    public void dropIndex( DatastoreNamespaceIndex index )
+    {
+        if ( isPostgres() )
+        {
+            executeWithoutTransaction( DatastoreQueryBuilder.createDropIndexSQL( index ) );
+        }
+    }
+
+    /**
+     * Executes the given statement on a connection of its own in auto-commit
+     * mode, as concurrent index statements cannot run within a transaction.
+     */
+    private void executeWithoutTransaction( String sql )
+    {
+        try ( Connection connection = jdbcTemplate.getDataSource().getConnection();
+            Statement statement = connection.createStatement() )
+        {
+            connection.setAutoCommit( true );
+            statement.execute( sql );
+        }
+        catch ( SQLException ex )
+        {
+            throw new UncategorizedSQLException( "Datastore index", sql, ex );
+        }
+    }
+
+    private boolean isPostgres()
+    {
+        return sessionFactory.unwrap( SessionFactoryImplementor.class ).getJdbcServices()
+            .getDialect() instanceof PostgreSQL81Dialect;
+    }
+}
@@ -35,6 +35,7 @@ import static org.hisp.dhis.system.util.ValidationUtils.dataValueIsZeroAndInsign
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -347,6 +348,13 @@ public class DefaultDataValueService
         return dataValueStore.getDeflatedDataValues( params );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public void getDeflatedDataValues( DataExportParams params, Consumer<DeflatedDataValue> consumer )
+    {
+        dataValueStore.getDeflatedDataValues( params, consumer );
+    }
+
     @Override
     @Transactional( readOnly = true )
     public int getDataValueCount( int days )
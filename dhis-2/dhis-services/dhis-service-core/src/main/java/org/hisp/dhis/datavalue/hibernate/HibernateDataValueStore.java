@@ -32,11 +32,14 @@ import static org.hisp.dhis.common.OrganisationUnitSelectionMode.DESCENDANTS;
 import static org.hisp.dhis.commons.util.TextUtils.getCommaDelimitedString;
 import static org.hisp.dhis.commons.util.TextUtils.removeLastOr;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -64,7 +67,6 @@ import org.hisp.dhis.period.PeriodStore;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -75,6 +77,11 @@ import org.springframework.stereotype.Repository;
 public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
     implements DataValueStore
 {
+    /**
+     * Number of rows fetched at a time when reading deflated data values.
+     */
+    private static final int DDV_FETCH_SIZE = 10_000;
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -307,6 +314,45 @@ public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
 
     @Override
     public List<DeflatedDataValue> getDeflatedDataValues( DataExportParams params )
+    {
+        List<DeflatedDataValue> result = new ArrayList<>();
+
+        if ( params.hasBlockingQueue() )
+        {
+            if ( queryDeflatedDataValues( params,
+                ddv -> addToBlockingQueue( params.getBlockingQueue(), ddv ) ) )
+            {
+                addToBlockingQueue( params.getBlockingQueue(), END_OF_DDV_DATA );
+            }
+        }
+        else
+        {
+            queryDeflatedDataValues( params, result::add );
+        }
+
+        return result;
+    }
+
+    @Override
+    public void getDeflatedDataValues( DataExportParams params, Consumer<DeflatedDataValue> consumer )
+    {
+        queryDeflatedDataValues( params, ddv -> {
+            consumer.accept( ddv );
+            return true;
+        } );
+    }
+
+    /**
+     * Queries the deflated data values and passes them to the given handler
+     * one by one as they are read. Within a transaction the rows are fetched
+     * from a cursor in chunks of {@link #DDV_FETCH_SIZE}, so the result is
+     * never held in memory as a whole.
+     *
+     * @param params the data export parameters.
+     * @param handler the handler of each value, returns false to abort.
+     * @return true if all values were handled, false if aborted.
+     */
+    private boolean queryDeflatedDataValues( DataExportParams params, Function<DeflatedDataValue, Boolean> handler )
     {
         SqlHelper sqlHelper = new SqlHelper( true );
 
@@ -458,53 +504,49 @@ public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
             sql += " order by ou.path";
         }
 
-        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+        String query = sql;
 
-        List<DeflatedDataValue> result = new ArrayList<>();
+        return jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( query );
+            statement.setFetchSize( DDV_FETCH_SIZE );
+            return statement;
+        }, ( ResultSet rowSet ) -> {
+            int count = 0;
 
-        while ( rowSet.next() )
-        {
-            Integer dataElementId = rowSet.getInt( 1 );
-            Integer periodId = rowSet.getInt( 2 );
-            Integer organisationUnitId = rowSet.getInt( 3 );
-            Integer categoryOptionComboId = rowSet.getInt( 4 );
-            Integer attributeOptionComboId = rowSet.getInt( 5 );
-            String value = rowSet.getString( 6 );
-            String storedBy = rowSet.getString( 7 );
-            Date created = rowSet.getDate( 8 );
-            Date lastUpdated = rowSet.getDate( 9 );
-            String comment = rowSet.getString( 10 );
-            boolean followup = rowSet.getBoolean( 11 );
-            boolean deleted = rowSet.getBoolean( 12 );
-            String sourcePath = joinOrgUnit ? rowSet.getString( 13 ) : null;
-
-            DeflatedDataValue ddv = new DeflatedDataValue( dataElementId, periodId,
-                organisationUnitId, categoryOptionComboId, attributeOptionComboId,
-                value, storedBy, created, lastUpdated, comment, followup, deleted );
-
-            ddv.setSourcePath( sourcePath );
-
-            if ( params.hasBlockingQueue() )
+            while ( rowSet.next() )
             {
-                if ( !addToBlockingQueue( params.getBlockingQueue(), ddv ) )
+                Integer dataElementId = rowSet.getInt( 1 );
+                Integer periodId = rowSet.getInt( 2 );
+                Integer organisationUnitId = rowSet.getInt( 3 );
+                Integer categoryOptionComboId = rowSet.getInt( 4 );
+                Integer attributeOptionComboId = rowSet.getInt( 5 );
+                String value = rowSet.getString( 6 );
+                String storedBy = rowSet.getString( 7 );
+                Date created = rowSet.getDate( 8 );
+                Date lastUpdated = rowSet.getDate( 9 );
+                String comment = rowSet.getString( 10 );
+                boolean followup = rowSet.getBoolean( 11 );
+                boolean deleted = rowSet.getBoolean( 12 );
+                String sourcePath = joinOrgUnit ? rowSet.getString( 13 ) : null;
+
+                DeflatedDataValue ddv = new DeflatedDataValue( dataElementId, periodId,
+                    organisationUnitId, categoryOptionComboId, attributeOptionComboId,
+                    value, storedBy, created, lastUpdated, comment, followup, deleted );
+
+                ddv.setSourcePath( sourcePath );
+
+                if ( !handler.apply( ddv ) )
                 {
-                    return result; // Abort
+                    return false; // Abort
                 }
-            }
-            else
-            {
-                result.add( ddv );
-            }
-        }
 
-        if ( params.hasBlockingQueue() )
-        {
-            addToBlockingQueue( params.getBlockingQueue(), END_OF_DDV_DATA );
-        }
+                count++;
+            }
 
-        log.debug( result.size() + " DeflatedDataValues returned from: " + sql );
+            log.debug( count + " DeflatedDataValues returned from: " + query );
 
-        return result;
+            return true;
+        } );
     }
 
     @Override
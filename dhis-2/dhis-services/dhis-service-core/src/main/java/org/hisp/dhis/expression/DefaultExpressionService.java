@@ -76,10 +76,12 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -126,6 +128,7 @@ import org.hisp.dhis.indicator.IndicatorValue;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.parser.expression.CompiledExpressionTree;
 import org.hisp.dhis.parser.expression.ExpressionItem;
 import org.hisp.dhis.parser.expression.ExpressionItemMethod;
 import org.hisp.dhis.parser.expression.ExpressionState;
@@ -267,6 +270,8 @@ public class DefaultExpressionService
      */
     private final Cache<Map<String, Constant>> constantMapCache;
 
+    private final Cache<CompiledExpression> compiledExpressionCache;
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -291,6 +296,7 @@ public class DefaultExpressionService
         this.statementBuilder = statementBuilder;
         this.i18nManager = i18nManager;
         this.constantMapCache = cacheProvider.createAllConstantsCache();
+        this.compiledExpressionCache = cacheProvider.createCompiledExpressionCache();
     }
 
     // -------------------------------------------------------------------------
@@ -606,52 +612,34 @@ public class DefaultExpressionService
             return null;
         }
 
-        CommonExpressionVisitor visitor = newVisitor( ITEM_EVALUATE, params );
-
-        Object value = visit( params.getExpression(), params.getDataType(), visitor, true );
+        CompiledExpression expression = compileExpression( params.getExpression(), params.getParseType() );
 
-        ExpressionState state = visitor.getState();
+        DimensionalItemObject[] items = expression.getItems( params.getItemMap() );
 
-        int itemsFound = state.getItemsFound();
-        int itemValuesFound = state.getItemValuesFound();
-
-        if ( state.isUnprotectedNullDateFound() )
-        {
-            return null;
-        }
+        return getExpressionValue( expression, params, items, expression.getItemValues( items, params.getValueMap() ) );
+    }
 
-        switch ( params.getMissingValueStrategy() )
-        {
-        case SKIP_IF_ANY_VALUE_MISSING:
-            if ( itemValuesFound < itemsFound )
-            {
-                return null;
-            }
+    @Override
+    public CompiledExpression compileExpression( String expression, ParseType parseType )
+    {
+        return compiledExpressionCache.get( parseType + ":" + expression,
+            key -> compile( expression, parseType ) );
+    }
 
-        case SKIP_IF_ALL_VALUES_MISSING:
-            if ( itemsFound != 0 && itemValuesFound == 0 )
-            {
-                return null;
-            }
+    @Override
+    public Object getExpressionValue( CompiledExpression expression, ExpressionParams params,
+        DimensionalItemObject[] items, Object[] itemValues )
+    {
+        CompiledExpressionTree tree = (CompiledExpressionTree) expression;
 
-        case NEVER_SKIP:
-            if ( value == null )
-            {
-                switch ( params.getDataType() )
-                {
-                case NUMERIC:
-                    return 0d;
+        CommonExpressionVisitor visitor = newVisitor( ITEM_EVALUATE, params );
 
-                case BOOLEAN:
-                    return FALSE;
+        visitor.setItemMap( PARSE_TYPE_EXPRESSION_ITEMS.get( tree.getParseType() ) );
+        visitor.bindItems( tree, items, itemValues );
 
-                case TEXT:
-                    return "";
-                }
-            }
-        }
+        Object value = visit( tree.getExpression(), params.getDataType(), () -> tree.visit( visitor ), true );
 
-        return value;
+        return applyMissingValueStrategy( value, params, visitor.getState() );
     }
 
     // -------------------------------------------------------------------------
@@ -732,7 +720,7 @@ public class DefaultExpressionService
             .idObjectManager( idObjectManager )
             .dimensionService( dimensionService )
             .statementBuilder( statementBuilder )
-            .i18n( i18nManager.getI18n() )
+            .i18n( itemMethod != ITEM_EVALUATE ? i18nManager.getI18n() : null )
             .constantMap( getConstantMap() )
             .itemMap( PARSE_TYPE_EXPRESSION_ITEMS.get( params.getParseType() ) )
             .itemMethod( itemMethod )
@@ -741,14 +729,101 @@ public class DefaultExpressionService
             .build();
     }
 
+    /**
+     * Parses an expression once, binding its dimensional items to indexes. An
+     * expression which can't be parsed is returned without bound items, so
+     * that parse errors are reported when the expression is evaluated.
+     */
+    private CompiledExpression compile( String expression, ParseType parseType )
+    {
+        CommonExpressionVisitor visitor = newVisitor( ITEM_GET_EXPRESSION_INFO, ExpressionParams.builder()
+            .expression( expression )
+            .parseType( parseType )
+            .build() );
+
+        // Insertion order, so that item indexes follow the first appearance
+        // of the items in the expression
+
+        visitor.setItemContexts( new LinkedHashMap<>() );
+
+        try
+        {
+            Parser.visit( expression, visitor );
+        }
+        catch ( ParserException ex )
+        {
+            return new CompiledExpressionTree( expression, parseType );
+        }
+
+        return new CompiledExpressionTree( expression, parseType, visitor.getCompiledParseTree(),
+            visitor.getItemContexts() );
+    }
+
+    /**
+     * Applies the missing value strategy of the parameters to the value of an
+     * evaluated expression.
+     */
+    private Object applyMissingValueStrategy( Object value, ExpressionParams params, ExpressionState state )
+    {
+        int itemsFound = state.getItemsFound();
+        int itemValuesFound = state.getItemValuesFound();
+
+        if ( state.isUnprotectedNullDateFound() )
+        {
+            return null;
+        }
+
+        switch ( params.getMissingValueStrategy() )
+        {
+        case SKIP_IF_ANY_VALUE_MISSING:
+            if ( itemValuesFound < itemsFound )
+            {
+                return null;
+            }
+
+        case SKIP_IF_ALL_VALUES_MISSING:
+            if ( itemsFound != 0 && itemValuesFound == 0 )
+            {
+                return null;
+            }
+
+        case NEVER_SKIP:
+            if ( value == null )
+            {
+                switch ( params.getDataType() )
+                {
+                case NUMERIC:
+                    return 0d;
+
+                case BOOLEAN:
+                    return FALSE;
+
+                case TEXT:
+                    return "";
+                }
+            }
+        }
+
+        return value;
+    }
+
     /**
      * Visits an expression and returns the expected expression type.
      */
     private Object visit( String expression, DataType dataType, CommonExpressionVisitor visitor, boolean logWarnings )
+    {
+        return visit( expression, dataType, () -> Parser.visit( expression, visitor ), logWarnings );
+    }
+
+    /**
+     * Visits an expression through the given visit function and returns the
+     * expected expression type.
+     */
+    private Object visit( String expression, DataType dataType, Supplier<Object> visit, boolean logWarnings )
     {
         try
         {
-            Object result = Parser.visit( expression, visitor );
+            Object result = visit.get();
 
             switch ( dataType )
             {
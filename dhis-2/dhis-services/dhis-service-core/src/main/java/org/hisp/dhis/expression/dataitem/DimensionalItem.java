@@ -68,7 +68,14 @@ public abstract class DimensionalItem
     @Override
     public final Object getExpressionInfo( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        visitor.getInfo().getItemIds().add( getDimensionalItemId( ctx, visitor ) );
+        DimensionalItemId itemId = getDimensionalItemId( ctx, visitor );
+
+        visitor.getInfo().getItemIds().add( itemId );
+
+        if ( visitor.getItemContexts() != null )
+        {
+            visitor.getItemContexts().put( ctx, itemId );
+        }
 
         return DOUBLE_VALUE_IF_NULL;
     }
@@ -76,6 +83,15 @@ public abstract class DimensionalItem
     @Override
     public final Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
+        int index = visitor.getItemIndex( ctx );
+
+        if ( index >= 0 )
+        {
+            DimensionalItemObject item = visitor.getItemObjects()[index];
+
+            return visitor.getState().handleNulls( visitor.getItemValues()[index], getItemValueType( item ) );
+        }
+
         DimensionalItemId itemId = getDimensionalItemId( ctx, visitor );
 
         DimensionalItemObject item = visitor.getParams().getItemMap().get( itemId );
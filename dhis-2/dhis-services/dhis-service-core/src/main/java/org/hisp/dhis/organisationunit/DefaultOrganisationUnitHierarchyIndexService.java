@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.organisationunit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Holds the {@link OrganisationUnitHierarchyIndex} shared by all threads.
+ * Invalidation increments the version, and an index is rebuilt when its
+ * version is behind.
+ * <p>
+ * Indexes are built on a background thread in a transaction of their own, so
+ * callers never wait for a build nor hold a connection of their transaction
+ * while a build runs. Until the build of the current version is done callers
+ * get an empty index and fall back to the object graph, as an outdated index
+ * would give wrong answers for units below a moved unit.
+ */
+@Slf4j
+@Service( "org.hisp.dhis.organisationunit.OrganisationUnitHierarchyIndexService" )
+public class DefaultOrganisationUnitHierarchyIndexService
+    implements OrganisationUnitHierarchyIndexService
+{
+    private final OrganisationUnitStore organisationUnitStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setNameFormat( "org-unit-hierarchy-index-%d" ).setDaemon( true ).build() );
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile OrganisationUnitHierarchyIndex index;
+
+    public DefaultOrganisationUnitHierarchyIndexService( OrganisationUnitStore organisationUnitStore,
+        PlatformTransactionManager transactionManager )
+    {
+        checkNotNull( organisationUnitStore );
+        checkNotNull( transactionManager );
+
+        this.organisationUnitStore = organisationUnitStore;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.transactionTemplate.setReadOnly( true );
+    }
+
+    // -------------------------------------------------------------------------
+    // OrganisationUnitHierarchyIndexService implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public OrganisationUnitHierarchyIndex getIndex()
+    {
+        long currentVersion = version.get();
+
+        OrganisationUnitHierarchyIndex current = index;
+
+        if ( current != null && current.getVersion() == currentVersion )
+        {
+            return current;
+        }
+
+        if ( building.compareAndSet( false, true ) )
+        {
+            executor.execute( this::build );
+        }
+
+        return OrganisationUnitHierarchyIndex.empty( currentVersion );
+    }
+
+    @Override
+    public void invalidate()
+    {
+        version.incrementAndGet();
+    }
+
+    @EventListener
+    public void handleApplicationCachesCleared( ApplicationCacheClearedEvent event )
+    {
+        invalidate();
+    }
+
+    @PreDestroy
+    public void preDestroy()
+    {
+        executor.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Builds the index of the current version. An index built concurrently
+     * with an invalidation is rebuilt on the next call to {@link #getIndex()}.
+     */
+    private void build()
+    {
+        try
+        {
+            long buildVersion = version.get();
+            long start = System.currentTimeMillis();
+
+            OrganisationUnitHierarchyIndex built = transactionTemplate
+                .execute( status -> organisationUnitStore.getHierarchyIndex( buildVersion ) );
+
+            log.debug( String.format( "Built organisation unit hierarchy index version %d with %d units in %d ms",
+                buildVersion, built.size(), System.currentTimeMillis() - start ) );
+
+            index = built;
+        }
+        catch ( RuntimeException ex )
+        {
+            log.warn( "Failed to build organisation unit hierarchy index", ex );
+        }
+        finally
+        {
+            building.set( false );
+        }
+    }
+}
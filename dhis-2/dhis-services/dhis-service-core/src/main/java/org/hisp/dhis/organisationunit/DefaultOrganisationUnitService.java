@@ -28,7 +28,6 @@
 package org.hisp.dhis.organisationunit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.hisp.dhis.commons.util.TextUtils.joinHyphen;
 
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
@@ -39,12 +38,14 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.common.SortProperty;
 import org.hisp.dhis.commons.collection.ListUtils;
 import org.hisp.dhis.commons.filter.FilterUtils;
@@ -77,12 +78,6 @@ public class DefaultOrganisationUnitService
 {
     private static final String LEVEL_PREFIX = "Level ";
 
-    private final Cache<Boolean> inUserOrgUnitHierarchyCache;
-
-    private final Cache<Boolean> inUserOrgUnitViewHierarchyCache;
-
-    private final Cache<Boolean> inUserOrgUnitSearchHierarchyCache;
-
     private final Cache<Boolean> userCaptureOrgCountThresholdCache;
 
     // -------------------------------------------------------------------------
@@ -101,10 +96,13 @@ public class DefaultOrganisationUnitService
 
     private final UserSettingService userSettingService;
 
+    private final OrganisationUnitHierarchyIndexService hierarchyIndexService;
+
     public DefaultOrganisationUnitService( OrganisationUnitStore organisationUnitStore,
         DataSetService dataSetService, OrganisationUnitLevelStore organisationUnitLevelStore,
         CurrentUserService currentUserService, ConfigurationService configurationService,
-        UserSettingService userSettingService, CacheProvider cacheProvider )
+        UserSettingService userSettingService, CacheProvider cacheProvider,
+        OrganisationUnitHierarchyIndexService hierarchyIndexService )
     {
         checkNotNull( organisationUnitStore );
         checkNotNull( dataSetService );
@@ -113,6 +111,7 @@ public class DefaultOrganisationUnitService
         checkNotNull( configurationService );
         checkNotNull( userSettingService );
         checkNotNull( cacheProvider );
+        checkNotNull( hierarchyIndexService );
 
         this.organisationUnitStore = organisationUnitStore;
         this.dataSetService = dataSetService;
@@ -120,10 +119,8 @@ public class DefaultOrganisationUnitService
         this.currentUserService = currentUserService;
         this.configurationService = configurationService;
         this.userSettingService = userSettingService;
-        this.inUserOrgUnitHierarchyCache = cacheProvider.createInUserOrgUnitHierarchyCache();
-        this.inUserOrgUnitSearchHierarchyCache = cacheProvider.createInUserSearchOrgUnitHierarchyCache();
+        this.hierarchyIndexService = hierarchyIndexService;
         this.userCaptureOrgCountThresholdCache = cacheProvider.createUserCaptureOrgUnitThresholdCache();
-        this.inUserOrgUnitViewHierarchyCache = cacheProvider.createInUserViewOrgUnitHierarchyCache();
     }
 
     @Override
@@ -478,9 +475,7 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitHierarchyCache.get( cacheKey, ou -> isInUserHierarchy( user, organisationUnit ) );
+        return isInUserHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -492,7 +487,7 @@ public class DefaultOrganisationUnitService
             return false;
         }
 
-        return organisationUnit.isDescendant( user.getOrganisationUnits() );
+        return isDescendant( organisationUnit, user.getOrganisationUnits() );
     }
 
     @Override
@@ -519,17 +514,14 @@ public class DefaultOrganisationUnitService
             return false;
         }
 
-        return organisationUnit.isDescendant( user.getDataViewOrganisationUnitsWithFallback() );
+        return isDescendant( organisationUnit, user.getDataViewOrganisationUnitsWithFallback() );
     }
 
     @Override
     @Transactional( readOnly = true )
     public boolean isInUserDataViewHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitViewHierarchyCache
-            .get( cacheKey, ou -> isInUserDataViewHierarchy( user, organisationUnit ) );
+        return isInUserDataViewHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -550,10 +542,7 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserSearchHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitSearchHierarchyCache
-            .get( cacheKey, ou -> isInUserSearchHierarchy( user, organisationUnit ) );
+        return isInUserSearchHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -566,13 +555,20 @@ public class DefaultOrganisationUnitService
             return false;
         }
 
-        return organisationUnit.isDescendant( user.getTeiSearchOrganisationUnitsWithFallback() );
+        return isDescendant( organisationUnit, user.getTeiSearchOrganisationUnitsWithFallback() );
     }
 
     @Override
     @Transactional( readOnly = true )
     public boolean isInUserHierarchy( String uid, Set<OrganisationUnit> organisationUnits )
     {
+        OrganisationUnitHierarchyIndex index = hierarchyIndexService.getIndex();
+
+        if ( index.contains( uid ) )
+        {
+            return index.isDescendant( uid, IdentifiableObjectUtils.getUids( organisationUnits ) );
+        }
+
         OrganisationUnit organisationUnit = organisationUnitStore.getByUid( uid );
 
         return organisationUnit != null && organisationUnit.isDescendant( organisationUnits );
@@ -964,6 +960,49 @@ public class DefaultOrganisationUnitService
     // Supportive methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Checks ancestry against the hierarchy index, falling back to the object
+     * graph for organisation units which are not committed yet or where the
+     * unit or any of its ancestors has been moved since the index was built.
+     */
+    private boolean isDescendant( OrganisationUnit organisationUnit, Set<OrganisationUnit> ancestors )
+    {
+        OrganisationUnitHierarchyIndex index = hierarchyIndexService.getIndex();
+
+        if ( isAncestryIndexed( index, organisationUnit ) )
+        {
+            return index.isDescendant( organisationUnit.getUid(), IdentifiableObjectUtils.getUids( ancestors ) );
+        }
+
+        return organisationUnit.isDescendant( ancestors );
+    }
+
+    /**
+     * Checks whether the index has the same parent as the object graph for the
+     * given organisation unit and every one of its ancestors. The walk follows
+     * the index, which is a tree, so it terminates even if the object graph
+     * has a circular parent relationship.
+     */
+    private boolean isAncestryIndexed( OrganisationUnitHierarchyIndex index, OrganisationUnit organisationUnit )
+    {
+        OrganisationUnit unit = organisationUnit;
+
+        while ( unit != null )
+        {
+            OrganisationUnit parent = unit.getParent();
+            String parentUid = parent != null ? parent.getUid() : null;
+
+            if ( !index.contains( unit.getUid() ) || !Objects.equals( index.getParent( unit.getUid() ), parentUid ) )
+            {
+                return false;
+            }
+
+            unit = parent;
+        }
+
+        return true;
+    }
+
     /**
      * Searches organisation units until finding one with polygon containing
      * point.
@@ -52,6 +52,7 @@ import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitHierarchyIndex;
 import org.hisp.dhis.organisationunit.OrganisationUnitQueryParams;
 import org.hisp.dhis.organisationunit.OrganisationUnitStore;
 import org.hisp.dhis.program.Program;
@@ -378,6 +379,19 @@ public class HibernateOrganisationUnitStore
         return jdbcTemplate.queryForList( sql, String.class );
     }
 
+    @Override
+    public OrganisationUnitHierarchyIndex getHierarchyIndex( long version )
+    {
+        OrganisationUnitHierarchyIndex.Builder builder = OrganisationUnitHierarchyIndex.builder();
+
+        jdbcTemplate.query( "select uid, path from organisationunit where path is not null",
+            rs -> {
+                builder.add( rs.getString( "uid" ), rs.getString( "path" ) );
+            } );
+
+        return builder.build( version );
+    }
+
     private String buildOrganisationUnitDistinctUidsSql( OrganisationUnitQueryParams params )
     {
         SqlHelper hlp = new SqlHelper();
@@ -36,6 +36,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -57,6 +61,8 @@ import org.hisp.dhis.commons.timer.SystemTimer;
 import org.hisp.dhis.commons.timer.Timer;
 import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.dataset.DataSetElement;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.hibernate.HibernateProxyUtils;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodService;
@@ -82,10 +88,14 @@ import org.hisp.dhis.util.SharingUtils;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -113,10 +123,15 @@ public class DefaultPreheatService implements PreheatService
 
     private final SchemaToDataFetcher schemaToDataFetcher;
 
+    private final DhisConfigurationProvider config;
+
+    private final PlatformTransactionManager transactionManager;
+
     public DefaultPreheatService( SchemaService schemaService, QueryService queryService,
         IdentifiableObjectManager manager, CurrentUserService currentUserService, PeriodStore periodStore,
         PeriodService periodService, AttributeService attributeService, MergeService mergeService,
-        SchemaToDataFetcher schemaToDataFetcher )
+        SchemaToDataFetcher schemaToDataFetcher, DhisConfigurationProvider config,
+        PlatformTransactionManager transactionManager )
     {
         checkNotNull( schemaService );
         checkNotNull( queryService );
@@ -126,6 +141,8 @@ public class DefaultPreheatService implements PreheatService
         checkNotNull( periodService );
         checkNotNull( attributeService );
         checkNotNull( mergeService );
+        checkNotNull( config );
+        checkNotNull( transactionManager );
 
         this.schemaService = schemaService;
         this.queryService = queryService;
@@ -136,6 +153,8 @@ public class DefaultPreheatService implements PreheatService
         this.attributeService = attributeService;
         this.mergeService = mergeService;
         this.schemaToDataFetcher = schemaToDataFetcher;
+        this.config = config;
+        this.transactionManager = transactionManager;
     }
 
     @Override
@@ -167,86 +186,68 @@ public class DefaultPreheatService implements PreheatService
 
         boolean hasOnlyUIDClasses = uidMap.keySet().stream().anyMatch( this::isOnlyUID );
 
-        if ( PreheatIdentifier.UID == params.getPreheatIdentifier() || hasOnlyUIDClasses )
+        ExecutorService executor = createExecutor( params, klasses.size() );
+
+        try
         {
-            for ( Class<? extends IdentifiableObject> klass : uidMap.keySet() )
+            // Scans of unique properties are independent of the session and
+            // run concurrently with the loading of references when enabled
+
+            Map<Class<? extends IdentifiableObject>, Future<List<IdentifiableObject>>> uniqueFutures = new HashMap<>();
+
+            if ( executor != null )
             {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( klass ) ),
-                    20000 );
+                TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+                transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+                transactionTemplate.setReadOnly( true );
 
-                if ( !identifiers.isEmpty() )
-                {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "id", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.UID, objects );
-                    }
-                }
+                klasses.forEach( klass -> uniqueFutures.put( klass, executor.submit(
+                    () -> transactionTemplate.execute( status -> fetchUniqueProperties( klass, preheat ) ) ) ) );
             }
-        }
 
-        if ( codeMap != null && (PreheatIdentifier.CODE == params.getPreheatIdentifier()) )
-        {
-            for ( Class<? extends IdentifiableObject> klass : codeMap.keySet() )
+            if ( PreheatIdentifier.UID == params.getPreheatIdentifier() || hasOnlyUIDClasses )
             {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( codeMap.get( klass ) ),
-                    20000 );
-
-                if ( !identifiers.isEmpty() )
+                for ( Class<? extends IdentifiableObject> klass : uidMap.keySet() )
                 {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "code", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.CODE, objects );
-                    }
+                    loadReferences( preheat, klass, "id", uidMap.get( klass ), PreheatIdentifier.UID );
                 }
             }
 
-            if ( uidMap.containsKey( User.class ) && !uidMap.get( User.class ).isEmpty() )
+            if ( codeMap != null && (PreheatIdentifier.CODE == params.getPreheatIdentifier()) )
             {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( User.class ) ),
-                    20000 );
+                for ( Class<? extends IdentifiableObject> klass : codeMap.keySet() )
+                {
+                    loadReferences( preheat, klass, "code", codeMap.get( klass ), PreheatIdentifier.CODE );
+                }
+
+                if ( uidMap.containsKey( User.class ) && !uidMap.get( User.class ).isEmpty() )
+                {
+                    loadReferences( preheat, User.class, "id", uidMap.get( User.class ), PreheatIdentifier.UID );
+                }
 
-                for ( List<String> ids : identifiers )
+                if ( uidMap.containsKey( UserRole.class ) && !uidMap.get( UserRole.class ).isEmpty() )
                 {
-                    Query query = Query.from( schemaService.getDynamicSchema( User.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
+                    loadReferences( preheat, UserRole.class, "id", uidMap.get( UserRole.class ),
+                        PreheatIdentifier.UID );
                 }
             }
 
-            if ( uidMap.containsKey( UserRole.class )
-                && !uidMap.get( UserRole.class ).isEmpty() )
+            for ( Class<? extends IdentifiableObject> klass : klasses )
             {
-                List<List<String>> identifiers = Lists
-                    .partition( Lists.newArrayList( uidMap.get( UserRole.class ) ), 20000 );
+                List<IdentifiableObject> objects = executor != null ? getResult( uniqueFutures, klass )
+                    : fetchUniqueProperties( klass, preheat );
 
-                for ( List<String> ids : identifiers )
+                if ( !objects.isEmpty() )
                 {
-                    Query query = Query.from( schemaService.getDynamicSchema( UserRole.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
+                    uniqueCollectionMap.put( klass, objects );
                 }
             }
         }
-
-        for ( Class<? extends IdentifiableObject> klass : klasses )
+        finally
         {
-            List<? extends IdentifiableObject> objects = schemaToDataFetcher
-                .fetch( schemaService.getDynamicSchema( klass ) );
-            if ( !objects.isEmpty() )
+            if ( executor != null )
             {
-                uniqueCollectionMap.put( klass, new ArrayList<>( objects ) );
+                executor.shutdownNow();
             }
         }
 
@@ -292,6 +293,86 @@ public class DefaultPreheatService implements PreheatService
         return preheat;
     }
 
+    /**
+     * Creates the executor for the concurrent scans of unique properties, or
+     * returns null if the scans should run sequentially in the current
+     * session.
+     */
+    private ExecutorService createExecutor( PreheatParams params, int numberOfClasses )
+    {
+        int threads = Math.min( numberOfClasses,
+            Integer.parseInt( config.getProperty( ConfigurationKey.METADATA_PREHEAT_PARALLELISM ) ) );
+
+        if ( !params.isConcurrent() || threads <= 1 )
+        {
+            return null;
+        }
+
+        return Executors.newFixedThreadPool( threads,
+            new ThreadFactoryBuilder().setNameFormat( "preheat-%d" ).setDaemon( true ).build() );
+    }
+
+    /**
+     * Loads the objects of the given class matching the given identifiers in
+     * the current session, in partitions to limit the size of the queries.
+     */
+    private void loadReferences( Preheat preheat, Class<? extends IdentifiableObject> klass, String property,
+        Set<String> identifiers, PreheatIdentifier identifier )
+    {
+        long start = System.currentTimeMillis();
+
+        for ( List<String> ids : Lists.partition( Lists.newArrayList( identifiers ), 20000 ) )
+        {
+            Query query = Query.from( schemaService.getDynamicSchema( klass ) );
+            query.setUser( preheat.getUser() );
+            query.add( Restrictions.in( property, ids ) );
+            List<? extends IdentifiableObject> objects = queryService.query( query );
+            preheat.put( identifier, objects );
+        }
+
+        preheat.addLoadTime( klass, System.currentTimeMillis() - start );
+    }
+
+    private List<IdentifiableObject> fetchUniqueProperties( Class<? extends IdentifiableObject> klass,
+        Preheat preheat )
+    {
+        long start = System.currentTimeMillis();
+
+        List<IdentifiableObject> objects = new ArrayList<>(
+            schemaToDataFetcher.fetch( schemaService.getDynamicSchema( klass ) ) );
+
+        preheat.addLoadTime( klass, System.currentTimeMillis() - start );
+
+        return objects;
+    }
+
+    private List<IdentifiableObject> getResult(
+        Map<Class<? extends IdentifiableObject>, Future<List<IdentifiableObject>>> futures,
+        Class<? extends IdentifiableObject> klass )
+    {
+        try
+        {
+            return futures.get( klass ).get();
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            futures.values().forEach( future -> future.cancel( true ) );
+            throw new RuntimeException( "Interrupted while preheating metadata", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            futures.values().forEach( future -> future.cancel( true ) );
+
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new RuntimeException( "Error while preheating metadata", ex );
+        }
+    }
+
     private void handleSharing( PreheatParams params, Preheat preheat )
     {
         params.getObjects().forEach( ( klass, list ) -> list.forEach( object -> {
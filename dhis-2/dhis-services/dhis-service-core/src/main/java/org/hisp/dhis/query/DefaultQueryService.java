@@ -29,7 +29,9 @@ package org.hisp.dhis.query;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,6 +41,9 @@ import org.hisp.dhis.preheat.Preheat;
 import org.hisp.dhis.query.planner.QueryPlan;
 import org.hisp.dhis.query.planner.QueryPlanner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Lists;
 
 /**
  * Default implementation of QueryService which works with IdObjects.
@@ -95,6 +100,30 @@ public class DefaultQueryService
         return objects;
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    @SuppressWarnings( "unchecked" )
+    public void stream( Query query, int batchSize, Consumer<List<? extends IdentifiableObject>> consumer )
+    {
+        QueryPlan queryPlan = query.getObjects() == null ? queryPlanner.planQuery( query ) : null;
+
+        if ( queryPlan == null || !queryPlan.getNonPersistedQuery().isEmpty() )
+        {
+            Lists.partition( queryObjects( query ), batchSize ).forEach( consumer );
+            return;
+        }
+
+        Class<?> klass = query.getSchema().getKlass();
+        Defaults defaults = query.getDefaults();
+
+        ((JpaCriteriaQueryEngine<IdentifiableObject>) criteriaQueryEngine).stream(
+            queryPlan.getPersistedQuery(), batchSize, batch -> {
+                List<IdentifiableObject> objects = new ArrayList<>( batch );
+                clearDefaults( klass, objects, defaults );
+                consumer.accept( objects );
+            } );
+    }
+
     @Override
     public long count( Query query )
     {
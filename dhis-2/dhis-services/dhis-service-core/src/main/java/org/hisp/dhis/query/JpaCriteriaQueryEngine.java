@@ -31,9 +31,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -41,7 +44,9 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.jpa.QueryHints;
 import org.hisp.dhis.cache.QueryCacheManager;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.hibernate.InternalHibernateGenericStore;
@@ -52,6 +57,8 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Iterators;
+
 /**
  * @author Viet Nguyen <viet@dhis2.org>
  */
@@ -90,6 +97,60 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject>
 
     @Override
     public List<T> query( Query query )
+    {
+        TypedQuery<T> typedQuery = createTypedQuery( query );
+
+        if ( typedQuery == null )
+        {
+            return new ArrayList<>();
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Reads the objects matching the given query from a scrollable result and
+     * passes them to the given consumer in batches of the given size. The
+     * objects of a batch are evicted from the session once the consumer has
+     * returned, so that the session does not grow with the number of objects.
+     *
+     * @param query the query.
+     * @param batchSize the number of objects per batch.
+     * @param consumer the consumer of the batches of objects.
+     */
+    public void stream( Query query, int batchSize, Consumer<List<T>> consumer )
+    {
+        TypedQuery<T> typedQuery = createTypedQuery( query );
+
+        if ( typedQuery == null )
+        {
+            return;
+        }
+
+        typedQuery.setHint( QueryHints.HINT_FETCH_SIZE, batchSize );
+
+        Session session = sessionFactory.getCurrentSession();
+
+        try ( Stream<T> objects = typedQuery.getResultStream() )
+        {
+            Iterator<List<T>> batches = Iterators.partition( objects.iterator(), batchSize );
+
+            while ( batches.hasNext() )
+            {
+                List<T> batch = batches.next();
+
+                consumer.accept( batch );
+
+                batch.forEach( session::evict );
+            }
+        }
+    }
+
+    /**
+     * Creates the typed query for the given query, or returns null if there is
+     * no store for the queried class.
+     */
+    private TypedQuery<T> createTypedQuery( Query query )
     {
         Schema schema = query.getSchema();
 
@@ -99,7 +160,7 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject>
 
         if ( store == null )
         {
-            return new ArrayList<>();
+            return null;
         }
 
         if ( query.getUser() == null )
@@ -133,7 +194,7 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject>
             typedQuery.setFirstResult( query.getFirstResult() );
             typedQuery.setMaxResults( query.getMaxResults() );
 
-            return typedQuery.getResultList();
+            return typedQuery;
         }
 
         Predicate predicate = buildPredicates( builder, root, query );
@@ -163,7 +224,7 @@ public class JpaCriteriaQueryEngine<T extends IdentifiableObject>
             typedQuery.setHint( "org.hibernate.cacheRegion", getQueryCacheRegionName( klass, typedQuery ) );
         }
 
-        return typedQuery.getResultList();
+        return typedQuery;
     }
 
     @Override
@@ -28,6 +28,7 @@
 package org.hisp.dhis.query;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.common.IdentifiableObject;
 
@@ -56,6 +57,19 @@ public interface QueryService
     @SuppressWarnings( "rawtypes" )
     List<? extends IdentifiableObject> query( Query query, ResultTransformer transformer );
 
+    /**
+     * Passes the objects matching the given query to the given consumer in
+     * batches of the given size, without holding all matching objects in
+     * memory when the query can be executed by the database alone. Queries
+     * which need in-memory filtering or ordering are executed as a whole and
+     * then passed on in batches.
+     *
+     * @param query Query instance to use
+     * @param batchSize Number of objects per batch
+     * @param consumer Consumer of the batches of matching objects
+     */
+    void stream( Query query, int batchSize, Consumer<List<? extends IdentifiableObject>> consumer );
+
     /**
      * Returns how many objects matches the given query.
      *
@@ -307,6 +307,40 @@ class DatastoreIntegrationTest extends IntegrationTestBase
             "bat", "cat", "cow", "dog", "duck", "eagle", "hamster", "horse", "mole", "pidgin", "pig" );
     }
 
+    /*
+     * Indexed Namespace
+     */
+
+    @Test
+    void test_Filter_PathEq_String_Indexed()
+    {
+        datastore.addIndex( new DatastoreNamespaceIndex( "pets", "name" ) );
+        try
+        {
+            assertEntries( "name:eq:Miao", "cat" );
+            assertEntries( "name:!eq:Miao", "cow", "hamster", "pig" );
+        }
+        finally
+        {
+            datastore.removeIndexes( "pets" );
+        }
+    }
+
+    @Test
+    void test_Filter_PathGt_Number_Indexed()
+    {
+        datastore.addIndex(
+            new DatastoreNamespaceIndex( "pets", "age", DatastoreNamespaceIndex.IndexType.JSON ) );
+        try
+        {
+            assertEntries( "age:gt:5", "cat", "pig" );
+        }
+        finally
+        {
+            datastore.removeIndexes( "pets" );
+        }
+    }
+
     private DatastoreQuery createQuery( String... filters )
     {
         return DatastoreQuery.builder()
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datastore.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex;
+import org.hisp.dhis.datastore.DatastoreNamespaceIndex.IndexType;
+import org.hisp.dhis.datastore.DatastoreQuery;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DatastoreQueryBuilder} in respect to namespace indexes.
+ */
+class DatastoreQueryBuilderTest
+{
+    @Test
+    void testCreateFetchHQL_NamespaceParameter()
+    {
+        DatastoreQueryBuilder builder = new DatastoreQueryBuilder( createQuery( "name:eq:Miao" ) );
+
+        assertTrue( builder.createFetchHQL().contains( "namespace = :namespace" ) );
+        assertEquals( "pets", applyParameterValues( builder ).get( "namespace" ) );
+    }
+
+    @Test
+    void testCreateFetchHQL_NamespaceInlinedWhenIndexed()
+    {
+        DatastoreQueryBuilder builder = new DatastoreQueryBuilder( createQuery( "name:eq:Miao" ),
+            Set.of( new DatastoreNamespaceIndex( "pets", "name" ) ) );
+
+        String hql = builder.createFetchHQL();
+        assertTrue( hql.contains( "namespace = 'pets'" ) );
+        assertTrue( hql.contains( "jsonb_extract_path_text(jbPlainValue, 'name' ) = :f_0" ) );
+        Map<String, Object> params = applyParameterValues( builder );
+        assertFalse( params.containsKey( "namespace" ) );
+        assertEquals( "Miao", params.get( "f_0" ) );
+    }
+
+    @Test
+    void testCreateIndexSQL_Text()
+    {
+        DatastoreNamespaceIndex index = new DatastoreNamespaceIndex( "pets", "owner.name" );
+
+        assertEquals( "create index concurrently if not exists " + DatastoreQueryBuilder.createIndexName( index )
+            + " on keyjsonvalue ((jsonb_extract_path_text(jbvalue, 'owner', 'name' ))) where namespace = 'pets'",
+            DatastoreQueryBuilder.createIndexSQL( index ) );
+    }
+
+    @Test
+    void testCreateIndexSQL_TextIgnoreCase()
+    {
+        DatastoreNamespaceIndex index = new DatastoreNamespaceIndex( "pets", "name", IndexType.TEXT_IGNORE_CASE );
+
+        assertTrue( DatastoreQueryBuilder.createIndexSQL( index )
+            .contains( "((lower(jsonb_extract_path_text(jbvalue, 'name' ))) text_pattern_ops)" ) );
+    }
+
+    @Test
+    void testCreateIndexSQL_Json()
+    {
+        DatastoreNamespaceIndex index = new DatastoreNamespaceIndex( "it's", "age", IndexType.JSON );
+
+        assertTrue( DatastoreQueryBuilder.createIndexSQL( index )
+            .endsWith( "((jsonb_extract_path(jbvalue, 'age' ))) where namespace = 'it''s'" ) );
+    }
+
+    @Test
+    void testCreateIndexName_Deterministic()
+    {
+        String name = DatastoreQueryBuilder.createIndexName( new DatastoreNamespaceIndex( "pets", "name" ) );
+
+        assertEquals( name, DatastoreQueryBuilder.createIndexName( new DatastoreNamespaceIndex( "pets", "name" ) ) );
+        assertFalse( name.equals( DatastoreQueryBuilder.createIndexName(
+            new DatastoreNamespaceIndex( "pets", "name", IndexType.JSON ) ) ) );
+        assertTrue( name.length() <= 63 );
+    }
+
+    private static DatastoreQuery createQuery( String... filters )
+    {
+        return DatastoreQuery.builder()
+            .namespace( "pets" )
+            .fields( List.of() )
+            .filters( DatastoreQuery.parseFilters( List.of( filters ) ) )
+            .build();
+    }
+
+    private static Map<String, Object> applyParameterValues( DatastoreQueryBuilder builder )
+    {
+        Map<String, Object> params = new HashMap<>();
+        builder.applyParameterValues( params::put );
+        return params;
+    }
+}
@@ -816,6 +816,49 @@ class ExpressionService2Test extends DhisSpringTest
         assertEquals( 54d, exprValue( expressionR, itemMap, valueMap, orgUnitCountMap, null ), DELTA );
     }
 
+    @Test
+    void testGetCompiledExpressionValue()
+    {
+        String expression = expressionA + "+#{" + opA.getDimensionItem() + "}";
+
+        Map<DimensionalItemId, DimensionalItemObject> itemMap = ImmutableMap
+            .<DimensionalItemId, DimensionalItemObject> builder()
+            .put( getId( opA ), opA )
+            .put( getId( opB ), opB )
+            .build();
+
+        CompiledExpression compiled = target.compileExpression( expression, INDICATOR_EXPRESSION );
+
+        assertEquals( List.of( getId( opA ), getId( opB ) ), compiled.getItemIds() );
+
+        DimensionalItemObject[] items = compiled.getItems( itemMap );
+
+        ExpressionParams params = ExpressionParams.builder()
+            .expression( expression )
+            .parseType( INDICATOR_EXPRESSION )
+            .itemMap( itemMap )
+            .missingValueStrategy( NEVER_SKIP )
+            .build();
+
+        assertEquals( 58d, castDouble( target.getExpressionValue( compiled, params, items,
+            new Object[] { 12d, 34d } ) ), DELTA );
+        assertEquals( 4d, castDouble( target.getExpressionValue( compiled, params, items,
+            new Object[] { 1d, 2d } ) ), DELTA );
+        assertEquals( 2d, castDouble( target.getExpressionValue( compiled, params, items,
+            new Object[] { null, 2d } ) ), DELTA );
+    }
+
+    @Test
+    void testGetCompiledExpressionItemOrder()
+    {
+        String expression = "#{" + opB.getDimensionItem() + "}+#{" + opA.getDimensionItem() + "}*#{"
+            + opB.getDimensionItem() + "}";
+
+        CompiledExpression compiled = target.compileExpression( expression, INDICATOR_EXPRESSION );
+
+        assertEquals( List.of( getId( opB ), getId( opA ) ), compiled.getItemIds() );
+    }
+
     @Test
     void testGetIndicatorDimensionalItemMap2()
     {
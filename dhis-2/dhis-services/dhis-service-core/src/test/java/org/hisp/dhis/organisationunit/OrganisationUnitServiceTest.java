@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.organisationunit;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -40,6 +41,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.hisp.dhis.DhisSpringTest;
 import org.hisp.dhis.common.DeleteNotAllowedException;
@@ -84,6 +86,9 @@ class OrganisationUnitServiceTest extends DhisSpringTest
     @Autowired
     private OrganisationUnitGroupService organisationUnitGroupService;
 
+    @Autowired
+    private OrganisationUnitHierarchyIndexService hierarchyIndexService;
+
     // -------------------------------------------------------------------------
     // OrganisationUnit
     // -------------------------------------------------------------------------
@@ -884,6 +889,58 @@ class OrganisationUnitServiceTest extends DhisSpringTest
         assertFalse( organisationUnitService.isInUserHierarchy( ouG.getUid(), organisationUnits ) );
     }
 
+    @Test
+    void testIsInUserHierarchyAfterMove()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( 'A' );
+        OrganisationUnit ouB = createOrganisationUnit( 'B', ouA );
+        OrganisationUnit ouC = createOrganisationUnit( 'C', ouA );
+        OrganisationUnit ouD = createOrganisationUnit( 'D', ouC );
+        organisationUnitService.addOrganisationUnit( ouA );
+        organisationUnitService.addOrganisationUnit( ouB );
+        organisationUnitService.addOrganisationUnit( ouC );
+        organisationUnitService.addOrganisationUnit( ouD );
+        User user = createUser( 'A' );
+        user.setOrganisationUnits( Sets.newHashSet( ouB ) );
+        assertFalse( organisationUnitService.isInUserHierarchy( user, ouD ) );
+        await().atMost( 10, TimeUnit.SECONDS ).until( () -> hierarchyIndexService.getIndex().contains( ouD.getUid() ) );
+        assertFalse( organisationUnitService.isInUserHierarchy( user, ouD ) );
+        ouD.setParent( ouB );
+        organisationUnitService.updateOrganisationUnit( ouD );
+        assertTrue( organisationUnitService.isInUserHierarchy( user, ouD ) );
+        await().atMost( 10, TimeUnit.SECONDS )
+            .until( () -> hierarchyIndexService.getIndex().isDescendant( ouD.getUid(), ouB.getUid() ) );
+        assertFalse( hierarchyIndexService.getIndex().isDescendant( ouD.getUid(), ouC.getUid() ) );
+        assertTrue( organisationUnitService.isInUserHierarchy( user, ouD ) );
+    }
+
+    @Test
+    void testIsInUserHierarchyAfterParentMove()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( 'A' );
+        OrganisationUnit ouB = createOrganisationUnit( 'B', ouA );
+        OrganisationUnit ouC = createOrganisationUnit( 'C', ouA );
+        OrganisationUnit ouD = createOrganisationUnit( 'D', ouC );
+        OrganisationUnit ouE = createOrganisationUnit( 'E', ouD );
+        organisationUnitService.addOrganisationUnit( ouA );
+        organisationUnitService.addOrganisationUnit( ouB );
+        organisationUnitService.addOrganisationUnit( ouC );
+        organisationUnitService.addOrganisationUnit( ouD );
+        organisationUnitService.addOrganisationUnit( ouE );
+        User user = createUser( 'A' );
+        user.setOrganisationUnits( Sets.newHashSet( ouB ) );
+        await().atMost( 10, TimeUnit.SECONDS ).until( () -> hierarchyIndexService.getIndex().contains( ouE.getUid() ) );
+        assertFalse( organisationUnitService.isInUserHierarchy( user, ouE ) );
+        // Move the parent, the unit itself keeps its parent
+        ouD.setParent( ouB );
+        organisationUnitService.updateOrganisationUnit( ouD );
+        assertTrue( organisationUnitService.isInUserHierarchy( user, ouE ) );
+        await().atMost( 10, TimeUnit.SECONDS )
+            .until( () -> hierarchyIndexService.getIndex().isDescendant( ouE.getUid(), ouB.getUid() ) );
+        assertFalse( hierarchyIndexService.getIndex().isDescendant( ouE.getUid(), ouC.getUid() ) );
+        assertTrue( organisationUnitService.isInUserHierarchy( user, ouE ) );
+    }
+
     @Test
     void testGetAncestorUids()
     {
@@ -42,6 +42,7 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.mock.MockCurrentUserService;
 import org.hisp.dhis.organisationunit.DefaultOrganisationUnitService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitHierarchyIndexService;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevelStore;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.organisationunit.OrganisationUnitStore;
@@ -88,6 +89,9 @@ class QueryParserTest extends IntegrationTestBase
     @Autowired
     private CacheProvider cacheProvider;
 
+    @Autowired
+    private OrganisationUnitHierarchyIndexService hierarchyIndexService;
+
     @Override
     public boolean emptyDatabaseAfterTest()
     {
@@ -103,7 +107,8 @@ class QueryParserTest extends IntegrationTestBase
         user.addOrganisationUnit( orgUnitA );
         CurrentUserService currentUserService = new MockCurrentUserService( user );
         this.organisationUnitService = new DefaultOrganisationUnitService( organisationUnitStore, dataSetService,
-            organisationUnitLevelStore, currentUserService, configurationService, userSettingService, cacheProvider );
+            organisationUnitLevelStore, currentUserService, configurationService, userSettingService, cacheProvider,
+            hierarchyIndexService );
         organisationUnitService.addOrganisationUnit( orgUnitA );
         identifiableObjectManager.save( orgUnitA );
         queryParser = new DefaultJpaQueryParser( schemaService );
@@ -459,7 +459,8 @@ public class DefaultAdxDataService
 
         ImportCount c = importSummary.getImportCount();
         log.info( "ADX data import done, imported: " + c.getImported() + ", updated: " + c.getUpdated() + ", deleted: "
-            + c.getDeleted() + ", ignored: " + c.getIgnored() );
+            + c.getDeleted() + ", ignored: " + c.getIgnored() + ", rows per second: "
+            + importSummary.getRowsPerSecond() );
 
         return importSummary;
     }
@@ -66,6 +66,20 @@ public class ImportOptions
 
     private boolean skipExistingCheck;
 
+    /**
+     * Number of data values for which existing values are resolved with a
+     * single query. A value of 0 or less means values are looked up one by
+     * one. Values larger than the max lookup size of the data value batch
+     * handler are reduced to it.
+     */
+    private int existingCheckChunkSize;
+
+    /**
+     * Indicates whether to write data values with the PostgreSQL COPY protocol
+     * instead of multi-row insert statements.
+     */
+    private boolean bulkCopy;
+
     private boolean sharing;
 
     private boolean skipNotifications;
@@ -138,6 +152,8 @@ public class ImportOptions
         options.importStrategy = this.importStrategy;
         options.mergeMode = this.mergeMode;
         options.skipExistingCheck = this.skipExistingCheck;
+        options.existingCheckChunkSize = this.existingCheckChunkSize;
+        options.bulkCopy = this.bulkCopy;
         options.sharing = this.sharing;
         options.skipNotifications = this.skipNotifications;
         options.datasetAllowsPeriods = this.datasetAllowsPeriods;
@@ -282,6 +298,20 @@ public class ImportOptions
         return skipExistingCheck;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public int getExistingCheckChunkSize()
+    {
+        return existingCheckChunkSize;
+    }
+
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isBulkCopy()
+    {
+        return bulkCopy;
+    }
+
     @JsonProperty
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     public boolean isSharing()
@@ -539,6 +569,18 @@ public class ImportOptions
         return this;
     }
 
+    public ImportOptions setExistingCheckChunkSize( int existingCheckChunkSize )
+    {
+        this.existingCheckChunkSize = existingCheckChunkSize;
+        return this;
+    }
+
+    public ImportOptions setBulkCopy( boolean bulkCopy )
+    {
+        this.bulkCopy = bulkCopy;
+        return this;
+    }
+
     public ImportOptions setSharing( boolean sharing )
     {
         this.sharing = sharing;
@@ -661,6 +703,8 @@ public class ImportOptions
             .add( "importStrategy", importStrategy )
             .add( "mergeMode", mergeMode )
             .add( "skipExistingCheck", skipExistingCheck )
+            .add( "existingCheckChunkSize", existingCheckChunkSize )
+            .add( "bulkCopy", bulkCopy )
             .add( "ignoreEmptyCollection", ignoreEmptyCollection )
             .add( "sharing", sharing )
             .add( "skipNotifications", skipNotifications )
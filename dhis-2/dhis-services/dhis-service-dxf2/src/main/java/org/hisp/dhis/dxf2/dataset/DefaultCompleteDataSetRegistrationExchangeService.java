@@ -72,6 +72,7 @@ import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.importexport.ImportStrategy;
 import org.hisp.dhis.jdbc.batchhandler.CompleteDataSetRegistrationBatchHandler;
+import org.hisp.dhis.jdbc.batchhandler.CopyBatchHandler;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
@@ -509,7 +510,16 @@ public class DefaultCompleteDataSetRegistrationExchangeService
         final I18n i18n = i18nManager.getI18n();
 
         BatchHandler<CompleteDataSetRegistration> batchHandler = batchHandlerFactory
-            .createBatchHandler( CompleteDataSetRegistrationBatchHandler.class ).init();
+            .createBatchHandler( CompleteDataSetRegistrationBatchHandler.class );
+
+        if ( config.isBulkCopy() )
+        {
+            batchHandler = CopyBatchHandler.wrap( batchHandler, true );
+        }
+
+        batchHandler.init();
+
+        long startTime = System.currentTimeMillis();
 
         int importCount = 0, updateCount = 0, deleteCount = 0, totalCount = 0;
 
@@ -708,6 +718,11 @@ public class DefaultCompleteDataSetRegistrationExchangeService
 
         finalizeSummary( summary, totalCount, importCount, updateCount, deleteCount );
 
+        if ( config.isBulkCopy() )
+        {
+            summary.computeRowsPerSecond( System.currentTimeMillis() - startTime );
+        }
+
         return totalCount;
     }
 
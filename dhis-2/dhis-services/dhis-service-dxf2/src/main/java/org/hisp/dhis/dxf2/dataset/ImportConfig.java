@@ -60,6 +60,8 @@ final class ImportConfig
 
     private final boolean skipExistingCheck;
 
+    private final boolean bulkCopy;
+
     private final boolean strictPeriods;
 
     private final boolean strictAttrOptionCombos;
@@ -97,6 +99,8 @@ final class ImportConfig
 
         skipExistingCheck = options.isSkipExistingCheck();
 
+        bulkCopy = options.isBulkCopy();
+
         strictPeriods = options.isStrictPeriods()
             || systemSettingManager.getBoolSetting( SettingKey.DATA_IMPORT_STRICT_PERIODS );
 
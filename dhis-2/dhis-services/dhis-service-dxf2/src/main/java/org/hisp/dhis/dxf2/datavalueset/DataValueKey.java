@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.sql.Timestamp;
+
+import lombok.Value;
+
+/**
+ * Position of a data value in the order of last updated time and primary key,
+ * used to page through data values with keyset pagination. The last updated
+ * time keeps the full precision of the database column so that no data values
+ * are skipped or repeated between pages.
+ */
+@Value
+public class DataValueKey
+{
+    private static final String SEPARATOR = ",";
+
+    Timestamp lastUpdated;
+
+    long dataElementId;
+
+    long periodId;
+
+    long sourceId;
+
+    long categoryOptionComboId;
+
+    long attributeOptionComboId;
+
+    /**
+     * Returns the key in the form which can be parsed with
+     * {@link #fromString(String)}.
+     */
+    @Override
+    public String toString()
+    {
+        return String.join( SEPARATOR, lastUpdated.toString(), String.valueOf( dataElementId ),
+            String.valueOf( periodId ), String.valueOf( sourceId ), String.valueOf( categoryOptionComboId ),
+            String.valueOf( attributeOptionComboId ) );
+    }
+
+    /**
+     * Parses a key from its string form.
+     *
+     * @param key the key string as returned by {@link #toString()}.
+     * @return the {@link DataValueKey}.
+     * @throws IllegalArgumentException if the key string is invalid.
+     */
+    public static DataValueKey fromString( String key )
+    {
+        String[] parts = key.split( SEPARATOR );
+
+        if ( parts.length != 6 )
+        {
+            throw new IllegalArgumentException( "Invalid data value key: " + key );
+        }
+
+        return new DataValueKey( Timestamp.valueOf( parts[0] ), Long.parseLong( parts[1] ), Long.parseLong( parts[2] ),
+            Long.parseLong( parts[3] ), Long.parseLong( parts[4] ), Long.parseLong( parts[5] ) );
+    }
+}
@@ -67,4 +67,22 @@ public interface DataValueSetStore
      */
     void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page );
+
+    /**
+     * Query for {@link DataValueSet DataValueSets} and write result as JSON,
+     * paging with keyset pagination on last updated time and primary key of
+     * data values.
+     *
+     * @param lastUpdated specifies the date to filter data values last updated
+     *        after
+     * @param after the key of the last data value of the previous page, null
+     *        for the first page
+     * @param outputStream the stream to write to
+     * @param idSchemes idSchemes
+     * @param pageSize the max number of data values to write
+     * @return the key of the last data value written, or null if no data
+     *         values were written
+     */
+    DataValueKey exportDataValueSetJson( Date lastUpdated, DataValueKey after, OutputStream outputStream,
+        IdSchemes idSchemes, int pageSize );
 }
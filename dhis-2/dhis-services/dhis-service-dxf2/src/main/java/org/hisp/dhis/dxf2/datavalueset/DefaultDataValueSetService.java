@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.dxf2.datavalueset;
 
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.trimToNull;
 import static org.hisp.dhis.commons.collection.CollectionUtils.isEmpty;
 import static org.hisp.dhis.commons.util.StreamUtils.wrapAndCheckCompressionFormat;
@@ -42,8 +43,10 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
@@ -76,6 +79,7 @@ import org.hisp.dhis.datavalue.DataValueAudit;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.datavalueset.ImportContext.DataSetContext;
+import org.hisp.dhis.dxf2.datavalueset.ImportContext.PendingDataValue;
 import org.hisp.dhis.dxf2.importsummary.ImportCount;
 import org.hisp.dhis.dxf2.importsummary.ImportStatus;
 import org.hisp.dhis.dxf2.importsummary.ImportSummary;
@@ -87,6 +91,7 @@ import org.hisp.dhis.fileresource.FileResource;
 import org.hisp.dhis.fileresource.FileResourceService;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.jdbc.batchhandler.CopyBatchHandler;
 import org.hisp.dhis.jdbc.batchhandler.DataValueAuditBatchHandler;
 import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
 import org.hisp.dhis.node.types.CollectionNode;
@@ -117,6 +122,7 @@ import org.hisp.dhis.user.CurrentUserServiceTarget;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.util.ObjectUtils;
+import org.hisp.quick.BatchHandler;
 import org.hisp.quick.BatchHandlerFactory;
 import org.hisp.staxwax.factory.XMLFactory;
 import org.springframework.stereotype.Service;
@@ -404,6 +410,14 @@ public class DefaultDataValueSetService
         dataValueSetStore.exportDataValueSetJson( lastUpdated, outputStream, idSchemes, pageSize, page );
     }
 
+    @Override
+    @Transactional
+    public DataValueKey exportDataValueSetJson( Date lastUpdated, DataValueKey after, OutputStream outputStream,
+        IdSchemes idSchemes, int pageSize )
+    {
+        return dataValueSetStore.exportDataValueSetJson( lastUpdated, after, outputStream, idSchemes, pageSize );
+    }
+
     @Override
     @Transactional
     public void exportDataValueSetCsv( DataExportParams params, Writer writer )
@@ -656,6 +670,7 @@ public class DefaultDataValueSetService
         final ImportContext context = createDataValueSetImportContext( options, dataValueSet );
         logDataValueSetImportContextInfo( context );
 
+        long startTime = System.currentTimeMillis();
         Clock clock = new Clock( log ).startClock()
             .logTime( "Starting data value import, options: " + context.getImportOptions() );
         NotificationLevel notificationLevel = context.getImportOptions().getNotificationLevel( INFO );
@@ -724,6 +739,8 @@ public class DefaultDataValueSetService
             dataValue = reader.readNext();
         }
 
+        importPendingDataValues( context, importCount );
+
         context.getDataValueBatchHandler().flush();
 
         if ( !context.isSkipAudit() )
@@ -736,6 +753,11 @@ public class DefaultDataValueSetService
             .setStatus( !context.getSummary().hasConflicts() ? ImportStatus.SUCCESS : ImportStatus.WARNING )
             .setDescription( "Import process completed successfully" );
 
+        if ( context.getImportOptions().isBulkCopy() )
+        {
+            context.getSummary().computeRowsPerSecond( System.currentTimeMillis() - startTime );
+        }
+
         clock.logTime(
             "Data value import done, total: " + importCount.getTotalCount() + ", import: " + importCount.getImported()
                 + ", update: "
@@ -772,6 +794,21 @@ public class DefaultDataValueSetService
         // -----------------------------------------------------------------
         DataValue internalValue = createDataValue( dataValue, context, valueContext, now );
 
+        // -----------------------------------------------------------------
+        // Defer existing check to chunk if enabled
+        // -----------------------------------------------------------------
+        if ( context.isChunkedExistingCheck() )
+        {
+            context.getPendingDataValues().add( new PendingDataValue( dataValue, valueContext, internalValue ) );
+
+            if ( context.getPendingDataValues().size() >= context.getExistingCheckChunkSize() )
+            {
+                importPendingDataValues( context, importCount );
+            }
+
+            return;
+        }
+
         // -----------------------------------------------------------------
         // Save, update or delete data value
         // -----------------------------------------------------------------
@@ -779,6 +816,60 @@ public class DefaultDataValueSetService
             ? context.getDataValueBatchHandler().findObject( internalValue )
             : null;
 
+        saveDataValue( context, importCount, dataValue, valueContext, internalValue, existingValue );
+    }
+
+    /**
+     * Resolves the existing values of all pending data values with a single
+     * lookup, then saves, updates or deletes each pending value in the order
+     * of import. Values occurring more than once in a chunk see the value
+     * written by the previous occurrence as existing value, the same way as
+     * when values are looked up one by one.
+     */
+    private void importPendingDataValues( ImportContext context, ImportCount importCount )
+    {
+        List<PendingDataValue> pendingValues = context.getPendingDataValues();
+
+        if ( pendingValues.isEmpty() )
+        {
+            return;
+        }
+
+        List<DataValue> existingValues = context.findExistingDataValues( pendingValues.stream()
+            .map( PendingDataValue::getInternalValue )
+            .collect( toList() ) );
+
+        Map<String, DataValue> writtenValues = new HashMap<>();
+
+        for ( int i = 0; i < pendingValues.size(); i++ )
+        {
+            PendingDataValue pending = pendingValues.get( i );
+            DataValue internalValue = pending.getInternalValue();
+            String key = DataValueBatchHandler.getUniqueKey( internalValue );
+
+            DataValue existingValue = writtenValues.containsKey( key )
+                ? writtenValues.get( key )
+                : existingValues.get( i );
+
+            if ( saveDataValue( context, importCount, pending.getDataValue(), pending.getValueContext(),
+                internalValue, existingValue ) )
+            {
+                writtenValues.put( key, internalValue );
+            }
+        }
+
+        pendingValues.clear();
+    }
+
+    /**
+     * Saves, updates or deletes the given data value.
+     *
+     * @return true if the persisted value was updated with the given data
+     *         value, false otherwise.
+     */
+    private boolean saveDataValue( ImportContext context, ImportCount importCount, DataValueEntry dataValue,
+        ImportContext.DataValueContext valueContext, DataValue internalValue, DataValue existingValue )
+    {
         // -----------------------------------------------------------------
         // Preserve any existing created date unless overwritten by import
         // -----------------------------------------------------------------
@@ -794,7 +885,7 @@ public class DefaultDataValueSetService
         {
             // Ignore value
             context.getSummary().skipValue();
-            return;
+            return false;
         }
 
         // -----------------------------------------------------------------
@@ -805,10 +896,12 @@ public class DefaultDataValueSetService
             if ( strategy.isCreateAndUpdate() || strategy.isUpdate() )
             {
                 saveDataValueUpdate( context, importCount, dataValue, valueContext, internalValue, existingValue );
+                return !context.isDryRun();
             }
             else if ( strategy.isDelete() )
             {
                 saveDataValueDelete( context, importCount, dataValue, valueContext, internalValue, existingValue );
+                return !context.isDryRun();
             }
             else
             {
@@ -820,12 +913,15 @@ public class DefaultDataValueSetService
             if ( strategy.isCreateAndUpdate() || strategy.isCreate() )
             {
                 saveDataValueCreate( context, importCount, valueContext, internalValue, existingValue );
+                return existingValue != null && !internalValue.isNullValue() && !context.isDryRun();
             }
             else
             {
                 importCount.incrementIgnored();
             }
         }
+
+        return false;
     }
 
     private void saveDataValueCreate( ImportContext context, ImportCount importCount,
@@ -1051,6 +1147,8 @@ public class DefaultDataValueSetService
                 : options.getImportStrategy() )
             .dryRun( data.getDryRun() != null ? data.getDryRun() : options.isDryRun() )
             .skipExistingCheck( options.isSkipExistingCheck() )
+            .existingCheckChunkSize(
+                Math.min( options.getExistingCheckChunkSize(), DataValueBatchHandler.MAX_LOOKUP_SIZE ) )
             .strictPeriods( options.isStrictPeriods()
                 || settings.getBoolSetting( SettingKey.DATA_IMPORT_STRICT_PERIODS ) )
             .strictDataElements( options.isStrictDataElements()
@@ -1081,14 +1179,35 @@ public class DefaultDataValueSetService
                 trimToNull( data.getPeriod() ) ) )
 
             // data processing
-            .dataValueBatchHandler( batchHandlerFactory
-                .createBatchHandler( DataValueBatchHandler.class ).init() )
+            .dataValueBatchHandler( createBatchHandler( DataValueBatchHandler.class, options, true ) )
             .auditBatchHandler( skipAudit ? null
-                : batchHandlerFactory.createBatchHandler( DataValueAuditBatchHandler.class ).init() )
+                : createBatchHandler( DataValueAuditBatchHandler.class, options, false ) )
             .singularNameForType( klass -> schemaService.getDynamicSchema( klass ).getSingular() )
             .build();
     }
 
+    /**
+     * Creates and initializes a batch handler, which writes with the
+     * PostgreSQL COPY protocol if bulk copy is enabled in the import options.
+     *
+     * @param klass the batch handler class.
+     * @param options the import options.
+     * @param merge whether added objects may already exist.
+     * @return a batch handler.
+     */
+    private <T> BatchHandler<T> createBatchHandler( Class<? extends BatchHandler<T>> klass, ImportOptions options,
+        boolean merge )
+    {
+        BatchHandler<T> batchHandler = batchHandlerFactory.createBatchHandler( klass );
+
+        if ( options.isBulkCopy() )
+        {
+            batchHandler = CopyBatchHandler.wrap( batchHandler, merge );
+        }
+
+        return batchHandler.init();
+    }
+
     private void logDataValueSetImportContextInfo( ImportContext context )
     {
         log.info( String.format( "Is ISO calendar: %b, skip lock exception check: %b",
@@ -1096,6 +1215,8 @@ public class DefaultDataValueSetService
         log.info( String.format( "Skip audit: %b, has authority to skip: %b",
             context.isSkipAudit(), context.isHasSkipAuditAuth() ) );
         log.info( "Import options: " + context.getImportOptions() );
+        log.info( String.format( "Chunked existing check: %b, chunk size: %d",
+            context.isChunkedExistingCheck(), context.getExistingCheckChunkSize() ) );
         log.info( String.format(
             "Identifier scheme: %s, data element: %s, org unit: %s, category option combo: %s, data set: %s",
             context.getIdScheme(), context.getDataElementIdScheme(), context.getOrgUnitIdScheme(),
@@ -28,8 +28,11 @@
 package org.hisp.dhis.dxf2.datavalueset;
 
 import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -56,6 +59,8 @@ import org.hisp.dhis.dxf2.importsummary.ImportStatus;
 import org.hisp.dhis.dxf2.importsummary.ImportSummary;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.jdbc.batchhandler.CopyBatchHandler;
+import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
@@ -110,6 +115,8 @@ public final class ImportContext
 
     private final boolean skipExistingCheck;
 
+    private final int existingCheckChunkSize;
+
     private final boolean strictPeriods;
 
     private final boolean strictDataElements;
@@ -170,6 +177,11 @@ public final class ImportContext
 
     private final CachingMap<String, Boolean> periodOpenForDataElement = new CachingMap<>();
 
+    /**
+     * Validated data values waiting for the existing check of their chunk.
+     */
+    private final List<PendingDataValue> pendingDataValues = new ArrayList<>();
+
     /*
      * Data fetching and processing
      */
@@ -223,6 +235,42 @@ public final class ImportContext
             : dataValue.getStoredBy();
     }
 
+    public boolean isChunkedExistingCheck()
+    {
+        return !skipExistingCheck && existingCheckChunkSize > 0;
+    }
+
+    /**
+     * Finds the persisted data values for the given data values. Uses a single
+     * keyed query when backed by a {@link DataValueBatchHandler}, otherwise
+     * falls back to looking up values one by one. Values buffered for COPY are
+     * written first so that they are visible to the lookup.
+     *
+     * @param values the data values to look up.
+     * @return a list of the same size and order as the given values, holding
+     *         the persisted data value or null if no such value exists.
+     */
+    public List<org.hisp.dhis.datavalue.DataValue> findExistingDataValues(
+        List<org.hisp.dhis.datavalue.DataValue> values )
+    {
+        BatchHandler<org.hisp.dhis.datavalue.DataValue> batchHandler = dataValueBatchHandler;
+
+        if ( batchHandler instanceof CopyBatchHandler )
+        {
+            ((CopyBatchHandler<?>) batchHandler).flushCopy();
+            batchHandler = ((CopyBatchHandler<org.hisp.dhis.datavalue.DataValue>) batchHandler).getDelegate();
+        }
+
+        if ( batchHandler instanceof DataValueBatchHandler )
+        {
+            return ((DataValueBatchHandler) batchHandler).findObjects( values );
+        }
+
+        return values.stream()
+            .map( dataValueBatchHandler::findObject )
+            .collect( toList() );
+    }
+
     public DataSet getApprovalDataSet( DataSetContext dataSetContext, DataValueContext valueContext )
     {
         return dataSetContext.getDataSet() != null
@@ -290,4 +338,19 @@ public final class ImportContext
                 getAttrOptionCombo() );
         }
     }
+
+    /**
+     * A validated {@link DataValueEntry} of a {@link DataValueSet} import which
+     * is buffered until the existing values of its chunk are resolved.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class PendingDataValue
+    {
+        private final DataValueEntry dataValue;
+
+        private final DataValueContext valueContext;
+
+        private final org.hisp.dhis.datavalue.DataValue internalValue;
+    }
 }
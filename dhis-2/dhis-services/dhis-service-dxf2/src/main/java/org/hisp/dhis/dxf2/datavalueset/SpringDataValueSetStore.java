@@ -38,7 +38,9 @@ import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -72,6 +74,13 @@ import com.google.common.base.Preconditions;
 public class SpringDataValueSetStore
     implements DataValueSetStore, CurrentUserServiceTarget
 {
+    /**
+     * Columns of the data value table in the order used for keyset pagination,
+     * last updated time followed by the primary key.
+     */
+    private static final String DATA_VALUE_KEY_COLUMNS = "dv.lastupdated, dv.dataelementid, dv.periodid, " +
+        "dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+
     private CurrentUserService currentUserService;
 
     private final JdbcTemplate jdbcTemplate;
@@ -146,6 +155,43 @@ public class SpringDataValueSetStore
         }
     }
 
+    @Override
+    public DataValueKey exportDataValueSetJson( Date lastUpdated, DataValueKey after, OutputStream out,
+        IdSchemes idSchemes, int pageSize )
+    {
+        String sql = buildDataValueSql( lastUpdated, idSchemes );
+        List<Object> args = new ArrayList<>();
+
+        if ( after != null )
+        {
+            sql += "and (" + DATA_VALUE_KEY_COLUMNS + ") > (?, ?, ?, ?, ?, ?) ";
+
+            args.add( after.getLastUpdated() );
+            args.add( after.getDataElementId() );
+            args.add( after.getPeriodId() );
+            args.add( after.getSourceId() );
+            args.add( after.getCategoryOptionComboId() );
+            args.add( after.getAttributeOptionComboId() );
+        }
+
+        sql += "order by " + DATA_VALUE_KEY_COLUMNS + " limit " + pageSize;
+
+        DataValueKey[] lastKey = new DataValueKey[1];
+
+        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
+        {
+            writer.writeHeader();
+
+            final Calendar calendar = PeriodType.getCalendar();
+            jdbcTemplate.query( sql, ( ResultSet rs ) -> {
+                writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) );
+                lastKey[0] = getDataValueKey( rs );
+            }, args.toArray() );
+        }
+
+        return lastKey[0];
+    }
+
     private String buildDataValueSql( Date lastUpdated, IdSchemes idSchemes )
     {
         String deScheme = idSchemes.getDataElementIdScheme().getIdentifiableString().toLowerCase();
@@ -156,7 +202,8 @@ public class SpringDataValueSetStore
         final String sql = "select de." + deScheme + " as deid, pe.startdate as pestart, pt.name as ptname, ou."
             + ouScheme + " as ouid, " +
             "coc." + ocScheme + " as cocid, aoc." + aocScheme + " as aocid, " +
-            "dv.value, dv.storedby, dv.created, dv.lastupdated, dv.comment, dv.followup, dv.deleted " +
+            "dv.value, dv.storedby, dv.created, dv.lastupdated, dv.comment, dv.followup, dv.deleted, " +
+            "dv.dataelementid, dv.periodid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid " +
             "from datavalue dv " +
             "join dataelement de on (dv.dataelementid=de.dataelementid) " +
             "join period pe on (dv.periodid=pe.periodid) " +
@@ -196,6 +243,14 @@ public class SpringDataValueSetStore
     // Supportive methods
     // --------------------------------------------------------------------------
 
+    private static DataValueKey getDataValueKey( ResultSet rs )
+        throws SQLException
+    {
+        return new DataValueKey( rs.getTimestamp( "lastupdated" ), rs.getLong( "dataelementid" ),
+            rs.getLong( "periodid" ), rs.getLong( "sourceid" ), rs.getLong( "categoryoptioncomboid" ),
+            rs.getLong( "attributeoptioncomboid" ) );
+    }
+
     private String getDataValueSql( DataExportParams params )
     {
         Preconditions.checkArgument( !params.getAllDataElements().isEmpty() );
@@ -64,6 +64,8 @@ public class ImportSummary extends AbstractWebMessageResponse implements ImportC
 
     private String dataSetComplete;
 
+    private Long rowsPerSecond;
+
     private String reference;
 
     private String href;
@@ -219,6 +221,33 @@ public class ImportSummary extends AbstractWebMessageResponse implements ImportC
         return this;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public Long getRowsPerSecond()
+    {
+        return rowsPerSecond;
+    }
+
+    public ImportSummary setRowsPerSecond( Long rowsPerSecond )
+    {
+        this.rowsPerSecond = rowsPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows written per second based on the imported,
+     * updated and deleted count of this summary and the given duration.
+     *
+     * @param millis the duration of the import in milliseconds.
+     * @return this summary.
+     */
+    public ImportSummary computeRowsPerSecond( long millis )
+    {
+        long rows = (long) importCount.getImported() + importCount.getUpdated() + importCount.getDeleted();
+        this.rowsPerSecond = rows * 1000 / Math.max( 1, millis );
+        return this;
+    }
+
     @JsonProperty
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     public String getReference()
@@ -356,6 +385,7 @@ public class ImportSummary extends AbstractWebMessageResponse implements ImportC
             ", importCount=" + importCount +
             ", conflicts=" + conflicts +
             ", dataSetComplete='" + dataSetComplete + '\'' +
+            ", rowsPerSecond=" + rowsPerSecond +
             ", reference='" + reference + '\'' +
             ", href='" + href + '\'' +
             '}';
@@ -64,7 +64,9 @@ import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import com.google.common.base.Enums;
 
@@ -119,11 +121,18 @@ public class DefaultMetadataImportService implements MetadataImportService
         preCreateBundle( params );
 
         ObjectBundleParams bundleParams = params.toObjectBundleParams();
+        bundleParams.setConcurrentPreheat( isNewTransaction() );
         handleDeprecationIfEventReport( bundleParams );
         ObjectBundle bundle = objectBundleService.create( bundleParams );
 
         postCreateBundle( bundle, bundleParams );
 
+        if ( ImportReportMode.DEBUG == params.getImportReportMode() )
+        {
+            bundle.getPreheat().getLoadTimes().forEach(
+                ( klass, millis ) -> importReport.getPreheatLoadTimes().put( klass.getSimpleName(), millis ) );
+        }
+
         ObjectBundleValidationReport validationReport = objectBundleValidationService.validate( bundle );
         importReport.addTypeReports( validationReport );
 
@@ -316,6 +325,23 @@ public class DefaultMetadataImportService implements MetadataImportService
         object.setLastUpdatedBy( params.getUser() );
     }
 
+    /**
+     * Concurrent preheating reads through separate sessions which only see
+     * committed data, so it is only used when the import started its own
+     * transaction and hence has not written anything yet.
+     */
+    private boolean isNewTransaction()
+    {
+        try
+        {
+            return TransactionAspectSupport.currentTransactionStatus().isNewTransaction();
+        }
+        catch ( NoTransactionException ex )
+        {
+            return false;
+        }
+    }
+
     private void postCreateBundle( ObjectBundle bundle, ObjectBundleParams params )
     {
         if ( bundle.getUser() == null )
@@ -41,4 +41,11 @@ public enum FlushMode
      * Let the importer decide the flushing.
      */
     AUTO,
+
+    /**
+     * Like {@link #AUTO}, but objects of types which support bulk commit are
+     * written in JDBC batches, with hooks invoked once per batch and flushing
+     * only at batch boundaries.
+     */
+    BULK,
 }
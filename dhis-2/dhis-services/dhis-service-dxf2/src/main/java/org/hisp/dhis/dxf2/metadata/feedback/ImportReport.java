@@ -35,6 +35,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -49,6 +50,7 @@ import org.hisp.dhis.feedback.Status;
 import org.hisp.dhis.feedback.TypeReport;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
@@ -67,6 +69,8 @@ public class ImportReport implements ErrorReportContainer
 
     private final Map<Class<?>, TypeReport> typeReportMap = new HashMap<>();
 
+    private Map<String, Long> preheatLoadTimes = new TreeMap<>();
+
     // -----------------------------------------------------------------------------------
     // Utility Methods
     // -----------------------------------------------------------------------------------
@@ -179,6 +183,23 @@ public class ImportReport implements ErrorReportContainer
         }
     }
 
+    /**
+     * Time in milliseconds spent preheating each object type, included in
+     * {@link ImportReportMode#DEBUG} reports only.
+     */
+    @JsonProperty
+    @JsonInclude( JsonInclude.Include.NON_EMPTY )
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public Map<String, Long> getPreheatLoadTimes()
+    {
+        return preheatLoadTimes;
+    }
+
+    public void setPreheatLoadTimes( Map<String, Long> preheatLoadTimes )
+    {
+        this.preheatLoadTimes = preheatLoadTimes != null ? new TreeMap<>( preheatLoadTimes ) : new TreeMap<>();
+    }
+
     public Set<Class<?>> getTypeReportKeys()
     {
         return unmodifiableSet( typeReportMap.keySet() );
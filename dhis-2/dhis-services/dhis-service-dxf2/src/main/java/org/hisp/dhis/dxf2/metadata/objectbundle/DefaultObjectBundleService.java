@@ -33,6 +33,7 @@ import static org.hisp.dhis.dxf2.metadata.objectbundle.EventReportCompatibilityG
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +41,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.cache.HibernateCacheManager;
+import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
@@ -47,8 +49,12 @@ import org.hisp.dhis.common.MergeMode;
 import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleCommitReport;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ObjectReport;
 import org.hisp.dhis.feedback.TypeReport;
+import org.hisp.dhis.option.Option;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.preheat.Preheat;
 import org.hisp.dhis.preheat.PreheatParams;
 import org.hisp.dhis.preheat.PreheatService;
@@ -61,6 +67,8 @@ import org.hisp.dhis.user.User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Lists;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -69,6 +77,25 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class DefaultObjectBundleService implements ObjectBundleService
 {
+    /**
+     * Types which are committed in batches in {@link FlushMode#BULK}. These
+     * are high volume types without hooks which depend on objects of the same
+     * type being flushed one by one. Attribute values are stored with the
+     * object itself and are written as part of the same batch.
+     */
+    private static final Set<Class<?>> BULK_COMMIT_TYPES = Set.of(
+        Option.class, OrganisationUnit.class, CategoryOptionCombo.class );
+
+    /**
+     * Bulk commit types whose objects are evicted from the session once their
+     * batch is committed, so that later flushes do not dirty check them
+     * again. No mapping cascades to these types, so later objects refer to the
+     * evicted preheat instances by identifier only. Options are not evicted as
+     * option sets cascade to them, which would reattach and update them.
+     */
+    private static final Set<Class<?>> BULK_EVICT_TYPES = Set.of(
+        OrganisationUnit.class, CategoryOptionCombo.class );
+
     private final CurrentUserService currentUserService;
 
     private final PreheatService preheatService;
@@ -89,6 +116,8 @@ public class DefaultObjectBundleService implements ObjectBundleService
 
     private final ObjectBundleHooks objectBundleHooks;
 
+    private final DhisConfigurationProvider config;
+
     @Override
     @Transactional( readOnly = true )
     public ObjectBundle create( ObjectBundleParams params )
@@ -157,30 +186,54 @@ public class DefaultObjectBundleService implements ObjectBundleService
         List<ObjectBundleHook<? super T>> importHooks = objectBundleHooks.getTypeImportHooks( klass );
         importHooks.forEach( hook -> hook.preTypeImport( klass, nonPersistedObjects, bundle ) );
 
-        if ( bundle.getImportMode().isCreateAndUpdate() )
-        {
-            TypeReport typeReport = new TypeReport( klass );
-            typeReport.merge( handleCreates( session, klass, nonPersistedObjects, bundle ) );
-            typeReport.merge( handleUpdates( session, klass, persistedObjects, bundle ) );
+        int batchSize = isBulkCommit( klass, bundle ) ? getBulkBatchSize() : 0;
 
-            typeReports.put( klass, typeReport );
-        }
-        else if ( bundle.getImportMode().isCreate() )
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        org.hibernate.FlushMode hibernateFlushMode = session.getHibernateFlushMode();
+
+        if ( batchSize > 0 )
         {
-            typeReports.put( klass, handleCreates( session, klass, nonPersistedObjects, bundle ) );
+            // Batch inserts and updates and flush only at batch boundaries
+
+            session.setJdbcBatchSize( batchSize );
+            session.setHibernateFlushMode( org.hibernate.FlushMode.MANUAL );
         }
-        else if ( bundle.getImportMode().isUpdate() )
+
+        try
         {
-            typeReports.put( klass, handleUpdates( session, klass, persistedObjects, bundle ) );
+            if ( bundle.getImportMode().isCreateAndUpdate() )
+            {
+                TypeReport typeReport = new TypeReport( klass );
+                typeReport.merge( handleCreates( session, klass, nonPersistedObjects, bundle, batchSize ) );
+                typeReport.merge( handleUpdates( session, klass, persistedObjects, bundle, batchSize ) );
+
+                typeReports.put( klass, typeReport );
+            }
+            else if ( bundle.getImportMode().isCreate() )
+            {
+                typeReports.put( klass, handleCreates( session, klass, nonPersistedObjects, bundle, batchSize ) );
+            }
+            else if ( bundle.getImportMode().isUpdate() )
+            {
+                typeReports.put( klass, handleUpdates( session, klass, persistedObjects, bundle, batchSize ) );
+            }
+            else if ( bundle.getImportMode().isDelete() )
+            {
+                typeReports.put( klass, handleDeletes( session, klass, persistedObjects, bundle ) );
+            }
         }
-        else if ( bundle.getImportMode().isDelete() )
+        finally
         {
-            typeReports.put( klass, handleDeletes( session, klass, persistedObjects, bundle ) );
+            if ( batchSize > 0 )
+            {
+                session.setJdbcBatchSize( jdbcBatchSize );
+                session.setHibernateFlushMode( hibernateFlushMode );
+            }
         }
 
         importHooks.forEach( hook -> hook.postTypeImport( klass, persistedObjects, bundle ) );
 
-        if ( FlushMode.AUTO == bundle.getFlushMode() )
+        if ( FlushMode.AUTO == bundle.getFlushMode() || FlushMode.BULK == bundle.getFlushMode() )
         {
             session.flush();
         }
@@ -191,7 +244,7 @@ public class DefaultObjectBundleService implements ObjectBundleService
     // -----------------------------------------------------------------------------------
 
     private <T extends IdentifiableObject> TypeReport handleCreates( Session session, Class<T> klass,
-        List<T> objects, ObjectBundle bundle )
+        List<T> objects, ObjectBundle bundle, int batchSize )
     {
         TypeReport typeReport = new TypeReport( klass );
 
@@ -212,56 +265,61 @@ public class DefaultObjectBundleService implements ObjectBundleService
             notifier.notify( bundle.getJobId(), message );
         }
 
-        objects.forEach( object -> objectBundleHooks.getObjectHooks( object )
-            .forEach( hook -> hook.preCreate( object, bundle ) ) );
-
-        session.flush();
-
-        for ( T object : objects )
+        for ( List<T> batch : partition( objects, batchSize ) )
         {
-            ObjectReport objectReport = new ObjectReport( object, bundle );
-            objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
-            typeReport.addObjectReport( objectReport );
+            batch.forEach( object -> objectBundleHooks.getObjectHooks( object )
+                .forEach( hook -> hook.preCreate( object, bundle ) ) );
 
-            preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+            session.flush();
 
-            if ( bundle.getOverrideUser() != null )
+            for ( T object : batch )
             {
-                object.setCreatedBy( bundle.getOverrideUser() );
+                ObjectReport objectReport = new ObjectReport( object, bundle );
+                objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
+                typeReport.addObjectReport( objectReport );
 
-                if ( object instanceof User )
+                preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+
+                if ( bundle.getOverrideUser() != null )
                 {
-                    (object).setCreatedBy( bundle.getOverrideUser() );
+                    object.setCreatedBy( bundle.getOverrideUser() );
+
+                    if ( object instanceof User )
+                    {
+                        (object).setCreatedBy( bundle.getOverrideUser() );
+                    }
                 }
-            }
 
-            session.save( object );
+                session.save( object );
 
-            bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object );
+                bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object );
 
-            if ( log.isDebugEnabled() )
-            {
-                String msg = "(" + bundle.getUsername() + ") Created object '"
-                    + bundle.getPreheatIdentifier().getIdentifiersWithName( object ) + "'";
-                log.debug( msg );
-            }
+                if ( log.isDebugEnabled() )
+                {
+                    String msg = "(" + bundle.getUsername() + ") Created object '"
+                        + bundle.getPreheatIdentifier().getIdentifiersWithName( object ) + "'";
+                    log.debug( msg );
+                }
 
-            if ( FlushMode.OBJECT == bundle.getFlushMode() )
-            {
-                session.flush();
+                if ( FlushMode.OBJECT == bundle.getFlushMode() )
+                {
+                    session.flush();
+                }
             }
-        }
 
-        session.flush();
+            session.flush();
 
-        objects.forEach( object -> objectBundleHooks.getObjectHooks( object )
-            .forEach( hook -> hook.postCreate( object, bundle ) ) );
+            batch.forEach( object -> objectBundleHooks.getObjectHooks( object )
+                .forEach( hook -> hook.postCreate( object, bundle ) ) );
+
+            evictBatch( session, klass, batch, batchSize );
+        }
 
         return typeReport;
     }
 
     private <T extends IdentifiableObject> TypeReport handleUpdates( Session session, Class<T> klass,
-        List<T> objects, ObjectBundle bundle )
+        List<T> objects, ObjectBundle bundle, int batchSize )
     {
         TypeReport typeReport = new TypeReport( klass );
 
@@ -280,66 +338,72 @@ public class DefaultObjectBundleService implements ObjectBundleService
             notifier.notify( bundle.getJobId(), message );
         }
 
-        objects.forEach( object -> {
-            T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
-            objectBundleHooks.getObjectHooks( object )
-                .forEach( hook -> hook.preUpdate( object, persistedObject, bundle ) );
-        } );
-
-        session.flush();
-
-        for ( T object : objects )
+        for ( List<T> batch : partition( objects, batchSize ) )
         {
-            T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
-
-            ObjectReport objectReport = new ObjectReport( object, bundle );
-            objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
-            typeReport.addObjectReport( objectReport );
+            batch.forEach( object -> {
+                T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
+                objectBundleHooks.getObjectHooks( object )
+                    .forEach( hook -> hook.preUpdate( object, persistedObject, bundle ) );
+            } );
 
-            preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+            session.flush();
 
-            if ( bundle.getMergeMode() != MergeMode.NONE )
+            for ( T object : batch )
             {
-                mergeService.merge( new MergeParams<>( object, persistedObject )
-                    .setMergeMode( bundle.getMergeMode() )
-                    .setSkipSharing( bundle.isSkipSharing() )
-                    .setSkipTranslation( bundle.isSkipTranslation() ) );
-            }
+                T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
 
-            if ( bundle.getOverrideUser() != null )
-            {
-                persistedObject.setCreatedBy( bundle.getOverrideUser() );
+                ObjectReport objectReport = new ObjectReport( object, bundle );
+                objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
+                typeReport.addObjectReport( objectReport );
 
-                if ( object instanceof User )
+                preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+
+                if ( bundle.getMergeMode() != MergeMode.NONE )
                 {
-                    (object).setCreatedBy( bundle.getOverrideUser() );
+                    mergeService.merge( new MergeParams<>( object, persistedObject )
+                        .setMergeMode( bundle.getMergeMode() )
+                        .setSkipSharing( bundle.isSkipSharing() )
+                        .setSkipTranslation( bundle.isSkipTranslation() ) );
                 }
-            }
 
-            session.update( persistedObject );
+                if ( bundle.getOverrideUser() != null )
+                {
+                    persistedObject.setCreatedBy( bundle.getOverrideUser() );
 
-            bundle.getPreheat().replace( bundle.getPreheatIdentifier(), persistedObject );
+                    if ( object instanceof User )
+                    {
+                        (object).setCreatedBy( bundle.getOverrideUser() );
+                    }
+                }
 
-            if ( log.isDebugEnabled() )
-            {
-                String msg = "(" + bundle.getUsername() + ") Updated object '"
-                    + bundle.getPreheatIdentifier().getIdentifiersWithName( persistedObject ) + "'";
-                log.debug( msg );
-            }
+                session.update( persistedObject );
 
-            if ( FlushMode.OBJECT == bundle.getFlushMode() )
-            {
-                session.flush();
+                bundle.getPreheat().replace( bundle.getPreheatIdentifier(), persistedObject );
+
+                if ( log.isDebugEnabled() )
+                {
+                    String msg = "(" + bundle.getUsername() + ") Updated object '"
+                        + bundle.getPreheatIdentifier().getIdentifiersWithName( persistedObject ) + "'";
+                    log.debug( msg );
+                }
+
+                if ( FlushMode.OBJECT == bundle.getFlushMode() )
+                {
+                    session.flush();
+                }
             }
-        }
 
-        session.flush();
+            session.flush();
 
-        objects.forEach( object -> {
-            T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
-            objectBundleHooks.getObjectHooks( object )
-                .forEach( hook -> hook.postUpdate( persistedObject, bundle ) );
-        } );
+            batch.forEach( object -> {
+                T persistedObject = bundle.getPreheat().get( bundle.getPreheatIdentifier(), object );
+                objectBundleHooks.getObjectHooks( object )
+                    .forEach( hook -> hook.postUpdate( persistedObject, bundle ) );
+            } );
+
+            evictBatch( session, klass, bundle.getPreheat().getAll( bundle.getPreheatIdentifier(), batch ),
+                batchSize );
+        }
 
         return typeReport;
     }
@@ -393,6 +457,46 @@ public class DefaultObjectBundleService implements ObjectBundleService
         return typeReport;
     }
 
+    /**
+     * Returns whether objects of the given type are committed in batches. This
+     * is the case for bulk commit types in {@link FlushMode#BULK} only, all
+     * other types are committed in a single pass.
+     */
+    private boolean isBulkCommit( Class<?> klass, ObjectBundle bundle )
+    {
+        return FlushMode.BULK == bundle.getFlushMode() && BULK_COMMIT_TYPES.contains( klass );
+    }
+
+    /**
+     * Evicts the committed objects of a batch from the session if the type is
+     * evicted after bulk commits. The preheat keeps the evicted instances,
+     * which are reattached if a later stage updates them.
+     */
+    private void evictBatch( Session session, Class<?> klass, List<? extends IdentifiableObject> batch,
+        int batchSize )
+    {
+        if ( batchSize > 0 && BULK_EVICT_TYPES.contains( klass ) )
+        {
+            batch.forEach( session::evict );
+        }
+    }
+
+    private int getBulkBatchSize()
+    {
+        int batchSize = Integer.parseInt( config.getProperty( ConfigurationKey.METADATA_IMPORT_BULK_BATCH_SIZE ) );
+
+        return Math.max( 1, batchSize );
+    }
+
+    /**
+     * Splits the objects into batches of the given size, or returns a single
+     * batch with all objects if the batch size is 0.
+     */
+    private static <T> List<List<T>> partition( List<T> objects, int batchSize )
+    {
+        return batchSize > 0 ? Lists.partition( objects, batchSize ) : List.of( objects );
+    }
+
     @SuppressWarnings( "unchecked" )
     private List<Class<? extends IdentifiableObject>> getSortedClasses( ObjectBundle bundle )
     {
@@ -85,6 +85,8 @@ public class ObjectBundleParams
 
     private boolean metadataSyncImport;
 
+    private boolean concurrentPreheat;
+
     private JobConfiguration jobId;
 
     public ObjectBundleParams()
@@ -256,6 +258,17 @@ public class ObjectBundleParams
         this.metadataSyncImport = metadataSyncImport;
     }
 
+    public boolean isConcurrentPreheat()
+    {
+        return concurrentPreheat;
+    }
+
+    public ObjectBundleParams setConcurrentPreheat( boolean concurrentPreheat )
+    {
+        this.concurrentPreheat = concurrentPreheat;
+        return this;
+    }
+
     public JobConfiguration getJobId()
     {
         return jobId;
@@ -320,6 +333,7 @@ public class ObjectBundleParams
         PreheatParams params = new PreheatParams();
         params.setPreheatIdentifier( preheatIdentifier );
         params.setPreheatMode( preheatMode );
+        params.setConcurrent( concurrentPreheat );
 
         return params;
     }
@@ -92,6 +92,13 @@ public class OrganisationUnitObjectBundleHook extends AbstractObjectBundleHook<O
             OrganisationUnit parentRef = (OrganisationUnit) objectReferenceMap.get( "parent" );
             OrganisationUnit parent = bundle.getPreheat().get( bundle.getPreheatIdentifier(), parentRef );
 
+            if ( organisationUnit.getParent() == parent )
+            {
+                // already connected on commit, avoids reattaching units
+                // evicted by bulk commits only to update them unchanged
+                continue;
+            }
+
             organisationUnit.setParent( parent );
             session.update( organisationUnit );
         }
@@ -29,13 +29,26 @@ package org.hisp.dhis.dxf2.sync;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.dxf2.datavalueset.DataValueKey;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.util.Clock;
@@ -45,13 +58,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
+ * Synchronizes data values changed since the last successful synchronization
+ * to the remote server.
+ * <p>
+ * With keyset synchronization enabled, pages are read in the order of last
+ * updated time and primary key of data values, so that reading a page does
+ * not scan the previous pages. Pages are sent as GZIP compressed JSON, which
+ * the data value set import detects, and the next page is exported while the
+ * previous page is sent. The key of the last data value of each acknowledged
+ * page is saved as checkpoint, so that a failed or interrupted synchronization
+ * continues after the last acknowledged page.
+ *
  * @author David Katuscak <katuscak.d@gmail.com>
  */
 @Slf4j
 @Component
 public class DataValueSynchronization extends DataSynchronizationWithPaging
 {
+    private static final String CHECKPOINT_SEPARATOR = ";";
+
     private final DataValueService dataValueService;
 
     private final DataValueSetService dataValueSetService;
@@ -60,20 +88,24 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
 
     private final RestTemplate restTemplate;
 
+    private final DhisConfigurationProvider config;
+
     private Date lastUpdatedAfter;
 
     public DataValueSynchronization( DataValueService dataValueService, DataValueSetService dataValueSetService,
-        SystemSettingManager systemSettingManager, RestTemplate restTemplate )
+        SystemSettingManager systemSettingManager, RestTemplate restTemplate, DhisConfigurationProvider config )
     {
         checkNotNull( dataValueService );
         checkNotNull( dataValueSetService );
         checkNotNull( systemSettingManager );
         checkNotNull( restTemplate );
+        checkNotNull( config );
 
         this.dataValueService = dataValueService;
         this.dataValueSetService = dataValueSetService;
         this.systemSettingManager = systemSettingManager;
         this.restTemplate = restTemplate;
+        this.config = config;
     }
 
     @Override
@@ -96,10 +128,18 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
                 .newSuccessResultWithMessage( "Skipping synchronization, no new or updated DataValues" );
         }
 
-        runSyncWithPaging( pageSize );
+        if ( config.isEnabled( ConfigurationKey.DATA_VALUE_SYNC_KEYSET ) )
+        {
+            runSyncWithKeyset( pageSize );
+        }
+        else
+        {
+            runSyncWithPaging( pageSize );
+        }
 
         if ( syncResult )
         {
+            systemSettingManager.deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
             clock.logTime( "SUCCESS! DataValueSynchronization job is done. It took" );
             SyncUtils.setLastSyncSuccess( systemSettingManager, SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC,
                 new Date( clock.getStartTime() ) );
@@ -147,6 +187,147 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
         }
     }
 
+    /**
+     * Synchronizes pages read with keyset pagination, starting after the
+     * checkpoint of a previous synchronization of the same data values if any.
+     * At most one page is sent while the next page is exported.
+     */
+    private void runSyncWithKeyset( int pageSize )
+    {
+        syncResult = true;
+
+        DataValueKey after = getCheckpoint();
+
+        ExecutorService sender = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat( "data-value-sync-%d" ).setDaemon( true ).build() );
+
+        Future<Boolean> pageInFlight = null;
+        DataValueKey pageInFlightKey = null;
+        int page = 0;
+
+        try
+        {
+            while ( true )
+            {
+                ExportedPage exportedPage = exportPage( after, pageSize );
+
+                if ( pageInFlight != null )
+                {
+                    if ( !pageInFlight.get() )
+                    {
+                        syncResult = false;
+                        return;
+                    }
+
+                    saveCheckpoint( pageInFlightKey );
+                }
+
+                if ( exportedPage.lastKey == null )
+                {
+                    return;
+                }
+
+                page++;
+
+                log.info( String.format( "Synchronizing page %d with page size %d", page, pageSize ) );
+
+                pageInFlight = sender.submit( () -> sendSyncRequest( exportedPage.body ) );
+                pageInFlightKey = exportedPage.lastKey;
+                after = exportedPage.lastKey;
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            log.error( "DataValueSynchronization was interrupted", ex );
+            syncResult = false;
+        }
+        catch ( ExecutionException ex )
+        {
+            log.error( "DataValueSynchronization failed to send page", ex.getCause() );
+            syncResult = false;
+        }
+        finally
+        {
+            sender.shutdownNow();
+        }
+    }
+
+    private ExportedPage exportPage( DataValueKey after, int pageSize )
+    {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataValueKey lastKey;
+
+        try ( GZIPOutputStream out = new GZIPOutputStream( body ) )
+        {
+            lastKey = dataValueSetService.exportDataValueSetJson( lastUpdatedAfter, after, out, new IdSchemes(),
+                pageSize );
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( ex );
+        }
+
+        return new ExportedPage( body.toByteArray(), lastKey );
+    }
+
+    /**
+     * Returns the key of the last acknowledged data value of a previous
+     * synchronization, provided it synchronized data values changed since the
+     * same time, or null.
+     */
+    private DataValueKey getCheckpoint()
+    {
+        String checkpoint = systemSettingManager.getStringSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+
+        if ( StringUtils.isBlank( checkpoint ) )
+        {
+            return null;
+        }
+
+        String since = String.valueOf( lastUpdatedAfter.getTime() );
+
+        if ( !since.equals( StringUtils.substringBefore( checkpoint, CHECKPOINT_SEPARATOR ) ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            DataValueKey key = DataValueKey
+                .fromString( StringUtils.substringAfter( checkpoint, CHECKPOINT_SEPARATOR ) );
+
+            log.info( "Resuming DataValueSynchronization after data value: " + key );
+
+            return key;
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            log.warn( "Ignoring invalid DataValueSynchronization checkpoint: " + checkpoint );
+            return null;
+        }
+    }
+
+    private void saveCheckpoint( DataValueKey key )
+    {
+        systemSettingManager.saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            lastUpdatedAfter.getTime() + CHECKPOINT_SEPARATOR + key );
+    }
+
+    private boolean sendSyncRequest( byte[] body )
+    {
+        final RequestCallback requestCallback = request -> {
+            request.getHeaders().setContentType( MediaType.APPLICATION_JSON );
+            request.getHeaders().add( SyncUtils.HEADER_AUTHORIZATION,
+                CodecUtils.getBasicAuthString( instance.getUsername(), instance.getPassword() ) );
+
+            request.getBody().write( body );
+        };
+
+        return SyncUtils.sendSyncRequest( systemSettingManager, restTemplate, requestCallback, instance,
+            SyncEndpoint.DATA_VALUE_SETS );
+    }
+
     private boolean sendSyncRequest( int syncPageSize, int page )
     {
         final RequestCallback requestCallback = request -> {
@@ -161,4 +342,12 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
         return SyncUtils.sendSyncRequest( systemSettingManager, restTemplate, requestCallback, instance,
             SyncEndpoint.DATA_VALUE_SETS );
     }
+
+    @RequiredArgsConstructor
+    private static final class ExportedPage
+    {
+        private final byte[] body;
+
+        private final DataValueKey lastKey;
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.util.DateUtils.getMediumDateString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.category.CategoryService;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dataset.DataSetService;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.dxf2.common.ImportOptions;
+import org.hisp.dhis.dxf2.importsummary.ImportStatus;
+import org.hisp.dhis.dxf2.importsummary.ImportSummary;
+import org.hisp.dhis.mock.MockCurrentUserService;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.CurrentUserServiceTarget;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests data value set import with {@link ImportOptions#isBulkCopy()}, which
+ * writes data values with the PostgreSQL COPY protocol.
+ */
+class DataValueSetServiceBulkCopyTest extends IntegrationTestBase
+{
+    @Autowired
+    private IdentifiableObjectManager idObjectManager;
+
+    @Autowired
+    private DataSetService dataSetService;
+
+    @Autowired
+    private PeriodService periodService;
+
+    @Autowired
+    private DataValueSetService dataValueSetService;
+
+    @Autowired
+    private DataValueService dataValueService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService _userService;
+
+    private DataElement deC;
+
+    private Period peA;
+
+    private OrganisationUnit ouA;
+
+    private OrganisationUnit ouB;
+
+    @Override
+    public void setUpTest()
+    {
+        userService = _userService;
+        DataElement deA = createDataElement( 'A' );
+        DataElement deB = createDataElement( 'B' );
+        deC = createDataElement( 'C' );
+        deA.setUid( "f7n9E0hX8qk" );
+        deB.setUid( "Ix2HsbDMLea" );
+        deC.setUid( "eY5ehpbEsB7" );
+        idObjectManager.save( deA );
+        idObjectManager.save( deB );
+        idObjectManager.save( deC );
+        DataSet dsA = createDataSet( 'A', new MonthlyPeriodType() );
+        dsA.setUid( "pBOMPrpg1QX" );
+        dataSetService.addDataSet( dsA );
+        peA = createPeriod( PeriodType.getByNameIgnoreCase( MonthlyPeriodType.NAME ), getDate( 2012, 1, 1 ),
+            getDate( 2012, 1, 31 ) );
+        Period peB = createPeriod( PeriodType.getByNameIgnoreCase( MonthlyPeriodType.NAME ), getDate( 2012, 2, 1 ),
+            getDate( 2012, 2, 29 ) );
+        Period peC = createPeriod( PeriodType.getByNameIgnoreCase( MonthlyPeriodType.NAME ), getDate( 2012, 3, 1 ),
+            getDate( 2012, 3, 31 ) );
+        periodService.addPeriod( peA );
+        periodService.addPeriod( peB );
+        periodService.addPeriod( peC );
+        ouA = createOrganisationUnit( 'A' );
+        ouB = createOrganisationUnit( 'B' );
+        OrganisationUnit ouC = createOrganisationUnit( 'C' );
+        ouA.setUid( "DiszpKrYNg8" );
+        ouB.setUid( "BdfsJfj87js" );
+        ouC.setUid( "j7Hg26FpoIa" );
+        idObjectManager.save( ouA );
+        idObjectManager.save( ouB );
+        idObjectManager.save( ouC );
+        User user = createAndInjectAdminUser();
+        user.setOrganisationUnits( Sets.newHashSet( ouA, ouB, ouC ) );
+        CurrentUserService currentUserService = new MockCurrentUserService( user );
+        setDependency( CurrentUserServiceTarget.class, CurrentUserServiceTarget::setCurrentUserService,
+            currentUserService, dataValueSetService );
+    }
+
+    // -------------------------------------------------------------------------
+    // Tests
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testImportValuesBulkCopy()
+    {
+        ImportSummary summary = dataValueSetService.importDataValueSetXml(
+            readFile( "datavalueset/dataValueSetB.xml" ), getBulkCopyOptions() );
+
+        assertSuccessWithImportedUpdated( 12, 0, summary );
+        assertEquals( 12, dataValueService.getAllDataValues().size() );
+    }
+
+    @Test
+    void testImportUpdateValuesBulkCopy()
+    {
+        dataValueSetService.importDataValueSetXml( readFile( "datavalueset/dataValueSetB.xml" ),
+            getBulkCopyOptions() );
+
+        ImportSummary summary = dataValueSetService.importDataValueSetXml(
+            readFile( "datavalueset/dataValueSetBUpdate.xml" ), getBulkCopyOptions() );
+
+        assertSuccessWithImportedUpdated( 2, 4, summary );
+        assertEquals( 14, dataValueService.getAllDataValues().size() );
+
+        CategoryOptionCombo cc = categoryService.getDefaultCategoryOptionCombo();
+        DataValue dv1 = dataValueService.getDataValue( deC, peA, ouA, cc, cc );
+        assertEquals( "2010-01-01", getMediumDateString( dv1.getCreated() ) );
+        DataValue dv2 = dataValueService.getDataValue( deC, peA, ouB, cc, cc );
+        assertEquals( "2020-02-02", getMediumDateString( dv2.getCreated() ) );
+    }
+
+    @Test
+    void testImportSameValuesTwiceBulkCopy()
+    {
+        dataValueSetService.importDataValueSetXml( readFile( "datavalueset/dataValueSetB.xml" ),
+            getBulkCopyOptions() );
+
+        ImportSummary summary = dataValueSetService.importDataValueSetXml(
+            readFile( "datavalueset/dataValueSetB.xml" ), getBulkCopyOptions() );
+
+        assertEquals( ImportStatus.SUCCESS, summary.getStatus() );
+        assertEquals( 0, summary.getImportCount().getImported() );
+        assertEquals( 12, dataValueService.getAllDataValues().size() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private ImportOptions getBulkCopyOptions()
+    {
+        return ImportOptions.getDefaultImportOptions().setBulkCopy( true );
+    }
+
+    private InputStream readFile( String filename )
+    {
+        try
+        {
+            return new ClassPathResource( filename ).getInputStream();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( ex );
+        }
+    }
+
+    private static void assertSuccessWithImportedUpdated( int imported, int updated, ImportSummary summary )
+    {
+        assertEquals( 0, summary.getConflictCount(), summary.getConflictsDescription() );
+        assertEquals( imported, summary.getImportCount().getImported(), "unexpected import count" );
+        assertEquals( updated, summary.getImportCount().getUpdated(), "unexpected update count" );
+        assertEquals( ImportStatus.SUCCESS, summary.getStatus() );
+    }
+}
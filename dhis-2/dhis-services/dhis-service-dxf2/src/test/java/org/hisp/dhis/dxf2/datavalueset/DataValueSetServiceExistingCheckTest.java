@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.dxf2.common.ImportOptions;
+import org.hisp.dhis.dxf2.importsummary.ImportStatus;
+import org.hisp.dhis.dxf2.importsummary.ImportSummary;
+import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
+import org.hisp.dhis.mock.MockCurrentUserService;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.CurrentUserServiceTarget;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.hisp.quick.BatchHandlerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests data value set import with
+ * {@link ImportOptions#getExistingCheckChunkSize()} for more data values than
+ * fit into a single lookup query of {@link DataValueBatchHandler}.
+ */
+class DataValueSetServiceExistingCheckTest extends IntegrationTestBase
+{
+    private static final int DATA_ELEMENTS = 10;
+
+    private static final int PERIODS = 700;
+
+    private static final int VALUES = DATA_ELEMENTS * PERIODS;
+
+    @Autowired
+    private IdentifiableObjectManager idObjectManager;
+
+    @Autowired
+    private DataValueSetService dataValueSetService;
+
+    @Autowired
+    private DataValueService dataValueService;
+
+    @Autowired
+    private BatchHandlerFactory batchHandlerFactory;
+
+    @Autowired
+    private UserService _userService;
+
+    private final List<DataElement> dataElements = new ArrayList<>();
+
+    private OrganisationUnit ouA;
+
+    @Override
+    public void setUpTest()
+    {
+        userService = _userService;
+        for ( int i = 0; i < DATA_ELEMENTS; i++ )
+        {
+            DataElement dataElement = createDataElement( (char) ('A' + i) );
+            idObjectManager.save( dataElement );
+            dataElements.add( dataElement );
+        }
+        ouA = createOrganisationUnit( 'A' );
+        idObjectManager.save( ouA );
+        User user = createAndInjectAdminUser();
+        user.setOrganisationUnits( Sets.newHashSet( ouA ) );
+        CurrentUserService currentUserService = new MockCurrentUserService( user );
+        setDependency( CurrentUserServiceTarget.class, CurrentUserServiceTarget::setCurrentUserService,
+            currentUserService, dataValueSetService );
+    }
+
+    // -------------------------------------------------------------------------
+    // Tests
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testImportChunkedExistingCheckAboveLookupSize()
+    {
+        assertTrue( VALUES > DataValueBatchHandler.MAX_LOOKUP_SIZE );
+
+        ImportOptions options = new ImportOptions().setExistingCheckChunkSize( 100_000 );
+
+        ImportSummary summary = dataValueSetService.importDataValueSetJson( getDataValueSet( "1" ), options );
+
+        assertSuccessWithImportedUpdated( VALUES, 0, summary );
+
+        summary = dataValueSetService.importDataValueSetJson( getDataValueSet( "2" ), options );
+
+        assertSuccessWithImportedUpdated( 0, VALUES, summary );
+        assertEquals( VALUES, dataValueService.getAllDataValues().size() );
+    }
+
+    @Test
+    void testFindObjectsAboveLookupSize()
+    {
+        ImportSummary summary = dataValueSetService.importDataValueSetJson( getDataValueSet( "1" ),
+            new ImportOptions() );
+
+        assertSuccessWithImportedUpdated( VALUES, 0, summary );
+
+        List<DataValue> values = dataValueService.getAllDataValues();
+
+        DataValueBatchHandler batchHandler = (DataValueBatchHandler) batchHandlerFactory
+            .createBatchHandler( DataValueBatchHandler.class ).init();
+
+        try
+        {
+            List<DataValue> persisted = batchHandler.findObjects( values );
+
+            assertEquals( VALUES, persisted.size() );
+            assertTrue( persisted.stream().allMatch( Objects::nonNull ) );
+            assertTrue( persisted.stream().allMatch( value -> "1".equals( value.getValue() ) ) );
+        }
+        finally
+        {
+            batchHandler.flush();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns a data value set with a value for each data element and each of
+     * the daily periods.
+     */
+    private ByteArrayInputStream getDataValueSet( String value )
+    {
+        StringBuilder json = new StringBuilder( "{\"dataValues\":[" );
+        LocalDate start = LocalDate.of( 2020, 1, 1 );
+
+        for ( DataElement dataElement : dataElements )
+        {
+            for ( int i = 0; i < PERIODS; i++ )
+            {
+                String period = start.plusDays( i ).format( DateTimeFormatter.BASIC_ISO_DATE );
+
+                json.append( "{\"dataElement\":\"" ).append( dataElement.getUid() )
+                    .append( "\",\"period\":\"" ).append( period )
+                    .append( "\",\"orgUnit\":\"" ).append( ouA.getUid() )
+                    .append( "\",\"value\":\"" ).append( value ).append( "\"}," );
+            }
+        }
+
+        json.setCharAt( json.length() - 1, ']' );
+        json.append( '}' );
+
+        return new ByteArrayInputStream( json.toString().getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static void assertSuccessWithImportedUpdated( int imported, int updated, ImportSummary summary )
+    {
+        assertEquals( 0, summary.getConflictCount(), summary.getConflictsDescription() );
+        assertEquals( imported, summary.getImportCount().getImported(), "unexpected import count" );
+        assertEquals( updated, summary.getImportCount().getUpdated(), "unexpected update count" );
+        assertEquals( ImportStatus.SUCCESS, summary.getStatus() );
+    }
+}
@@ -31,10 +31,14 @@ import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 
 import org.hisp.dhis.IntegrationTestBase;
 import org.hisp.dhis.attribute.Attribute;
@@ -472,6 +476,42 @@ class DataValueSetServiceExportTest extends IntegrationTestBase
         assertEquals( 14, dvs.getDataValues().size() );
     }
 
+    @Test
+    void testExportLastUpdatedWithKeysetPages()
+        throws IOException
+    {
+        jdbcTemplate.update( "update datavalue set lastupdated = '2021-01-01 00:00:00'" );
+        jdbcTemplate.update( "update datavalue set lastupdated = '2021-02-01 00:00:00' where dataelementid = ?",
+            deB.getId() );
+        Date lastUpdated = getDate( 1970, 1, 1 );
+        List<String> dataValues = new ArrayList<>();
+        DataValueKey after = null;
+        int pages = 0;
+        while ( true )
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataValueKey lastKey = dataValueSetService.exportDataValueSetJson( lastUpdated, after, out,
+                new IdSchemes(), 5 );
+            DataValueSet dvs = jsonMapper.readValue( out.toByteArray(), DataValueSet.class );
+            if ( lastKey == null )
+            {
+                assertTrue( dvs.getDataValues().isEmpty() );
+                break;
+            }
+            assertTrue( dvs.getDataValues().size() <= 5 );
+            for ( org.hisp.dhis.dxf2.datavalue.DataValue dv : dvs.getDataValues() )
+            {
+                dataValues.add( String.join( "-", dv.getDataElement(), dv.getPeriod(), dv.getOrgUnit(),
+                    dv.getCategoryOptionCombo(), dv.getAttributeOptionCombo() ) );
+            }
+            after = lastKey;
+            pages++;
+        }
+        assertEquals( 3, pages );
+        assertEquals( 12, dataValues.size() );
+        assertEquals( 12, new HashSet<>( dataValues ).size() );
+    }
+
     @Test
     void testMissingDataSetElementGroup()
     {
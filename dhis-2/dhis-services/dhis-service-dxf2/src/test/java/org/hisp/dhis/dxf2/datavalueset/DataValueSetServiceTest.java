@@ -921,6 +921,39 @@ class DataValueSetServiceTest extends TransactionalIntegrationTest
         assertEquals( 0, auditValues.size(), "Updates to unchanged data value did not skip audit" );
     }
 
+    @Test
+    void testImportDataValuesChunkedExistingCheck()
+        throws Exception
+    {
+        in = new ClassPathResource( "datavalueset/dataValueSetA.xml" ).getInputStream();
+        ImportOptions importOptions = new ImportOptions().setExistingCheckChunkSize( 2 );
+        ImportSummary summary = dataValueSetService.importDataValueSetXml( in, importOptions );
+        assertEquals( ImportStatus.SUCCESS, summary.getStatus() );
+        assertHasNoConflicts( summary );
+        assertEquals( 3, summary.getImportCount().getImported() );
+        List<DataValue> dataValues = mockDataValueBatchHandler.getInserts();
+        assertEquals( 3, dataValues.size() );
+        assertTrue( dataValues.contains( new DataValue( deA, peA, ouA, ocDef, ocDef ) ) );
+        assertEquals( "10002", dataValues.get( 1 ).getValue() );
+        assertEquals( "10003", dataValues.get( 2 ).getValue() );
+    }
+
+    @Test
+    void testImportDataValuesChunkedExistingCheckUpdatedAudit()
+        throws Exception
+    {
+        mockDataValueBatchHandler
+            .withFindObject( dataValue -> dataValue.toBuilder().value( dataValue.getValue() + "42" ).build() );
+        in = new ClassPathResource( "datavalueset/dataValueSetA.xml" ).getInputStream();
+        ImportOptions importOptions = new ImportOptions().setExistingCheckChunkSize( 2 );
+        ImportSummary summary = dataValueSetService.importDataValueSetXml( in, importOptions );
+        assertEquals( ImportStatus.SUCCESS, summary.getStatus() );
+        assertHasNoConflicts( summary );
+        assertEquals( 3, summary.getImportCount().getUpdated() );
+        assertEquals( 3, mockDataValueBatchHandler.getUpdates().size() );
+        assertEquals( 3, mockDataValueAuditBatchHandler.getInserts().size() );
+    }
+
     @Test
     void testImportNullDataValues()
         throws Exception
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.metadata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dxf2.metadata.feedback.ImportReport;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleMode;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests that metadata imports detect the same unique property conflicts
+ * whether the unique properties of existing objects are preheated
+ * concurrently or sequentially. The test is not transactional, as concurrent
+ * preheating is only used when the import starts its own transaction.
+ */
+class MetadataImportConcurrentPreheatTest extends IntegrationTestBase
+{
+    @Autowired
+    private MetadataImportService importService;
+
+    @Autowired
+    private IdentifiableObjectManager manager;
+
+    @Autowired
+    private DhisConfigurationProvider config;
+
+    @Autowired
+    private UserService _userService;
+
+    @Override
+    public void setUpTest()
+    {
+        userService = _userService;
+
+        manager.save( createDataElement( 'A' ) );
+        manager.save( createConstant( 'A', 1.0 ) );
+    }
+
+    @Override
+    public void tearDownTest()
+    {
+        config.getProperties().remove( ConfigurationKey.METADATA_PREHEAT_PARALLELISM.getKey() );
+    }
+
+    @Test
+    void testUniquePropertyConflictsMatchSequentialPreheat()
+    {
+        List<String> concurrent = importAndGetErrors( "4" );
+        List<String> sequential = importAndGetErrors( "1" );
+
+        assertTrue( concurrent.stream().anyMatch( error -> error.startsWith( ErrorCode.E5003 + " DataElement" ) ) );
+        assertTrue( concurrent.stream().anyMatch( error -> error.startsWith( ErrorCode.E5003 + " Constant" ) ) );
+        assertEquals( sequential, concurrent );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Validates an import of objects of which some conflict with the unique
+     * properties of existing objects.
+     *
+     * @return the sorted error reports of the import.
+     */
+    private List<String> importAndGetErrors( String parallelism )
+    {
+        config.getProperties().setProperty( ConfigurationKey.METADATA_PREHEAT_PARALLELISM.getKey(), parallelism );
+
+        DataElement dataElementB = createDataElement( 'B' );
+        dataElementB.setName( "DataElementA" );
+        Constant constantB = createConstant( 'B', 2.0 );
+        constantB.setName( "ConstantA" );
+
+        Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> metadata = new HashMap<>();
+        metadata.put( DataElement.class, List.of( dataElementB, createDataElement( 'C' ) ) );
+        metadata.put( Constant.class, List.of( constantB, createConstant( 'C', 3.0 ) ) );
+
+        MetadataImportParams params = new MetadataImportParams();
+        params.setImportMode( ObjectBundleMode.VALIDATE );
+        params.setImportStrategy( ImportStrategy.CREATE_AND_UPDATE );
+        params.setObjects( metadata );
+
+        ImportReport report = importService.importMetadata( params );
+
+        List<String> errors = new ArrayList<>();
+        report.forEachErrorReport( error -> errors.add( error.getErrorCode() + " "
+            + error.getMainKlass().getSimpleName() + " " + error.getMainId() + " " + error.getMessage() ) );
+        Collections.sort( errors );
+
+        return errors;
+    }
+}
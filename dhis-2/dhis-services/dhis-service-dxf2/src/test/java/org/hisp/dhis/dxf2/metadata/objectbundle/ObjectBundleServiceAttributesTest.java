@@ -33,20 +33,27 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.SessionFactory;
 import org.hisp.dhis.IntegrationTestBase;
 import org.hisp.dhis.attribute.Attribute;
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.attribute.AttributeValue;
+import org.hisp.dhis.cache.HibernateCacheManager;
 import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
+import org.hisp.dhis.dxf2.metadata.objectbundle.hooks.AbstractObjectBundleHook;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.TypeReport;
 import org.hisp.dhis.importexport.ImportStrategy;
@@ -54,8 +61,14 @@ import org.hisp.dhis.option.Option;
 import org.hisp.dhis.option.OptionSet;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.preheat.PreheatIdentifier;
+import org.hisp.dhis.preheat.PreheatService;
 import org.hisp.dhis.render.RenderFormat;
 import org.hisp.dhis.render.RenderService;
+import org.hisp.dhis.schema.MergeService;
+import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserRole;
 import org.hisp.dhis.user.UserService;
@@ -87,6 +100,33 @@ class ObjectBundleServiceAttributesTest extends IntegrationTestBase
     @Autowired
     private AttributeService attributeService;
 
+    @Autowired
+    private List<ObjectBundleHook<?>> availableHooks;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private PreheatService preheatService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private HibernateCacheManager cacheManager;
+
+    @Autowired
+    private Notifier notifier;
+
+    @Autowired
+    private MergeService mergeService;
+
+    @Autowired
+    private DhisConfigurationProvider config;
+
     @Override
     public void setUpTest()
     {
@@ -162,6 +202,71 @@ class ObjectBundleServiceAttributesTest extends IntegrationTestBase
         assertFalse( dataElementD.getAttributeValues().isEmpty() );
     }
 
+    @Test
+    void testCreateSimpleMetadataAttributeValuesBulk()
+        throws IOException
+    {
+        Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> metadata = renderService.fromMetadata(
+            new ClassPathResource( "dxf2/simple_metadata_with_av.json" ).getInputStream(), RenderFormat.JSON );
+        ObjectBundleParams params = new ObjectBundleParams();
+        params.setObjectBundleMode( ObjectBundleMode.COMMIT );
+        params.setImportStrategy( ImportStrategy.CREATE );
+        params.setFlushMode( FlushMode.BULK );
+        params.setObjects( metadata );
+        // one object per batch, with a hook recording the calls per batch
+        config.getProperties().setProperty( ConfigurationKey.METADATA_IMPORT_BULK_BATCH_SIZE.getKey(), "1" );
+        List<String> optionHookCalls = new ArrayList<>();
+        List<ObjectBundleHook<?>> hooks = new ArrayList<>( availableHooks );
+        hooks.add( new AbstractObjectBundleHook<Option>()
+        {
+            @Override
+            public void preCreate( Option object, ObjectBundle bundle )
+            {
+                optionHookCalls.add( "preCreate " + object.getUid() );
+            }
+
+            @Override
+            public void postCreate( Option persistedObject, ObjectBundle bundle )
+            {
+                optionHookCalls.add( "postCreate " + persistedObject.getUid() );
+            }
+        } );
+        ObjectBundleService bulkService = new DefaultObjectBundleService( currentUserService, preheatService,
+            schemaService, sessionFactory, manager, dbmsManager, cacheManager, notifier, mergeService,
+            new ObjectBundleHooks( hooks ), config );
+        ObjectBundle bundle = bulkService.create( params );
+        ObjectBundleValidationReport validationReport = objectBundleValidationService.validate( bundle );
+        assertFalse( validationReport.hasErrorReports() );
+        try
+        {
+            transactionTemplate.execute( status -> {
+                bulkService.commit( bundle );
+                // committed organisation units are evicted from the session
+                assertFalse( sessionFactory.getCurrentSession().contains(
+                    bundle.getPreheat().get( PreheatIdentifier.UID, OrganisationUnit.class, "PdWlltZnVZe" ) ) );
+                return null;
+            } );
+        }
+        finally
+        {
+            config.getProperties().remove( ConfigurationKey.METADATA_IMPORT_BULK_BATCH_SIZE.getKey() );
+        }
+        assertEquals( List.of( "preCreate uBDO9S6MdoE", "postCreate uBDO9S6MdoE", "preCreate IoxIRLL7ZTU",
+            "postCreate IoxIRLL7ZTU" ), optionHookCalls );
+        List<OrganisationUnit> organisationUnits = manager.getAll( OrganisationUnit.class );
+        List<Option> options = manager.getAll( Option.class );
+        List<OptionSet> optionSets = manager.getAll( OptionSet.class );
+        List<DataSet> dataSets = manager.getAll( DataSet.class );
+        assertEquals( 1, organisationUnits.size() );
+        assertEquals( 2, options.size() );
+        assertEquals( 1, optionSets.size() );
+        assertEquals( 2, optionSets.get( 0 ).getOptions().size() );
+        assertEquals( 1, dataSets.get( 0 ).getSources().size() );
+        assertEquals( "PdWlltZnVZe", dataSets.get( 0 ).getSources().iterator().next().getUid() );
+        assertFalse( manager.get( DataElement.class, "j5PneRdU7WT" ).getAttributeValues().isEmpty() );
+        assertFalse( manager.get( DataElement.class, "k90AVpBahO4" ).getAttributeValues().isEmpty() );
+    }
+
     @Test
     void testValidateMetadataAttributeValuesMandatory()
         throws IOException
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.hisp.dhis.common.IdSchemes;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.dxf2.datavalueset.DataValueKey;
+import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
+import org.hisp.dhis.dxf2.importsummary.ImportStatus;
+import org.hisp.dhis.dxf2.importsummary.ImportSummary;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests the checkpoints of the keyset synchronization of
+ * {@link DataValueSynchronization}.
+ */
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class DataValueSynchronizationTest
+{
+    private static final Date LAST_SUCCESS = new Date( 1_600_000_000_000L );
+
+    private static final Timestamp LAST_UPDATED = Timestamp.valueOf( "2021-01-01 00:00:00.123456" );
+
+    private static final DataValueKey KEY_A = new DataValueKey( LAST_UPDATED, 1, 1, 1, 1, 1 );
+
+    private static final DataValueKey KEY_B = new DataValueKey( LAST_UPDATED, 1, 1, 2, 1, 1 );
+
+    private static final DataValueKey KEY_C = new DataValueKey( LAST_UPDATED, 2, 1, 1, 1, 1 );
+
+    private static final List<DataValueKey> KEYS = List.of( KEY_A, KEY_B, KEY_C );
+
+    @Mock
+    private DataValueService dataValueService;
+
+    @Mock
+    private DataValueSetService dataValueSetService;
+
+    @Mock
+    private SystemSettingManager systemSettingManager;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private DhisConfigurationProvider config;
+
+    private DataValueSynchronization synchronization;
+
+    @BeforeEach
+    void setUp()
+    {
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_URL ) )
+            .thenReturn( "http://remote.org" );
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_USERNAME ) ).thenReturn( "admin" );
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_PASSWORD ) ).thenReturn( "district" );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC ) )
+            .thenReturn( LAST_SUCCESS );
+        when( systemSettingManager.getDateSetting( SettingKey.SKIP_SYNCHRONIZATION_FOR_DATA_CHANGED_BEFORE ) )
+            .thenReturn( new Date( 0 ) );
+        when( restTemplate.exchange( anyString(), eq( HttpMethod.GET ), any( HttpEntity.class ), eq( String.class ) ) )
+            .thenReturn( ResponseEntity.ok( "pong" ) );
+        when( dataValueService.getDataValueCountLastUpdatedAfter( LAST_SUCCESS, true ) ).thenReturn( KEYS.size() );
+        when( config.isEnabled( ConfigurationKey.DATA_VALUE_SYNC_KEYSET ) ).thenReturn( true );
+
+        // Each page holds the data value after the given key
+        when( dataValueSetService.exportDataValueSetJson( eq( LAST_SUCCESS ), any(), any( OutputStream.class ),
+            any( IdSchemes.class ), anyInt() ) ).thenAnswer( invocation -> {
+                DataValueKey after = invocation.getArgument( 1 );
+                int next = after == null ? 0 : KEYS.indexOf( after ) + 1;
+                return next < KEYS.size() ? KEYS.get( next ) : null;
+            } );
+
+        synchronization = new DataValueSynchronization( dataValueService, dataValueSetService, systemSettingManager,
+            restTemplate, config );
+    }
+
+    @Test
+    void testCheckpointSavedForAcknowledgedPages()
+    {
+        givenResponses( ImportStatus.SUCCESS, ImportStatus.ERROR );
+
+        assertEquals( SynchronizationStatus.FAILURE, synchronization.synchronizeData( 1 ).status );
+
+        verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT, checkpoint( KEY_A ) );
+        verify( systemSettingManager, never() ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            checkpoint( KEY_B ) );
+        verify( systemSettingManager, never() ).deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+    }
+
+    @Test
+    void testResumeAfterCheckpointOfSameWindow()
+    {
+        givenResponses( ImportStatus.SUCCESS );
+        when( systemSettingManager.getStringSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT ) )
+            .thenReturn( checkpoint( KEY_A ) );
+
+        assertEquals( SynchronizationStatus.SUCCESS, synchronization.synchronizeData( 1 ).status );
+
+        verify( dataValueSetService, never() ).exportDataValueSetJson( eq( LAST_SUCCESS ), isNull(),
+            any( OutputStream.class ), any( IdSchemes.class ), anyInt() );
+        verify( dataValueSetService ).exportDataValueSetJson( eq( LAST_SUCCESS ), eq( KEY_A ),
+            any( OutputStream.class ), any( IdSchemes.class ), anyInt() );
+        verify( systemSettingManager, never() ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            checkpoint( KEY_A ) );
+    }
+
+    @Test
+    void testCheckpointOfDifferentWindowIgnored()
+    {
+        givenResponses( ImportStatus.SUCCESS );
+        when( systemSettingManager.getStringSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT ) )
+            .thenReturn( (LAST_SUCCESS.getTime() - 1) + ";" + KEY_B );
+
+        assertEquals( SynchronizationStatus.SUCCESS, synchronization.synchronizeData( 1 ).status );
+
+        verify( dataValueSetService ).exportDataValueSetJson( eq( LAST_SUCCESS ), isNull(),
+            any( OutputStream.class ), any( IdSchemes.class ), anyInt() );
+        verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT, checkpoint( KEY_A ) );
+    }
+
+    @Test
+    void testCheckpointDeletedOnSuccess()
+    {
+        givenResponses( ImportStatus.SUCCESS );
+
+        assertEquals( SynchronizationStatus.SUCCESS, synchronization.synchronizeData( 1 ).status );
+
+        InOrder inOrder = inOrder( systemSettingManager );
+        inOrder.verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            checkpoint( KEY_A ) );
+        inOrder.verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            checkpoint( KEY_B ) );
+        inOrder.verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            checkpoint( KEY_C ) );
+        inOrder.verify( systemSettingManager ).deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+    }
+
+    @Test
+    void testCheckpointFormat()
+    {
+        assertEquals( "1600000000000;2021-01-01 00:00:00.123456,1,1,1,1,1", checkpoint( KEY_A ) );
+    }
+
+    /**
+     * Stubs the import summaries returned by the remote server for consecutive
+     * pages, the last one is returned for all remaining pages.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void givenResponses( ImportStatus first, ImportStatus... next )
+    {
+        ImportSummary[] summaries = new ImportSummary[next.length];
+
+        for ( int i = 0; i < next.length; i++ )
+        {
+            summaries[i] = new ImportSummary( next[i] );
+        }
+
+        when( restTemplate.execute( anyString(), eq( HttpMethod.POST ), any( RequestCallback.class ),
+            any( ResponseExtractor.class ) ) ).thenReturn( new ImportSummary( first ), summaries );
+    }
+
+    private static String checkpoint( DataValueKey key )
+    {
+        return LAST_SUCCESS.getTime() + ";" + key;
+    }
+}
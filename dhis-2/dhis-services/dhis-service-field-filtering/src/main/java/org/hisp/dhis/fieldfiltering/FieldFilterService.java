@@ -31,11 +31,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.attribute.AttributeValue;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.BaseIdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.fieldfiltering.transformers.IsEmptyFieldTransformer;
@@ -89,6 +93,8 @@ public class FieldFilterService
 
     private final AttributeService attributeService;
 
+    private final Cache<List<FieldPath>> fieldPathCache;
+
     public FieldFilterService(
         FieldPathHelper fieldPathHelper,
         ObjectMapper jsonMapper,
@@ -97,7 +103,8 @@ public class FieldFilterService
         CurrentUserService currentUserService,
         UserGroupService userGroupService,
         UserService userService,
-        AttributeService attributeService )
+        AttributeService attributeService,
+        CacheProvider cacheProvider )
     {
         this.fieldPathHelper = fieldPathHelper;
         this.jsonMapper = configureFieldFilterObjectMapper( jsonMapper );
@@ -107,6 +114,7 @@ public class FieldFilterService
         this.userGroupService = userGroupService;
         this.userService = userService;
         this.attributeService = attributeService;
+        this.fieldPathCache = cacheProvider.createFieldPathCache();
     }
 
     private static class IgnoreJsonSerializerRefinementAnnotationInspector extends JacksonAnnotationIntrospector
@@ -153,8 +161,6 @@ public class FieldFilterService
             return objectNodes;
         }
 
-        List<FieldPath> fieldPaths = FieldFilterParser.parse( params.getFilters() );
-
         if ( params.getUser() == null )
         {
             params.setUser( currentUserService.getCurrentUser() );
@@ -163,7 +169,8 @@ public class FieldFilterService
         // In case we get a proxied object in we can't just use o.getClass(), we
         // need to figure out the real class name by using HibernateProxyUtils.
         Object firstObject = params.getObjects().iterator().next();
-        fieldPathHelper.apply( fieldPaths, HibernateProxyUtils.getRealClass( firstObject ) );
+        List<FieldPath> fieldPaths = getFieldPaths( params.getFilters(),
+            HibernateProxyUtils.getRealClass( firstObject ) );
 
         SimpleFilterProvider filterProvider = getSimpleFilterProvider( fieldPaths, params.isSkipSharing() );
 
@@ -222,6 +229,25 @@ public class FieldFilterService
         return objectNodes;
     }
 
+    /**
+     * Parses the given filters and applies them to the given class. The field
+     * paths only depend on the filters and the schema of the class, so they
+     * are cached and shared between calls, and must not be modified.
+     */
+    private List<FieldPath> getFieldPaths( Set<String> filters, Class<?> klass )
+    {
+        if ( klass == null )
+        {
+            return FieldFilterParser.parse( filters );
+        }
+
+        return fieldPathCache.get( klass.getName() + ":" + StringUtils.join( filters, "," ), key -> {
+            List<FieldPath> fieldPaths = FieldFilterParser.parse( filters );
+            fieldPathHelper.apply( fieldPaths, klass );
+            return List.copyOf( fieldPaths );
+        } );
+    }
+
     private void applyFieldPathVisitor( Object object, List<FieldPath> fieldPaths,
         FieldFilterParams<?> params, Predicate<String> filter, Consumer<Object> consumer )
     {
@@ -47,7 +47,7 @@ import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.acl.Access;
-import org.hisp.dhis.system.util.ReflectionUtils;
+import org.hisp.dhis.system.util.PropertyAccessors;
 import org.hisp.dhis.user.sharing.Sharing;
 import org.hisp.dhis.user.sharing.UserAccess;
 import org.hisp.dhis.user.sharing.UserGroupAccess;
@@ -287,7 +287,7 @@ public class FieldPathHelper
 
         if ( property.isCollection() )
         {
-            Collection<?> currentObjects = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+            Collection<?> currentObjects = PropertyAccessors.getValue( object, property );
 
             for ( Object o : currentObjects )
             {
@@ -296,7 +296,7 @@ public class FieldPathHelper
         }
         else
         {
-            Object currentObject = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+            Object currentObject = PropertyAccessors.getValue( object, property );
             visitFieldPath( currentObject, new ArrayList<>( paths ), objectConsumer );
         }
     }
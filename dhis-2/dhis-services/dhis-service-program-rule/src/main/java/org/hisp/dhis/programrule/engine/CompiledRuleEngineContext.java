@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.programrule.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.rules.RuleEngineContext;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleVariable;
+
+/**
+ * The parts of a {@link RuleEngineContext} for a program and program stage
+ * which do not depend on the current user: the mapped program rules and
+ * program rule variables, the constants and the members of the organisation
+ * unit groups referenced by the rules. Instances are immutable and can be
+ * shared between threads.
+ */
+final class CompiledRuleEngineContext
+{
+    static final CompiledRuleEngineContext EMPTY = new CompiledRuleEngineContext( List.of(), List.of(), Map.of(),
+        Map.of() );
+
+    private final List<Rule> rules;
+
+    private final List<RuleVariable> ruleVariables;
+
+    private final Map<String, String> constants;
+
+    private final Map<String, List<String>> orgUnitGroups;
+
+    CompiledRuleEngineContext( List<Rule> rules, List<RuleVariable> ruleVariables, Map<String, String> constants,
+        Map<String, List<String>> orgUnitGroups )
+    {
+        this.rules = List.copyOf( rules );
+        this.ruleVariables = List.copyOf( ruleVariables );
+        this.constants = Map.copyOf( constants );
+        this.orgUnitGroups = Map.copyOf( orgUnitGroups );
+    }
+
+    /**
+     * Indicates whether there are no program rules for the program and program
+     * stage, in which case the rule engine is not run at all.
+     */
+    boolean isEmpty()
+    {
+        return this == EMPTY;
+    }
+
+    /**
+     * Creates a {@link RuleEngineContext} with the given user specific
+     * supplementary data.
+     *
+     * @param userData the supplementary data of the current user.
+     * @return a {@link RuleEngineContext}.
+     */
+    RuleEngineContext toRuleEngineContext( Map<String, List<String>> userData )
+    {
+        Map<String, List<String>> supplementaryData = new HashMap<>( orgUnitGroups );
+        supplementaryData.putAll( userData );
+
+        return RuleEngineContext.builder()
+            .supplementaryData( supplementaryData )
+            .rules( rules )
+            .ruleVariables( ruleVariables )
+            .constantsValue( constants )
+            .build();
+    }
+}
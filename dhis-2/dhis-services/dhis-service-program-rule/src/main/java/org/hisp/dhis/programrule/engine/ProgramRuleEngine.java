@@ -28,6 +28,7 @@
 package org.hisp.dhis.programrule.engine;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import lombok.NonNull;
@@ -74,6 +75,9 @@ public class ProgramRuleEngine
     @NonNull
     private final SupplementaryDataProvider supplementaryDataProvider;
 
+    @NonNull
+    private final RuleEngineContextCache ruleEngineContextCache;
+
     public List<RuleEffect> evaluate( ProgramInstance enrollment, Set<ProgramStageInstance> events )
     {
         return evaluateProgramRules( enrollment, null, enrollment.getProgram(), Collections.emptyList(),
@@ -83,13 +87,44 @@ public class ProgramRuleEngine
     public List<RuleEffects> evaluateEnrollmentAndEvents( ProgramInstance enrollment, Set<ProgramStageInstance> events,
         List<TrackedEntityAttributeValue> trackedEntityAttributeValues )
     {
-        return evaluateProgramRulesForMultipleTrackerObjects( enrollment, events.stream().findAny().orElse( null ),
-            enrollment.getProgram(), trackedEntityAttributeValues, getRuleEvents( events, null ) );
+        return prepareEnrollmentAndEvents( enrollment, events, trackedEntityAttributeValues ).get();
     }
 
     public List<RuleEffects> evaluateProgramEvents( Set<ProgramStageInstance> events, Program program )
     {
-        return evaluateProgramRulesForMultipleTrackerObjects( null, null, program, null,
+        return prepareProgramEvents( events, program ).get();
+    }
+
+    /**
+     * Prepares the evaluation of the program rules for an enrollment and its
+     * events. The rule engine context is loaded and the tracker objects are
+     * mapped on the calling thread, the returned evaluation only runs the rule
+     * engine and can be invoked on any thread.
+     *
+     * @param enrollment the enrollment.
+     * @param events the events of the enrollment.
+     * @param trackedEntityAttributeValues the attribute values of the tracked
+     *        entity.
+     * @return the evaluation returning the rule effects.
+     */
+    public Supplier<List<RuleEffects>> prepareEnrollmentAndEvents( ProgramInstance enrollment,
+        Set<ProgramStageInstance> events, List<TrackedEntityAttributeValue> trackedEntityAttributeValues )
+    {
+        return prepareProgramRulesForMultipleTrackerObjects( enrollment, events.stream().findAny().orElse( null ),
+            enrollment.getProgram(), trackedEntityAttributeValues, getRuleEvents( events, null ) );
+    }
+
+    /**
+     * Prepares the evaluation of the program rules for program events, see
+     * {@link #prepareEnrollmentAndEvents(ProgramInstance, Set, List)}.
+     *
+     * @param events the program events.
+     * @param program the program.
+     * @return the evaluation returning the rule effects.
+     */
+    public Supplier<List<RuleEffects>> prepareProgramEvents( Set<ProgramStageInstance> events, Program program )
+    {
+        return prepareProgramRulesForMultipleTrackerObjects( null, null, program, null,
             getRuleEvents( events, null ) );
     }
 
@@ -124,7 +159,7 @@ public class ProgramRuleEngine
         }
     }
 
-    private List<RuleEffects> evaluateProgramRulesForMultipleTrackerObjects( ProgramInstance enrollment,
+    private Supplier<List<RuleEffects>> prepareProgramRulesForMultipleTrackerObjects( ProgramInstance enrollment,
         ProgramStageInstance programStageInstance, Program program,
         List<TrackedEntityAttributeValue> trackedEntityAttributeValues, List<RuleEvent> ruleEvents )
     {
@@ -134,8 +169,21 @@ public class ProgramRuleEngine
                 trackedEntityAttributeValues, ruleEvents );
             if ( ruleEngine == null )
             {
-                return Collections.emptyList();
+                return Collections::emptyList;
             }
+            return () -> evaluateRuleEngine( ruleEngine );
+        }
+        catch ( Exception e )
+        {
+            log.error( DebugUtils.getStackTrace( e ) );
+            return Collections::emptyList;
+        }
+    }
+
+    private List<RuleEffects> evaluateRuleEngine( RuleEngine ruleEngine )
+    {
+        try
+        {
             return ruleEngine.evaluate().call();
         }
         catch ( Exception e )
@@ -153,20 +201,19 @@ public class ProgramRuleEngine
         String programStageUid = Optional.ofNullable( programStageInstance ).map( p -> p.getProgramStage().getUid() )
             .orElse( null );
 
-        List<ProgramRule> programRules = implementableRuleService.getProgramRules( program, programStageUid );
+        CompiledRuleEngineContext context = getCompiledRuleEngineContext( program, programStageUid );
 
-        if ( programRules.isEmpty() )
+        if ( context.isEmpty() )
         {
             return null;
         }
 
         RuleEnrollment ruleEnrollment = getRuleEnrollment( enrollment, trackedEntityAttributeValues );
 
-        RuleEngine.Builder builder = getRuleEngineContext( program,
-            programRules )
-                .toEngineBuilder()
-                .triggerEnvironment( TriggerEnvironment.SERVER )
-                .events( ruleEvents );
+        RuleEngine.Builder builder = context.toRuleEngineContext( supplementaryDataProvider.getUserData() )
+            .toEngineBuilder()
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .events( ruleEvents );
 
         if ( ruleEnrollment != null )
         {
@@ -222,31 +269,48 @@ public class ProgramRuleEngine
             RuleEngineIntent.DESCRIPTION ).build();
     }
 
-    private RuleEngineContext getRuleEngineContext( Program program, List<ProgramRule> programRules )
+    /**
+     * Returns the cached rule engine context of the program and program stage,
+     * the rules selected for a program and program stage depend on the
+     * implementable rule service of this rule engine.
+     */
+    private CompiledRuleEngineContext getCompiledRuleEngineContext( Program program, String programStageUid )
     {
+        String key = implementableRuleService.getClass().getName() + ":" + program.getUid() + ":" + programStageUid;
+
+        return ruleEngineContextCache.get( key, () -> compileRuleEngineContext( program, programStageUid ) );
+    }
+
+    private CompiledRuleEngineContext compileRuleEngineContext( Program program, String programStageUid )
+    {
+        List<ProgramRule> programRules = implementableRuleService.getProgramRules( program, programStageUid );
+
+        if ( programRules.isEmpty() )
+        {
+            return CompiledRuleEngineContext.EMPTY;
+        }
+
         List<ProgramRuleVariable> programRuleVariables = programRuleVariableService
             .getProgramRuleVariable( program );
 
-        Map<String, String> constantMap = constantService.getConstantMap().entrySet()
+        return new CompiledRuleEngineContext(
+            programRuleEntityMapperService.toMappedProgramRules( programRules ),
+            programRuleEntityMapperService.toMappedProgramRuleVariables( programRuleVariables ),
+            getConstantMap(),
+            supplementaryDataProvider.getOrgUnitGroupData( programRules ) );
+    }
+
+    private Map<String, String> getConstantMap()
+    {
+        return constantService.getConstantMap().entrySet()
             .stream()
             .collect( Collectors.toMap( Map.Entry::getKey, v -> v.getValue().toString() ) );
-
-        Map<String, List<String>> supplementaryData = supplementaryDataProvider.getSupplementaryData( programRules );
-
-        return RuleEngineContext.builder()
-            .supplementaryData( supplementaryData )
-            .rules( programRuleEntityMapperService.toMappedProgramRules( programRules ) )
-            .ruleVariables( programRuleEntityMapperService.toMappedProgramRuleVariables( programRuleVariables ) )
-            .constantsValue( constantMap )
-            .build();
     }
 
     private RuleEngine.Builder ruleEngineBuilder( List<ProgramRule> programRules,
         List<ProgramRuleVariable> programRuleVariables, RuleEngineIntent intent )
     {
-        Map<String, String> constantMap = constantService.getConstantMap().entrySet()
-            .stream()
-            .collect( Collectors.toMap( Map.Entry::getKey, v -> v.getValue().toString() ) );
+        Map<String, String> constantMap = getConstantMap();
 
         Map<String, List<String>> supplementaryData = supplementaryDataProvider.getSupplementaryData( programRules );
 
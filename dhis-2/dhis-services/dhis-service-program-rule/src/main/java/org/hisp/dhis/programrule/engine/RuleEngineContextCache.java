@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.programrule.engine;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches {@link CompiledRuleEngineContext compiled rule engine contexts} so
+ * that program rules, program rule variables and constants are loaded and
+ * mapped once per program and program stage instead of once per evaluation.
+ * <p>
+ * Cached contexts are tagged with the metadata version they were loaded for.
+ * Invalidating the cache increments the version, so that contexts which were
+ * loaded concurrently with a metadata change are never returned.
+ */
+@Component
+public class RuleEngineContextCache
+    implements RuleEngineContextInvalidator
+{
+    private final Cache<VersionedContext> cache;
+
+    private final AtomicLong version = new AtomicLong();
+
+    public RuleEngineContextCache( CacheProvider cacheProvider )
+    {
+        this.cache = cacheProvider.createRuleEngineContextCache();
+    }
+
+    /**
+     * Returns the cached context for the given key, or loads and caches the
+     * context if absent or loaded for a previous metadata version.
+     *
+     * @param key the cache key.
+     * @param loader the loader of the context.
+     * @return the {@link CompiledRuleEngineContext}.
+     */
+    CompiledRuleEngineContext get( String key, Supplier<CompiledRuleEngineContext> loader )
+    {
+        long currentVersion = version.get();
+
+        Optional<VersionedContext> cached = cache.get( key );
+
+        if ( cached.isPresent() && cached.get().version == currentVersion )
+        {
+            return cached.get().context;
+        }
+
+        CompiledRuleEngineContext context = loader.get();
+
+        cache.put( key, new VersionedContext( currentVersion, context ) );
+
+        return context;
+    }
+
+    @Override
+    public void invalidate()
+    {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @RequiredArgsConstructor
+    private static final class VersionedContext
+    {
+        private final long version;
+
+        private final CompiledRuleEngineContext context;
+    }
+}
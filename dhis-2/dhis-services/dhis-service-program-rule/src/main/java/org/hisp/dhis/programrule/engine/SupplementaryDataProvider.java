@@ -65,6 +65,23 @@ public class SupplementaryDataProvider
     private final CurrentUserService currentUserService;
 
     public Map<String, List<String>> getSupplementaryData( List<ProgramRule> programRules )
+    {
+        Map<String, List<String>> supplementaryData = getOrgUnitGroupData( programRules );
+
+        supplementaryData.putAll( getUserData() );
+
+        return supplementaryData;
+    }
+
+    /**
+     * Returns the members of the organisation unit groups referenced by
+     * d2:inOrgUnitGroup in the conditions of the given program rules. The
+     * result does not depend on the current user.
+     *
+     * @param programRules the program rules.
+     * @return a mutable map of organisation unit group to member uids.
+     */
+    public Map<String, List<String>> getOrgUnitGroupData( List<ProgramRule> programRules )
     {
         List<String> orgUnitGroups = new ArrayList<>();
 
@@ -87,13 +104,25 @@ public class SupplementaryDataProvider
                     .stream().map( OrganisationUnit::getUid ).collect( Collectors.toList() ) ) );
         }
 
+        return supplementaryData;
+    }
+
+    /**
+     * Returns the user roles of the current user, if any.
+     *
+     * @return a mutable map of the user entry to the user role uids.
+     */
+    public Map<String, List<String>> getUserData()
+    {
+        Map<String, List<String>> userData = Maps.newHashMap();
+
         if ( currentUserService.getCurrentUser() != null )
         {
-            supplementaryData.put( USER, currentUserService.getCurrentUser()
+            userData.put( USER, currentUserService.getCurrentUser()
                 .getUserRoles().stream().map( UserRole::getUid ).collect( Collectors.toList() ) );
         }
 
-        return supplementaryData;
+        return userData;
     }
 
 }
@@ -28,6 +28,8 @@
 package org.hisp.dhis.predictor;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.util.Comparator.comparing;
+import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
 import static org.hisp.dhis.common.OrganisationUnitDescendants.DESCENDANTS;
 import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
 import static org.hisp.dhis.expression.ParseType.PREDICTOR_EXPRESSION;
@@ -41,8 +43,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -62,10 +69,13 @@ import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.expression.CompiledExpression;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionInfo;
 import org.hisp.dhis.expression.ExpressionParams;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -81,11 +91,16 @@ import org.hisp.dhis.user.CurrentUserServiceTarget;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.quick.BatchHandlerFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Jim Grace
@@ -97,6 +112,12 @@ import com.google.common.collect.Sets;
 public class DefaultPredictionService
     implements PredictionService, AnalyticsServiceTarget, CurrentUserServiceTarget
 {
+    /**
+     * Number of partitions per thread when predicting in parallel, so that
+     * threads finishing early can pick up remaining work.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
     private final PredictorService predictorService;
 
     private final ExpressionService expressionService;
@@ -115,6 +136,10 @@ public class DefaultPredictionService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DhisConfigurationProvider config;
+
+    private final PlatformTransactionManager transactionManager;
+
     private AnalyticsService analyticsService;
 
     private CurrentUserService currentUserService;
@@ -224,18 +249,25 @@ public class DefaultPredictionService
         Expression skipTest = predictor.getSampleSkipTest();
         DataElement outputDataElement = predictor.getOutput();
         DataType expressionDataType = DataType.fromValueType( outputDataElement.getValueType() );
+        int parallelism = getParallelism();
 
         ExpressionInfo exInfo = new ExpressionInfo();
         ExpressionParams baseExParams = getBaseExParams( predictor, exInfo );
 
         Set<DimensionalItemObject> items = new HashSet<>( baseExParams.getItemMap().values() );
+        CompiledExpression compiledGenerator = expressionService.compileExpression( generator.getExpression(),
+            PREDICTOR_EXPRESSION );
+        DimensionalItemObject[] generatorItems = compiledGenerator.getItems( baseExParams.getItemMap() );
+        CompiledExpression compiledSkipTest = skipTest == null || StringUtils.isEmpty( skipTest.getExpression() )
+            ? null
+            : expressionService.compileExpression( skipTest.getExpression(), PREDICTOR_SKIP_TEST );
         List<Period> outputPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
         Set<Period> existingOutputPeriods = getExistingPeriods( outputPeriods );
         ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( outputPeriods, predictor );
         Set<Period> allSamplePeriods = samplePeriodsMap.uniqueValues();
         Set<Period> analyticsQueryPeriods = getAnalyticsQueryPeriods( exInfo, allSamplePeriods, existingOutputPeriods );
         Set<Period> dataValueQueryPeriods = getDataValueQueryPeriods( analyticsQueryPeriods, existingOutputPeriods );
-        outputPeriods = periodService.reloadPeriods( outputPeriods );
+        outputPeriods = reloadPeriods( outputPeriods, parallelism > 1 );
         CategoryOptionCombo defaultCategoryOptionCombo = categoryService.getDefaultCategoryOptionCombo();
         CategoryOptionCombo outputOptionCombo = predictor.getOutputCombo() == null
             ? defaultCategoryOptionCombo
@@ -253,10 +285,32 @@ public class DefaultPredictionService
             currentUserOrgUnits = currentUser.getOrganisationUnits();
         }
 
-        PredictionDataConsolidator consolidator = new PredictionDataConsolidator( items,
-            predictor.getOrganisationUnitDescendants().equals( DESCENDANTS ),
-            new PredictionDataValueFetcher( dataValueService, categoryService ),
-            new PredictionAnalyticsDataFetcher( analyticsService, categoryService ) );
+        PredictorRun run = PredictorRun.builder()
+            .predictor( predictor )
+            .generator( generator )
+            .skipTest( skipTest )
+            .expressionDataType( expressionDataType )
+            .exInfo( exInfo )
+            .baseExParams( baseExParams )
+            .items( items )
+            .compiledGenerator( compiledGenerator )
+            .generatorItems( generatorItems )
+            .compiledSkipTest( compiledSkipTest )
+            .outputPeriods( outputPeriods )
+            .existingOutputPeriods( existingOutputPeriods )
+            .samplePeriodsMap( samplePeriodsMap )
+            .allSamplePeriods( allSamplePeriods )
+            .analyticsQueryPeriods( analyticsQueryPeriods )
+            .dataValueQueryPeriods( dataValueQueryPeriods )
+            .defaultCategoryOptionCombo( defaultCategoryOptionCombo )
+            .outputOptionCombo( outputOptionCombo )
+            .outputDataElementOperand( outputDataElementOperand )
+            .requireData( requireData )
+            .forwardReference( forwardReference )
+            .currentUser( currentUser )
+            .build();
+
+        PredictionDataConsolidator consolidator = createConsolidator( run );
 
         PredictionWriter predictionWriter = new PredictionWriter( dataValueService, batchHandlerFactory );
 
@@ -269,54 +323,211 @@ public class DefaultPredictionService
             List<OrganisationUnit> orgUnits = organisationUnitService
                 .getOrganisationUnitsAtOrgUnitLevels( Lists.newArrayList( orgUnitLevel ), currentUserOrgUnits );
 
-            consolidator.init( currentUserOrgUnits, orgUnitLevel.getLevel(), orgUnits,
-                dataValueQueryPeriods, analyticsQueryPeriods, existingOutputPeriods, outputDataElementOperand );
+            if ( parallelism > 1 )
+            {
+                predictInParallel( run, currentUserOrgUnits, orgUnitLevel.getLevel(), orgUnits, parallelism,
+                    predictionSummary );
+            }
+            else
+            {
+                predictOrgUnits( run, consolidator, predictionWriter, currentUserOrgUnits, orgUnitLevel.getLevel(),
+                    orgUnits );
+            }
+        }
 
-            PredictionData data;
+        predictionWriter.flush();
+    }
 
-            while ( (data = consolidator.getData()) != null )
+    // -------------------------------------------------------------------------
+    // Prediction of organisation units
+    // -------------------------------------------------------------------------
+
+    /**
+     * Predicts the values for the given organisation units of one level.
+     */
+    private void predictOrgUnits( PredictorRun run, PredictionDataConsolidator consolidator,
+        PredictionWriter predictionWriter, Set<OrganisationUnit> rootOrgUnits, int orgUnitLevel,
+        List<OrganisationUnit> orgUnits )
+    {
+        Predictor predictor = run.predictor;
+
+        consolidator.init( rootOrgUnits, orgUnitLevel, orgUnits,
+            run.dataValueQueryPeriods, run.analyticsQueryPeriods, run.existingOutputPeriods,
+            run.outputDataElementOperand );
+
+        PredictionData data;
+
+        while ( (data = consolidator.getData()) != null )
+        {
+            List<DataValue> predictions = new ArrayList<>();
+
+            List<PredictionContext> contexts = PredictionContextGenerator.getContexts(
+                run.outputPeriods, data.getValues(), run.defaultCategoryOptionCombo );
+
+            for ( PredictionContext c : contexts )
             {
-                List<DataValue> predictions = new ArrayList<>();
+                List<Period> samplePeriods = new ArrayList<>( run.samplePeriodsMap.get( c.getOutputPeriod() ) );
 
-                List<PredictionContext> contexts = PredictionContextGenerator.getContexts(
-                    outputPeriods, data.getValues(), defaultCategoryOptionCombo );
+                samplePeriods.removeAll( getSkippedPeriods( run.allSamplePeriods, run.baseExParams,
+                    c.getPeriodValueMap(), run.skipTest, run.compiledSkipTest, data.getOrgUnit() ) );
 
-                for ( PredictionContext c : contexts )
+                if ( !isEvaluationRequired( run.requireData, run.exInfo, samplePeriods, c.getValueMap(),
+                    c.getPeriodValueMap(), run.baseExParams.getItemMap() ) )
                 {
-                    List<Period> samplePeriods = new ArrayList<>( samplePeriodsMap.get( c.getOutputPeriod() ) );
-
-                    samplePeriods.removeAll( getSkippedPeriods( allSamplePeriods, baseExParams, c.getPeriodValueMap(),
-                        skipTest, data.getOrgUnit() ) );
-
-                    if ( !isEvaluationRequired( requireData, exInfo, samplePeriods, c.getValueMap(),
-                        c.getPeriodValueMap(), baseExParams.getItemMap() ) )
-                    {
-                        continue;
-                    }
-
-                    Object value = expressionService.getExpressionValue( baseExParams.toBuilder()
-                        .expression( predictor.getGenerator().getExpression() )
-                        .parseType( PREDICTOR_EXPRESSION )
-                        .dataType( expressionDataType )
-                        .valueMap( c.getValueMap() )
-                        .days( c.getOutputPeriod().getDaysInPeriod() )
-                        .missingValueStrategy( generator.getMissingValueStrategy() )
-                        .orgUnit( data.getOrgUnit() )
-                        .samplePeriods( samplePeriods )
-                        .periodValueMap( c.getPeriodValueMap() )
-                        .build() );
-
-                    DataValue prediction = processPrediction( predictor, c, value, currentUser, outputOptionCombo,
-                        data.getOrgUnit() );
-
-                    rememberPredictedValue( prediction, predictions, contexts, forwardReference );
+                    continue;
                 }
 
-                predictionWriter.write( predictions, data.getOldPredictions() );
+                ExpressionParams params = run.baseExParams.toBuilder()
+                    .expression( predictor.getGenerator().getExpression() )
+                    .parseType( PREDICTOR_EXPRESSION )
+                    .dataType( run.expressionDataType )
+                    .valueMap( c.getValueMap() )
+                    .days( c.getOutputPeriod().getDaysInPeriod() )
+                    .missingValueStrategy( run.generator.getMissingValueStrategy() )
+                    .orgUnit( data.getOrgUnit() )
+                    .samplePeriods( samplePeriods )
+                    .periodValueMap( c.getPeriodValueMap() )
+                    .build();
+
+                Object value = expressionService.getExpressionValue( run.compiledGenerator, params,
+                    run.generatorItems, run.compiledGenerator.getItemValues( run.generatorItems, c.getValueMap() ) );
+
+                DataValue prediction = processPrediction( predictor, c, value, run.currentUser,
+                    run.outputOptionCombo, data.getOrgUnit() );
+
+                rememberPredictedValue( prediction, predictions, contexts, run.forwardReference );
+            }
+
+            predictionWriter.write( predictions, data.getOldPredictions() );
+        }
+    }
+
+    /**
+     * Predicts the values for the given organisation units of one level by
+     * splitting them into partitions of whole subtrees which are predicted
+     * concurrently. Each partition fetches its own data and writes its own
+     * predictions in a separate transaction. Only the uids of the organisation
+     * units are passed to the partitions, which reload them in their own
+     * transaction so that the hierarchy is never navigated through objects of
+     * another session. The method returns when all partitions are done, so
+     * predictors still run one after the other and later predictors can use
+     * the values of earlier ones.
+     */
+    private void predictInParallel( PredictorRun run, Set<OrganisationUnit> currentUserOrgUnits, int orgUnitLevel,
+        List<OrganisationUnit> orgUnits, int parallelism, PredictionSummary predictionSummary )
+    {
+        List<PredictionPartition> partitions = PredictionPartition.partition( orgUnits, orgUnitLevel,
+            currentUserOrgUnits, parallelism * PARTITIONS_PER_THREAD );
+
+        if ( partitions.isEmpty() )
+        {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+
+        ExecutorService executor = new DelegatingSecurityContextExecutorService( Executors.newFixedThreadPool(
+            Math.min( parallelism, partitions.size() ),
+            new ThreadFactoryBuilder().setNameFormat( "prediction-%d" ).setDaemon( true ).build() ) );
+
+        List<Future<PredictionSummary>> futures = new ArrayList<>( partitions.size() );
+
+        try
+        {
+            for ( PredictionPartition partition : partitions )
+            {
+                List<String> rootUids = getUids( partition.getRoots() );
+                List<String> orgUnitUids = getUids( partition.getOrgUnits() );
+
+                futures.add( executor.submit( () -> transactionTemplate.execute(
+                    status -> predictPartition( run, orgUnitLevel, rootUids, orgUnitUids ) ) ) );
+            }
+
+            for ( Future<PredictionSummary> future : futures )
+            {
+                predictionSummary.addCounts( future.get() );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while making predictions", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
             }
+
+            throw new IllegalStateException( "Error while making predictions", ex.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
         }
+    }
+
+    /**
+     * Predicts the values for the organisation units of one partition.
+     *
+     * @param rootUids the uids of the roots of the partition.
+     * @param orgUnitUids the uids of the organisation units of the partition.
+     * @return the summary of the predictions of the partition.
+     */
+    private PredictionSummary predictPartition( PredictorRun run, int orgUnitLevel, List<String> rootUids,
+        List<String> orgUnitUids )
+    {
+        Set<OrganisationUnit> roots = new HashSet<>( organisationUnitService.getOrganisationUnitsByUid( rootUids ) );
+
+        List<OrganisationUnit> orgUnits = new ArrayList<>(
+            organisationUnitService.getOrganisationUnitsByUid( orgUnitUids ) );
+
+        orgUnits.sort( comparing( OrganisationUnit::getPath ) );
+
+        PredictionSummary partitionSummary = new PredictionSummary();
+
+        PredictionWriter predictionWriter = new PredictionWriter( dataValueService, batchHandlerFactory );
+
+        predictionWriter.init( run.existingOutputPeriods, partitionSummary );
+
+        predictOrgUnits( run, createConsolidator( run ), predictionWriter, roots, orgUnitLevel, orgUnits );
 
         predictionWriter.flush();
+
+        return partitionSummary;
+    }
+
+    private PredictionDataConsolidator createConsolidator( PredictorRun run )
+    {
+        return new PredictionDataConsolidator( run.items,
+            run.predictor.getOrganisationUnitDescendants().equals( DESCENDANTS ),
+            new PredictionDataValueFetcher( dataValueService, categoryService ),
+            new PredictionAnalyticsDataFetcher( analyticsService, categoryService ) );
+    }
+
+    /**
+     * Reloads the output periods, adding them if they don't exist yet. When
+     * predicting in parallel, new periods are committed in a separate
+     * transaction so that they are visible to the transactions of the
+     * partitions.
+     */
+    private List<Period> reloadPeriods( List<Period> periods, boolean parallel )
+    {
+        if ( !parallel )
+        {
+            return periodService.reloadPeriods( periods );
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+        transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+
+        return transactionTemplate.execute( status -> periodService.reloadPeriods( periods ) );
+    }
+
+    private int getParallelism()
+    {
+        return Math.max( 1, Integer.parseInt( config.getProperty( ConfigurationKey.PREDICTOR_PARALLELISM ) ) );
     }
 
     // -------------------------------------------------------------------------
@@ -419,26 +630,31 @@ public class DefaultPredictionService
      * Finds sample periods that should be skipped based on the skip test.
      */
     private Set<Period> getSkippedPeriods( Set<Period> allSamplePeriods, ExpressionParams baseExParams,
-        MapMap<Period, DimensionalItemObject, Object> aocData, Expression skipTest, OrganisationUnit orgUnit )
+        MapMap<Period, DimensionalItemObject, Object> aocData, Expression skipTest, CompiledExpression compiledSkipTest,
+        OrganisationUnit orgUnit )
     {
         Set<Period> skippedPeriods = new HashSet<>();
 
-        if ( skipTest == null || StringUtils.isEmpty( skipTest.getExpression() ) )
+        if ( compiledSkipTest == null )
         {
             return skippedPeriods;
         }
 
+        DimensionalItemObject[] items = compiledSkipTest.getItems( baseExParams.getItemMap() );
+
         for ( Period p : allSamplePeriods )
         {
-            if ( aocData.get( p ) != null &&
-                (Boolean) expressionService.getExpressionValue( baseExParams.toBuilder()
+            Map<DimensionalItemObject, Object> values = aocData.get( p );
+
+            if ( values != null &&
+                (Boolean) expressionService.getExpressionValue( compiledSkipTest, baseExParams.toBuilder()
                     .expression( skipTest.getExpression() )
                     .parseType( PREDICTOR_SKIP_TEST )
-                    .valueMap( aocData.get( p ) )
+                    .valueMap( values )
                     .days( p.getDaysInPeriod() )
                     .missingValueStrategy( skipTest.getMissingValueStrategy() )
                     .orgUnit( orgUnit )
-                    .build() ) )
+                    .build(), items, compiledSkipTest.getItemValues( items, values ) ) )
             {
                 skippedPeriods.add( p );
             }
@@ -657,4 +873,57 @@ public class DefaultPredictionService
         }
         return false;
     }
+
+    /**
+     * The state of running one predictor which is shared by the prediction of
+     * all organisation units. It is not changed during the prediction, so it
+     * can be shared by the threads predicting partitions in parallel.
+     */
+    @Builder
+    private static final class PredictorRun
+    {
+        private final Predictor predictor;
+
+        private final Expression generator;
+
+        private final Expression skipTest;
+
+        private final DataType expressionDataType;
+
+        private final ExpressionInfo exInfo;
+
+        private final ExpressionParams baseExParams;
+
+        private final Set<DimensionalItemObject> items;
+
+        private final CompiledExpression compiledGenerator;
+
+        private final DimensionalItemObject[] generatorItems;
+
+        private final CompiledExpression compiledSkipTest;
+
+        private final List<Period> outputPeriods;
+
+        private final Set<Period> existingOutputPeriods;
+
+        private final ListMap<Period, Period> samplePeriodsMap;
+
+        private final Set<Period> allSamplePeriods;
+
+        private final Set<Period> analyticsQueryPeriods;
+
+        private final Set<Period> dataValueQueryPeriods;
+
+        private final CategoryOptionCombo defaultCategoryOptionCombo;
+
+        private final CategoryOptionCombo outputOptionCombo;
+
+        private final DataElementOperand outputDataElementOperand;
+
+        private final boolean requireData;
+
+        private final DimensionalItemObject forwardReference;
+
+        private final User currentUser;
+    }
 }
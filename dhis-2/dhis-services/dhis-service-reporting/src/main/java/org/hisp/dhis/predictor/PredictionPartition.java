@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+
+/**
+ * A partition of the organisation units for which a predictor is run. A
+ * partition consists of whole subtrees of the organisation unit hierarchy, so
+ * the data values for the partition can be fetched by a single query for the
+ * descendants of the partition's roots.
+ */
+@Getter
+public class PredictionPartition
+{
+    /**
+     * The level of the subtree roots unless the organisation units are above
+     * or the user's organisation units are below that level.
+     */
+    static final int PARTITION_LEVEL = 2;
+
+    /**
+     * Length of one uid segment in an organisation unit path like
+     * {@code /uid1/uid2}.
+     */
+    private static final int PATH_SEGMENT_LENGTH = 12;
+
+    private final Set<OrganisationUnit> roots = new HashSet<>();
+
+    private final List<OrganisationUnit> orgUnits = new ArrayList<>();
+
+    /**
+     * Splits the given organisation units into at most the given number of
+     * partitions. Organisation units are grouped by their ancestor at the
+     * partition level, and the groups are assigned to partitions so that the
+     * partitions are of similar size.
+     * <p>
+     * The partition level is at least as deep as the deepest organisation unit
+     * of the user, so that the roots of a partition are always within the
+     * hierarchy of the user.
+     *
+     * @param orgUnits the organisation units at the predictor level.
+     * @param orgUnitLevel the level of the organisation units.
+     * @param userOrgUnits the organisation units of the user.
+     * @param maxPartitions the maximum number of partitions.
+     * @return the non-empty partitions, the largest first.
+     */
+    public static List<PredictionPartition> partition( List<OrganisationUnit> orgUnits, int orgUnitLevel,
+        Set<OrganisationUnit> userOrgUnits, int maxPartitions )
+    {
+        int partitionLevel = Math.min( orgUnitLevel, userOrgUnits.stream()
+            .mapToInt( OrganisationUnit::getLevel )
+            .reduce( PARTITION_LEVEL, Math::max ) );
+
+        Map<String, List<OrganisationUnit>> subtrees = new LinkedHashMap<>();
+
+        orgUnits.stream()
+            .sorted( comparing( OrganisationUnit::getPath ) )
+            .forEach( ou -> subtrees.computeIfAbsent(
+                ou.getPath().substring( 0, partitionLevel * PATH_SEGMENT_LENGTH ), key -> new ArrayList<>() )
+                .add( ou ) );
+
+        List<PredictionPartition> partitions = new ArrayList<>();
+
+        for ( int i = 0; i < Math.min( maxPartitions, subtrees.size() ); i++ )
+        {
+            partitions.add( new PredictionPartition() );
+        }
+
+        // Largest subtrees first, each into the currently smallest partition
+
+        subtrees.values().stream()
+            .sorted( Comparator.<List<OrganisationUnit>> comparingInt( List::size ).reversed() )
+            .forEach( subtree -> partitions.stream()
+                .min( comparingInt( p -> p.orgUnits.size() ) )
+                .ifPresent( p -> p.add( getAncestor( subtree.get( 0 ), partitionLevel ), subtree ) ) );
+
+        partitions.forEach( p -> p.orgUnits.sort( comparing( OrganisationUnit::getPath ) ) );
+        partitions.sort( Comparator.<PredictionPartition> comparingInt( p -> p.orgUnits.size() ).reversed() );
+
+        return partitions;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive Methods
+    // -------------------------------------------------------------------------
+
+    private void add( OrganisationUnit root, List<OrganisationUnit> subtree )
+    {
+        roots.add( root );
+        orgUnits.addAll( subtree );
+    }
+
+    private static OrganisationUnit getAncestor( OrganisationUnit orgUnit, int level )
+    {
+        OrganisationUnit ancestor = orgUnit;
+
+        while ( ancestor.getLevel() > level )
+        {
+            ancestor = ancestor.getParent();
+        }
+
+        return ancestor;
+    }
+}
@@ -89,6 +89,21 @@ public class PredictionSummary extends AbstractWebMessageResponse
         unchanged += 1;
     }
 
+    /**
+     * Adds the inserted, updated, deleted and unchanged counts of the given
+     * summary, which are made for a part of the organisation units of a
+     * predictor, to this summary.
+     *
+     * @param summary the summary of a part of the predictions.
+     */
+    public void addCounts( PredictionSummary summary )
+    {
+        inserted += summary.inserted;
+        updated += summary.updated;
+        deleted += summary.deleted;
+        unchanged += summary.unchanged;
+    }
+
     public int getPredictions()
     {
         return inserted + updated + unchanged;
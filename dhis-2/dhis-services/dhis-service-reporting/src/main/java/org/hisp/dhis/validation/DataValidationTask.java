@@ -30,7 +30,6 @@ package org.hisp.dhis.validation;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
 import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
-import static org.hisp.dhis.expression.ParseType.SIMPLE_TEST;
 import static org.hisp.dhis.expression.ParseType.VALIDATION_RULE_EXPRESSION;
 import static org.hisp.dhis.system.util.MathUtils.addDoubleObjects;
 import static org.hisp.dhis.system.util.MathUtils.roundSignificant;
@@ -56,6 +55,7 @@ import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.datavalue.DataExportParams;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
+import org.hisp.dhis.expression.CompiledExpression;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionParams;
 import org.hisp.dhis.expression.ExpressionService;
@@ -74,7 +74,8 @@ import com.google.common.collect.Sets;
 /**
  * Runs a validation task on a thread within a multi-threaded validation run.
  * <p>
- * Each task looks for validation results in a different organisation unit.
+ * Each task looks for validation results in a different set of organisation
+ * units and period types.
  *
  * @author Jim Grace
  */
@@ -118,6 +119,8 @@ public class DataValidationTask
 
     private ValidationRunContext context;
 
+    private Collection<PeriodTypeExtended> periodTypeXs;
+
     private Set<ValidationResult> validationResults;
 
     private PeriodTypeExtended periodTypeX; // Current period type extended.
@@ -136,9 +139,11 @@ public class DataValidationTask
     private MapMapMap<Long, String, DimensionalItemObject, Object> slidingWindowDataMap;
 
     @Override
-    public void init( List<OrganisationUnit> orgUnits, ValidationRunContext context, AnalyticsService analyticsService )
+    public void init( List<OrganisationUnit> orgUnits, Collection<PeriodTypeExtended> periodTypeXs,
+        ValidationRunContext context, AnalyticsService analyticsService )
     {
         this.orgUnits = orgUnits;
+        this.periodTypeXs = periodTypeXs;
         this.context = context;
         this.analyticsService = analyticsService;
     }
@@ -174,7 +179,7 @@ public class DataValidationTask
             return;
         }
 
-        loop: for ( PeriodTypeExtended ptx : context.getPeriodTypeXs() )
+        loop: for ( PeriodTypeExtended ptx : periodTypeXs )
         {
             periodTypeX = ptx;
 
@@ -353,11 +358,32 @@ public class DataValidationTask
             }
         }
 
-        String test = leftSide
-            + ruleX.getRule().getOperator().getMathematicalOperator()
-            + rightSide;
-        return !(Boolean) expressionService.getExpressionValue( ExpressionParams.builder()
-            .expression( test ).parseType( SIMPLE_TEST ).build() );
+        double left = leftSide;
+        double right = rightSide;
+
+        switch ( ruleX.getRule().getOperator() )
+        {
+        case equal_to:
+            return left != right;
+
+        case not_equal_to:
+            return left == right;
+
+        case greater_than:
+            return left <= right;
+
+        case greater_than_or_equal_to:
+            return left < right;
+
+        case less_than:
+            return left >= right;
+
+        case less_than_or_equal_to:
+            return left > right;
+
+        default:
+            throw new IllegalArgumentException( "Unsupported operator: " + ruleX.getRule().getOperator() );
+        }
     }
 
     /**
@@ -488,6 +514,11 @@ public class DataValidationTask
 
         Map<DimensionalItemObject, Object> nonAocValues = valueMap.get( NON_AOC );
 
+        CompiledExpression compiled = expressionService.compileExpression( expression.getExpression(),
+            VALIDATION_RULE_EXPRESSION );
+
+        DimensionalItemObject[] items = compiled.getItems( context.getBaseExParams().getItemMap() );
+
         for ( Map.Entry<String, Map<DimensionalItemObject, Object>> entry : valueMap.entrySet() )
         {
             Map<DimensionalItemObject, Object> values = entry.getValue();
@@ -497,14 +528,17 @@ public class DataValidationTask
                 values.putAll( nonAocValues );
             }
 
-            Double value = castDouble( expressionService.getExpressionValue( context.getBaseExParams().toBuilder()
+            ExpressionParams params = context.getBaseExParams().toBuilder()
                 .expression( expression.getExpression() )
                 .parseType( VALIDATION_RULE_EXPRESSION )
                 .valueMap( values )
                 .days( period.getDaysInPeriod() )
                 .missingValueStrategy( expression.getMissingValueStrategy() )
                 .orgUnit( orgUnit )
-                .build() ) );
+                .build();
+
+            Double value = castDouble( expressionService.getExpressionValue( compiled, params, items,
+                compiled.getItemValues( items, values ) ) );
 
             if ( MathUtils.isValidDouble( value ) )
             {
@@ -534,34 +568,39 @@ public class DataValidationTask
             params.setAttributeOptionCombos( Sets.newHashSet( context.getAttributeCombo() ) );
         }
 
-        List<DeflatedDataValue> dataValues = dataValueService.getDeflatedDataValues( params );
-
         dataMap = new MapMapMap<>();
 
         MapMapMap<Long, String, DimensionalItemObject, Long> duplicateCheck = new MapMapMap<>();
 
-        for ( DeflatedDataValue dv : dataValues )
-        {
-            DataElement dataElement = periodTypeX.getDataElementIdMap().get( dv.getDataElementId() );
-            String deoIdKey = periodTypeX.getDeoIds( dv.getDataElementId(), dv.getCategoryOptionComboId() );
-            DataElementOperand dataElementOperand = periodTypeX.getDataElementOperandIdMap().get( deoIdKey );
-            Period p = getPeriod( dv.getPeriodId() );
-            long orgUnitId = dv.getSourceId();
-            String attributeOptionComboUid = getAttributeOptionCombo( dv.getAttributeOptionComboId() ).getUid();
+        dataValueService.getDeflatedDataValues( params, dv -> addDataValueToDataMap( dv, duplicateCheck ) );
+    }
 
-            if ( dataElement != null )
-            {
-                Object value = getObjectValue( dv.getValue(), dataElement.getValueType() );
+    /**
+     * Adds a data value streamed from the datavalue table to the data map, for
+     * the data element and/or the data element operand it belongs to.
+     */
+    private void addDataValueToDataMap( DeflatedDataValue dv,
+        MapMapMap<Long, String, DimensionalItemObject, Long> duplicateCheck )
+    {
+        DataElement dataElement = periodTypeX.getDataElementIdMap().get( dv.getDataElementId() );
+        String deoIdKey = periodTypeX.getDeoIds( dv.getDataElementId(), dv.getCategoryOptionComboId() );
+        DataElementOperand dataElementOperand = periodTypeX.getDataElementOperandIdMap().get( deoIdKey );
+        Period p = getPeriod( dv.getPeriodId() );
+        long orgUnitId = dv.getSourceId();
+        String attributeOptionComboUid = getAttributeOptionCombo( dv.getAttributeOptionComboId() ).getUid();
 
-                addValueToDataMap( orgUnitId, attributeOptionComboUid, dataElement, value, p, duplicateCheck );
-            }
+        if ( dataElement != null )
+        {
+            Object value = getObjectValue( dv.getValue(), dataElement.getValueType() );
 
-            if ( dataElementOperand != null )
-            {
-                Object value = getObjectValue( dv.getValue(), dataElementOperand.getDataElement().getValueType() );
+            addValueToDataMap( orgUnitId, attributeOptionComboUid, dataElement, value, p, duplicateCheck );
+        }
 
-                addValueToDataMap( orgUnitId, attributeOptionComboUid, dataElementOperand, value, p, duplicateCheck );
-            }
+        if ( dataElementOperand != null )
+        {
+            Object value = getObjectValue( dv.getValue(), dataElementOperand.getDataElement().getValueType() );
+
+            addValueToDataMap( orgUnitId, attributeOptionComboUid, dataElementOperand, value, p, duplicateCheck );
         }
     }
 
@@ -187,10 +187,16 @@ public class DefaultValidationService
 
         List<ValidationResult> results = Validator.validate( context, applicationContext, analyticsService );
 
-        if ( context.isPersistResults() )
+        if ( context.isPersistResults() && context.isSendNotifications() )
         {
+            // Notifications update the persisted results, which needs ids
+
             validationResultService.saveValidationResults( context.getValidationResults() );
         }
+        else if ( context.isPersistResults() )
+        {
+            validationResultService.insertValidationResults( context.getValidationResults() );
+        }
 
         clock.logTime( "Finished validation analysis, " + context.getValidationResults().size() + " results" ).stop();
 
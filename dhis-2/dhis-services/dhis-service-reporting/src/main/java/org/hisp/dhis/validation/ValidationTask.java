@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.validation;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.hisp.dhis.analytics.AnalyticsService;
@@ -35,5 +36,26 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 public interface ValidationTask
     extends Runnable
 {
-    void init( List<OrganisationUnit> orgUnits, ValidationRunContext context, AnalyticsService analyticsService );
+    /**
+     * Initializes the task to evaluate the given organisation units for the
+     * given period types.
+     *
+     * @param orgUnits the organisation units to evaluate.
+     * @param periodTypeXs the period types to evaluate, shared with the other
+     *        tasks of the validation run.
+     * @param context the validation run context.
+     * @param analyticsService the analytics service.
+     */
+    void init( List<OrganisationUnit> orgUnits, Collection<PeriodTypeExtended> periodTypeXs,
+        ValidationRunContext context, AnalyticsService analyticsService );
+
+    /**
+     * Initializes the task to evaluate the given organisation units for all
+     * period types of the validation run.
+     */
+    default void init( List<OrganisationUnit> orgUnits, ValidationRunContext context,
+        AnalyticsService analyticsService )
+    {
+        init( orgUnits, context.getPeriodTypeXs(), context, analyticsService );
+    }
 }
@@ -29,18 +29,23 @@ package org.hisp.dhis.validation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
 
 import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.springframework.context.ApplicationContext;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Evaluates validation rules.
@@ -51,9 +56,10 @@ public class Validator
 {
     /**
      * Evaluates validation rules for a collection of organisation units. This
-     * method breaks the job down by organisation unit. It assigns the
-     * evaluation for each organisation unit to a task that can be evaluated
-     * independently in a multi-threaded environment.
+     * method breaks the job down into shards of organisation units and period
+     * types. It assigns the evaluation of each shard to a task that can be
+     * evaluated independently in a multi-threaded environment. The tasks share
+     * the validation run context, which collects the validation results.
      * <p/>
      * Return early with no results if there are no organisation units or no
      * validation rules.
@@ -64,34 +70,52 @@ public class Validator
         ApplicationContext applicationContext, AnalyticsService analyticsService )
     {
         CategoryService categoryService = applicationContext.getBean( CategoryService.class );
+        DhisConfigurationProvider config = applicationContext.getBean( DhisConfigurationProvider.class );
 
-        int threadPoolSize = getThreadPoolSize( context );
+        List<ValidationTask> tasks = getTasks( context, applicationContext, analyticsService );
 
-        if ( threadPoolSize == 0 || context.getPeriodTypeXs().isEmpty() )
+        if ( tasks.isEmpty() )
         {
             return new ArrayList<>( context.getValidationResults() );
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool( threadPoolSize );
+        int threadPoolSize = getThreadPoolSize( config, tasks.size() );
 
-        List<List<OrganisationUnit>> orgUnitLists = Lists.partition( context.getOrgUnits(),
-            ValidationRunContext.ORG_UNITS_PER_TASK );
+        ExecutorService executor = Executors.newFixedThreadPool( threadPoolSize,
+            new ThreadFactoryBuilder().setNameFormat( "validation-%d" ).setDaemon( true ).build() );
 
-        for ( List<OrganisationUnit> orgUnits : orgUnitLists )
-        {
-            ValidationTask task = (ValidationTask) applicationContext.getBean( DataValidationTask.NAME );
-            task.init( orgUnits, context, analyticsService );
+        List<Future<?>> futures = new ArrayList<>( tasks.size() );
 
-            executor.execute( task );
+        try
+        {
+            for ( ValidationTask task : tasks )
+            {
+                futures.add( executor.submit( task ) );
+            }
+
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            futures.forEach( future -> future.cancel( true ) );
+            throw new RuntimeException( "Interrupted while evaluating validation rules", ex );
         }
+        catch ( ExecutionException ex )
+        {
+            futures.forEach( future -> future.cancel( true ) );
 
-        executor.shutdown();
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
 
-        try
-        {
-            executor.awaitTermination( 6, TimeUnit.HOURS );
+            throw new RuntimeException( "Error while evaluating validation rules", ex );
         }
-        catch ( InterruptedException e )
+        finally
         {
             executor.shutdownNow();
         }
@@ -101,29 +125,68 @@ public class Validator
         return new ArrayList<>( context.getValidationResults() );
     }
 
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
     /**
-     * Determines how many threads we should use for testing validation rules.
+     * Creates a task for each shard of organisation units and period types.
+     * The organisation units are split into chunks of
+     * {@link ValidationRunContext#ORG_UNITS_PER_TASK}, and each chunk is
+     * evaluated separately for each period type, so that a run with few
+     * organisation units but many period types can still use all threads.
      *
      * @param context validation run context
-     * @return number of threads we should use for testing validation rules
+     * @param applicationContext the application context
+     * @param analyticsService the analytics service
+     * @return the tasks to run
      */
-    private static int getThreadPoolSize( ValidationRunContext context )
+    private static List<ValidationTask> getTasks( ValidationRunContext context,
+        ApplicationContext applicationContext, AnalyticsService analyticsService )
     {
-        int threadPoolSize = SystemUtils.getCpuCores();
+        List<ValidationTask> tasks = new ArrayList<>();
 
-        if ( threadPoolSize > 2 )
+        List<List<OrganisationUnit>> orgUnitLists = Lists.partition( context.getOrgUnits(),
+            ValidationRunContext.ORG_UNITS_PER_TASK );
+
+        for ( List<OrganisationUnit> orgUnits : orgUnitLists )
         {
-            threadPoolSize--;
+            for ( PeriodTypeExtended periodTypeX : context.getPeriodTypeXs() )
+            {
+                ValidationTask task = (ValidationTask) applicationContext.getBean( DataValidationTask.NAME );
+                task.init( orgUnits, Collections.singletonList( periodTypeX ), context, analyticsService );
+
+                tasks.add( task );
+            }
         }
 
-        int numberOfTasks = context.getNumberOfTasks();
+        return tasks;
+    }
+
+    /**
+     * Determines how many threads we should use for testing validation rules.
+     * Uses the configured parallelism if set, otherwise one thread less than
+     * the number of CPU cores.
+     *
+     * @param config the DHIS configuration provider
+     * @param numberOfTasks the number of tasks to run
+     * @return number of threads we should use for testing validation rules
+     */
+    private static int getThreadPoolSize( DhisConfigurationProvider config, int numberOfTasks )
+    {
+        int threadPoolSize = Integer.parseInt( config.getProperty( ConfigurationKey.VALIDATION_PARALLELISM ) );
 
-        if ( threadPoolSize > numberOfTasks )
+        if ( threadPoolSize <= 0 )
         {
-            threadPoolSize = numberOfTasks;
+            threadPoolSize = SystemUtils.getCpuCores();
+
+            if ( threadPoolSize > 2 )
+            {
+                threadPoolSize--;
+            }
         }
 
-        return threadPoolSize;
+        return Math.min( threadPoolSize, numberOfTasks );
     }
 
     /**
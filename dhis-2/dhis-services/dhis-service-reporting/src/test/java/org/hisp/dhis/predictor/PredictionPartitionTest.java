@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hisp.dhis.DhisConvenienceTest;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PredictionPartition}.
+ */
+class PredictionPartitionTest
+    extends DhisConvenienceTest
+{
+    private OrganisationUnit ouB;
+
+    private OrganisationUnit ouC;
+
+    private OrganisationUnit ouD;
+
+    private List<OrganisationUnit> level3;
+
+    @BeforeEach
+    void setUp()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( 'A' );
+        ouB = createOrganisationUnit( 'B', ouA );
+        ouC = createOrganisationUnit( 'C', ouA );
+        ouD = createOrganisationUnit( 'D', ouB );
+        OrganisationUnit ouE = createOrganisationUnit( 'E', ouB );
+        OrganisationUnit ouF = createOrganisationUnit( 'F', ouB );
+        OrganisationUnit ouG = createOrganisationUnit( 'G', ouC );
+
+        level3 = List.of( ouG, ouF, ouE, ouD );
+    }
+
+    @Test
+    void testPartitionBySubtree()
+    {
+        List<PredictionPartition> partitions = PredictionPartition.partition( level3, 3, Set.of(), 4 );
+
+        assertEquals( 2, partitions.size() );
+        assertEquals( Set.of( ouB ), partitions.get( 0 ).getRoots() );
+        assertEquals( sortedByPath( level3.stream().filter( ou -> ou.getParent() == ouB ) ),
+            partitions.get( 0 ).getOrgUnits() );
+        assertEquals( Set.of( ouC ), partitions.get( 1 ).getRoots() );
+        assertEquals( 1, partitions.get( 1 ).getOrgUnits().size() );
+    }
+
+    @Test
+    void testPartitionMaxPartitions()
+    {
+        List<PredictionPartition> partitions = PredictionPartition.partition( level3, 3, Set.of( ouB, ouC ), 1 );
+
+        assertEquals( 1, partitions.size() );
+        assertEquals( Set.of( ouB, ouC ), partitions.get( 0 ).getRoots() );
+        assertEquals( sortedByPath( level3.stream() ), partitions.get( 0 ).getOrgUnits() );
+    }
+
+    @Test
+    void testPartitionWithinUserHierarchy()
+    {
+        List<PredictionPartition> partitions = PredictionPartition.partition( List.of( ouD ), 3, Set.of( ouD ),
+            4 );
+
+        assertEquals( 1, partitions.size() );
+        assertEquals( Set.of( ouD ), partitions.get( 0 ).getRoots() );
+    }
+
+    @Test
+    void testPartitionAboveLevel()
+    {
+        List<PredictionPartition> partitions = PredictionPartition.partition( List.of( ouD.getParent().getParent() ),
+            1, Set.of(), 4 );
+
+        assertEquals( 1, partitions.size() );
+        assertTrue( partitions.get( 0 ).getRoots().contains( ouB.getParent() ) );
+    }
+
+    @Test
+    void testPartitionEmpty()
+    {
+        assertTrue( PredictionPartition.partition( List.of(), 3, Set.of(), 4 ).isEmpty() );
+    }
+
+    private static List<OrganisationUnit> sortedByPath( Stream<OrganisationUnit> orgUnits )
+    {
+        return orgUnits.sorted( comparing( OrganisationUnit::getPath ) ).collect( toList() );
+    }
+}
@@ -56,6 +56,8 @@ import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.MissingValueStrategy;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
 import org.hisp.dhis.mock.MockCurrentUserService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -122,6 +124,9 @@ class PredictionServiceTest extends IntegrationTestBase
     @Autowired
     private BatchHandlerFactory batchHandlerFactory;
 
+    @Autowired
+    private DhisConfigurationProvider config;
+
     private OrganisationUnitLevel orgUnitLevel1;
 
     private OrganisationUnitLevel orgUnitLevel2;
@@ -607,6 +612,39 @@ class PredictionServiceTest extends IntegrationTestBase
         assertEquals( "18.35", getDataValue( dataElementX, altCombo, sourceB, makeMonth( 2004, 7 ) ) );
     }
 
+    @Test
+    void testPredictParallel()
+    {
+        setupTestData();
+        Predictor sequential = createPredictor( dataElementX, defaultCombo, "PredictSequential", expressionA, null,
+            periodTypeMonthly, orgUnitLevel1, 3, 1, 2 );
+        Predictor parallel = createPredictor( dataElementX, altCombo, "PredictParallel", expressionA, null,
+            periodTypeMonthly, orgUnitLevel1, 3, 1, 2 );
+        predictionService.predict( sequential, monthStart( 2001, 7 ), monthStart( 2005, 12 ), summary );
+        PredictionSummary parallelSummary = new PredictionSummary();
+        config.getProperties().setProperty( ConfigurationKey.PREDICTOR_PARALLELISM.getKey(), "4" );
+        try
+        {
+            predictionService.predict( parallel, monthStart( 2001, 7 ), monthStart( 2005, 12 ), parallelSummary );
+        }
+        finally
+        {
+            config.getProperties().remove( ConfigurationKey.PREDICTOR_PARALLELISM.getKey() );
+        }
+        assertEquals( "Pred 1 Ins 100 Upd 0 Del 0 Unch 0", shortSummary( summary ) );
+        assertEquals( shortSummary( summary ), shortSummary( parallelSummary ) );
+        for ( OrganisationUnit source : List.of( sourceA, sourceB, sourceG ) )
+        {
+            for ( Date month = monthStart( 2001, 7 ); month.before( monthStart( 2005, 12 ) ); month = new DateTime(
+                month ).plusMonths( 1 ).toDate() )
+            {
+                Period period = periodTypeMonthly.createPeriod( month );
+                assertEquals( getDataValue( dataElementX, defaultCombo, source, period ),
+                    getDataValue( dataElementX, altCombo, source, period ) );
+            }
+        }
+    }
+
     @Test
     void testGetPredictionsSeasonalWithOutbreak()
     {
@@ -36,15 +36,18 @@ import static org.hisp.dhis.DhisConvenienceTest.createExpression2;
 import static org.hisp.dhis.DhisConvenienceTest.createOrganisationUnit;
 import static org.hisp.dhis.DhisConvenienceTest.createPeriod;
 import static org.hisp.dhis.DhisConvenienceTest.createValidationRule;
-import static org.hisp.dhis.expression.ParseType.SIMPLE_TEST;
 import static org.hisp.dhis.expression.ParseType.VALIDATION_RULE_EXPRESSION;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.RandomUtils;
 import org.hisp.dhis.analytics.AnalyticsService;
@@ -56,6 +59,7 @@ import org.hisp.dhis.datavalue.DataExportParams;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
+import org.hisp.dhis.expression.CompiledExpression;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionParams;
 import org.hisp.dhis.expression.ExpressionService;
@@ -169,8 +173,7 @@ class DataValidationTaskTest
         DeflatedDataValue ddv = new DeflatedDataValue( dv );
         deflatedDataValues.add( ddv );
 
-        when( dataValueService.getDeflatedDataValues( any( DataExportParams.class ) ) )
-            .thenReturn( deflatedDataValues );
+        mockDataValues( deflatedDataValues );
 
         Map<DimensionalItemObject, Object> vals = new HashMap<>();
         vals.put( deA, 12.4 );
@@ -178,10 +181,6 @@ class DataValidationTaskTest
         mockExpressionService( leftExpression, vals, 8.4 );
         mockExpressionService( rightExpression, vals, -10.0 );
 
-        when( expressionService.getExpressionValue( ExpressionParams.builder()
-            .expression( "8.4!=-10.0" ).parseType( SIMPLE_TEST ).build() ) )
-                .thenReturn( true );
-
         subject.init( organisationUnits, ctx, analyticsService );
         subject.run();
 
@@ -214,8 +213,7 @@ class DataValidationTaskTest
         List<DeflatedDataValue> deflatedDataValues = new ArrayList<>();
 
         // Return no values!
-        when( dataValueService.getDeflatedDataValues( any( DataExportParams.class ) ) )
-            .thenReturn( deflatedDataValues );
+        mockDataValues( deflatedDataValues );
 
         subject.init( organisationUnits, ctx, analyticsService );
         subject.run();
@@ -223,6 +221,15 @@ class DataValidationTaskTest
         assertThat( ctx.getValidationResults().size(), is( 0 ) );
     }
 
+    private void mockDataValues( List<DeflatedDataValue> deflatedDataValues )
+    {
+        doAnswer( invocation -> {
+            Consumer<DeflatedDataValue> consumer = invocation.getArgument( 1 );
+            deflatedDataValues.forEach( consumer );
+            return null;
+        } ).when( dataValueService ).getDeflatedDataValues( any( DataExportParams.class ), any() );
+    }
+
     private void mockExpressionService( Expression expression, Map<DimensionalItemObject, Object> vals, Double val )
     {
         ExpressionParams params = ExpressionParams.builder()
@@ -233,14 +240,22 @@ class DataValidationTaskTest
             .orgUnit( ouA )
             .build();
 
-        when( expressionService.getExpressionValue( params.toBuilder().days( p1.getDaysInPeriod() ).build() ) )
-            .thenReturn( val );
+        CompiledExpression compiled = mock( CompiledExpression.class );
+
+        when( expressionService.compileExpression( expression.getExpression(), VALIDATION_RULE_EXPRESSION ) )
+            .thenReturn( compiled );
+
+        when( expressionService.getExpressionValue( eq( compiled ),
+            eq( params.toBuilder().days( p1.getDaysInPeriod() ).build() ), any(), any() ) )
+                .thenReturn( val );
 
-        when( expressionService.getExpressionValue( params.toBuilder().days( p2.getDaysInPeriod() ).build() ) )
-            .thenReturn( val );
+        when( expressionService.getExpressionValue( eq( compiled ),
+            eq( params.toBuilder().days( p2.getDaysInPeriod() ).build() ), any(), any() ) )
+                .thenReturn( val );
 
-        when( expressionService.getExpressionValue( params.toBuilder().days( p3.getDaysInPeriod() ).build() ) )
-            .thenReturn( val );
+        when( expressionService.getExpressionValue( eq( compiled ),
+            eq( params.toBuilder().days( p3.getDaysInPeriod() ).build() ), any(), any() ) )
+                .thenReturn( val );
     }
 
     private ValidationRuleExtended createValidationRuleExtended( Expression left, Expression right, Operator op )
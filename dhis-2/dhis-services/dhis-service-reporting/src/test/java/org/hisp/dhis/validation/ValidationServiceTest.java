@@ -55,6 +55,7 @@ import java.util.Set;
 
 import org.hisp.dhis.DhisTest;
 import org.hisp.dhis.analytics.AggregationType;
+import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.category.CategoryOption;
@@ -96,6 +97,8 @@ import org.hisp.dhis.user.UserSettingKey;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -765,6 +768,58 @@ class ValidationServiceTest extends DhisTest
         assertResultsEquals( reference, results );
     }
 
+    @Test
+    void testShardedAndUnshardedRunsGiveSameResults()
+    {
+        for ( OrganisationUnit source : Lists.newArrayList( sourceA, sourceB, sourceC ) )
+        {
+            useDataValue( dataElementA, periodA, source, "1" );
+            useDataValue( dataElementB, periodA, source, "2" );
+            useDataValue( dataElementC, periodA, source, "3" );
+            useDataValue( dataElementD, periodA, source, "4" );
+            useDataValue( dataElementA, periodB, source, "1" );
+            useDataValue( dataElementB, periodB, source, "2" );
+            useDataValue( dataElementC, periodB, source, "3" );
+            useDataValue( dataElementD, periodB, source, "4" );
+            useDataValue( dataElementE, periodY, source, "2222" );
+        }
+        validationRuleService.saveValidationRule( ruleA );
+        validationRuleService.saveValidationRule( ruleB );
+        validationRuleService.saveValidationRule( ruleQ );
+        List<ValidationRule> validationRules = Lists.newArrayList( ruleA, ruleB, ruleQ );
+        List<Period> periods = periodService.getPeriodsBetweenDates( getDate( 2000, 1, 1 ), getDate( 2000, 12, 31 ) );
+        ValidationAnalysisParams params = validationService.newParamsBuilder( validationRules, null, periods )
+            .build();
+        Object service = AopTestUtils.getTargetObject( validationService );
+        AnalyticsService analyticsService = (AnalyticsService) ReflectionTestUtils.getField( service,
+            "analyticsService" );
+        // Sharded: one task per period type
+        ValidationRunContext shardedContext = ReflectionTestUtils.invokeMethod( service, "getValidationContext",
+            params );
+        assertEquals( 2, shardedContext.getPeriodTypeXs().size() );
+        Collection<ValidationResult> shardedResults = Validator.validate( shardedContext, applicationContext,
+            analyticsService );
+        // Unsharded: a single task for all organisation units and period types
+        ValidationRunContext unshardedContext = ReflectionTestUtils.invokeMethod( service, "getValidationContext",
+            params );
+        ValidationTask task = (ValidationTask) applicationContext.getBean( DataValidationTask.NAME );
+        task.init( unshardedContext.getOrgUnits(), unshardedContext.getPeriodTypeXs(), unshardedContext,
+            analyticsService );
+        task.run();
+        Collection<ValidationResult> unshardedResults = unshardedContext.getValidationResults();
+        Collection<ValidationResult> reference = new HashSet<>();
+        for ( OrganisationUnit source : Lists.newArrayList( sourceA, sourceB, sourceC ) )
+        {
+            reference.add( new ValidationResult( ruleA, periodA, source, defaultCombo, 3.0, -1.0, dayInPeriodA ) );
+            reference.add( new ValidationResult( ruleA, periodB, source, defaultCombo, 3.0, -1.0, dayInPeriodB ) );
+            reference.add( new ValidationResult( ruleB, periodA, source, defaultCombo, -1.0, 4.0, dayInPeriodA ) );
+            reference.add( new ValidationResult( ruleB, periodB, source, defaultCombo, -1.0, 4.0, dayInPeriodB ) );
+            reference.add( new ValidationResult( ruleQ, periodY, source, defaultCombo, 2222.0, 366.0, dayInPeriodY ) );
+        }
+        assertResultsEquals( reference, shardedResults );
+        assertResultsEquals( shardedResults, unshardedResults );
+    }
+
     @Test
     void testValidateMissingValues00()
     {
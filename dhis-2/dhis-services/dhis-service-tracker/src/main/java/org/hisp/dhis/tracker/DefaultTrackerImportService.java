@@ -34,7 +34,10 @@ import static org.hisp.dhis.tracker.report.TrackerTimingsStats.PROGRAMRULE_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.TOTAL_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.VALIDATE_PROGRAMRULE_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.VALIDATION_OPS;
+import static org.hisp.dhis.tracker.validation.hooks.RelationshipValidationUtils.getUidFromRelationshipItem;
+import static org.hisp.dhis.tracker.validation.hooks.RelationshipValidationUtils.relationshipItemValueType;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -51,10 +54,16 @@ import org.hisp.dhis.system.notification.NotificationLevel;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.tracker.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.bundle.TrackerBundleService;
+import org.hisp.dhis.tracker.domain.Relationship;
+import org.hisp.dhis.tracker.domain.RelationshipItem;
+import org.hisp.dhis.tracker.domain.TrackerDto;
 import org.hisp.dhis.tracker.job.TrackerSideEffectDataBundle;
 import org.hisp.dhis.tracker.preprocess.TrackerPreprocessService;
 import org.hisp.dhis.tracker.report.TrackerBundleReport;
+import org.hisp.dhis.tracker.report.TrackerErrorCode;
+import org.hisp.dhis.tracker.report.TrackerErrorReport;
 import org.hisp.dhis.tracker.report.TrackerImportReport;
+import org.hisp.dhis.tracker.report.TrackerObjectReport;
 import org.hisp.dhis.tracker.report.TrackerStatus;
 import org.hisp.dhis.tracker.report.TrackerTimingsStats;
 import org.hisp.dhis.tracker.report.TrackerTypeReport;
@@ -64,6 +73,7 @@ import org.hisp.dhis.user.User;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -95,6 +105,11 @@ public class DefaultTrackerImportService
         User user = trackerUserService.getUser( params.getUserId() );
         params.setUser( user );
 
+        if ( isChunkedImport( params ) )
+        {
+            return importTrackerInChunks( params );
+        }
+
         TrackerTimingsStats opsTimer = new TrackerTimingsStats();
 
         startImport( params );
@@ -142,6 +157,227 @@ public class DefaultTrackerImportService
         }
     }
 
+    /**
+     * Imports the objects of the given parameters in chunks of at most the
+     * chunk size. Objects are imported type by type in dependency order, so
+     * that objects referenced by a chunk are committed by earlier chunks. Each
+     * chunk is preheated, validated and committed separately, which keeps the
+     * memory used by preheat and bundle independent of the payload size. The
+     * reports of all chunks are merged into a single report, which is also
+     * used to reject objects whose parent was rejected by an earlier chunk.
+     */
+    private TrackerImportReport importTrackerInChunks( TrackerImportParams params )
+    {
+        TrackerTimingsStats opsTimer = new TrackerTimingsStats();
+
+        startImport( params );
+
+        TrackerValidationReport validationReport = new TrackerValidationReport();
+
+        TrackerBundleReport bundleReport = TrackerBundleReport.builder().build();
+
+        Map<TrackerType, Integer> bundleSize = calculatePayloadSize( params );
+
+        List<TrackerType> types = Lists.newArrayList( TrackerType.TRACKED_ENTITY, TrackerType.ENROLLMENT,
+            TrackerType.EVENT, TrackerType.RELATIONSHIP );
+
+        if ( params.getImportStrategy().isDelete() )
+        {
+            Collections.reverse( types );
+        }
+
+        try
+        {
+            for ( TrackerType type : types )
+            {
+                int size = bundleSize.get( type );
+
+                for ( int offset = 0; offset < size; offset += params.getChunkSize() )
+                {
+                    TrackerImportParams chunk = getChunk( params, type, offset,
+                        Math.min( offset + params.getChunkSize(), size ) );
+
+                    TrackerBundle trackerBundle = preHeat( chunk, opsTimer );
+
+                    preProcess( opsTimer, trackerBundle );
+
+                    if ( !params.getImportStrategy().isDelete() )
+                    {
+                        removeChildrenOfInvalidParents( trackerBundle, validationReport );
+                    }
+
+                    addToValidationReport( chunk, opsTimer, validationReport, trackerBundle );
+
+                    mergeBundleReport( bundleReport, commit( chunk, opsTimer, trackerBundle ), offset );
+
+                    postCommit( trackerBundle );
+
+                    log.debug( String.format( "Imported chunk of %s from index %d", type, offset ) );
+                }
+            }
+
+            TrackerImportReport trackerImportReport = TrackerImportReport.withImportCompleted(
+                TrackerStatus.OK,
+                bundleReport, validationReport,
+                opsTimer.stopTimer(), bundleSize );
+
+            endImport( params, trackerImportReport );
+
+            return trackerImportReport;
+        }
+        catch ( Exception e )
+        {
+            log.error( "Exception thrown during import.", e );
+
+            TrackerImportReport report = TrackerImportReport.withError( "Exception:" + e.getMessage(),
+                validationReport, opsTimer.stopTimer() );
+
+            endImportWithError( params, report, e );
+
+            return report;
+        }
+    }
+
+    /**
+     * Indicates whether the given parameters should be imported in chunks.
+     * Chunks are committed independently, which is not compatible with
+     * {@link AtomicMode#ALL}.
+     */
+    private boolean isChunkedImport( TrackerImportParams params )
+    {
+        if ( params.getChunkSize() <= 0 )
+        {
+            return false;
+        }
+
+        if ( params.getAtomicMode() == AtomicMode.ALL )
+        {
+            log.info( "Chunked import is not supported with atomic mode ALL, importing all objects at once" );
+
+            return false;
+        }
+
+        return calculatePayloadSize( params ).values().stream().mapToInt( Integer::intValue ).sum() > params
+            .getChunkSize();
+    }
+
+    /**
+     * Returns a copy of the given parameters with only the objects of the
+     * given type within the given range.
+     */
+    private TrackerImportParams getChunk( TrackerImportParams params, TrackerType type, int from, int to )
+    {
+        return params.toBuilder()
+            .trackedEntities( type == TrackerType.TRACKED_ENTITY ? params.getTrackedEntities().subList( from, to )
+                : new ArrayList<>() )
+            .enrollments( type == TrackerType.ENROLLMENT ? params.getEnrollments().subList( from, to )
+                : new ArrayList<>() )
+            .events( type == TrackerType.EVENT ? params.getEvents().subList( from, to ) : new ArrayList<>() )
+            .relationships( type == TrackerType.RELATIONSHIP ? params.getRelationships().subList( from, to )
+                : new ArrayList<>() )
+            .build();
+    }
+
+    /**
+     * Removes the objects of the given chunk bundle which reference a tracked
+     * entity, enrollment or event rejected by an earlier chunk, and adds an
+     * error for each of them to the given validation report. Within a single
+     * bundle such references are caught by validation, but a rejected parent
+     * is not part of the bundle of a later chunk.
+     */
+    private void removeChildrenOfInvalidParents( TrackerBundle bundle, TrackerValidationReport validationReport )
+    {
+        bundle.setEnrollments( bundle.getEnrollments().stream()
+            .filter( e -> isValidParent( bundle, validationReport, e, TrackerType.TRACKED_ENTITY,
+                e.getTrackedEntity() ) )
+            .collect( Collectors.toList() ) );
+        bundle.setEvents( bundle.getEvents().stream()
+            .filter( e -> isValidParent( bundle, validationReport, e, TrackerType.ENROLLMENT, e.getEnrollment() ) )
+            .collect( Collectors.toList() ) );
+        bundle.setRelationships( bundle.getRelationships().stream()
+            .filter( r -> isValidRelationshipItem( bundle, validationReport, r, r.getFrom() )
+                && isValidRelationshipItem( bundle, validationReport, r, r.getTo() ) )
+            .collect( Collectors.toList() ) );
+    }
+
+    private boolean isValidParent( TrackerBundle bundle, TrackerValidationReport validationReport, TrackerDto dto,
+        TrackerType parentType, String parentUid )
+    {
+        if ( parentUid == null || !validationReport.isInvalid( parentType, parentUid ) )
+        {
+            return true;
+        }
+
+        validationReport.addError( TrackerErrorReport.newReport( TrackerErrorCode.E5000 )
+            .uid( dto.getUid() )
+            .trackerType( dto.getTrackerType() )
+            .addArgs( dto.getTrackerType().getName(), dto.getUid(), parentType.getName(), parentUid )
+            .build( bundle ) );
+
+        return false;
+    }
+
+    private boolean isValidRelationshipItem( TrackerBundle bundle, TrackerValidationReport validationReport,
+        Relationship relationship, RelationshipItem item )
+    {
+        TrackerType itemType = item != null ? relationshipItemValueType( item ) : null;
+
+        if ( itemType == null )
+        {
+            return true;
+        }
+
+        Optional<String> itemUid = getUidFromRelationshipItem( item );
+
+        if ( !itemUid.isPresent() || !validationReport.isInvalid( itemType, itemUid.get() ) )
+        {
+            return true;
+        }
+
+        validationReport.addError( TrackerErrorReport.newReport( TrackerErrorCode.E4011 )
+            .uid( relationship.getUid() )
+            .trackerType( TrackerType.RELATIONSHIP )
+            .addArgs( relationship.getRelationship(), itemType.getName(), itemUid.get() )
+            .build( bundle ) );
+
+        return false;
+    }
+
+    /**
+     * Merges the given chunk bundle report into the given bundle report. The
+     * indexes of object reports are shifted by the offset of the chunk so that
+     * they refer to the position in the original payload.
+     */
+    private void mergeBundleReport( TrackerBundleReport bundleReport, TrackerBundleReport chunkReport, int offset )
+    {
+        if ( chunkReport == null )
+        {
+            return;
+        }
+
+        if ( chunkReport.getStatus() == TrackerStatus.ERROR )
+        {
+            bundleReport.setStatus( TrackerStatus.ERROR );
+        }
+
+        chunkReport.getTypeReportMap().forEach( ( type, chunkTypeReport ) -> {
+            TrackerTypeReport typeReport = bundleReport.getTypeReportMap()
+                .computeIfAbsent( type, TrackerTypeReport::new );
+
+            typeReport.getStats().merge( chunkTypeReport.getStats() );
+
+            for ( TrackerObjectReport objectReport : chunkTypeReport.getObjectReportMap().values() )
+            {
+                if ( objectReport.getIndex() != null )
+                {
+                    objectReport.setIndex( objectReport.getIndex() + offset );
+                }
+
+                typeReport.addObjectReport( objectReport );
+            }
+        } );
+    }
+
     private TrackerBundle preHeat( TrackerImportParams params, TrackerTimingsStats opsTimer )
     {
         TrackerBundle trackerBundle = opsTimer.exec( PREHEAT_OPS,
@@ -252,6 +488,15 @@ public class DefaultTrackerImportService
         return validationReport.hasErrors() && params.getAtomicMode() == AtomicMode.ALL;
     }
 
+    private Map<TrackerType, Integer> calculatePayloadSize( TrackerImportParams params )
+    {
+        return ImmutableMap.<TrackerType, Integer> builder()
+            .put( TrackerType.TRACKED_ENTITY, params.getTrackedEntities().size() )
+            .put( TrackerType.ENROLLMENT, params.getEnrollments().size() )
+            .put( TrackerType.EVENT, params.getEvents().size() )
+            .put( TrackerType.RELATIONSHIP, params.getRelationships().size() ).build();
+    }
+
     private Map<TrackerType, Integer> calculatePayloadSize( TrackerBundle bundle )
     {
         return ImmutableMap.<TrackerType, Integer> builder()
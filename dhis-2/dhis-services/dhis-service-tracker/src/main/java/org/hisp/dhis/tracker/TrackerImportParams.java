@@ -51,7 +51,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Data
-@Builder
+@Builder( toBuilder = true )
 @NoArgsConstructor
 @AllArgsConstructor
 public class TrackerImportParams
@@ -127,6 +127,14 @@ public class TrackerImportParams
     @JsonProperty
     private boolean skipRuleEngine;
 
+    /**
+     * Max number of objects to preheat, validate and commit at a time. Objects
+     * are imported type by type in dependency order. Only applies to
+     * {@link AtomicMode#OBJECT}, default is to import all objects at once.
+     */
+    @JsonProperty
+    private int chunkSize;
+
     /**
      * Name of file that was used for import (if available).
      */
@@ -31,8 +31,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.tracker.validation.TrackerValidationHook;
 import org.hisp.dhis.tracker.validation.hooks.AssignedUserValidationHook;
 import org.hisp.dhis.tracker.validation.hooks.EnrollmentAttributeValidationHook;
@@ -135,6 +138,20 @@ public class TrackerValidationConfig
         // because it needs to consider all and only the valid events
     }
 
+    /**
+     * Pool running parallelizable validation hooks, shared by all imports so
+     * that the number of validation threads is bounded by the configured
+     * parallelism regardless of the number of concurrent imports.
+     */
+    @Bean( destroyMethod = "shutdown" )
+    public ForkJoinPool trackerValidationPool( DhisConfigurationProvider config )
+    {
+        int parallelism = Integer.parseInt(
+            config.getProperty( ConfigurationKey.TRACKER_IMPORT_VALIDATION_PARALLELISM ) );
+
+        return new ForkJoinPool( Math.max( 1, parallelism ) );
+    }
+
     private List<TrackerValidationHook> getHookByClass( List<Class<? extends TrackerValidationHook>> hookClasses )
     {
         return hookClasses.stream().map( hookClass -> Optional.ofNullable( validationHooks.get( hookClass ) )
@@ -27,10 +27,16 @@
  */
 package org.hisp.dhis.tracker.programrule;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,6 +44,8 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramInstance;
 import org.hisp.dhis.program.ProgramStageInstance;
@@ -60,6 +68,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Enrico Colasante
@@ -82,10 +91,16 @@ public class DefaultTrackerProgramRuleService
     @NonNull
     private final TrackerConverterService<Attribute, TrackedEntityAttributeValue> attributeValueTrackerConverterService;
 
+    @NonNull
+    private final DhisConfigurationProvider config;
+
     /**
      * This method is calling rule engine for every enrollment and all the
      * linked events, for all events linked to an enrollment not present in the
-     * payload and for all the program events.
+     * payload and for all the program events. The rule engine contexts and
+     * the tracker objects are prepared on the calling thread, the rule engine
+     * is then run for independent enrollments and events on a bounded pool
+     * when the configured parallelism is greater than 1.
      *
      * @param bundle The bundle to build the context for rule engine
      * @return A list of rule effects for every enrollment and event present in
@@ -95,23 +110,84 @@ public class DefaultTrackerProgramRuleService
     @Transactional( readOnly = true )
     public List<RuleEffects> calculateRuleEffects( TrackerBundle bundle )
     {
-        Stream<RuleEffects> enrollmentStream = bundle.getEnrollments()
+        Stream<Supplier<List<RuleEffects>>> enrollmentEvaluations = bundle.getEnrollments()
             .stream()
-            .flatMap( e -> {
+            .map( e -> {
                 ProgramInstance enrollment = enrollmentTrackerConverterService.fromForRuleEngine( bundle.getPreheat(),
                     e );
 
                 return programRuleEngine
-                    .evaluateEnrollmentAndEvents( enrollment,
+                    .prepareEnrollmentAndEvents( enrollment,
                         getEventsFromEnrollment( enrollment.getUid(), bundle ),
-                        getAttributes( e, bundle ) )
-                    .stream();
+                        getAttributes( e, bundle ) );
             } );
 
-        return Stream.concat(
-            enrollmentStream,
-            calculateEventRuleEffects( bundle ).stream() )
+        List<Supplier<List<RuleEffects>>> evaluations = Stream.concat(
+            enrollmentEvaluations,
+            prepareEventRuleEffects( bundle ).stream() )
             .collect( Collectors.toList() );
+
+        return evaluate( evaluations );
+    }
+
+    /**
+     * Runs the given rule engine evaluations and returns the rule effects in
+     * the order of the evaluations.
+     */
+    private List<RuleEffects> evaluate( List<Supplier<List<RuleEffects>>> evaluations )
+    {
+        int parallelism = Math.min( evaluations.size(),
+            Integer.parseInt( config.getProperty( ConfigurationKey.TRACKER_IMPORT_RULE_ENGINE_PARALLELISM ) ) );
+
+        if ( parallelism <= 1 )
+        {
+            return evaluations.stream()
+                .flatMap( evaluation -> evaluation.get().stream() )
+                .collect( Collectors.toList() );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( parallelism,
+            new ThreadFactoryBuilder().setNameFormat( "tracker-rule-engine-%d" ).setDaemon( true ).build() );
+
+        List<Future<List<RuleEffects>>> futures = new ArrayList<>( evaluations.size() );
+
+        try
+        {
+            for ( Supplier<List<RuleEffects>> evaluation : evaluations )
+            {
+                futures.add( executor.submit( evaluation::get ) );
+            }
+
+            List<RuleEffects> ruleEffects = new ArrayList<>();
+
+            for ( Future<List<RuleEffects>> future : futures )
+            {
+                ruleEffects.addAll( future.get() );
+            }
+
+            return ruleEffects;
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            futures.forEach( future -> future.cancel( true ) );
+            throw new IllegalStateException( "Interrupted while evaluating program rules", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            futures.forEach( future -> future.cancel( true ) );
+
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException( "Failed to evaluate program rules", ex.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
     }
 
     // Get all the attributes linked to enrollment from the payload and the DB,
@@ -145,7 +221,7 @@ public class DefaultTrackerProgramRuleService
         return attributeValues;
     }
 
-    private List<RuleEffects> calculateEventRuleEffects( TrackerBundle bundle )
+    private List<Supplier<List<RuleEffects>>> prepareEventRuleEffects( TrackerBundle bundle )
     {
         List<String> enrollmentUids = bundle.getEnrollments()
             .stream()
@@ -161,15 +237,14 @@ public class DefaultTrackerProgramRuleService
         return eventsByEnrollment
             .entrySet()
             .stream()
-            .flatMap( entry -> {
+            .map( entry -> {
                 ProgramInstance enrollment = getEnrollment( bundle, entry.getKey() );
                 List<ProgramStageInstance> programStageInstances = eventTrackerConverterService
                     .fromForRuleEngine( bundle.getPreheat(), entry.getValue() );
                 if ( enrollment == null )
                 {
-                    return programRuleEngine.evaluateProgramEvents( Sets.newHashSet( programStageInstances ),
-                        getProgramFromEvent( bundle.getPreheat(), entry.getValue().get( 0 ) ) )
-                        .stream();
+                    return programRuleEngine.prepareProgramEvents( Sets.newHashSet( programStageInstances ),
+                        getProgramFromEvent( bundle.getPreheat(), entry.getValue().get( 0 ) ) );
                 }
                 else
                 {
@@ -179,9 +254,8 @@ public class DefaultTrackerProgramRuleService
                         .findAny()
                         .map( e -> getAttributes( e, bundle ) )
                         .orElse( Collections.EMPTY_LIST );
-                    return programRuleEngine.evaluateEnrollmentAndEvents( enrollment,
-                        getEventsFromEnrollment( enrollment.getUid(), bundle ), attributeValues )
-                        .stream();
+                    return programRuleEngine.prepareEnrollmentAndEvents( enrollment,
+                        getEventsFromEnrollment( enrollment.getUid(), bundle ), attributeValues );
                 }
             } )
             .collect( Collectors.toList() );
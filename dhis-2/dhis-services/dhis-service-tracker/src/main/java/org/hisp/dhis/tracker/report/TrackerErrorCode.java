@@ -158,6 +158,9 @@ public enum TrackerErrorCode
     E4013( "Relationship Type `{0}` constraint is missing {1}." ),
     E4014( "Relationship Type `{0}` constraint requires a Tracked Entity having type `{1}` but `{2}` was found." ),
     E4015( "Relationship: `{0}`, already exists." ),
+
+    /* General */
+    E5000( "{0} `{1}` cannot be persisted because {2} `{3}` referenced by it cannot be persisted." ),
     E9999( "N/A" );
 
     private final String message;
@@ -27,8 +27,10 @@
  */
 package org.hisp.dhis.tracker.report;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import lombok.Data;
@@ -36,6 +38,7 @@ import lombok.Data;
 import org.hisp.dhis.commons.timer.SystemTimer;
 import org.hisp.dhis.commons.timer.Timer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -68,6 +71,13 @@ public class TrackerTimingsStats
     @JsonProperty
     private Map<String, String> timers = new LinkedHashMap<>();
 
+    /**
+     * Elapsed nanoseconds per operation, summed over all executions of the
+     * operation, e.g. for imports processed in chunks.
+     */
+    @JsonIgnore
+    private Map<String, Long> elapsed = new HashMap<>();
+
     private final static String DEFAULT_VALUE = "0.0 sec.";
 
     public String getPrepareRequest()
@@ -134,7 +144,7 @@ public class TrackerTimingsStats
 
         timer.stop();
 
-        this.set( timedOperation, timer.toString() );
+        this.add( timedOperation, timer );
 
         return result;
     }
@@ -153,7 +163,15 @@ public class TrackerTimingsStats
 
         timer.stop();
 
-        this.set( timedOperation, timer.toString() );
+        this.add( timedOperation, timer );
+    }
+
+    private void add( String timedOperation, Timer timer )
+    {
+        long total = this.elapsed.merge( timedOperation, timer.duration(), Long::sum );
+
+        this.set( timedOperation,
+            String.format( "%f sec.", total / (double) TimeUnit.SECONDS.toNanos( 1 ) ) );
     }
 
     public TrackerTimingsStats stopTimer()
@@ -45,6 +45,9 @@ import org.hisp.dhis.tracker.validation.ValidationFailFastException;
 /**
  * A class that collects {@link TrackerErrorReport} during the validation
  * process.
+ * <p>
+ * Errors and warnings can be reported concurrently, as parallelizable
+ * validation hooks validate partitions of the bundle on several threads.
  *
  * @author Morten Svanæs <msvanaes@dhis2.org>
  */
@@ -90,22 +93,22 @@ public class ValidationErrorReporter
         this.invalidDTOs = new HashMap<>();
     }
 
-    public boolean hasErrors()
+    public synchronized boolean hasErrors()
     {
         return !this.reportList.isEmpty();
     }
 
-    public boolean hasErrorReport( Predicate<TrackerErrorReport> test )
+    public synchronized boolean hasErrorReport( Predicate<TrackerErrorReport> test )
     {
         return reportList.stream().anyMatch( test );
     }
 
-    public boolean hasWarningReport( Predicate<TrackerWarningReport> test )
+    public synchronized boolean hasWarningReport( Predicate<TrackerWarningReport> test )
     {
         return warningsReportList.stream().anyMatch( test );
     }
 
-    public boolean hasWarnings()
+    public synchronized boolean hasWarnings()
     {
         return !this.warningsReportList.isEmpty();
     }
@@ -121,8 +124,14 @@ public class ValidationErrorReporter
         addError( error );
     }
 
-    public void addError( TrackerErrorReport error )
+    public synchronized void addError( TrackerErrorReport error )
     {
+        if ( isFailFast() && hasErrors() )
+        {
+            // another thread failed fast already
+            throw new ValidationFailFastException( getReportList() );
+        }
+
         getReportList().add( error );
         this.invalidDTOs.computeIfAbsent( error.getTrackerType(), k -> new ArrayList<>() ).add( error.getUid() );
 
@@ -132,7 +141,7 @@ public class ValidationErrorReporter
         }
     }
 
-    public void addWarning( TrackerWarningReport warning )
+    public synchronized void addWarning( TrackerWarningReport warning )
     {
         getWarningsReportList().add( warning );
     }
@@ -141,7 +150,7 @@ public class ValidationErrorReporter
      * Checks if the provided uid and Tracker Type is part of the invalid
      * entities
      */
-    public boolean isInvalid( TrackerType trackerType, String uid )
+    public synchronized boolean isInvalid( TrackerType trackerType, String uid )
     {
         return this.invalidDTOs.getOrDefault( trackerType, new ArrayList<>() ).contains( uid );
     }
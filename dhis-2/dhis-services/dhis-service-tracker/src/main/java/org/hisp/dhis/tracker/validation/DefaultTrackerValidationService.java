@@ -27,38 +27,89 @@
  */
 package org.hisp.dhis.tracker.validation;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.commons.timer.Timer;
 import org.hisp.dhis.tracker.ValidationMode;
 import org.hisp.dhis.tracker.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.domain.TrackerDto;
 import org.hisp.dhis.tracker.report.Timing;
 import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.hisp.dhis.tracker.report.ValidationErrorReporter;
+import org.hisp.dhis.tracker.validation.hooks.AbstractTrackerDtoValidationHook;
 import org.hisp.dhis.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 /**
+ * Validates tracker bundles by running the validation hooks in order.
+ * Consecutive hooks which are {@link TrackerValidationHook#isParallelizable()
+ * parallelizable} are run concurrently on partitions of the bundle when the
+ * parallelism of the shared validation pool is greater than 1.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DefaultTrackerValidationService
     implements TrackerValidationService
 {
+    /**
+     * Minimum number of entities of a partition validated by one thread.
+     */
+    private static final int MIN_PARTITION_SIZE = 100;
+
+    /**
+     * Number of partitions per thread, so that threads finishing early can
+     * pick up remaining work.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
 
-    @Qualifier( "validationHooks" )
     private final List<TrackerValidationHook> validationHooks;
 
-    @Qualifier( "ruleEngineValidationHooks" )
     private final List<TrackerValidationHook> ruleEngineValidationHooks;
 
+    private final ForkJoinPool pool;
+
+    private final int parallelism;
+
+    /**
+     * @param validationHooks the validation hooks.
+     * @param ruleEngineValidationHooks the rule engine validation hooks.
+     * @param pool the shared pool running parallelizable hooks, null or a
+     *        pool with parallelism 1 validates sequentially.
+     */
+    @Autowired
+    public DefaultTrackerValidationService(
+        @Qualifier( "validationHooks" ) List<TrackerValidationHook> validationHooks,
+        @Qualifier( "ruleEngineValidationHooks" ) List<TrackerValidationHook> ruleEngineValidationHooks,
+        @Qualifier( "trackerValidationPool" ) ForkJoinPool pool )
+    {
+        this.validationHooks = validationHooks;
+        this.ruleEngineValidationHooks = ruleEngineValidationHooks;
+        this.pool = pool;
+        this.parallelism = pool != null ? pool.getParallelism() : 1;
+    }
+
+    public DefaultTrackerValidationService( List<TrackerValidationHook> validationHooks,
+        List<TrackerValidationHook> ruleEngineValidationHooks )
+    {
+        this( validationHooks, ruleEngineValidationHooks, null );
+    }
+
     @Override
     public TrackerValidationReport validate( TrackerBundle bundle )
     {
@@ -90,8 +141,18 @@ public class DefaultTrackerValidationService
 
         try
         {
+            List<AbstractTrackerDtoValidationHook> parallelHooks = new ArrayList<>();
+
             for ( TrackerValidationHook hook : hooks )
             {
+                if ( parallelism > 1 && isParallelizable( hook ) )
+                {
+                    parallelHooks.add( (AbstractTrackerDtoValidationHook) hook );
+                    continue;
+                }
+
+                validateInParallel( reporter, bundle, parallelHooks, validationReport );
+
                 Timer hookTimer = Timer.startTimer();
 
                 hook.validate( reporter, bundle );
@@ -100,6 +161,8 @@ public class DefaultTrackerValidationService
                     hook.getClass().getName(),
                     hookTimer.toString() ) );
             }
+
+            validateInParallel( reporter, bundle, parallelHooks, validationReport );
         }
         catch ( ValidationFailFastException e )
         {
@@ -114,6 +177,92 @@ public class DefaultTrackerValidationService
         return validationReport;
     }
 
+    private static boolean isParallelizable( TrackerValidationHook hook )
+    {
+        return hook.isParallelizable() && hook instanceof AbstractTrackerDtoValidationHook
+            && !((AbstractTrackerDtoValidationHook) hook).removeOnError();
+    }
+
+    /**
+     * Validates the bundle with the given consecutive parallelizable hooks.
+     * The entities of the bundle are partitioned and each partition is
+     * validated by all hooks on the shared validation pool. The timing of a
+     * hook is the sum of the time spent by the hook on all partitions. The
+     * given list of hooks is cleared afterwards.
+     */
+    private void validateInParallel( ValidationErrorReporter reporter, TrackerBundle bundle,
+        List<AbstractTrackerDtoValidationHook> hooks, TrackerValidationReport validationReport )
+    {
+        if ( hooks.isEmpty() )
+        {
+            return;
+        }
+
+        List<List<? extends TrackerDto>> partitions = getPartitions( bundle );
+
+        Map<AbstractTrackerDtoValidationHook, LongAdder> durations = new LinkedHashMap<>();
+        hooks.forEach( hook -> durations.put( hook, new LongAdder() ) );
+
+        try
+        {
+            // running a parallel stream as task in a FJP makes the stream use
+            // the pool
+            pool.submit( () -> partitions.parallelStream().forEach( partition -> {
+                for ( AbstractTrackerDtoValidationHook hook : hooks )
+                {
+                    long start = System.nanoTime();
+
+                    try
+                    {
+                        hook.validate( reporter, bundle, partition );
+                    }
+                    finally
+                    {
+                        durations.get( hook ).add( System.nanoTime() - start );
+                    }
+                }
+            } ) ).get();
+
+            durations.forEach( ( hook, duration ) -> validationReport.addTiming( new Timing(
+                hook.getClass().getName(),
+                String.format( "%f sec.", duration.sum() / (double) TimeUnit.SECONDS.toNanos( 1 ) ) ) ) );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while validating tracker bundle", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException( "Failed to validate tracker bundle", ex.getCause() );
+        }
+        finally
+        {
+            hooks.clear();
+        }
+    }
+
+    private List<List<? extends TrackerDto>> getPartitions( TrackerBundle bundle )
+    {
+        int size = bundle.getTrackedEntities().size() + bundle.getEnrollments().size() +
+            bundle.getEvents().size() + bundle.getRelationships().size();
+
+        int partitionSize = Math.max( MIN_PARTITION_SIZE,
+            (int) Math.ceil( size / (double) (parallelism * PARTITIONS_PER_THREAD) ) );
+
+        List<List<? extends TrackerDto>> partitions = new ArrayList<>();
+        partitions.addAll( Lists.partition( bundle.getTrackedEntities(), partitionSize ) );
+        partitions.addAll( Lists.partition( bundle.getEnrollments(), partitionSize ) );
+        partitions.addAll( Lists.partition( bundle.getEvents(), partitionSize ) );
+        partitions.addAll( Lists.partition( bundle.getRelationships(), partitionSize ) );
+        return partitions;
+    }
+
     private void removeInvalidObjects( TrackerBundle bundle, ValidationErrorReporter reporter )
     {
         bundle.setEvents( bundle.getEvents().stream().filter(
@@ -36,4 +36,18 @@ import org.hisp.dhis.tracker.report.ValidationErrorReporter;
 public interface TrackerValidationHook
 {
     void validate( ValidationErrorReporter report, TrackerBundle bundle );
+
+    /**
+     * Signals that the hook only reads the preheat and the entity under
+     * validation, so that the entities of a bundle can be partitioned and
+     * validated concurrently. Parallelizable hooks must not remove entities
+     * from the bundle.
+     *
+     * @return true if the hook can validate partitions of the bundle
+     *         concurrently.
+     */
+    default boolean isParallelizable()
+    {
+        return false;
+    }
 }
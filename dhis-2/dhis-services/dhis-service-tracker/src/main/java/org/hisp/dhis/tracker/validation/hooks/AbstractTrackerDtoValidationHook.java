@@ -154,6 +154,26 @@ public abstract class AbstractTrackerDtoValidationHook
         validateTrackerDtos( reporter, bundle, bundle.getRelationships() );
     }
 
+    /**
+     * Validates the given partition of the bundle entities. Used when
+     * validating parallelizable hooks concurrently, entities are never removed
+     * from the bundle.
+     *
+     * @param reporter validation error reporter
+     * @param bundle tracker bundle
+     * @param dtos the entities to validate
+     */
+    public void validate( ValidationErrorReporter reporter, TrackerBundle bundle, List<? extends TrackerDto> dtos )
+    {
+        for ( TrackerDto dto : dtos )
+        {
+            if ( needsToRun( bundle.getStrategy( dto ) ) )
+            {
+                validationMap.get( dto.getTrackerType() ).accept( reporter, dto );
+            }
+        }
+    }
+
     private void validateTrackerDtos( ValidationErrorReporter reporter, TrackerBundle bundle,
         List<? extends TrackerDto> dtos )
     {
@@ -51,6 +51,12 @@ import org.springframework.stereotype.Component;
 public class EnrollmentDateValidationHook
     extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEnrollment( ValidationErrorReporter reporter, Enrollment enrollment )
     {
@@ -41,6 +41,12 @@ import org.springframework.stereotype.Component;
 public class EnrollmentGeoValidationHook
     extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEnrollment( ValidationErrorReporter reporter, Enrollment enrollment )
     {
@@ -37,6 +37,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class EnrollmentNoteValidationHook extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEnrollment( ValidationErrorReporter reporter, Enrollment enrollment )
     {
@@ -60,6 +60,12 @@ import org.springframework.stereotype.Component;
 public class EventDataValuesValidationHook
     extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEvent( ValidationErrorReporter reporter, Event event )
     {
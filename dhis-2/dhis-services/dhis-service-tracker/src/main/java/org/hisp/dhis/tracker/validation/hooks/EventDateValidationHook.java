@@ -59,6 +59,12 @@ import org.springframework.stereotype.Component;
 public class EventDateValidationHook
     extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEvent( ValidationErrorReporter reporter, Event event )
     {
@@ -41,6 +41,12 @@ import org.springframework.stereotype.Component;
 public class EventGeoValidationHook
     extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEvent( ValidationErrorReporter reporter, Event event )
     {
@@ -37,6 +37,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class EventNoteValidationHook extends AbstractTrackerDtoValidationHook
 {
+    @Override
+    public boolean isParallelizable()
+    {
+        return true;
+    }
+
     @Override
     public void validateEvent( ValidationErrorReporter reporter, Event event )
     {
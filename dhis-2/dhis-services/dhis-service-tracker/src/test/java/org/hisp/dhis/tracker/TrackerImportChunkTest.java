@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.program.ProgramInstanceService;
+import org.hisp.dhis.program.ProgramStageInstanceService;
+import org.hisp.dhis.trackedentity.TrackedEntityInstanceService;
+import org.hisp.dhis.tracker.report.TrackerErrorCode;
+import org.hisp.dhis.tracker.report.TrackerErrorReport;
+import org.hisp.dhis.tracker.report.TrackerImportReport;
+import org.hisp.dhis.tracker.report.TrackerStatus;
+import org.hisp.dhis.user.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class TrackerImportChunkTest extends TrackerTest
+{
+    @Autowired
+    private TrackerImportService trackerImportService;
+
+    @Autowired
+    private TrackedEntityInstanceService trackedEntityInstanceService;
+
+    @Autowired
+    private ProgramInstanceService programInstanceService;
+
+    @Autowired
+    private ProgramStageInstanceService programStageInstanceService;
+
+    private User userA;
+
+    @Override
+    protected void initTest()
+        throws IOException
+    {
+        setUpMetadata( "tracker/simple_metadata.json" );
+        userA = userService.getUser( "M5zQapPyTZI" );
+        injectSecurityContext( userA );
+    }
+
+    @Test
+    void testImportInChunks()
+        throws IOException
+    {
+        TrackerImportParams params = fromJson( "tracker/event_and_enrollment.json", userA.getUid() );
+        params.setAtomicMode( AtomicMode.OBJECT );
+        params.setChunkSize( 1 );
+
+        TrackerImportReport report = trackerImportService.importTracker( params );
+
+        assertNoImportErrors( report );
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+        assertEquals( 6, report.getStats().getCreated() );
+        assertNotNull( trackedEntityInstanceService.getTrackedEntityInstance( "IOR1AXXl24G" ) );
+        assertNotNull( programInstanceService.getProgramInstance( "TvctPPhpD8z" ) );
+        assertNotNull( programStageInstanceService.getProgramStageInstance( "D9PbzJY8bJM" ) );
+    }
+
+    @Test
+    void testImportInChunksWithInvalidParentInEarlierChunk()
+        throws IOException
+    {
+        TrackerImportParams params = fromJson( "tracker/event_and_enrollment.json", userA.getUid() );
+        params.setAtomicMode( AtomicMode.OBJECT );
+        params.setChunkSize( 1 );
+        params.getTrackedEntities().get( 1 ).setOrgUnit( "INVALID_OU" );
+
+        TrackerImportReport report = trackerImportService.importTracker( params );
+
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+
+        Map<String, List<TrackerErrorCode>> errors = report.getValidationReport().getErrors().stream()
+            .collect( Collectors.groupingBy( TrackerErrorReport::getUid,
+                Collectors.mapping( TrackerErrorReport::getErrorCode, Collectors.toList() ) ) );
+
+        assertEquals( 3, errors.size() );
+        assertTrue( errors.containsKey( "IOR1AXXl24G" ) );
+        assertEquals( List.of( TrackerErrorCode.E5000 ), errors.get( "TvctPPhpD8z" ) );
+        assertEquals( List.of( TrackerErrorCode.E5000 ), errors.get( "D9PbzJY8bJM" ) );
+
+        assertEquals( 3, report.getStats().getCreated() );
+        assertNotNull( trackedEntityInstanceService.getTrackedEntityInstance( "IOR1AXXl24H" ) );
+        assertNotNull( programInstanceService.getProgramInstance( "TvctPPhpD8u" ) );
+        assertNotNull( programStageInstanceService.getProgramStageInstance( "D9PbzJY8bJO" ) );
+        assertNull( trackedEntityInstanceService.getTrackedEntityInstance( "IOR1AXXl24G" ) );
+        assertNull( programInstanceService.getProgramInstance( "TvctPPhpD8z" ) );
+        assertNull( programStageInstanceService.getProgramStageInstance( "D9PbzJY8bJM" ) );
+    }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker.bundle;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -41,6 +42,7 @@ import java.util.stream.Collectors;
 
 import org.hisp.dhis.random.BeanRandomizer;
 import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.tracker.AtomicMode;
 import org.hisp.dhis.tracker.DefaultTrackerImportService;
 import org.hisp.dhis.tracker.ParamsConverter;
 import org.hisp.dhis.tracker.TrackerImportParams;
@@ -48,6 +50,8 @@ import org.hisp.dhis.tracker.TrackerUserService;
 import org.hisp.dhis.tracker.domain.Event;
 import org.hisp.dhis.tracker.preprocess.TrackerPreprocessService;
 import org.hisp.dhis.tracker.report.TrackerBundleReport;
+import org.hisp.dhis.tracker.report.TrackerImportReport;
+import org.hisp.dhis.tracker.report.TrackerStatus;
 import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.hisp.dhis.tracker.validation.TrackerValidationService;
 import org.hisp.dhis.user.User;
@@ -147,6 +151,51 @@ class TrackerImporterServiceTest
         verify( trackerBundleService, times( 1 ) ).handleTrackerSideEffects( anyList() );
     }
 
+    @Test
+    void testImportInChunks()
+    {
+        TrackerImportParams parameters = TrackerImportParams.builder()
+            .events( params.getEvents() )
+            .enrollments( new ArrayList<>() )
+            .relationships( new ArrayList<>() )
+            .trackedEntities( new ArrayList<>() )
+            .atomicMode( AtomicMode.OBJECT )
+            .chunkSize( 2 )
+            .skipSideEffects( true )
+            .userId( "123" )
+            .build();
+
+        when( trackerBundleService.create( any( TrackerImportParams.class ) ) )
+            .thenReturn( ParamsConverter.convert( parameters ) );
+
+        TrackerImportReport report = subject.importTracker( parameters );
+
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+        verify( trackerBundleService, times( 2 ) ).create( any( TrackerImportParams.class ) );
+        verify( trackerBundleService, times( 2 ) ).commit( any( TrackerBundle.class ) );
+    }
+
+    @Test
+    void testImportInChunksNotAppliedWithAtomicModeAll()
+    {
+        TrackerImportParams parameters = TrackerImportParams.builder()
+            .events( params.getEvents() )
+            .enrollments( new ArrayList<>() )
+            .relationships( new ArrayList<>() )
+            .trackedEntities( new ArrayList<>() )
+            .chunkSize( 2 )
+            .skipSideEffects( true )
+            .userId( "123" )
+            .build();
+
+        when( trackerBundleService.create( any( TrackerImportParams.class ) ) )
+            .thenReturn( ParamsConverter.convert( parameters ) );
+
+        subject.importTracker( parameters );
+
+        verify( trackerBundleService, times( 1 ) ).create( any( TrackerImportParams.class ) );
+    }
+
     private User getUser()
     {
         User user = new User();
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.programrule;
+
+import static org.hisp.dhis.rules.models.TrackerObjectType.ENROLLMENT;
+import static org.hisp.dhis.rules.models.TrackerObjectType.EVENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.program.ProgramInstance;
+import org.hisp.dhis.program.ProgramStageInstance;
+import org.hisp.dhis.programrule.engine.ProgramRuleEngine;
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.TrackerObjectType;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.hisp.dhis.tracker.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.converter.RuleEngineConverterService;
+import org.hisp.dhis.tracker.converter.TrackerConverterService;
+import org.hisp.dhis.tracker.domain.Attribute;
+import org.hisp.dhis.tracker.domain.Enrollment;
+import org.hisp.dhis.tracker.domain.Event;
+import org.hisp.dhis.tracker.preheat.TrackerPreheat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests that the rule engine evaluations of
+ * {@link DefaultTrackerProgramRuleService} return the same rule effects in the
+ * same order whether they run sequentially or in parallel.
+ */
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class DefaultTrackerProgramRuleServiceTest
+{
+    private static final int ENROLLMENTS = 4;
+
+    private static final int PROGRAM_EVENT_ENROLLMENTS = 3;
+
+    @Mock
+    private ProgramRuleEngine programRuleEngine;
+
+    @Mock
+    private RuleEngineConverterService<Enrollment, ProgramInstance> enrollmentTrackerConverterService;
+
+    @Mock
+    private RuleEngineConverterService<Event, ProgramStageInstance> eventTrackerConverterService;
+
+    @Mock
+    private TrackerConverterService<Attribute, TrackedEntityAttributeValue> attributeValueTrackerConverterService;
+
+    @Mock
+    private DhisConfigurationProvider config;
+
+    @Mock
+    private TrackerPreheat preheat;
+
+    private final AtomicInteger prepared = new AtomicInteger();
+
+    private final Set<String> threads = new CopyOnWriteArraySet<>();
+
+    private DefaultTrackerProgramRuleService service;
+
+    @BeforeEach
+    void setUp()
+    {
+        when( enrollmentTrackerConverterService.fromForRuleEngine( any(), any( Enrollment.class ) ) )
+            .thenAnswer( invocation -> {
+                ProgramInstance programInstance = new ProgramInstance();
+                programInstance.setUid( invocation.getArgument( 1, Enrollment.class ).getEnrollment() );
+                return programInstance;
+            } );
+        when( attributeValueTrackerConverterService.from( any(), any( List.class ) ) )
+            .thenAnswer( invocation -> new ArrayList<>() );
+        when( eventTrackerConverterService.fromForRuleEngine( any(), any( List.class ) ) )
+            .thenAnswer( invocation -> new ArrayList<>() );
+        when( programRuleEngine.prepareEnrollmentAndEvents( any(), any(), any() ) )
+            .thenAnswer( invocation -> prepare( ENROLLMENT ) );
+        when( programRuleEngine.prepareProgramEvents( any(), any() ) )
+            .thenAnswer( invocation -> prepare( EVENT ) );
+
+        service = new DefaultTrackerProgramRuleService( programRuleEngine, enrollmentTrackerConverterService,
+            eventTrackerConverterService, attributeValueTrackerConverterService, config );
+    }
+
+    @Test
+    void testCalculateRuleEffectsParallelMatchesSequential()
+    {
+        List<String> sequential = calculateRuleEffects( "1" );
+
+        assertEquals( ENROLLMENTS + PROGRAM_EVENT_ENROLLMENTS, sequential.size() );
+        assertEquals( Set.of( Thread.currentThread().getName() ), threads );
+
+        List<String> parallel = calculateRuleEffects( "4" );
+
+        assertEquals( sequential, parallel );
+        assertTrue( threads.stream().allMatch( thread -> thread.startsWith( "tracker-rule-engine-" ) ),
+            threads::toString );
+        assertTrue( threads.size() > 1, threads::toString );
+    }
+
+    private List<String> calculateRuleEffects( String parallelism )
+    {
+        when( config.getProperty( ConfigurationKey.TRACKER_IMPORT_RULE_ENGINE_PARALLELISM ) )
+            .thenReturn( parallelism );
+        prepared.set( 0 );
+        threads.clear();
+
+        return service.calculateRuleEffects( createBundle() ).stream()
+            .map( effects -> effects.getTrackerObjectType() + " " + effects.getTrackerObjectUid() )
+            .collect( Collectors.toList() );
+    }
+
+    /**
+     * Returns an evaluation which takes longer the earlier it was prepared so
+     * that parallel evaluations complete in reverse order.
+     */
+    private Supplier<List<RuleEffects>> prepare( TrackerObjectType type )
+    {
+        int index = prepared.getAndIncrement();
+
+        return () -> {
+            threads.add( Thread.currentThread().getName() );
+
+            try
+            {
+                TimeUnit.MILLISECONDS.sleep( (ENROLLMENTS + PROGRAM_EVENT_ENROLLMENTS - index) * 20L );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            return Collections.singletonList( new RuleEffects( type, "Object" + index, Collections.emptyList() ) );
+        };
+    }
+
+    private TrackerBundle createBundle()
+    {
+        List<Enrollment> enrollments = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+
+        for ( int i = 0; i < ENROLLMENTS; i++ )
+        {
+            enrollments.add( Enrollment.builder().enrollment( "Enrollment" + i ).program( "Program" ).build() );
+            events.add( Event.builder().event( "Event" + i ).enrollment( "Enrollment" + i ).build() );
+        }
+
+        for ( int i = 0; i < PROGRAM_EVENT_ENROLLMENTS; i++ )
+        {
+            events.add( Event.builder().event( "ProgramEvent" + i ).enrollment( "ProgramEnrollment" + i )
+                .program( "Program" ).build() );
+        }
+
+        TrackerBundle bundle = TrackerBundle.builder().enrollments( enrollments ).events( events ).build();
+        bundle.setPreheat( preheat );
+        return bundle;
+    }
+}
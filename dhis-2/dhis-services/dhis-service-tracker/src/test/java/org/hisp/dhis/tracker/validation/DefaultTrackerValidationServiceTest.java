@@ -44,6 +44,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 
 import lombok.Builder;
@@ -131,6 +132,8 @@ class DefaultTrackerValidationServiceTest
 
         private Boolean needsToRun;
 
+        private boolean parallelizable;
+
         private BiConsumer<ValidationErrorReporter, TrackedEntity> validateTrackedEntity;
 
         private BiConsumer<ValidationErrorReporter, Enrollment> validateEnrollment;
@@ -173,6 +176,12 @@ class DefaultTrackerValidationServiceTest
             return Objects.requireNonNullElseGet( this.removeOnError, super::removeOnError );
         }
 
+        @Override
+        public boolean isParallelizable()
+        {
+            return parallelizable;
+        }
+
         @Override
         public boolean needsToRun( TrackerImportStrategy strategy )
         {
@@ -446,6 +455,73 @@ class DefaultTrackerValidationServiceTest
         assertTrue( bundle.getEvents().isEmpty() );
     }
 
+    @Test
+    void parallelValidationAddsAllErrorsToReport()
+    {
+        List<Event> events = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            events.add( event() );
+        }
+        List<Event> invalidEvents = List.of( events.get( 0 ), events.get( 450 ), events.get( 999 ) );
+
+        TrackerBundle bundle = newBundle()
+            .events( events )
+            .build();
+
+        ValidationHook hook1 = ValidationHook.builder()
+            .parallelizable( true )
+            .validateEvent( ( reporter, event ) -> reporter.addErrorIf( () -> invalidEvents.contains( event ), event,
+                TrackerErrorCode.E1032 ) )
+            .build();
+        ValidationHook hook2 = ValidationHook.builder()
+            .parallelizable( true )
+            .validateEvent( ( reporter, event ) -> reporter.addWarning( event, TrackerErrorCode.E1120 ) )
+            .build();
+        service = new DefaultTrackerValidationService( List.of( hook1, hook2 ), Collections.emptyList(),
+            new ForkJoinPool( 4 ) );
+
+        TrackerValidationReport report = service.validate( bundle );
+
+        assertEquals( 3, report.getErrors().size() );
+        assertEquals( 1000, report.getWarnings().size() );
+        invalidEvents.forEach( event -> assertHasError( report, TrackerErrorCode.E1032, event ) );
+        assertEquals( 2, report.getTimings().size() );
+
+        assertEquals( 997, bundle.getEvents().size() );
+        invalidEvents.forEach( event -> assertFalse( bundle.getEvents().contains( event ) ) );
+    }
+
+    @Test
+    void parallelValidationKeepsFailFastMode()
+    {
+        List<Event> events = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            events.add( event() );
+        }
+
+        TrackerBundle bundle = newBundle()
+            .validationMode( ValidationMode.FAIL_FAST )
+            .events( events )
+            .build();
+
+        ValidationHook hook1 = ValidationHook.builder()
+            .parallelizable( true )
+            .validateEvent( ( reporter, event ) -> reporter.addError( event, TrackerErrorCode.E1032 ) )
+            .build();
+        TrackerValidationHook hook2 = mock( TrackerValidationHook.class );
+        service = new DefaultTrackerValidationService( List.of( hook1, hook2 ), Collections.emptyList(),
+            new ForkJoinPool( 4 ) );
+
+        TrackerValidationReport report = service.validate( bundle );
+
+        assertEquals( 1, report.getErrors().size() );
+        assertEquals( 999, bundle.getEvents().size() );
+
+        verifyNoInteractions( hook2 );
+    }
+
     @NotNull
     private TrackedEntity trackedEntity()
     {
@@ -33,7 +33,10 @@ import static org.hisp.dhis.commons.collection.CollectionUtils.isEmpty;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -45,14 +48,20 @@ import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.ErrorMessage;
+import org.hisp.dhis.jdbc.batchhandler.ValidationResultBatchHandler;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.validation.comparator.ValidationResultQuery;
+import org.hisp.quick.BatchHandler;
+import org.hisp.quick.BatchHandlerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Stian Sandvold
@@ -70,18 +79,27 @@ public class DefaultValidationResultService
 
     private final ValidationRuleService validationRuleService;
 
+    private final BatchHandlerFactory batchHandlerFactory;
+
+    private final PlatformTransactionManager transactionManager;
+
     public DefaultValidationResultService( ValidationResultStore validationResultStore, PeriodService periodService,
-        OrganisationUnitService organisationUnitService, ValidationRuleService validationRuleService )
+        OrganisationUnitService organisationUnitService, ValidationRuleService validationRuleService,
+        BatchHandlerFactory batchHandlerFactory, PlatformTransactionManager transactionManager )
     {
         checkNotNull( validationResultStore );
         checkNotNull( periodService );
         checkNotNull( organisationUnitService );
         checkNotNull( validationRuleService );
+        checkNotNull( batchHandlerFactory );
+        checkNotNull( transactionManager );
 
         this.validationResultStore = validationResultStore;
         this.periodService = periodService;
         this.organisationUnitService = organisationUnitService;
         this.validationRuleService = validationRuleService;
+        this.batchHandlerFactory = batchHandlerFactory;
+        this.transactionManager = transactionManager;
     }
 
     @Transactional
@@ -94,6 +112,34 @@ public class DefaultValidationResultService
         } );
     }
 
+    @Override
+    public void insertValidationResults( Collection<ValidationResult> validationResults )
+    {
+        if ( validationResults.isEmpty() )
+        {
+            return;
+        }
+
+        Map<Period, Period> periods = reloadPeriods( validationResults );
+
+        Date created = new Date();
+
+        BatchHandler<ValidationResult> batchHandler = batchHandlerFactory
+            .createBatchHandler( ValidationResultBatchHandler.class ).init();
+
+        for ( ValidationResult validationResult : validationResults )
+        {
+            validationResult.setPeriod( periods.get( validationResult.getPeriod() ) );
+            validationResult.setCreated( created );
+
+            batchHandler.addObject( validationResult );
+        }
+
+        batchHandler.flush();
+
+        log.info( "Inserted {} validation results", validationResults.size() );
+    }
+
     @Transactional( readOnly = true )
     @Override
     public List<ValidationResult> getAllValidationResults()
@@ -242,4 +288,26 @@ public class DefaultValidationResultService
             error.getErrorCode(), error.getMessage() ) );
         throw new IllegalQueryException( error );
     }
+
+    /**
+     * Reloads the distinct periods of the given validation results. The
+     * periods are committed in a separate transaction, as the batch handler
+     * inserts the results through its own connection.
+     */
+    private Map<Period, Period> reloadPeriods( Collection<ValidationResult> validationResults )
+    {
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+        transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+
+        return transactionTemplate.execute( status -> {
+            Map<Period, Period> periods = new HashMap<>();
+
+            for ( ValidationResult validationResult : validationResults )
+            {
+                periods.computeIfAbsent( validationResult.getPeriod(), periodService::reloadPeriod );
+            }
+
+            return periods;
+        } );
+    }
 }
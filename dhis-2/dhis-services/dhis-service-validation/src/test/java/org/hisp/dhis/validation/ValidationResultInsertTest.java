@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.validation;
+
+import static org.hisp.dhis.expression.Operator.equal_to;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.category.CategoryService;
+import org.hisp.dhis.expression.Expression;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.period.PeriodType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests the JDBC batch insert of validation results in
+ * {@link ValidationResultService#insertValidationResults}.
+ */
+class ValidationResultInsertTest extends IntegrationTestBase
+{
+    @Autowired
+    private ValidationResultService validationResultService;
+
+    @Autowired
+    private ValidationRuleStore validationRuleStore;
+
+    @Autowired
+    private PeriodService periodService;
+
+    @Autowired
+    private OrganisationUnitService organisationUnitService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private ValidationRule validationRuleA;
+
+    private Period periodA;
+
+    private OrganisationUnit sourceA;
+
+    private OrganisationUnit sourceB;
+
+    private CategoryOptionCombo defaultCombo;
+
+    @Override
+    public void setUpTest()
+    {
+        PeriodType periodType = PeriodType.getPeriodTypeByName( "Monthly" );
+        periodA = createPeriod( new MonthlyPeriodType(), getDate( 2017, 1, 1 ), getDate( 2017, 1, 31 ) );
+        periodService.addPeriod( periodA );
+        sourceA = createOrganisationUnit( 'A' );
+        sourceB = createOrganisationUnit( 'B' );
+        organisationUnitService.addOrganisationUnit( sourceA );
+        organisationUnitService.addOrganisationUnit( sourceB );
+        Expression expressionA = new Expression( "expressionA", "descriptionA" );
+        Expression expressionB = new Expression( "expressionB", "descriptionB" );
+        validationRuleA = createValidationRule( 'A', equal_to, expressionA, expressionB, periodType );
+        validationRuleStore.save( validationRuleA );
+        defaultCombo = categoryService.getDefaultCategoryOptionCombo();
+    }
+
+    @Test
+    void testInsertValidationResults()
+    {
+        // Not yet persisted, must be reloaded by the insert
+        Period periodB = createPeriod( new MonthlyPeriodType(), getDate( 2017, 2, 1 ), getDate( 2017, 2, 28 ) );
+        ValidationResult resultA = new ValidationResult( validationRuleA, periodA, sourceA, defaultCombo, 1.0, 2.0,
+            3 );
+        ValidationResult resultB = new ValidationResult( validationRuleA, periodB, sourceB, defaultCombo, 4.0, 5.0,
+            6 );
+        resultB.setNotificationSent( true );
+        validationResultService.insertValidationResults( Lists.newArrayList( resultA, resultB ) );
+        List<ValidationResult> results = validationResultService.getAllValidationResults();
+        results.sort( Comparator.comparing( ValidationResult::getDayInPeriod ) );
+        assertEquals( 2, results.size() );
+        ValidationResult persistedA = results.get( 0 );
+        ValidationResult persistedB = results.get( 1 );
+        assertTrue( persistedA.getId() > 0 );
+        assertTrue( persistedB.getId() > 0 );
+        assertNotEquals( persistedA.getId(), persistedB.getId() );
+        assertNotNull( persistedA.getCreated() );
+        assertEquals( validationRuleA.getId(), persistedA.getValidationRule().getId() );
+        assertEquals( periodA.getId(), persistedA.getPeriod().getId() );
+        assertEquals( sourceA.getId(), persistedA.getOrganisationUnit().getId() );
+        assertEquals( defaultCombo.getId(), persistedA.getAttributeOptionCombo().getId() );
+        assertEquals( 1.0, persistedA.getLeftsideValue() );
+        assertEquals( 2.0, persistedA.getRightsideValue() );
+        assertEquals( 3, persistedA.getDayInPeriod() );
+        assertFalse( persistedA.getNotificationSent() );
+        assertTrue( persistedB.getPeriod().getId() > 0 );
+        assertEquals( periodService.getPeriod( periodB.getIsoDate() ).getId(), persistedB.getPeriod().getId() );
+        assertEquals( sourceB.getId(), persistedB.getOrganisationUnit().getId() );
+        assertEquals( 4.0, persistedB.getLeftsideValue() );
+        assertEquals( 5.0, persistedB.getRightsideValue() );
+        assertEquals( 6, persistedB.getDayInPeriod() );
+        assertTrue( persistedB.getNotificationSent() );
+    }
+
+    @Test
+    void testInsertDuplicateValidationResults()
+    {
+        ValidationResult resultA = new ValidationResult( validationRuleA, periodA, sourceA, defaultCombo, 1.0, 2.0,
+            3 );
+        ValidationResult duplicateA = new ValidationResult( validationRuleA, periodA, sourceA, defaultCombo, 1.0,
+            2.0, 3 );
+        ValidationResult otherDayA = new ValidationResult( validationRuleA, periodA, sourceA, defaultCombo, 1.0, 2.0,
+            4 );
+        validationResultService.insertValidationResults( Lists.newArrayList( resultA, duplicateA, otherDayA ) );
+        List<ValidationResult> results = validationResultService.getAllValidationResults();
+        assertEquals( 2, results.size() );
+    }
+
+    @Test
+    void testInsertNoValidationResults()
+    {
+        validationResultService.insertValidationResults( Lists.newArrayList() );
+        assertTrue( validationResultService.getAllValidationResults().isEmpty() );
+    }
+}
@@ -48,8 +48,10 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.validation.comparator.ValidationResultQuery;
+import org.hisp.quick.BatchHandlerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Tests the validation of the {@link ValidationResultService}.
@@ -68,7 +70,8 @@ class ValidationResultServiceTest
     private final ValidationRuleService validationRuleService = mock( ValidationRuleService.class );
 
     private final ValidationResultService service = new DefaultValidationResultService( store, periodService,
-        organisationUnitService, validationRuleService );
+        organisationUnitService, validationRuleService, mock( BatchHandlerFactory.class ),
+        mock( PlatformTransactionManager.class ) );
 
     @BeforeEach
     void setUp()
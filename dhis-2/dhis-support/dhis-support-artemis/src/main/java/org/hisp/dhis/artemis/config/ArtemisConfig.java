@@ -147,6 +147,22 @@ public class ArtemisConfig
         return factory;
     }
 
+    @Bean // configured for audit topics
+    public DefaultJmsListenerContainerFactory jmsAuditListenerContainerFactory( ConnectionFactory connectionFactory,
+        NameDestinationResolver nameDestinationResolver )
+    {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory( connectionFactory );
+        factory.setDestinationResolver( nameDestinationResolver );
+        factory.setPubSubDomain( true );
+        factory.setConcurrency( "1" );
+        // audit topics are consumed by the batched audit consumer instead,
+        // when enabled
+        factory.setAutoStartup( !dhisConfig.isEnabled( ConfigurationKey.AUDIT_CONSUMER_BATCH_ENABLED ) );
+
+        return factory;
+    }
+
     @Bean // configured for queues
     public DefaultJmsListenerContainerFactory jmsQueueListenerContainerFactory( ConnectionFactory connectionFactory,
         NameDestinationResolver nameDestinationResolver )
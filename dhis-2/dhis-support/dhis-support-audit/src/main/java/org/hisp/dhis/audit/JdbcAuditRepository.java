@@ -35,7 +35,6 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -88,9 +87,12 @@ public class JdbcAuditRepository implements AuditRepository
     @Override
     public void save( List<Audit> audits )
     {
-        List<MapSqlParameterSource> parameterSources = new ArrayList<>();
-        audits.forEach( audit -> parameterSources.add( buildParameterSource( audit ) ) );
-        auditInsert.executeBatch( parameterSources.toArray( new MapSqlParameterSource[0] ) );
+        // compressing the audit data dominates, so build the rows in parallel
+        MapSqlParameterSource[] parameterSources = audits.parallelStream()
+            .map( this::buildParameterSource )
+            .toArray( MapSqlParameterSource[]::new );
+
+        auditInsert.executeBatch( parameterSources );
     }
 
     @Override
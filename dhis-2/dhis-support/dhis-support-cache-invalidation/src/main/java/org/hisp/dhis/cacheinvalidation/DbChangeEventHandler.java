@@ -46,11 +46,14 @@ import org.hisp.dhis.cache.PaginationCacheManager;
 import org.hisp.dhis.cache.QueryCacheManager;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ModificationStateService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitHierarchyIndexService;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.programrule.engine.RuleEngineContextInvalidator;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentity.TrackedEntityInstance;
@@ -109,6 +112,15 @@ public class DbChangeEventHandler
     @Autowired
     private PeriodService periodService;
 
+    @Autowired
+    private OrganisationUnitHierarchyIndexService organisationUnitHierarchyIndexService;
+
+    @Autowired
+    private ModificationStateService modificationStateService;
+
+    @Autowired
+    private RuleEngineContextInvalidator ruleEngineContextInvalidator;
+
     /**
      * Called by the {@link io.debezium.embedded.EmbeddedEngine}'s event
      * handler. Configured in {@link DebeziumService#startDebeziumEngine()}
@@ -319,6 +331,19 @@ public class DbChangeEventHandler
         Class<?> firstEntityClass = (Class<?>) entityClasses.get( 0 )[0];
         Objects.requireNonNull( firstEntityClass, "Entity class can't be null!" );
 
+        if ( OrganisationUnit.class == firstEntityClass )
+        {
+            organisationUnitHierarchyIndexService.invalidate();
+        }
+
+        modificationStateService.invalidate( firstEntityClass );
+
+        if ( entityClasses.stream().anyMatch(
+            entityClass -> RuleEngineContextInvalidator.CONTEXT_CLASSES.contains( entityClass[0] ) ) )
+        {
+            ruleEngineContextInvalidator.invalidate();
+        }
+
         if ( operation == Envelope.Operation.CREATE )
         {
             // Make sure queries will re-fetch to capture the new object.
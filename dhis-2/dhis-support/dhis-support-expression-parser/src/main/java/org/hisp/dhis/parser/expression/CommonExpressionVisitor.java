@@ -37,8 +37,11 @@ import lombok.Getter;
 import lombok.Setter;
 
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.common.DimensionService;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.QueryModifiers;
 import org.hisp.dhis.constant.Constant;
@@ -124,6 +127,34 @@ public class CommonExpressionVisitor
     @Builder.Default
     private Map<String, String> itemDescriptions = new HashMap<>();
 
+    /**
+     * Used to collect the dimensional item ids of the item contexts in the
+     * order they are found while compiling an expression, null when not
+     * compiling.
+     */
+    private Map<ExprContext, DimensionalItemId> itemContexts;
+
+    /**
+     * Root of the parse tree visited while compiling an expression.
+     */
+    private ParseTree compiledParseTree;
+
+    /**
+     * Compiled expression being evaluated, if any, with the objects and values
+     * of its dimensional items by item index.
+     */
+    private CompiledExpressionTree compiledExpression;
+
+    private DimensionalItemObject[] itemObjects;
+
+    private Object[] itemValues;
+
+    /**
+     * Parameters the item values belong to. Items visited with other
+     * parameters, such as sampled periods, are not taken from the item values.
+     */
+    private ExpressionParams itemValueParams;
+
     // -------------------------------------------------------------------------
     // Visitor logic
     // -------------------------------------------------------------------------
@@ -131,6 +162,11 @@ public class CommonExpressionVisitor
     @Override
     public Object visitExpr( ExprContext ctx )
     {
+        if ( itemContexts != null && compiledParseTree == null )
+        {
+            compiledParseTree = getRoot( ctx );
+        }
+
         if ( ctx.it != null )
         {
             ExpressionItem item = itemMap.get( ctx.it.getType() );
@@ -152,6 +188,37 @@ public class CommonExpressionVisitor
         return visit( ctx.getChild( 0 ) ); // All others: visit first child.
     }
 
+    /**
+     * Binds the objects and values of the dimensional items of a compiled
+     * expression to this visitor, for the current parameters.
+     *
+     * @param compiledExpression the compiled expression.
+     * @param itemObjects the item objects by item index.
+     * @param itemValues the item values by item index.
+     */
+    public void bindItems( CompiledExpressionTree compiledExpression, DimensionalItemObject[] itemObjects,
+        Object[] itemValues )
+    {
+        this.compiledExpression = compiledExpression;
+        this.itemObjects = itemObjects;
+        this.itemValues = itemValues;
+        this.itemValueParams = params;
+    }
+
+    /**
+     * Returns the item index of the given dimensional item context in the
+     * bound compiled expression, or -1 if the value of the item is not bound.
+     *
+     * @param ctx the dimensional item context.
+     * @return the item index or -1.
+     */
+    public int getItemIndex( ExprContext ctx )
+    {
+        return compiledExpression != null && params == itemValueParams
+            ? compiledExpression.getItemIndex( ctx )
+            : -1;
+    }
+
     /**
      * Visits a context while allowing null values (not replacing them with 0 or
      * ''), even if we would otherwise be replacing them.
@@ -191,4 +258,18 @@ public class CommonExpressionVisitor
 
         return result;
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private static ParseTree getRoot( ParseTree tree )
+    {
+        while ( tree.getParent() != null )
+        {
+            tree = tree.getParent();
+        }
+
+        return tree;
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.expression.CompiledExpression;
+import org.hisp.dhis.expression.ParseType;
+
+/**
+ * {@link CompiledExpression} which holds on to the parse tree of the
+ * expression, with the dimensional item contexts of the tree bound to item
+ * indexes. The tree and the bindings are never modified after construction,
+ * so instances can be shared between threads.
+ */
+public class CompiledExpressionTree
+    implements CompiledExpression
+{
+    private final String expression;
+
+    private final ParseType parseType;
+
+    /**
+     * Root of the parse tree, null if the expression could not be parsed, in
+     * which case the expression is visited through the {@link Parser}.
+     */
+    private final ParseTree parseTree;
+
+    private final List<DimensionalItemId> itemIds;
+
+    private final Map<ExprContext, Integer> itemIndexes;
+
+    /**
+     * @param expression the expression string.
+     * @param parseType the type of expression.
+     * @param parseTree the root of the parse tree of the expression.
+     * @param itemContexts the dimensional item ids of the item contexts in
+     *        the order they were found when visiting the expression, items
+     *        are indexed in the order of their first appearance.
+     */
+    public CompiledExpressionTree( String expression, ParseType parseType, ParseTree parseTree,
+        Map<ExprContext, DimensionalItemId> itemContexts )
+    {
+        Map<DimensionalItemId, Integer> indexes = new LinkedHashMap<>();
+        Map<ExprContext, Integer> contextIndexes = new IdentityHashMap<>();
+
+        for ( Map.Entry<ExprContext, DimensionalItemId> entry : itemContexts.entrySet() )
+        {
+            contextIndexes.put( entry.getKey(), indexes.computeIfAbsent( entry.getValue(), id -> indexes.size() ) );
+        }
+
+        List<DimensionalItemId> ids = new ArrayList<>( Collections.nCopies( indexes.size(), null ) );
+
+        indexes.forEach( ( id, index ) -> ids.set( index, id ) );
+
+        this.expression = expression;
+        this.parseType = parseType;
+        this.parseTree = parseTree;
+        this.itemIds = Collections.unmodifiableList( ids );
+        this.itemIndexes = contextIndexes;
+    }
+
+    /**
+     * Creates a compiled expression without bound items, for an expression
+     * which could not be compiled.
+     *
+     * @param expression the expression string.
+     * @param parseType the type of expression.
+     */
+    public CompiledExpressionTree( String expression, ParseType parseType )
+    {
+        this( expression, parseType, null, Collections.emptyMap() );
+    }
+
+    @Override
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    @Override
+    public ParseType getParseType()
+    {
+        return parseType;
+    }
+
+    @Override
+    public List<DimensionalItemId> getItemIds()
+    {
+        return itemIds;
+    }
+
+    /**
+     * Returns the index of the dimensional item of the given context, or -1 if
+     * the context is not a bound item of this expression.
+     *
+     * @param ctx the expression context.
+     * @return the item index or -1.
+     */
+    public int getItemIndex( ExprContext ctx )
+    {
+        Integer index = itemIndexes.get( ctx );
+
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Visits the expression with the given visitor.
+     *
+     * @param visitor the visitor.
+     * @return the result of the visit.
+     */
+    public Object visit( CommonExpressionVisitor visitor )
+    {
+        return parseTree != null ? visitor.visit( parseTree ) : Parser.visit( expression, visitor );
+    }
+}
@@ -270,6 +270,15 @@ public enum ConfigurationKey
      */
     META_DATA_SYNC_RETRY_TIME_FREQUENCY_MILLISEC( "metadata.sync.retry.time.frequency.millisec", "30000", false ),
 
+    /**
+     * Synchronizes data values in pages read with keyset pagination, sent as
+     * compressed request bodies while the next page is exported, and resumes
+     * an interrupted synchronization from the last acknowledged page. Disable
+     * to page with offsets, e.g. for remote servers which cannot read
+     * compressed request bodies. (default: on)
+     */
+    DATA_VALUE_SYNC_KEYSET( "data_value.sync.keyset", Constants.ON, false ),
+
     /**
      * EHCache replication host.
      */
@@ -332,6 +341,57 @@ public enum ConfigurationKey
 
     PROGRAM_TEMPORARY_OWNERSHIP_TIMEOUT( "tracker.temporary.ownership.timeout", "3", false ),
 
+    /**
+     * Number of threads used to run tracker validation hooks which are
+     * independent per entity. Use 1 to validate sequentially. (default: 1)
+     */
+    TRACKER_IMPORT_VALIDATION_PARALLELISM( "tracker.import.validation.parallelism", "1", false ),
+
+    /**
+     * Number of threads used to evaluate program rules for the enrollments and
+     * events of a tracker import. Use 1 to evaluate sequentially. (default: 1)
+     */
+    TRACKER_IMPORT_RULE_ENGINE_PARALLELISM( "tracker.import.rule_engine.parallelism", "1", false ),
+
+    /**
+     * Number of threads used to run a predictor on partitions of the
+     * organisation units which are subtrees of the hierarchy. Use 1 to predict
+     * sequentially. (default: 1)
+     */
+    PREDICTOR_PARALLELISM( "predictor.parallelism", "1", false ),
+
+    /**
+     * Number of threads used to evaluate validation rules on shards of
+     * organisation units and period types. Use 0 to use one thread less than
+     * the number of CPU cores. (default: 0)
+     */
+    VALIDATION_PARALLELISM( "validation.parallelism", "0", false ),
+
+    /**
+     * Number of threads used to scan the unique properties of existing objects
+     * while preheating a metadata import. Use 1 to preheat sequentially.
+     * (default: 4)
+     */
+    METADATA_PREHEAT_PARALLELISM( "metadata.preheat.parallelism", "4", false ),
+
+    /**
+     * Number of objects written per JDBC batch when committing a metadata
+     * import with the bulk flush mode. (default: 1000)
+     */
+    METADATA_IMPORT_BULK_BATCH_SIZE( "metadata.import.bulk.batch.size", "1000", false ),
+
+    /**
+     * Number of data integrity checks run concurrently. Use 1 to run the
+     * checks sequentially. (default: 4)
+     */
+    DATA_INTEGRITY_CHECK_PARALLELISM( "data_integrity.check.parallelism", "4", false ),
+
+    /**
+     * Max time in seconds the query of a single data integrity check can run
+     * before it is cancelled. Use 0 for no limit. (default: 300)
+     */
+    DATA_INTEGRITY_CHECK_TIMEOUT( "data_integrity.check.timeout", "300", false ),
+
     LEADER_TIME_TO_LIVE( "leader.time.to.live.minutes", "2", false ),
 
     /**
@@ -339,6 +399,31 @@ public enum ConfigurationKey
      */
     ANALYTICS_CACHE_EXPIRATION( "analytics.cache.expiration", "0" ),
 
+    /**
+     * Number of threads of the dedicated pool executing analytics queries. Use
+     * 0 for the number of available CPU cores. (default: 0)
+     */
+    ANALYTICS_QUERY_POOL_SIZE( "analytics.query.pool_size", "0", false ),
+
+    /**
+     * Max number of analytics queries a single analytics request executes
+     * concurrently. (default: 4)
+     */
+    ANALYTICS_QUERY_REQUEST_CONCURRENCY( "analytics.query.request_concurrency", "4", false ),
+
+    /**
+     * Max time in seconds an analytics query can wait for a thread of the
+     * analytics query pool before the request fails. (default: 120)
+     */
+    ANALYTICS_QUERY_QUEUE_TIMEOUT( "analytics.query.queue_timeout", "120", false ),
+
+    /**
+     * Number of resource tables generated concurrently, respecting the
+     * dependencies between the tables. Use 1 to generate the tables
+     * sequentially. (default: 4)
+     */
+    ANALYTICS_RESOURCE_TABLE_PARALLELISM( "analytics.resource_table.parallelism", "4", false ),
+
     /**
      * Artemis support mode, 2 modes supported: EMBEDDED (starts up an embedded
      * Artemis which lives in the same process as your DHIS2 instance), NATIVE
@@ -455,6 +540,16 @@ public enum ConfigurationKey
      */
     MONITORING_CPU_ENABLED( "monitoring.cpu.enabled", Constants.OFF, false ),
 
+    /**
+     * Analytics query executor monitoring. (default: off)
+     */
+    MONITORING_ANALYTICS_ENABLED( "monitoring.analytics.enabled", Constants.OFF, false ),
+
+    /**
+     * Batched audit consumer monitoring. (default: off)
+     */
+    MONITORING_AUDIT_ENABLED( "monitoring.audit.enabled", Constants.OFF, false ),
+
     /**
      * AppHub base URL. (default: https://apps.dhis2.org).
      */
@@ -509,6 +604,23 @@ public enum ConfigurationKey
      */
     AUDIT_TRACKER_MATRIX( "audit.tracker", "", false ),
 
+    /**
+     * Consume audit messages in batches, written to the database with one
+     * batched statement per batch. (default: off).
+     */
+    AUDIT_CONSUMER_BATCH_ENABLED( "audit.consumer.batch.enabled", Constants.OFF, false ),
+
+    /**
+     * Max number of audit messages per consumed batch. (default: 500).
+     */
+    AUDIT_CONSUMER_BATCH_SIZE( "audit.consumer.batch.size", "500", false ),
+
+    /**
+     * Max time in milliseconds to wait for a batch of audit messages to fill
+     * up before it is written. (default: 1000).
+     */
+    AUDIT_CONSUMER_BATCH_TIMEOUT( "audit.consumer.batch.timeout", "1000", false ),
+
     /**
      * Enable OIDC. (default: off).
      */
@@ -615,6 +727,25 @@ public enum ConfigurationKey
 
     ACTIVE_READ_REPLICAS( "active.read.replicas", "0", false ),
 
+    /**
+     * Routing of read only queries across read replicas. Supported modes are:
+     * round_robin (default) or least_loaded, which routes to the healthy
+     * replica with the fewest active connections and lowest recent latency.
+     */
+    READ_REPLICA_ROUTING( "read.replica.routing", "round_robin", false ),
+
+    /**
+     * Max replication lag in seconds before a read replica is excluded from
+     * least loaded routing, 0 disables the lag check. (default: 30)
+     */
+    READ_REPLICA_MAX_LAG( "read.replica.max_lag", "30", false ),
+
+    /**
+     * Interval in seconds between replication lag checks of read replicas for
+     * least loaded routing. (default: 10)
+     */
+    READ_REPLICA_LAG_CHECK_INTERVAL( "read.replica.lag_check_interval", "10", false ),
+
     /**
      * Allows enabling/disabling audits system-wide (without configuring the
      * audit matrix). (default: true)
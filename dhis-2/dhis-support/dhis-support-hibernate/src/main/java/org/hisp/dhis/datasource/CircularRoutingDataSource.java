@@ -27,29 +27,77 @@
  */
 package org.hisp.dhis.datasource;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
+import lombok.extern.slf4j.Slf4j;
+
 import org.springframework.jdbc.datasource.AbstractDataSource;
 
 import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Data source implementation which routes to the configured target data sources
  * in a circular fashion.
+ * <p>
+ * In {@link RoutingMode#LEAST_LOADED} mode, the data source instead tracks the
+ * active connections and the recent connection latency of each target, and
+ * routes to the healthy target with the fewest active connections, preferring
+ * the lowest latency. When a max replication lag is given, the replication
+ * lag of each target is sampled periodically and targets lagging behind more
+ * than the max lag are excluded until they catch up. If no target is healthy,
+ * all targets are considered.
  *
  * @author Lars Helge Overland
  */
+@Slf4j
 public class CircularRoutingDataSource
     extends AbstractDataSource
 {
+    /**
+     * Returns the replication lag in seconds, which is zero when all received
+     * WAL has been replayed and null when the database is not a replica.
+     */
+    private static final String LAG_SQL = "select case " +
+        "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+        "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    /**
+     * Weight of the most recent sample in the latency moving average.
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    public enum RoutingMode
+    {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
     private Iterator<DataSource> dataSourceIterator;
 
+    private RoutingMode routingMode = RoutingMode.ROUND_ROBIN;
+
+    private List<ReadReplica> replicas = List.of();
+
+    private ScheduledExecutorService lagChecker;
+
     public CircularRoutingDataSource()
     {
     }
@@ -59,6 +107,38 @@ public class CircularRoutingDataSource
         this.dataSourceIterator = Iterators.cycle( Collections.synchronizedList( targetDataSources ) );
     }
 
+    /**
+     * @param targetDataSources the target data sources.
+     * @param routingMode the {@link RoutingMode}.
+     * @param maxLagSeconds the max replication lag in seconds of a healthy
+     *        target, 0 disables the lag check.
+     * @param lagCheckIntervalSeconds the interval in seconds between lag
+     *        checks.
+     */
+    public CircularRoutingDataSource( List<DataSource> targetDataSources, RoutingMode routingMode,
+        long maxLagSeconds, long lagCheckIntervalSeconds )
+    {
+        this( targetDataSources );
+        this.routingMode = routingMode;
+
+        List<ReadReplica> list = new ArrayList<>();
+
+        for ( int i = 0; i < targetDataSources.size(); i++ )
+        {
+            list.add( new ReadReplica( "read" + (i + 1), targetDataSources.get( i ) ) );
+        }
+
+        this.replicas = Collections.unmodifiableList( list );
+
+        if ( routingMode == RoutingMode.LEAST_LOADED && maxLagSeconds > 0 )
+        {
+            this.lagChecker = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat( "read-replica-lag-check-%d" ).setDaemon( true ).build() );
+            this.lagChecker.scheduleWithFixedDelay( () -> checkLag( maxLagSeconds ), 0, lagCheckIntervalSeconds,
+                TimeUnit.SECONDS );
+        }
+    }
+
     // -------------------------------------------------------------------------
     // AbstractDataSource implementation
     // -------------------------------------------------------------------------
@@ -67,6 +147,13 @@ public class CircularRoutingDataSource
     public Connection getConnection()
         throws SQLException
     {
+        if ( routingMode == RoutingMode.LEAST_LOADED )
+        {
+            ReadReplica replica = getLeastLoadedReplica();
+
+            return replica.track( replica.getDataSource().getConnection() );
+        }
+
         return getDataSource().getConnection();
     }
 
@@ -74,9 +161,47 @@ public class CircularRoutingDataSource
     public Connection getConnection( String username, String password )
         throws SQLException
     {
+        if ( routingMode == RoutingMode.LEAST_LOADED )
+        {
+            ReadReplica replica = getLeastLoadedReplica();
+
+            return replica.track( replica.getDataSource().getConnection( username, password ) );
+        }
+
         return getDataSource().getConnection( username, password );
     }
 
+    // -------------------------------------------------------------------------
+    // Public methods
+    // -------------------------------------------------------------------------
+
+    public RoutingMode getRoutingMode()
+    {
+        return routingMode;
+    }
+
+    /**
+     * Returns the state of the target data sources. Empty unless a
+     * {@link RoutingMode} was given.
+     *
+     * @return the list of {@link ReadReplica}.
+     */
+    public List<ReadReplica> getReplicas()
+    {
+        return replicas;
+    }
+
+    /**
+     * Stops the periodic replication lag check.
+     */
+    public void shutdown()
+    {
+        if ( lagChecker != null )
+        {
+            lagChecker.shutdownNow();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Private methods
     // -------------------------------------------------------------------------
@@ -85,4 +210,158 @@ public class CircularRoutingDataSource
     {
         return dataSourceIterator.next();
     }
+
+    private ReadReplica getLeastLoadedReplica()
+    {
+        Comparator<ReadReplica> load = Comparator.comparingInt( ReadReplica::getActiveConnections )
+            .thenComparingDouble( ReadReplica::getLatencyMillis );
+
+        return replicas.stream()
+            .filter( ReadReplica::isHealthy )
+            .min( load )
+            .orElseGet( () -> replicas.stream().min( load ).orElseThrow() );
+    }
+
+    private void checkLag( long maxLagSeconds )
+    {
+        for ( ReadReplica replica : replicas )
+        {
+            try ( Connection connection = replica.getDataSource().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery( LAG_SQL ) )
+            {
+                double lag = resultSet.next() ? resultSet.getDouble( 1 ) : 0d;
+
+                replica.updateLag( lag, lag <= maxLagSeconds );
+            }
+            catch ( Exception ex )
+            {
+                log.warn( String.format( "Replication lag check failed for read replica: '%s'",
+                    replica.getName() ), ex );
+
+                replica.updateLag( Double.NaN, false );
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Routing state of a target data source.
+     */
+    public static class ReadReplica
+    {
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final AtomicInteger activeConnections = new AtomicInteger();
+
+        private volatile double latencyMillis;
+
+        private volatile double lagSeconds;
+
+        private volatile boolean healthy = true;
+
+        ReadReplica( String name, DataSource dataSource )
+        {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public DataSource getDataSource()
+        {
+            return dataSource;
+        }
+
+        /**
+         * Returns the number of connections currently handed out and not yet
+         * closed.
+         */
+        public int getActiveConnections()
+        {
+            return activeConnections.get();
+        }
+
+        /**
+         * Returns the moving average of the time in milliseconds connections
+         * were held, which for read only queries approximates query latency.
+         */
+        public double getLatencyMillis()
+        {
+            return latencyMillis;
+        }
+
+        /**
+         * Returns the last sampled replication lag in seconds, NaN if the last
+         * sample failed.
+         */
+        public double getLagSeconds()
+        {
+            return lagSeconds;
+        }
+
+        public boolean isHealthy()
+        {
+            return healthy;
+        }
+
+        void updateLag( double lagSeconds, boolean healthy )
+        {
+            if ( this.healthy != healthy )
+            {
+                log.info( String.format( "Read replica '%s' is %s, replication lag: %s s", name,
+                    healthy ? "healthy" : "lagging", lagSeconds ) );
+            }
+
+            this.lagSeconds = lagSeconds;
+            this.healthy = healthy;
+        }
+
+        private synchronized void recordLatency( long nanos )
+        {
+            double millis = TimeUnit.NANOSECONDS.toMicros( nanos ) / 1000d;
+
+            latencyMillis = latencyMillis == 0d ? millis
+                : LATENCY_WEIGHT * millis + (1 - LATENCY_WEIGHT) * latencyMillis;
+        }
+
+        /**
+         * Wraps the given connection so that it counts as active until closed,
+         * and records the time it was held on close.
+         */
+        Connection track( Connection connection )
+        {
+            activeConnections.incrementAndGet();
+
+            long acquired = System.nanoTime();
+
+            AtomicBoolean closed = new AtomicBoolean();
+
+            return (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, ( proxy, method, args ) -> {
+                    if ( "close".equals( method.getName() ) && closed.compareAndSet( false, true ) )
+                    {
+                        activeConnections.decrementAndGet();
+                        recordLatency( System.nanoTime() - acquired );
+                    }
+
+                    try
+                    {
+                        return method.invoke( connection, args );
+                    }
+                    catch ( InvocationTargetException ex )
+                    {
+                        throw ex.getTargetException();
+                    }
+                } );
+        }
+    }
 }
@@ -44,9 +44,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.datasource.CircularRoutingDataSource.RoutingMode;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 /**
@@ -54,7 +56,7 @@ import org.springframework.beans.factory.InitializingBean;
  */
 @Slf4j
 public class DefaultReadOnlyDataSourceManager
-    implements ReadOnlyDataSourceManager, InitializingBean
+    implements ReadOnlyDataSourceManager, InitializingBean, DisposableBean
 {
     private static final String FORMAT_READ_PREFIX = "read%d.";
 
@@ -81,7 +83,7 @@ public class DefaultReadOnlyDataSourceManager
     /**
      * State holder for the resolved read only data source.
      */
-    private DataSource internalReadOnlyDataSource;
+    private CircularRoutingDataSource internalReadOnlyDataSource;
 
     /**
      * State holder for explicitly defined read only data sources.
@@ -94,7 +96,16 @@ public class DefaultReadOnlyDataSourceManager
         List<DataSource> ds = getReadOnlyDataSources();
 
         this.internalReadOnlyInstanceList = ds;
-        this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource( ds ) : null;
+        this.internalReadOnlyDataSource = !ds.isEmpty() ? createRoutingDataSource( ds ) : null;
+    }
+
+    @Override
+    public void destroy()
+    {
+        if ( internalReadOnlyDataSource != null )
+        {
+            internalReadOnlyDataSource.shutdown();
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -117,6 +128,26 @@ public class DefaultReadOnlyDataSourceManager
     // Supportive methods
     // -------------------------------------------------------------------------
 
+    private CircularRoutingDataSource createRoutingDataSource( List<DataSource> dataSources )
+    {
+        RoutingMode routingMode = RoutingMode.valueOf(
+            config.getProperty( ConfigurationKey.READ_REPLICA_ROUTING ).trim().toUpperCase() );
+
+        if ( routingMode == RoutingMode.ROUND_ROBIN )
+        {
+            return new CircularRoutingDataSource( dataSources );
+        }
+
+        long maxLag = Long.parseLong( config.getProperty( ConfigurationKey.READ_REPLICA_MAX_LAG ) );
+        long lagCheckInterval = Long.parseLong(
+            config.getProperty( ConfigurationKey.READ_REPLICA_LAG_CHECK_INTERVAL ) );
+
+        log.info( String.format( "Read replica routing: %s, max lag: %d s, lag check interval: %d s",
+            routingMode, maxLag, lagCheckInterval ) );
+
+        return new CircularRoutingDataSource( dataSources, routingMode, maxLag, lagCheckInterval );
+    }
+
     private List<DataSource> getReadOnlyDataSources()
     {
         String mainUser = config.getProperty( ConfigurationKey.CONNECTION_USERNAME );
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hisp.dhis.datasource.CircularRoutingDataSource.ReadReplica;
+import org.hisp.dhis.datasource.CircularRoutingDataSource.RoutingMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+class CircularRoutingDataSourceTest
+{
+    private final StubDataSource dataSourceA = new StubDataSource( "A" );
+
+    private final StubDataSource dataSourceB = new StubDataSource( "B" );
+
+    @Test
+    void testRoundRobin()
+        throws SQLException
+    {
+        CircularRoutingDataSource dataSource = new CircularRoutingDataSource( List.of( dataSourceA, dataSourceB ) );
+
+        assertEquals( "A", dataSource.getConnection().getCatalog() );
+        assertEquals( "B", dataSource.getConnection().getCatalog() );
+        assertEquals( "A", dataSource.getConnection().getCatalog() );
+    }
+
+    @Test
+    void testLeastLoaded()
+        throws SQLException
+    {
+        CircularRoutingDataSource dataSource = new CircularRoutingDataSource( List.of( dataSourceA, dataSourceB ),
+            RoutingMode.LEAST_LOADED, 0, 0 );
+
+        Connection connectionA = dataSource.getConnection();
+        Connection connectionB = dataSource.getConnection();
+
+        assertEquals( "A", connectionA.getCatalog() );
+        assertEquals( "B", connectionB.getCatalog() );
+        assertEquals( 1, dataSource.getReplicas().get( 0 ).getActiveConnections() );
+
+        connectionA.close();
+        connectionA.close();
+
+        assertEquals( 0, dataSource.getReplicas().get( 0 ).getActiveConnections() );
+        assertEquals( "A", dataSource.getConnection().getCatalog() );
+    }
+
+    @Test
+    void testLeastLoadedExcludesLaggingReplica()
+        throws SQLException
+    {
+        CircularRoutingDataSource dataSource = new CircularRoutingDataSource( List.of( dataSourceA, dataSourceB ),
+            RoutingMode.LEAST_LOADED, 0, 0 );
+
+        ReadReplica replicaA = dataSource.getReplicas().get( 0 );
+
+        replicaA.updateLag( 120d, false );
+
+        assertEquals( "B", dataSource.getConnection().getCatalog() );
+        assertEquals( "B", dataSource.getConnection().getCatalog() );
+
+        replicaA.updateLag( 0d, true );
+
+        assertEquals( "A", dataSource.getConnection().getCatalog() );
+    }
+
+    @Test
+    void testLeastLoadedFallsBackWhenNoReplicaIsHealthy()
+        throws SQLException
+    {
+        CircularRoutingDataSource dataSource = new CircularRoutingDataSource( List.of( dataSourceA, dataSourceB ),
+            RoutingMode.LEAST_LOADED, 0, 0 );
+
+        dataSource.getReplicas().forEach( replica -> replica.updateLag( Double.NaN, false ) );
+
+        assertEquals( "A", dataSource.getConnection().getCatalog() );
+        assertEquals( "B", dataSource.getConnection().getCatalog() );
+        assertSame( dataSourceA, dataSource.getReplicas().get( 0 ).getDataSource() );
+    }
+
+    /**
+     * Data source handing out connections which report the name of the data
+     * source as catalog.
+     */
+    private static class StubDataSource
+        extends AbstractDataSource
+    {
+        private final String name;
+
+        StubDataSource( String name )
+        {
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection()
+        {
+            return (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                ( proxy, method, args ) -> "getCatalog".equals( method.getName() ) ? name : null );
+        }
+
+        @Override
+        public Connection getConnection( String username, String password )
+        {
+            return getConnection();
+        }
+    }
+}
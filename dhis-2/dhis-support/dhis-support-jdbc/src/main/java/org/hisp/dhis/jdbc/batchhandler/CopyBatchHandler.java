@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.jdbc.batchhandler;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.hisp.quick.BatchHandler;
+import org.hisp.quick.JdbcConfiguration;
+import org.hisp.quick.StatementDialect;
+import org.hisp.quick.batchhandler.AbstractBatchHandler;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * Batch handler which writes added objects with the PostgreSQL
+ * {@code COPY ... FROM STDIN} protocol instead of multi-row insert statements.
+ * Finds and deletes are passed on to the wrapped batch handler.
+ * <p>
+ * Added objects are streamed straight into the target table when they are
+ * known not to exist, while updates are passed on to the wrapped batch
+ * handler. In merge mode, added and updated objects are both buffered and
+ * streamed into a transaction scoped staging table, then moved to the target
+ * table with {@code INSERT ... SELECT ... ON CONFLICT} on the unique columns,
+ * so that chunks mixing new and existing objects are written in one go.
+ * Tables with an auto increment column are always written through the staging
+ * table so that identifiers can be drawn from the sequence.
+ * <p>
+ * Rows are written on the connection bound to the current transaction, if
+ * any, so that they are committed or rolled back together with the rest of
+ * the import.
+ * <p>
+ * Finds and existence checks return buffered objects which have not yet been
+ * written, so that objects added or updated earlier in the same import are
+ * visible to later lookups of the same unique key.
+ */
+public class CopyBatchHandler<T>
+    implements BatchHandler<T>
+{
+    private static final int MAX_BUFFERED_ROWS = 50000;
+
+    private static final String STAGING_SUFFIX = "_copy";
+
+    private final AbstractBatchHandler<T> delegate;
+
+    private final boolean merge;
+
+    private final Set<String> uniqueObjects = new HashSet<>();
+
+    private final Map<String, T> bufferedObjects = new HashMap<>();
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int bufferedRows = 0;
+
+    private int addObjectCount = 0;
+
+    private long copiedRows = 0;
+
+    private long copyMillis = 0;
+
+    // -------------------------------------------------------------------------
+    // Constructor
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param delegate the batch handler which defines table and columns, and
+     *        which finds, updates and deletes objects.
+     * @param merge whether added objects may already exist and should be
+     *        merged into existing rows.
+     */
+    public CopyBatchHandler( AbstractBatchHandler<T> delegate, boolean merge )
+    {
+        this.delegate = delegate;
+        this.merge = merge;
+    }
+
+    /**
+     * Wraps the given batch handler in a {@link CopyBatchHandler} if the
+     * batch handler is backed by a PostgreSQL database, otherwise returns the
+     * given batch handler.
+     *
+     * @param batchHandler the batch handler.
+     * @param merge whether added objects may already exist.
+     * @return a batch handler.
+     */
+    public static <T> BatchHandler<T> wrap( BatchHandler<T> batchHandler, boolean merge )
+    {
+        if ( batchHandler instanceof AbstractBatchHandler && batchHandler.getConfiguration() != null
+            && StatementDialect.POSTGRESQL == batchHandler.getConfiguration().getDialect() )
+        {
+            return new CopyBatchHandler<>( (AbstractBatchHandler<T>) batchHandler, merge );
+        }
+
+        return batchHandler;
+    }
+
+    // -------------------------------------------------------------------------
+    // BatchHandler implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public BatchHandler<T> init()
+    {
+        delegate.init();
+        uniqueObjects.clear();
+        bufferedObjects.clear();
+        buffer.setLength( 0 );
+        bufferedRows = 0;
+        addObjectCount = 0;
+        return this;
+    }
+
+    @Override
+    public JdbcConfiguration getConfiguration()
+    {
+        return delegate.getConfiguration();
+    }
+
+    @Override
+    public boolean addObject( T object )
+    {
+        List<Object> uniqueValues = delegate.getUniqueValues( object );
+
+        if ( !uniqueValues.isEmpty() && !uniqueObjects.add( uniqueValues.toString() ) )
+        {
+            return false;
+        }
+
+        bufferObject( object, uniqueValues );
+
+        addObjectCount++;
+
+        return true;
+    }
+
+    @Override
+    public boolean insertObject( T object )
+    {
+        flushCopy();
+        return delegate.insertObject( object );
+    }
+
+    @Override
+    public T findObject( T object )
+    {
+        T buffered = getBufferedObject( object );
+
+        return buffered != null ? buffered : delegate.findObject( object );
+    }
+
+    @Override
+    public void updateObject( T object )
+    {
+        if ( merge )
+        {
+            bufferObject( object, delegate.getUniqueValues( object ) );
+        }
+        else
+        {
+            if ( getBufferedObject( object ) != null )
+            {
+                flushCopy();
+            }
+
+            delegate.updateObject( object );
+        }
+    }
+
+    @Override
+    public void deleteObject( T object )
+    {
+        flushCopy();
+        delegate.deleteObject( object );
+    }
+
+    @Override
+    public boolean objectExists( T object )
+    {
+        return getBufferedObject( object ) != null || delegate.objectExists( object );
+    }
+
+    @Override
+    public int getAddObjectCount()
+    {
+        return addObjectCount;
+    }
+
+    @Override
+    public void flush()
+    {
+        flushCopy();
+        delegate.flush();
+        addObjectCount = 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    public AbstractBatchHandler<T> getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * Returns the number of rows written with COPY since creation.
+     */
+    public long getCopiedRows()
+    {
+        return copiedRows;
+    }
+
+    /**
+     * Returns the time in milliseconds spent writing rows with COPY since
+     * creation.
+     */
+    public long getCopyMillis()
+    {
+        return copyMillis;
+    }
+
+    /**
+     * Writes the buffered rows to the database.
+     */
+    public void flushCopy()
+    {
+        if ( bufferedRows == 0 )
+        {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        DataSource dataSource = delegate.getConfiguration().getDataSource();
+        Connection connection = DataSourceUtils.getConnection( dataSource );
+
+        try
+        {
+            boolean staging = merge || delegate.getAutoIncrementColumn() != null;
+
+            if ( staging )
+            {
+                copyViaStagingTable( connection, DataSourceUtils.isConnectionTransactional( connection, dataSource ) );
+            }
+            else
+            {
+                copy( connection, delegate.getTableName() );
+            }
+        }
+        catch ( Exception ex )
+        {
+            throw new RuntimeException( "Failed to copy rows into table: " + delegate.getTableName(), ex );
+        }
+        finally
+        {
+            DataSourceUtils.releaseConnection( connection, dataSource );
+        }
+
+        copiedRows += bufferedRows;
+        copyMillis += System.currentTimeMillis() - start;
+
+        buffer.setLength( 0 );
+        bufferedObjects.clear();
+        bufferedRows = 0;
+    }
+
+    /**
+     * Returns the buffered object with the same unique values as the given
+     * object, or null if no such object is buffered.
+     */
+    private T getBufferedObject( T object )
+    {
+        if ( bufferedObjects.isEmpty() )
+        {
+            return null;
+        }
+
+        List<Object> uniqueValues = delegate.getUniqueValues( object );
+
+        return uniqueValues.isEmpty() ? null : bufferedObjects.get( uniqueValues.toString() );
+    }
+
+    /**
+     * Appends the given object to the buffer. An object which is already
+     * buffered causes the buffer to be written first, as a single statement
+     * cannot merge the same row twice.
+     */
+    private void bufferObject( T object, List<Object> uniqueValues )
+    {
+        if ( !uniqueValues.isEmpty() && bufferedObjects.containsKey( uniqueValues.toString() ) )
+        {
+            flushCopy();
+        }
+
+        if ( !uniqueValues.isEmpty() )
+        {
+            bufferedObjects.put( uniqueValues.toString(), object );
+        }
+
+        appendRow( buffer, delegate.getValues( object ) );
+
+        if ( ++bufferedRows >= MAX_BUFFERED_ROWS )
+        {
+            flushCopy();
+        }
+    }
+
+    /**
+     * Copies the buffered rows into a staging table and moves them to the
+     * target table. When the connection takes part in a transaction managed
+     * by Spring, the statements run in that transaction and are committed or
+     * rolled back with it, otherwise they run in a local transaction.
+     */
+    private void copyViaStagingTable( Connection connection, boolean transactional )
+        throws Exception
+    {
+        String table = delegate.getTableName();
+        String stagingTable = table + STAGING_SUFFIX;
+        String columns = String.join( ",", delegate.getColumns() );
+
+        boolean autoCommit = connection.getAutoCommit();
+
+        if ( !transactional )
+        {
+            connection.setAutoCommit( false );
+        }
+
+        try ( Statement statement = connection.createStatement() )
+        {
+            statement.execute( "create temp table " + stagingTable + " as select " + columns +
+                " from " + table + " with no data" );
+
+            copy( connection, stagingTable );
+
+            statement.executeUpdate( getMergeSql( stagingTable, columns ) );
+
+            statement.execute( "drop table " + stagingTable );
+
+            if ( !transactional )
+            {
+                connection.commit();
+            }
+        }
+        catch ( Exception ex )
+        {
+            if ( !transactional )
+            {
+                connection.rollback();
+            }
+
+            throw ex;
+        }
+        finally
+        {
+            if ( !transactional )
+            {
+                connection.setAutoCommit( autoCommit );
+            }
+        }
+    }
+
+    /**
+     * Returns the statement which moves the rows of the given staging table
+     * into the target table.
+     */
+    String getMergeSql( String stagingTable, String columns )
+    {
+        String autoIncrementColumn = delegate.getAutoIncrementColumn();
+
+        String sql = autoIncrementColumn != null
+            ? "insert into " + delegate.getTableName() + " (" + autoIncrementColumn + "," + columns + ") " +
+                "select nextval('" + delegate.getIdSequenceName() + "')," + columns + " from " + stagingTable
+            : "insert into " + delegate.getTableName() + " (" + columns + ") " +
+                "select " + columns + " from " + stagingTable;
+
+        List<String> uniqueColumns = delegate.getUniqueColumns();
+
+        if ( merge && !uniqueColumns.isEmpty() )
+        {
+            String updates = delegate.getColumns().stream()
+                .filter( column -> !uniqueColumns.contains( column ) )
+                .map( column -> column + " = excluded." + column )
+                .collect( Collectors.joining( "," ) );
+
+            sql += " on conflict (" + String.join( ",", uniqueColumns ) + ") do update set " + updates;
+        }
+
+        return sql;
+    }
+
+    private void copy( Connection connection, String table )
+        throws SQLException,
+        IOException
+    {
+        String sql = "copy " + table + " (" + String.join( ",", delegate.getColumns() ) +
+            ") from stdin (format csv)";
+
+        connection.unwrap( PGConnection.class ).getCopyAPI()
+            .copyIn( sql, new StringReader( buffer.toString() ) );
+    }
+
+    /**
+     * Appends the given values as a CSV row to the buffer. Null values are
+     * written as empty unquoted fields, which is null in the COPY CSV format,
+     * while strings are always quoted so that empty strings are preserved.
+     */
+    static void appendRow( StringBuilder buffer, List<Object> values )
+    {
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            Object value = values.get( i );
+
+            if ( i > 0 )
+            {
+                buffer.append( ',' );
+            }
+
+            if ( value instanceof String )
+            {
+                buffer.append( '"' ).append( ((String) value).replace( "\"", "\"\"" ) ).append( '"' );
+            }
+            else if ( value != null )
+            {
+                buffer.append( value );
+            }
+        }
+
+        buffer.append( '\n' );
+    }
+}
@@ -31,11 +31,17 @@ import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.quick.JdbcConfiguration;
 import org.hisp.quick.batchhandler.AbstractBatchHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.google.common.collect.Lists;
 
 /**
  * @author Lars Helge Overland
@@ -43,6 +49,18 @@ import org.hisp.quick.batchhandler.AbstractBatchHandler;
 public class DataValueBatchHandler
     extends AbstractBatchHandler<DataValue>
 {
+    /**
+     * Max number of bind parameters of a statement supported by the PostgreSQL
+     * JDBC driver.
+     */
+    private static final int MAX_BIND_PARAMETERS = 32767;
+
+    /**
+     * Max number of data values per lookup query, each value binds the five
+     * columns of the unique key.
+     */
+    public static final int MAX_LOOKUP_SIZE = MAX_BIND_PARAMETERS / 5;
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -154,6 +172,77 @@ public class DataValueBatchHandler
             value.isDeleted() );
     }
 
+    // -------------------------------------------------------------------------
+    // Bulk lookup
+    // -------------------------------------------------------------------------
+
+    /**
+     * Finds the persisted data values matching the given data values on the
+     * unique key of data element, period, source, category option combo and
+     * attribute option combo. Uses one query per {@link #MAX_LOOKUP_SIZE}
+     * values instead of one query per value.
+     *
+     * @param values the data values to look up.
+     * @return a list of the same size and order as the given values, holding
+     *         the persisted data value or null if no such value exists.
+     */
+    public List<DataValue> findObjects( List<DataValue> values )
+    {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate( getConfiguration().getDataSource() );
+
+        Map<String, DataValue> persisted = new HashMap<>();
+
+        for ( List<DataValue> partition : Lists.partition( values, MAX_LOOKUP_SIZE ) )
+        {
+            StringBuilder sql = new StringBuilder( "select * from datavalue " +
+                "where (dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid) in (" );
+
+            List<Object> args = new ArrayList<>( partition.size() * 5 );
+
+            for ( DataValue value : partition )
+            {
+                sql.append( "(?,?,?,?,?)," );
+                args.addAll( getUniqueValues( value ) );
+            }
+
+            sql.setCharAt( sql.length() - 1, ')' );
+
+            jdbcTemplate.query( sql.toString(), rs -> {
+                persisted.put( getUniqueKey( rs.getLong( "dataelementid" ), rs.getLong( "periodid" ),
+                    rs.getLong( "sourceid" ), rs.getLong( "categoryoptioncomboid" ),
+                    rs.getLong( "attributeoptioncomboid" ) ), mapRow( rs ) );
+            }, args.toArray() );
+        }
+
+        List<DataValue> result = new ArrayList<>( values.size() );
+
+        for ( DataValue value : values )
+        {
+            result.add( persisted.get( getUniqueKey( value ) ) );
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a key representing the unique columns of the given data value.
+     *
+     * @param value the data value.
+     * @return a unique key.
+     */
+    public static String getUniqueKey( DataValue value )
+    {
+        return getUniqueKey( value.getDataElement().getId(), value.getPeriod().getId(), value.getSource().getId(),
+            value.getCategoryOptionCombo().getId(), value.getAttributeOptionCombo().getId() );
+    }
+
+    private static String getUniqueKey( long dataElementId, long periodId, long sourceId, long categoryOptionComboId,
+        long attributeOptionComboId )
+    {
+        return dataElementId + "-" + periodId + "-" + sourceId + "-" + categoryOptionComboId + "-"
+            + attributeOptionComboId;
+    }
+
     @Override
     public DataValue mapRow( ResultSet resultSet )
         throws SQLException
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.jdbc.batchhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.hisp.quick.JdbcConfiguration;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CopyBatchHandlerTest
+{
+    // -------------------------------------------------------------------------
+    // CSV encoding
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testAppendRowNullAndEmptyString()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( null, "", "A" ) );
+
+        assertEquals( ",\"\",\"A\"\n", buffer.toString() );
+    }
+
+    @Test
+    void testAppendRowQuotes()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( "say \"hi\"", "a,b" ) );
+
+        assertEquals( "\"say \"\"hi\"\"\",\"a,b\"\n", buffer.toString() );
+    }
+
+    @Test
+    void testAppendRowNewlines()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( "line1\nline2", "cr\r\n" ) );
+
+        assertEquals( "\"line1\nline2\",\"cr\r\n\"\n", buffer.toString() );
+    }
+
+    @Test
+    void testAppendRowNumbersAndBooleans()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( 12L, 1.5d, true, false ) );
+
+        assertEquals( "12,1.5,true,false\n", buffer.toString() );
+    }
+
+    @Test
+    void testAppendMultipleRows()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( 1L, "A" ) );
+        CopyBatchHandler.appendRow( buffer, Arrays.asList( 2L, null ) );
+
+        assertEquals( "1,\"A\"\n2,\n", buffer.toString() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Merge SQL
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testGetMergeSql()
+    {
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( getDataValueBatchHandler(), true );
+
+        String columns = "dataelementid,periodid,sourceid,categoryoptioncomboid,attributeoptioncomboid,value";
+
+        String sql = handler.getMergeSql( "datavalue_copy", columns );
+
+        assertEquals( "insert into datavalue (" + columns + ") select " + columns + " from datavalue_copy " +
+            "on conflict (dataelementid,periodid,sourceid,categoryoptioncomboid,attributeoptioncomboid) " +
+            "do update set value = excluded.value,storedby = excluded.storedby,created = excluded.created," +
+            "lastupdated = excluded.lastupdated,comment = excluded.comment,followup = excluded.followup," +
+            "deleted = excluded.deleted", sql );
+    }
+
+    @Test
+    void testGetInsertSqlWithoutMerge()
+    {
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( getDataValueBatchHandler(), false );
+
+        String sql = handler.getMergeSql( "datavalue_copy", "dataelementid,value" );
+
+        assertEquals( "insert into datavalue (dataelementid,value) select dataelementid,value from datavalue_copy",
+            sql );
+    }
+
+    // -------------------------------------------------------------------------
+    // Buffered lookups
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testFindBufferedObject()
+    {
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( getDataValueBatchHandler(), true );
+
+        DataValue valueA = createDataValue( 1L, "10" );
+        DataValue valueB = createDataValue( 1L, "20" );
+
+        assertTrue( handler.addObject( valueA ) );
+
+        assertSame( valueA, handler.findObject( valueB ) );
+        assertTrue( handler.objectExists( valueB ) );
+    }
+
+    @Test
+    void testFindUpdatedBufferedObject()
+    {
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( getDataValueBatchHandler(), true );
+
+        DataValue valueA = createDataValue( 1L, "10" );
+        DataValue valueB = createDataValue( 1L, "20" );
+
+        handler.updateObject( valueA );
+
+        assertSame( valueA, handler.findObject( valueB ) );
+    }
+
+    @Test
+    void testAddDuplicateObject()
+    {
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( getDataValueBatchHandler(), true );
+
+        assertTrue( handler.addObject( createDataValue( 1L, "10" ) ) );
+        assertFalse( handler.addObject( createDataValue( 1L, "20" ) ) );
+        assertTrue( handler.addObject( createDataValue( 2L, "30" ) ) );
+        assertEquals( 2, handler.getAddObjectCount() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Connection handling
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testFlushCopyUsesTransactionConnection()
+        throws Exception
+    {
+        DataSource dataSource = mock( DataSource.class );
+        Connection connection = mock( Connection.class );
+        Statement statement = mock( Statement.class );
+        PGConnection pgConnection = mock( PGConnection.class );
+        CopyManager copyManager = mock( CopyManager.class );
+
+        when( connection.createStatement() ).thenReturn( statement );
+        when( connection.unwrap( PGConnection.class ) ).thenReturn( pgConnection );
+        when( pgConnection.getCopyAPI() ).thenReturn( copyManager );
+
+        JdbcConfiguration configuration = mock( JdbcConfiguration.class );
+        when( configuration.getDataSource() ).thenReturn( dataSource );
+
+        DataValueBatchHandler delegate = getDataValueBatchHandler();
+        doReturn( configuration ).when( delegate ).getConfiguration();
+
+        CopyBatchHandler<DataValue> handler = new CopyBatchHandler<>( delegate, true );
+        handler.addObject( createDataValue( 1L, "10" ) );
+
+        TransactionSynchronizationManager.bindResource( dataSource, new ConnectionHolder( connection ) );
+
+        try
+        {
+            handler.flushCopy();
+        }
+        finally
+        {
+            TransactionSynchronizationManager.unbindResource( dataSource );
+        }
+
+        verify( copyManager ).copyIn( startsWith( "copy datavalue_copy " ), any( Reader.class ) );
+        verify( statement ).executeUpdate( startsWith( "insert into datavalue " ) );
+        verify( statement ).execute( "drop table datavalue_copy" );
+        verify( dataSource, never() ).getConnection();
+        verify( connection, never() ).setAutoCommit( false );
+        verify( connection, never() ).commit();
+        verify( connection, never() ).close();
+        assertEquals( 1, handler.getCopiedRows() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates a data value batch handler without a database configuration,
+     * which is sufficient for table, column and value definitions.
+     */
+    private DataValueBatchHandler getDataValueBatchHandler()
+    {
+        return mock( DataValueBatchHandler.class, CALLS_REAL_METHODS );
+    }
+
+    private DataValue createDataValue( long dataElementId, String value )
+    {
+        DataElement dataElement = new DataElement();
+        dataElement.setId( dataElementId );
+
+        Period period = new Period();
+        period.setId( 1L );
+
+        OrganisationUnit source = new OrganisationUnit();
+        source.setId( 1L );
+
+        CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
+        categoryOptionCombo.setId( 1L );
+
+        DataValue dataValue = new DataValue();
+        dataValue.setDataElement( dataElement );
+        dataValue.setPeriod( period );
+        dataValue.setSource( source );
+        dataValue.setCategoryOptionCombo( categoryOptionCombo );
+        dataValue.setAttributeOptionCombo( categoryOptionCombo );
+        dataValue.setValue( value );
+        return dataValue;
+    }
+}
@@ -52,11 +52,9 @@ public interface CacheProvider
 
     <V> Cache<V> createAllConstantsCache();
 
-    <V> Cache<V> createInUserOrgUnitHierarchyCache();
+    <V> Cache<V> createCompiledExpressionCache();
 
-    <V> Cache<V> createInUserViewOrgUnitHierarchyCache();
-
-    <V> Cache<V> createInUserSearchOrgUnitHierarchyCache();
+    <V> Cache<V> createFieldPathCache();
 
     <V> Cache<V> createUserCaptureOrgUnitThresholdCache();
 
@@ -98,6 +96,10 @@ public interface CacheProvider
 
     <V> Cache<V> createProgramRuleVariablesCache();
 
+    <V> Cache<V> createRuleEngineContextCache();
+
+    <V> Cache<V> createModificationStateCache();
+
     <V> Cache<V> createUserGroupNameCache();
 
     <V> Cache<V> createUserDisplayNameCache();
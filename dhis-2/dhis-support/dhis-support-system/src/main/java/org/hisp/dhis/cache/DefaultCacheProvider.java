@@ -91,9 +91,8 @@ public class DefaultCacheProvider
         defaultObjectCache,
         isDataApproved,
         allConstantsCache,
-        inUserOuHierarchy,
-        isUserViewOuHierHierarchy,
-        inUserSearchOuHierarchy,
+        compiledExpressionCache,
+        fieldPathCache,
         userCaptureOuCountThreshold,
         periodIdCache,
         userAccountRecoverAttempt,
@@ -114,6 +113,8 @@ public class DefaultCacheProvider
         propertyTransformerCache,
         programHasRulesCache,
         programRuleVariablesCache,
+        ruleEngineContextCache,
+        modificationStateCache,
         userGroupNameCache,
         userDisplayNameCache,
         programWebHookNotificationTemplateCache,
@@ -209,36 +210,29 @@ public class DefaultCacheProvider
     }
 
     @Override
-    public <V> Cache<V> createInUserOrgUnitHierarchyCache()
+    public <V> Cache<V> createCompiledExpressionCache()
     {
         return registerCache( this.<V> newBuilder()
-            .forRegion( Region.inUserOuHierarchy.name() )
-            .expireAfterWrite( 1, TimeUnit.HOURS )
-            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
-            .forceInMemory()
-            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
-    }
-
-    @Override
-    public <V> Cache<V> createInUserViewOrgUnitHierarchyCache()
-    {
-        return registerCache( this.<V> newBuilder()
-            .forRegion( Region.isUserViewOuHierHierarchy.name() )
-            .expireAfterWrite( 3, TimeUnit.HOURS )
+            .forRegion( Region.compiledExpressionCache.name() )
+            .expireAfterAccess( 1, HOURS )
             .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
             .forceInMemory()
             .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
     }
 
+    /**
+     * Cache for field paths parsed from field filters and applied to a class,
+     * which only depend on the schemas and are therefore kept in memory.
+     */
     @Override
-    public <V> Cache<V> createInUserSearchOrgUnitHierarchyCache()
+    public <V> Cache<V> createFieldPathCache()
     {
         return registerCache( this.<V> newBuilder()
-            .forRegion( Region.inUserSearchOuHierarchy.name() )
-            .expireAfterWrite( 1, TimeUnit.HOURS )
-            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
+            .forRegion( Region.fieldPathCache.name() )
+            .expireAfterAccess( 1, HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_100 ) )
             .forceInMemory()
-            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1K ) ) ) );
     }
 
     @Override
@@ -449,6 +443,28 @@ public class DefaultCacheProvider
             .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1K ) ) ) );
     }
 
+    @Override
+    public <V> Cache<V> createRuleEngineContextCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.ruleEngineContextCache.name() )
+            .expireAfterWrite( 3, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( 20 ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1K ) ) ) );
+    }
+
+    @Override
+    public <V> Cache<V> createModificationStateCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.modificationStateCache.name() )
+            .expireAfterWrite( 1, TimeUnit.MINUTES )
+            .withInitialCapacity( (int) getActualSize( SIZE_100 ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1K ) ) ) );
+    }
+
     @Override
     public <V> Cache<V> createUserGroupNameCache()
     {
@@ -36,6 +36,7 @@ import java.util.Map;
 import javax.sql.DataSource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.monitoring.metrics.jdbc.C3p0MetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.DataSourcePoolMetadataProvider;
@@ -62,6 +63,8 @@ public class DataSourcePoolMetricsConfig
 
         private static final String DATASOURCE_SUFFIX = "dataSource";
 
+        private static final String READ_ONLY_DATASOURCE_NAME = "readOnly";
+
         private final MeterRegistry registry;
 
         private final Collection<DataSourcePoolMetadataProvider> metadataProviders;
@@ -79,6 +82,17 @@ public class DataSourcePoolMetricsConfig
             dataSources.forEach( this::bindDataSourceToRegistry );
         }
 
+        @Autowired
+        public void bindReadReplicasToRegistry( ReadOnlyDataSourceManager readOnlyDataSourceManager )
+        {
+            DataSource dataSource = readOnlyDataSourceManager.getReadOnlyDataSource();
+
+            if ( dataSource != null )
+            {
+                bindDataSourceToRegistry( READ_ONLY_DATASOURCE_NAME, dataSource );
+            }
+        }
+
         private void bindDataSourceToRegistry( String beanName, DataSource dataSource )
         {
             String dataSourceName = getDataSourceName( beanName );
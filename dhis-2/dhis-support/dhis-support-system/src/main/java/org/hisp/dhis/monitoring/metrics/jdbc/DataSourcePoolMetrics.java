@@ -33,6 +33,8 @@ import java.util.function.Function;
 
 import javax.sql.DataSource;
 
+import org.hisp.dhis.datasource.CircularRoutingDataSource;
+import org.hisp.dhis.datasource.CircularRoutingDataSource.ReadReplica;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentReferenceHashMap;
 
@@ -73,6 +75,12 @@ public class DataSourcePoolMetrics
     @Override
     public void bindTo( MeterRegistry registry )
     {
+        if ( this.dataSource instanceof CircularRoutingDataSource )
+        {
+            bindReplicas( registry, (CircularRoutingDataSource) this.dataSource );
+            return;
+        }
+
         if ( this.metadataProvider.getDataSourcePoolMetadata( this.dataSource ) != null )
         {
             bindPoolMetadata( registry, "active", DataSourcePoolMetadata::getActive );
@@ -82,6 +90,20 @@ public class DataSourcePoolMetrics
         }
     }
 
+    private void bindReplicas( MeterRegistry registry, CircularRoutingDataSource routingDataSource )
+    {
+        for ( ReadReplica replica : routingDataSource.getReplicas() )
+        {
+            Iterable<Tag> replicaTags = Tags.concat( this.tags, "replica", replica.getName() );
+
+            registry.gauge( "jdbc.replica.connections.active", replicaTags, replica,
+                ReadReplica::getActiveConnections );
+            registry.gauge( "jdbc.replica.latency", replicaTags, replica, ReadReplica::getLatencyMillis );
+            registry.gauge( "jdbc.replica.lag", replicaTags, replica, ReadReplica::getLagSeconds );
+            registry.gauge( "jdbc.replica.healthy", replicaTags, replica, r -> r.isHealthy() ? 1 : 0 );
+        }
+    }
+
     private <N extends Number> void bindPoolMetadata( MeterRegistry registry, String metricName,
         Function<DataSourcePoolMetadata, N> function )
     {
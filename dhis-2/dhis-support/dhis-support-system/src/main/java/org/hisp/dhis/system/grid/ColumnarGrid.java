@@ -0,0 +1,785 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.ExecutionPlan;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.PerformanceMetrics;
+import org.hisp.dhis.common.Reference;
+import org.hisp.dhis.common.adapter.JacksonRowDataSerializer;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Grid which stores its rows in immutable, column oriented
+ * {@link GridColumns} and which can be copied without copying the rows.
+ * Copies share the columns, and each copy materializes its own
+ * {@link ListGrid} rows only when the rows are modified or exposed as
+ * modifiable lists. Reading values and visible rows, and rendering the grid
+ * as JSON, work directly on the columns.
+ * <p>
+ * Titles, headers and meta data are not shared between copies. Cell values
+ * are shared and are expected to be immutable.
+ */
+public class ColumnarGrid
+    implements Grid, Serializable
+{
+    /**
+     * The state of the grid except for rows, which is cloned for each copy of
+     * the grid. Never modified.
+     */
+    private final ListGrid template;
+
+    /**
+     * The rows of the grid, shared between copies. Never modified.
+     */
+    private final GridColumns columns;
+
+    /**
+     * The grid to which operations are delegated. Holds no rows until
+     * materialized.
+     */
+    private final ListGrid grid;
+
+    /**
+     * Whether the rows have been copied from the columns to the grid.
+     */
+    private boolean materialized;
+
+    private ColumnarGrid( ListGrid template, GridColumns columns )
+    {
+        this.template = template;
+        this.columns = columns;
+        this.grid = SerializationUtils.clone( template );
+    }
+
+    /**
+     * Creates a {@link ColumnarGrid} with a copy of the state and rows of the
+     * given grid.
+     *
+     * @param grid the grid.
+     * @return a {@link ColumnarGrid}.
+     * @throws IllegalArgumentException if the grid rows do not have the same
+     *         number of cells.
+     */
+    public static ColumnarGrid of( Grid grid )
+    {
+        ListGrid template = new ListGrid( grid.getMetaData(), grid.getInternalMetaData() );
+        template.setTitle( grid.getTitle() );
+        template.setSubtitle( grid.getSubtitle() );
+        template.setTable( grid.getTable() );
+        template.setLastDataRow( grid.hasLastDataRow() );
+        grid.getHeaders().forEach( template::addHeader );
+
+        if ( grid.getRefs() != null )
+        {
+            grid.getRefs().forEach( template::addReference );
+        }
+
+        if ( grid.getPerformanceMetrics() != null )
+        {
+            template.maybeAddPerformanceMetrics( grid.getPerformanceMetrics().getExecutionPlans() );
+        }
+
+        List<List<Object>> rows = grid instanceof ColumnarGrid ? ((ColumnarGrid) grid).getRowsView()
+            : grid.getRows();
+
+        return new ColumnarGrid( SerializationUtils.clone( template ), GridColumns.of( rows ) );
+    }
+
+    /**
+     * Returns a copy of this grid. The copy shares the rows with this grid
+     * unless the rows of this grid have been materialized.
+     *
+     * @return a {@link ColumnarGrid}.
+     */
+    public ColumnarGrid copy()
+    {
+        return materialized ? of( this ) : new ColumnarGrid( template, columns );
+    }
+
+    /**
+     * Indicates whether the rows have been copied from the shared columns.
+     */
+    public boolean isMaterialized()
+    {
+        return materialized;
+    }
+
+    /**
+     * Returns a read-only view of the rows, which is used for rendering.
+     */
+    @JsonProperty( "rows" )
+    @JsonSerialize( using = JacksonRowDataSerializer.class )
+    public List<List<Object>> getRowsView()
+    {
+        return materialized ? grid.getRows() : columns.asRows();
+    }
+
+    // -------------------------------------------------------------------------
+    // Operations on the columns
+    // -------------------------------------------------------------------------
+
+    @Override
+    @JsonProperty
+    public int getHeight()
+    {
+        return materialized ? grid.getHeight() : columns.getHeight();
+    }
+
+    @Override
+    @JsonProperty
+    public int getWidth()
+    {
+        if ( materialized )
+        {
+            return grid.getWidth();
+        }
+
+        return columns.getHeight() > 0 ? columns.getWidth() : 0;
+    }
+
+    @Override
+    public List<List<Object>> getVisibleRows()
+    {
+        if ( materialized )
+        {
+            return grid.getVisibleRows();
+        }
+
+        List<GridHeader> headers = grid.getHeaders();
+
+        List<List<Object>> visibleRows = new ArrayList<>();
+
+        if ( headers != null && !headers.isEmpty() )
+        {
+            for ( int rowIndex = 0; rowIndex < columns.getHeight(); rowIndex++ )
+            {
+                List<Object> row = new ArrayList<>();
+
+                for ( int i = 0; i < columns.getWidth(); i++ )
+                {
+                    if ( !headers.get( i ).isHidden() )
+                    {
+                        row.add( columns.get( rowIndex, i ) );
+                    }
+                }
+
+                visibleRows.add( row );
+            }
+        }
+
+        return visibleRows;
+    }
+
+    @Override
+    public List<Object> getColumn( int columnIndex )
+    {
+        if ( materialized )
+        {
+            return grid.getColumn( columnIndex );
+        }
+
+        List<Object> column = new ArrayList<>( columns.getHeight() );
+
+        for ( int i = 0; i < columns.getHeight(); i++ )
+        {
+            column.add( columns.get( i, columnIndex ) );
+        }
+
+        return column;
+    }
+
+    @Override
+    public Object getValue( int rowIndex, int columnIndex )
+    {
+        if ( materialized )
+        {
+            return grid.getValue( rowIndex, columnIndex );
+        }
+
+        if ( rowIndex >= columns.getHeight() || columnIndex >= columns.getWidth() )
+        {
+            throw new IllegalArgumentException( "Grid does not contain the requested row / column" );
+        }
+
+        return columns.get( rowIndex, columnIndex );
+    }
+
+    @Override
+    public boolean columnIsEmpty( int columnIndex )
+    {
+        if ( materialized )
+        {
+            return grid.columnIsEmpty( columnIndex );
+        }
+
+        for ( int i = 0; i < columns.getHeight(); i++ )
+        {
+            if ( columns.get( i, columnIndex ) != null )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Set<Object> getUniqueValues( String columnName )
+    {
+        int columnIndex = getIndexOfHeader( columnName );
+
+        return columnIndex != -1 ? new HashSet<>( getColumn( columnIndex ) ) : new HashSet<>();
+    }
+
+    // -------------------------------------------------------------------------
+    // Operations on the headers and meta data
+    // -------------------------------------------------------------------------
+
+    @Override
+    @JsonProperty
+    public String getTitle()
+    {
+        return grid.getTitle();
+    }
+
+    @Override
+    public Grid setTitle( String title )
+    {
+        grid.setTitle( title );
+        return this;
+    }
+
+    @Override
+    @JsonProperty
+    public String getSubtitle()
+    {
+        return grid.getSubtitle();
+    }
+
+    @Override
+    public Grid setSubtitle( String subtitle )
+    {
+        grid.setSubtitle( subtitle );
+        return this;
+    }
+
+    @Override
+    @JsonProperty
+    public String getTable()
+    {
+        return grid.getTable();
+    }
+
+    @Override
+    public Grid setTable( String table )
+    {
+        grid.setTable( table );
+        return this;
+    }
+
+    @Override
+    @JsonProperty
+    public List<GridHeader> getHeaders()
+    {
+        return grid.getHeaders();
+    }
+
+    @Override
+    public List<GridHeader> getVisibleHeaders()
+    {
+        return grid.getVisibleHeaders();
+    }
+
+    @Override
+    public List<GridHeader> getMetadataHeaders()
+    {
+        return grid.getMetadataHeaders();
+    }
+
+    @Override
+    public int getIndexOfHeader( String name )
+    {
+        return grid.getIndexOfHeader( name );
+    }
+
+    @Override
+    @JsonProperty
+    public int getHeaderWidth()
+    {
+        return grid.getHeaderWidth();
+    }
+
+    @Override
+    @JsonProperty
+    public Map<String, Object> getMetaData()
+    {
+        return grid.getMetaData();
+    }
+
+    @Override
+    public Grid setMetaData( Map<String, Object> metaData )
+    {
+        grid.setMetaData( metaData );
+        return this;
+    }
+
+    @Override
+    public Grid addMetaData( String key, Object value )
+    {
+        grid.addMetaData( key, value );
+        return this;
+    }
+
+    @Override
+    @JsonIgnore
+    public Map<String, Object> getInternalMetaData()
+    {
+        return grid.getInternalMetaData();
+    }
+
+    @Override
+    public Grid setInternalMetaData( Map<String, Object> internalMetaData )
+    {
+        grid.setInternalMetaData( internalMetaData );
+        return this;
+    }
+
+    @Override
+    public boolean hasMetaDataKey( String key )
+    {
+        return grid.hasMetaDataKey( key );
+    }
+
+    @Override
+    public boolean hasInternalMetaDataKey( String key )
+    {
+        return grid.hasInternalMetaDataKey( key );
+    }
+
+    @Override
+    public List<Integer> getMetaColumnIndexes()
+    {
+        return grid.getMetaColumnIndexes();
+    }
+
+    @Override
+    @JsonProperty
+    public PerformanceMetrics getPerformanceMetrics()
+    {
+        return grid.getPerformanceMetrics();
+    }
+
+    @Override
+    public Grid maybeAddPerformanceMetrics( List<ExecutionPlan> plans )
+    {
+        grid.maybeAddPerformanceMetrics( plans );
+        return this;
+    }
+
+    @Override
+    @JsonProperty
+    public List<Reference> getRefs()
+    {
+        return grid.getRefs();
+    }
+
+    @Override
+    public Grid addReference( Reference reference )
+    {
+        grid.addReference( reference );
+        return this;
+    }
+
+    @Override
+    public boolean hasLastDataRow()
+    {
+        return grid.hasLastDataRow();
+    }
+
+    @Override
+    public void setLastDataRow( boolean lastDataRow )
+    {
+        grid.setLastDataRow( lastDataRow );
+    }
+
+    // -------------------------------------------------------------------------
+    // Operations on the materialized rows
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Grid addHeader( GridHeader header )
+    {
+        rows().addHeader( header );
+        return this;
+    }
+
+    @Override
+    public Grid addHeader( int headerIndex, GridHeader header )
+    {
+        rows().addHeader( headerIndex, header );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( int headerIndex, List<GridHeader> headers )
+    {
+        rows().addHeaders( headerIndex, headers );
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyHeaders( int number )
+    {
+        rows().addEmptyHeaders( number );
+        return this;
+    }
+
+    @Override
+    public Grid replaceHeaders( List<GridHeader> headers )
+    {
+        rows().replaceHeaders( headers );
+        return this;
+    }
+
+    @Override
+    public int getVisibleWidth()
+    {
+        return rows().getVisibleWidth();
+    }
+
+    @Override
+    public Grid addRow()
+    {
+        rows().addRow();
+        return this;
+    }
+
+    @Override
+    public Grid addRows( Grid grid )
+    {
+        rows().addRows( grid );
+        return this;
+    }
+
+    @Override
+    public Grid addValue( Object value )
+    {
+        rows().addValue( value );
+        return this;
+    }
+
+    @Override
+    public Grid addValues( Object[] values )
+    {
+        rows().addValues( values );
+        return this;
+    }
+
+    @Override
+    public Grid addValuesVar( Object... values )
+    {
+        rows().addValuesVar( values );
+        return this;
+    }
+
+    @Override
+    public Grid addValuesAsList( List<Object> values )
+    {
+        rows().addValuesAsList( values );
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyValue()
+    {
+        rows().addEmptyValue();
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyValues( int number )
+    {
+        rows().addEmptyValues( number );
+        return this;
+    }
+
+    @Override
+    public Grid addNullValues( int number )
+    {
+        rows().addNullValues( number );
+        return this;
+    }
+
+    @Override
+    public List<Object> getRow( int rowIndex )
+    {
+        return rows().getRow( rowIndex );
+    }
+
+    @Override
+    public List<List<Object>> getRows()
+    {
+        return rows().getRows();
+    }
+
+    @Override
+    public Grid addColumn( List<Object> columnValues )
+    {
+        rows().addColumn( columnValues );
+        return this;
+    }
+
+    @Override
+    public Grid addColumn( int columnIndex, List<Object> columnValues )
+    {
+        rows().addColumn( columnIndex, columnValues );
+        return this;
+    }
+
+    @Override
+    public Grid addAndPopulateColumnsBefore( int referenceColumnIndex, Map<Object, List<?>> valueMap, int newColumns )
+    {
+        rows().addAndPopulateColumnsBefore( referenceColumnIndex, valueMap, newColumns );
+        return this;
+    }
+
+    @Override
+    public Grid removeColumn( int columnIndex )
+    {
+        rows().removeColumn( columnIndex );
+        return this;
+    }
+
+    @Override
+    public Grid removeEmptyColumns()
+    {
+        rows().removeEmptyColumns();
+        return this;
+    }
+
+    @Override
+    public Grid removeColumn( GridHeader header )
+    {
+        rows().removeColumn( header );
+        return this;
+    }
+
+    @Override
+    public Grid removeCurrentWriteRow()
+    {
+        rows().removeCurrentWriteRow();
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int limit )
+    {
+        rows().limitGrid( limit );
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int startPos, int endPos )
+    {
+        rows().limitGrid( startPos, endPos );
+        return this;
+    }
+
+    @Override
+    public Grid sortGrid( int columnIndex, int order )
+    {
+        rows().sortGrid( columnIndex, order );
+        return this;
+    }
+
+    @Override
+    public Grid addRegressionColumn( int columnIndex, boolean addHeader )
+    {
+        rows().addRegressionColumn( columnIndex, addHeader );
+        return this;
+    }
+
+    @Override
+    public Grid addRegressionToGrid( int startColumnIndex, int numberOfColumns )
+    {
+        rows().addRegressionToGrid( startColumnIndex, numberOfColumns );
+        return this;
+    }
+
+    @Override
+    public Grid addCumulativeColumn( int columnIndex, boolean addHeader )
+    {
+        rows().addCumulativeColumn( columnIndex, addHeader );
+        return this;
+    }
+
+    @Override
+    public Grid addCumulativesToGrid( int startColumnIndex, int numberOfColumns )
+    {
+        rows().addCumulativesToGrid( startColumnIndex, numberOfColumns );
+        return this;
+    }
+
+    @Override
+    public Grid substituteMetaData( Map<?, ?> metaDataMap )
+    {
+        rows().substituteMetaData( metaDataMap );
+        return this;
+    }
+
+    @Override
+    public Grid substituteMetaData( int sourceColumnIndex, int targetColumnIndex, Map<?, ?> metaDataMap )
+    {
+        rows().substituteMetaData( sourceColumnIndex, targetColumnIndex, metaDataMap );
+        return this;
+    }
+
+    @Override
+    public <T> Map<String, T> getAsMap( int valueIndex, String keySeparator )
+    {
+        return rows().getAsMap( valueIndex, keySeparator );
+    }
+
+    @Override
+    public Grid addHeaders( ResultSet rs )
+    {
+        rows().addHeaders( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( SqlRowSet rs )
+    {
+        rows().addHeaders( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( ResultSet rs )
+    {
+        rows().addRows( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( SqlRowSet rs )
+    {
+        rows().addRows( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( SqlRowSet rs, int maxLimit )
+    {
+        rows().addRows( rs, maxLimit );
+        return this;
+    }
+
+    @Override
+    public void keepOnlyThese( Set<String> headers )
+    {
+        rows().keepOnlyThese( headers );
+    }
+
+    @Override
+    public Set<Integer> repositionHeaders( Set<String> headers )
+    {
+        return rows().repositionHeaders( headers );
+    }
+
+    @Override
+    public void repositionColumns( Set<Integer> newColumnsIndexes )
+    {
+        rows().repositionColumns( newColumnsIndexes );
+    }
+
+    // -------------------------------------------------------------------------
+    // JRDataSource implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public boolean next()
+        throws JRException
+    {
+        return rows().next();
+    }
+
+    @Override
+    public Object getFieldValue( JRField field )
+        throws JRException
+    {
+        return rows().getFieldValue( field );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Copies the rows from the shared columns to the grid unless already done,
+     * and returns the grid.
+     */
+    private ListGrid rows()
+    {
+        if ( !materialized )
+        {
+            for ( int i = 0; i < columns.getHeight(); i++ )
+            {
+                grid.addRow().addValuesAsList( columns.getRow( i ) );
+            }
+
+            materialized = true;
+        }
+
+        return grid;
+    }
+
+    @Override
+    public String toString()
+    {
+        return rows().toString();
+    }
+}
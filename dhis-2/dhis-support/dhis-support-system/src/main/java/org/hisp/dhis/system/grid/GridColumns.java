@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column oriented storage of the rows of a grid. Numeric values are
+ * stored in primitive arrays and strings are dictionary encoded, so that
+ * repeated values such as dimension item identifiers are stored once per
+ * column. Columns with other or mixed value types store references to the
+ * original values, which are expected to be immutable.
+ * <p>
+ * Values are returned with the type they were stored with.
+ */
+final class GridColumns
+    implements Serializable
+{
+    private final int height;
+
+    private final Column[] columns;
+
+    private GridColumns( int height, Column[] columns )
+    {
+        this.height = height;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates column oriented storage of the given rows.
+     *
+     * @param rows the rows, which must all have the same number of cells.
+     * @return a {@link GridColumns}.
+     * @throws IllegalArgumentException if the rows do not have the same
+     *         number of cells.
+     */
+    static GridColumns of( List<List<Object>> rows )
+    {
+        int height = rows.size();
+        int width = height > 0 ? rows.get( 0 ).size() : 0;
+
+        for ( int i = 0; i < height; i++ )
+        {
+            if ( rows.get( i ).size() != width )
+            {
+                throw new IllegalArgumentException( "Grid rows do not have the same number of cells, first: "
+                    + width + ", this: " + rows.get( i ).size() + ", at row: " + i );
+            }
+        }
+
+        Column[] columns = new Column[width];
+
+        for ( int i = 0; i < width; i++ )
+        {
+            columns[i] = createColumn( rows, i );
+        }
+
+        return new GridColumns( height, columns );
+    }
+
+    int getHeight()
+    {
+        return height;
+    }
+
+    int getWidth()
+    {
+        return columns.length;
+    }
+
+    Object get( int rowIndex, int columnIndex )
+    {
+        return columns[columnIndex].get( rowIndex );
+    }
+
+    /**
+     * Returns a new, modifiable row.
+     *
+     * @param rowIndex the row index.
+     */
+    List<Object> getRow( int rowIndex )
+    {
+        List<Object> row = new ArrayList<>( columns.length );
+
+        for ( Column column : columns )
+        {
+            row.add( column.get( rowIndex ) );
+        }
+
+        return row;
+    }
+
+    /**
+     * Returns a read-only view of the rows which reads values from the columns
+     * on access.
+     */
+    List<List<Object>> asRows()
+    {
+        return new AbstractList<>()
+        {
+            @Override
+            public List<Object> get( int rowIndex )
+            {
+                return new RowView( rowIndex );
+            }
+
+            @Override
+            public int size()
+            {
+                return height;
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private static Column createColumn( List<List<Object>> rows, int columnIndex )
+    {
+        Class<?> type = null;
+
+        for ( List<Object> row : rows )
+        {
+            Object value = row.get( columnIndex );
+
+            if ( value != null )
+            {
+                if ( type == null )
+                {
+                    type = value.getClass();
+                }
+                else if ( type != value.getClass() )
+                {
+                    return new ObjectColumn( rows, columnIndex );
+                }
+            }
+        }
+
+        if ( type == Double.class )
+        {
+            return new DoubleColumn( rows, columnIndex );
+        }
+        else if ( type == Long.class || type == Integer.class )
+        {
+            return new LongColumn( rows, columnIndex, type == Integer.class );
+        }
+        else if ( type == String.class )
+        {
+            return new StringColumn( rows, columnIndex );
+        }
+
+        return new ObjectColumn( rows, columnIndex );
+    }
+
+    private class RowView
+        extends AbstractList<Object>
+    {
+        private final int rowIndex;
+
+        RowView( int rowIndex )
+        {
+            this.rowIndex = rowIndex;
+        }
+
+        @Override
+        public Object get( int columnIndex )
+        {
+            return columns[columnIndex].get( rowIndex );
+        }
+
+        @Override
+        public int size()
+        {
+            return columns.length;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Columns
+    // -------------------------------------------------------------------------
+
+    private interface Column
+        extends Serializable
+    {
+        Object get( int rowIndex );
+    }
+
+    private static final class DoubleColumn
+        implements Column
+    {
+        private final double[] values;
+
+        private final BitSet nulls = new BitSet();
+
+        DoubleColumn( List<List<Object>> rows, int columnIndex )
+        {
+            values = new double[rows.size()];
+
+            for ( int i = 0; i < values.length; i++ )
+            {
+                Object value = rows.get( i ).get( columnIndex );
+
+                if ( value == null )
+                {
+                    nulls.set( i );
+                }
+                else
+                {
+                    values[i] = (Double) value;
+                }
+            }
+        }
+
+        @Override
+        public Object get( int rowIndex )
+        {
+            return nulls.get( rowIndex ) ? null : values[rowIndex];
+        }
+    }
+
+    private static final class LongColumn
+        implements Column
+    {
+        private final long[] values;
+
+        private final BitSet nulls = new BitSet();
+
+        private final boolean integer;
+
+        LongColumn( List<List<Object>> rows, int columnIndex, boolean integer )
+        {
+            this.values = new long[rows.size()];
+            this.integer = integer;
+
+            for ( int i = 0; i < values.length; i++ )
+            {
+                Object value = rows.get( i ).get( columnIndex );
+
+                if ( value == null )
+                {
+                    nulls.set( i );
+                }
+                else
+                {
+                    values[i] = ((Number) value).longValue();
+                }
+            }
+        }
+
+        @Override
+        public Object get( int rowIndex )
+        {
+            if ( nulls.get( rowIndex ) )
+            {
+                return null;
+            }
+
+            return integer ? Integer.valueOf( (int) values[rowIndex] ) : Long.valueOf( values[rowIndex] );
+        }
+    }
+
+    private static final class StringColumn
+        implements Column
+    {
+        private final int[] codes;
+
+        private final String[] dictionary;
+
+        StringColumn( List<List<Object>> rows, int columnIndex )
+        {
+            Map<String, Integer> codeMap = new HashMap<>();
+            List<String> values = new ArrayList<>();
+
+            codes = new int[rows.size()];
+
+            for ( int i = 0; i < codes.length; i++ )
+            {
+                String value = (String) rows.get( i ).get( columnIndex );
+
+                if ( value == null )
+                {
+                    codes[i] = -1;
+                }
+                else
+                {
+                    codes[i] = codeMap.computeIfAbsent( value, v -> {
+                        values.add( v );
+                        return values.size() - 1;
+                    } );
+                }
+            }
+
+            dictionary = values.toArray( new String[0] );
+        }
+
+        @Override
+        public Object get( int rowIndex )
+        {
+            int code = codes[rowIndex];
+
+            return code == -1 ? null : dictionary[code];
+        }
+    }
+
+    private static final class ObjectColumn
+        implements Column
+    {
+        private final Object[] values;
+
+        ObjectColumn( List<List<Object>> rows, int columnIndex )
+        {
+            values = new Object[rows.size()];
+
+            for ( int i = 0; i < values.length; i++ )
+            {
+                values[i] = rows.get( i ).get( columnIndex );
+            }
+        }
+
+        @Override
+        public Object get( int rowIndex )
+        {
+            return values[rowIndex];
+        }
+    }
+}
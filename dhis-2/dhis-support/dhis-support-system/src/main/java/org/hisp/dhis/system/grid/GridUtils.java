@@ -42,11 +42,11 @@ import static org.hisp.dhis.system.util.PDFUtils.resetPaddings;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -94,7 +94,6 @@ import org.htmlparser.tags.TableRow;
 import org.htmlparser.tags.TableTag;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 
-import com.csvreader.CsvWriter;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.lowagie.text.Document;
 import com.lowagie.text.pdf.PdfPTable;
@@ -107,8 +106,6 @@ public class GridUtils
 {
     private static final String EMPTY = "";
 
-    private static final char CSV_DELIMITER = ',';
-
     private static final String XLS_SHEET_PREFIX = "Sheet ";
 
     private static final int JXL_MAX_COLS = 256;
@@ -383,28 +380,13 @@ public class GridUtils
             return;
         }
 
-        CsvWriter csvWriter = new CsvWriter( writer, CSV_DELIMITER );
-
-        Iterator<GridHeader> headers = grid.getHeaders().iterator();
-
-        if ( !grid.getHeaders().isEmpty() )
+        try
         {
-            while ( headers.hasNext() )
-            {
-                csvWriter.write( headers.next().getColumn() );
-            }
-
-            csvWriter.endRecord();
+            new CsvGridWriter( writer ).write( grid );
         }
-
-        for ( List<Object> row : grid.getRows() )
+        catch ( UncheckedIOException ex )
         {
-            for ( Object value : row )
-            {
-                csvWriter.write( value != null ? String.valueOf( maybeFormat( value ) ) : StringUtils.EMPTY );
-            }
-
-            csvWriter.endRecord();
+            throw ex.getCause();
         }
     }
 
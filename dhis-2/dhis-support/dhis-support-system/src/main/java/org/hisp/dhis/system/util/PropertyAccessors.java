@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.schema.Property;
+
+/**
+ * Reads property values through accessor functions generated with
+ * {@link LambdaMetafactory} instead of through reflection. The accessor of a
+ * getter method is generated the first time it is used and then cached, so
+ * that reading a property costs about the same as a direct method call.
+ * <p>
+ * Getters for which no accessor can be generated, for example getters declared
+ * by classes which are not public, are invoked through reflection.
+ */
+@Slf4j
+public final class PropertyAccessors
+{
+    private static final Map<Method, Function<Object, Object>> ACCESSORS = new ConcurrentHashMap<>();
+
+    private PropertyAccessors()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    /**
+     * Returns the value of the given property of the given object.
+     *
+     * @param target the object to read the property of.
+     * @param property the property.
+     * @return the property value, or null if the target or the getter method
+     *         of the property is null.
+     */
+    public static <T> T getValue( Object target, Property property )
+    {
+        return property == null ? null : getValue( target, property.getGetterMethod() );
+    }
+
+    /**
+     * Returns the value of invoking the given getter method on the given
+     * object. Behaves like {@link ReflectionUtils#invokeMethod}, returning
+     * null for protected and private methods.
+     *
+     * @param target the object to invoke the getter on.
+     * @param getter the getter method.
+     * @return the value returned by the getter, or null if the target or the
+     *         getter is null.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <T> T getValue( Object target, Method getter )
+    {
+        if ( target == null || getter == null )
+        {
+            return null;
+        }
+
+        if ( Modifier.isProtected( getter.getModifiers() ) || Modifier.isPrivate( getter.getModifiers() ) )
+        {
+            return null;
+        }
+
+        return (T) ACCESSORS.computeIfAbsent( getter, PropertyAccessors::createAccessor ).apply( target );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    @SuppressWarnings( "unchecked" )
+    private static Function<Object, Object> createAccessor( Method getter )
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect( getter );
+
+            CallSite site = LambdaMetafactory.metafactory( lookup, "apply",
+                MethodType.methodType( Function.class ),
+                MethodType.methodType( Object.class, Object.class ),
+                handle, handle.type().wrap() );
+
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+        catch ( Throwable ex )
+        {
+            log.debug( String.format( "Using reflection for getter '%s' of '%s': %s", getter.getName(),
+                getter.getDeclaringClass().getName(), ex.getMessage() ) );
+
+            return target -> ReflectionUtils.invokeMethod( target, getter );
+        }
+    }
+}
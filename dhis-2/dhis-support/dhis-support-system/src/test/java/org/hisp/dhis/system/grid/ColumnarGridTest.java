@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ColumnarGridTest
+{
+    private Grid grid;
+
+    @BeforeEach
+    void setUp()
+    {
+        grid = new ListGrid();
+        grid.setTitle( "Title" );
+        grid.addHeader( new GridHeader( "dx", "dx", ValueType.TEXT, false, true ) );
+        grid.addHeader( new GridHeader( "pe", "pe", ValueType.TEXT, true, true ) );
+        grid.addHeader( new GridHeader( "value", "value", ValueType.NUMBER, false, false ) );
+        grid.addHeader( new GridHeader( "count", "count", ValueType.INTEGER, false, false ) );
+        grid.addHeader( new GridHeader( "mixed", "mixed", ValueType.TEXT, false, false ) );
+        grid.addMetaData( "key", "value" );
+        grid.addRow().addValuesVar( "deA", "202101", 1.5d, 3, "A" );
+        grid.addRow().addValuesVar( "deA", "202102", null, 4, 2L );
+        grid.addRow().addValuesVar( "deB", null, 2.0d, null, null );
+    }
+
+    @Test
+    void testValuesKeepTypes()
+    {
+        ColumnarGrid columnarGrid = ColumnarGrid.of( grid );
+
+        assertEquals( 3, columnarGrid.getHeight() );
+        assertEquals( 5, columnarGrid.getWidth() );
+        assertEquals( "deA", columnarGrid.getValue( 1, 0 ) );
+        assertNull( columnarGrid.getValue( 2, 1 ) );
+        assertEquals( 1.5d, columnarGrid.getValue( 0, 2 ) );
+        assertNull( columnarGrid.getValue( 1, 2 ) );
+        assertEquals( Integer.valueOf( 4 ), columnarGrid.getValue( 1, 3 ) );
+        assertNull( columnarGrid.getValue( 2, 3 ) );
+        assertEquals( "A", columnarGrid.getValue( 0, 4 ) );
+        assertEquals( Long.valueOf( 2L ), columnarGrid.getValue( 1, 4 ) );
+        assertEquals( grid.getRows(), columnarGrid.getRowsView() );
+        assertEquals( grid.getVisibleRows(), columnarGrid.getVisibleRows() );
+        assertEquals( grid.getColumn( 0 ), columnarGrid.getColumn( 0 ) );
+        assertFalse( columnarGrid.isMaterialized() );
+    }
+
+    @Test
+    void testCopySharesRowsUntilModified()
+    {
+        ColumnarGrid columnarGrid = ColumnarGrid.of( grid );
+        ColumnarGrid copy = columnarGrid.copy();
+
+        copy.setTitle( "Copy" );
+        copy.addMetaData( "key", "copy" );
+        copy.getHeaders().get( 0 ).setName( "copy" );
+
+        assertFalse( copy.isMaterialized() );
+
+        copy.addRow().addValuesVar( "deC", "202103", 3.0d, 5, "C" );
+        copy.getRow( 0 ).set( 0, "changed" );
+
+        assertTrue( copy.isMaterialized() );
+        assertEquals( 4, copy.getHeight() );
+        assertEquals( "changed", copy.getValue( 0, 0 ) );
+
+        assertFalse( columnarGrid.isMaterialized() );
+        assertEquals( 3, columnarGrid.getHeight() );
+        assertEquals( "deA", columnarGrid.getValue( 0, 0 ) );
+        assertEquals( "Title", columnarGrid.getTitle() );
+        assertEquals( "value", columnarGrid.getMetaData().get( "key" ) );
+        assertEquals( "dx", columnarGrid.getHeaders().get( 0 ).getName() );
+        assertEquals( 3, columnarGrid.copy().getHeight() );
+    }
+
+    @Test
+    void testCopyOfMaterializedGrid()
+    {
+        ColumnarGrid columnarGrid = ColumnarGrid.of( grid );
+        columnarGrid.limitGrid( 1 );
+
+        ColumnarGrid copy = columnarGrid.copy();
+
+        assertFalse( copy.isMaterialized() );
+        assertEquals( 1, copy.getHeight() );
+        assertEquals( List.of( "deA", "202101", 1.5d, 3, "A" ), copy.getRowsView().get( 0 ) );
+    }
+
+    @Test
+    void testSourceGridIsNotShared()
+    {
+        ColumnarGrid columnarGrid = ColumnarGrid.of( grid );
+
+        grid.setTitle( "Changed" );
+        grid.addMetaData( "key", "changed" );
+        grid.getRow( 0 ).set( 0, "changed" );
+
+        assertEquals( "Title", columnarGrid.getTitle() );
+        assertEquals( "value", columnarGrid.getMetaData().get( "key" ) );
+        assertEquals( "deA", columnarGrid.getValue( 0, 0 ) );
+    }
+
+    @Test
+    void testJsonMatchesListGrid()
+    {
+        ObjectMapper mapper = JacksonObjectMapperConfig.staticJsonMapper();
+
+        JsonNode expected = mapper.valueToTree( grid );
+        JsonNode actual = mapper.valueToTree( ColumnarGrid.of( grid ).copy() );
+
+        assertEquals( expected, actual );
+    }
+
+    @Test
+    void testUnevenRows()
+    {
+        grid.addRow().addValuesVar( "deC" );
+
+        assertThrows( IllegalArgumentException.class, () -> ColumnarGrid.of( grid ) );
+    }
+
+    @Test
+    void testEmptyGrid()
+    {
+        ColumnarGrid columnarGrid = ColumnarGrid.of( new ListGrid() );
+
+        assertEquals( 0, columnarGrid.getHeight() );
+        assertEquals( 0, columnarGrid.getWidth() );
+        assertEquals( 0, columnarGrid.copy().getRowsView().size() );
+    }
+}
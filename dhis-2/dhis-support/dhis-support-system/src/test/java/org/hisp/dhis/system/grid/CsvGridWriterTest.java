@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.junit.jupiter.api.Test;
+
+class CsvGridWriterTest
+{
+    @Test
+    void testWriteRows()
+    {
+        StringWriter writer = new StringWriter();
+
+        CsvGridWriter gridWriter = new CsvGridWriter( writer );
+
+        gridWriter.writeHeaders( List.of( new GridHeader( "dx", "Data" ), new GridHeader( "value", "Value" ) ) );
+        gridWriter.writeRow( Arrays.asList( "a,b", "1" ) );
+        gridWriter.writeRow( Arrays.asList( "c", null ) );
+
+        String nl = System.lineSeparator();
+
+        assertEquals( "Data,Value" + nl + "\"a,b\",1" + nl + "c," + nl, writer.toString() );
+    }
+
+    @Test
+    void testWriteGridMatchesRows()
+    {
+        Grid grid = new ListGrid();
+        grid.addHeader( new GridHeader( "dx", "Data" ) );
+        grid.addHeader( new GridHeader( "value", "Value" ) );
+        grid.addRow().addValue( "a" ).addValue( 1 );
+        grid.addRow().addValue( "b" ).addValue( 2 );
+
+        StringWriter gridOutput = new StringWriter();
+        new CsvGridWriter( gridOutput ).write( grid );
+
+        StringWriter rowOutput = new StringWriter();
+        CsvGridWriter rowWriter = new CsvGridWriter( rowOutput );
+        rowWriter.writeHeaders( grid.getHeaders() );
+        grid.getRows().forEach( rowWriter::writeRow );
+
+        assertEquals( rowOutput.toString(), gridOutput.toString() );
+    }
+
+    @Test
+    void testWriteWithoutHeaders()
+    {
+        StringWriter writer = new StringWriter();
+
+        new CsvGridWriter( writer ).writeHeaders( List.of() );
+
+        assertEquals( "", writer.toString() );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.util;
+
+import static org.hisp.dhis.system.util.PropertyAccessors.getValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.schema.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PropertyAccessorsTest
+{
+    private DataElement dataElementA;
+
+    @BeforeEach
+    void before()
+    {
+        dataElementA = new DataElement();
+        dataElementA.setAutoFields();
+        dataElementA.setName( "NameA" );
+        dataElementA.setValueType( ValueType.NUMBER );
+        dataElementA.setZeroIsSignificant( true );
+    }
+
+    @Test
+    void testGetValue()
+        throws Exception
+    {
+        assertEquals( "NameA", getValue( dataElementA, DataElement.class.getMethod( "getName" ) ) );
+        assertEquals( ValueType.NUMBER, getValue( dataElementA, DataElement.class.getMethod( "getValueType" ) ) );
+    }
+
+    @Test
+    void testGetPrimitiveValue()
+        throws Exception
+    {
+        Boolean zeroIsSignificant = getValue( dataElementA, DataElement.class.getMethod( "isZeroIsSignificant" ) );
+
+        assertTrue( zeroIsSignificant );
+    }
+
+    @Test
+    void testGetValueOfProperty()
+        throws Exception
+    {
+        Property property = new Property( String.class, DataElement.class.getMethod( "getUid" ), null );
+
+        assertEquals( dataElementA.getUid(), getValue( dataElementA, property ) );
+    }
+
+    @Test
+    void testGetValueIsRepeatable()
+        throws Exception
+    {
+        DataElement dataElementB = new DataElement( "NameB" );
+
+        assertEquals( "NameA", getValue( dataElementA, DataElement.class.getMethod( "getName" ) ) );
+        assertEquals( "NameB", getValue( dataElementB, DataElement.class.getMethod( "getName" ) ) );
+    }
+
+    @Test
+    void testGetValueNull()
+        throws Exception
+    {
+        assertNull( getValue( null, DataElement.class.getMethod( "getName" ) ) );
+        assertNull( getValue( dataElementA, (Property) null ) );
+        assertNull( getValue( dataElementA, new Property( String.class, null, null ) ) );
+    }
+}
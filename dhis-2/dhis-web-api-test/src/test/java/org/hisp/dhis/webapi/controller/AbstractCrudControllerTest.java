@@ -82,6 +82,23 @@ class AbstractCrudControllerTest extends DhisControllerConvenienceTest
         assertEquals( "admin admin", user.getDisplayName() );
     }
 
+    @Test
+    void testGetObjectList_Unpaged()
+    {
+        assertStatus( HttpStatus.CREATED, POST( "/constants/", "{'name':'a', 'value': 1}" ) );
+        assertStatus( HttpStatus.CREATED, POST( "/constants/", "{'name':'b', 'value': 2}" ) );
+        assertStatus( HttpStatus.CREATED, POST( "/constants/", "{'name':'c', 'value': 3}" ) );
+
+        JsonObject page = GET( "/constants?paging=false&fields=name,value&order=name" ).content( HttpStatus.OK );
+
+        assertFalse( page.has( "pager" ) );
+        JsonList<JsonIdentifiableObject> constants = page.getList( "constants", JsonIdentifiableObject.class );
+        assertEquals( 3, constants.size() );
+        assertEquals( "a", constants.get( 0 ).getName() );
+        assertEquals( "c", constants.get( 2 ).getName() );
+        assertEquals( 2, constants.get( 1 ).getNumber( "value" ).intValue() );
+    }
+
     @Test
     void testGetObject()
     {
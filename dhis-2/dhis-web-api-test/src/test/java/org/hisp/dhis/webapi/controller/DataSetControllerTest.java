@@ -27,16 +27,31 @@
  */
 package org.hisp.dhis.webapi.controller;
 
+import static org.hisp.dhis.webapi.WebClient.Header;
 import static org.hisp.dhis.webapi.utils.WebClientUtils.assertStatus;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
 
+import java.util.Date;
+import java.util.function.Consumer;
+
+import org.hisp.dhis.common.ModificationState;
+import org.hisp.dhis.common.ModificationStateService;
 import org.hisp.dhis.jsontree.JsonArray;
 import org.hisp.dhis.jsontree.JsonObject;
+import org.hisp.dhis.option.OptionSet;
+import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.DhisControllerConvenienceTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * Tests the {@link DataSetController} using (mocked) REST requests.
@@ -46,6 +61,12 @@ import org.springframework.http.HttpStatus;
 class DataSetControllerTest extends DhisControllerConvenienceTest
 {
 
+    @Autowired
+    private DataSetController dataSetController;
+
+    @Autowired
+    private ModificationStateService modificationStateService;
+
     private String dsId;
 
     @BeforeEach
@@ -82,4 +103,97 @@ class DataSetControllerTest extends DhisControllerConvenienceTest
         assertTrue( groups.isArray() );
         assertEquals( 1, groups.size() );
     }
+
+    @Test
+    void testGetObject_NotModified()
+    {
+        HttpResponse response = GET( "/dataSets/{id}", dsId );
+        assertEquals( HttpStatus.OK, response.status() );
+        String etag = response.header( "ETag" );
+        assertNotNull( etag );
+        assertEquals( HttpStatus.NOT_MODIFIED,
+            GET( "/dataSets/{id}", dsId, Header( "If-None-Match", etag ) ).status() );
+    }
+
+    @Test
+    void testGetObject_ModifiedNestedReference()
+    {
+        String osId = assertStatus( HttpStatus.CREATED,
+            POST( "/optionSets/", "{'name':'Colors', 'valueType':'TEXT'}" ) );
+        String deId = assertStatus( HttpStatus.CREATED,
+            POST( "/dataElements/", "{'name':'Color', 'shortName':'Color', 'valueType':'TEXT', "
+                + "'aggregationType':'NONE', 'domainType':'AGGREGATE', 'optionSet': {'id':'" + osId + "'}}" ) );
+        assertStatus( HttpStatus.OK, PUT( "/dataSets/" + dsId, "{'name':'My data set', 'periodType':'Monthly', "
+            + "'dataSetElements': [{'dataElement': {'id':'" + deId + "'}}]}" ) );
+        String url = "/dataSets/{id}?fields=id,dataSetElements[dataElement[id,optionSet[id,name]]]";
+        withModificationStates( states -> {
+            String etag = GET( url, dsId ).header( "ETag" );
+            assertNotNull( etag );
+            assertEquals( HttpStatus.NOT_MODIFIED, GET( url, dsId, Header( "If-None-Match", etag ) ).status() );
+            assertStatus( HttpStatus.OK, PUT( "/optionSets/" + osId, "{'name':'Colours', 'valueType':'TEXT'}" ) );
+            doReturn( new ModificationState( OptionSet.class, new Date(), null, 1 ) ).when( states )
+                .getModificationState( OptionSet.class );
+            HttpResponse response = GET( url, dsId, Header( "If-None-Match", etag ) );
+            assertEquals( HttpStatus.OK, response.status() );
+            assertNotEquals( etag, response.header( "ETag" ) );
+            assertEquals( "Colours", response.content().getArray( "dataSetElements" ).getObject( 0 )
+                .getObject( "dataElement" ).getObject( "optionSet" ).getString( "name" ).string() );
+        } );
+    }
+
+    @Test
+    void testGetObject_ModifiedUserField()
+    {
+        String url = "/dataSets/{id}?fields=id,createdBy[id,name]";
+        withModificationStates( states -> {
+            String etag = GET( url, dsId ).header( "ETag" );
+            assertNotNull( etag );
+            assertEquals( HttpStatus.NOT_MODIFIED, GET( url, dsId, Header( "If-None-Match", etag ) ).status() );
+            doReturn( new ModificationState( User.class, new Date(), null, 1 ) ).when( states )
+                .getModificationState( User.class );
+            HttpResponse response = GET( url, dsId, Header( "If-None-Match", etag ) );
+            assertEquals( HttpStatus.OK, response.status() );
+            assertNotEquals( etag, response.header( "ETag" ) );
+        } );
+    }
+
+    @Test
+    void testGetObject_ModifiedUserNotRequested()
+    {
+        String url = "/dataSets/{id}?fields=id,name";
+        withModificationStates( states -> {
+            String etag = GET( url, dsId ).header( "ETag" );
+            assertNotNull( etag );
+            doReturn( new ModificationState( User.class, new Date(), null, 1 ) ).when( states )
+                .getModificationState( User.class );
+            assertEquals( HttpStatus.NOT_MODIFIED, GET( url, dsId, Header( "If-None-Match", etag ) ).status() );
+        } );
+    }
+
+    @Test
+    void testGetObject_IfModifiedSinceIgnored()
+    {
+        assertEquals( HttpStatus.OK,
+            GET( "/dataSets/{id}", dsId, Header( "If-Modified-Since", "Fri, 31 Dec 2100 23:59:59 GMT" ) ).status() );
+    }
+
+    /**
+     * Runs the given test with a spied modification state service. The test
+     * transaction is never committed, so the new state of changed types must
+     * be stubbed as it would be after the commit.
+     */
+    private void withModificationStates( Consumer<ModificationStateService> test )
+    {
+        ModificationStateService states = spy( modificationStateService );
+        Object controller = AopTestUtils.getUltimateTargetObject( dataSetController );
+        ReflectionTestUtils.setField( controller, "modificationStateService", states );
+        try
+        {
+            test.accept( states );
+        }
+        finally
+        {
+            ReflectionTestUtils.setField( controller, "modificationStateService", modificationStateService );
+        }
+    }
 }
@@ -29,6 +29,11 @@ package org.hisp.dhis.webapi.controller;
 
 import static org.hisp.dhis.webapi.utils.WebClientUtils.assertStatus;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryCombo;
@@ -87,4 +92,17 @@ class DimensionControllerTest extends DhisControllerConvenienceTest
         JsonObject gender = dimensions.getObject( 0 );
         assertEquals( "Gender", gender.getString( "name" ).string() );
     }
+
+    @Test
+    void testGetDimensions_Unpaged()
+    {
+        JsonObject response = GET( "/dimensions?paging=false&fields=name" ).content( HttpStatus.OK );
+        assertFalse( response.has( "pager" ) );
+        List<String> names = new ArrayList<>();
+        for ( JsonObject dimension : response.getArray( "dimensions" ).asList( JsonObject.class ) )
+        {
+            names.add( dimension.getString( "name" ).string() );
+        }
+        assertTrue( names.contains( "Gender" ) );
+    }
 }
@@ -52,18 +52,26 @@ import static org.hisp.dhis.setting.SettingKey.CACHEABILITY;
 import static org.hisp.dhis.setting.SettingKey.CACHE_STRATEGY;
 import static org.hisp.dhis.setting.SettingKey.getAsRealClass;
 import static org.hisp.dhis.webapi.utils.ContextUtils.getAttachmentFileName;
+import static org.hisp.dhis.webapi.utils.ContextUtils.getModificationStateETag;
 import static org.hisp.dhis.webapi.utils.ContextUtils.stripFormatCompressionExtension;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.common.ModificationState;
 import org.hisp.dhis.common.cache.CacheStrategy;
+import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.user.UserGroup;
 import org.hisp.dhis.webapi.DhisWebSpringTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -232,4 +240,48 @@ class ContextUtilsTest extends DhisWebSpringTest
         assertEquals( "data.....", stripFormatCompressionExtension( "data.....", "xml", "zip" ) );
         assertEquals( "", stripFormatCompressionExtension( null, "xml", "zip" ) );
     }
+
+    @Test
+    void testGetModificationStateETag()
+    {
+        List<ModificationState> states = List.of(
+            new ModificationState( DataElement.class, new Date( 1000 ), null, 10 ),
+            new ModificationState( UserGroup.class, new Date( 2000 ), new Date( 3000 ), 2 ) );
+
+        String etag = getModificationStateETag( states, "/api/dataElements", "user" );
+
+        assertTrue( etag.startsWith( "W/\"" ) );
+        assertTrue( etag.endsWith( "\"" ) );
+        assertEquals( etag, getModificationStateETag( List.copyOf( states ), "/api/dataElements", "user" ) );
+    }
+
+    @Test
+    void testGetModificationStateETagChangesWithStates()
+    {
+        ModificationState state = new ModificationState( DataElement.class, new Date( 1000 ), null, 10 );
+
+        String etag = getModificationStateETag( List.of( state ), "/api/dataElements" );
+
+        assertNotEquals( etag, getModificationStateETag(
+            List.of( new ModificationState( DataElement.class, new Date( 1001 ), null, 10 ) ), "/api/dataElements" ) );
+        assertNotEquals( etag, getModificationStateETag(
+            List.of( new ModificationState( DataElement.class, new Date( 1000 ), null, 9 ) ), "/api/dataElements" ) );
+        assertNotEquals( etag, getModificationStateETag(
+            List.of( new ModificationState( DataElement.class, new Date( 1000 ), new Date( 500 ), 10 ) ),
+            "/api/dataElements" ) );
+    }
+
+    @Test
+    void testGetModificationStateETagChangesWithVariants()
+    {
+        List<ModificationState> states = List.of(
+            new ModificationState( DataElement.class, new Date( 1000 ), null, 10 ) );
+
+        String etag = getModificationStateETag( states, "/api/dataElements", "userA" );
+
+        assertNotEquals( etag, getModificationStateETag( states, "/api/dataElements", "userB" ) );
+        assertNotEquals( etag, getModificationStateETag( states, "/api/dataElements/abc", "userA" ) );
+        assertNotEquals( getModificationStateETag( states, new Date( 1000 ) ),
+            getModificationStateETag( states, new Date( 1001 ) ) );
+    }
 }
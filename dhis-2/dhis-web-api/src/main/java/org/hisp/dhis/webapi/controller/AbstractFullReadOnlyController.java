@@ -30,22 +30,35 @@ package org.hisp.dhis.webapi.controller;
 import static java.util.stream.Collectors.toList;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.notFound;
 import static org.springframework.http.CacheControl.noCache;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.common.DhisApiVersion;
+import org.hisp.dhis.common.EmbeddedObject;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ModificationState;
+import org.hisp.dhis.common.ModificationStateService;
 import org.hisp.dhis.common.Pager;
 import org.hisp.dhis.common.PrimaryKeyObject;
 import org.hisp.dhis.common.UserContext;
@@ -55,6 +68,8 @@ import org.hisp.dhis.dxf2.common.TranslateParams;
 import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.fieldfilter.Defaults;
 import org.hisp.dhis.fieldfilter.FieldFilterService;
+import org.hisp.dhis.fieldfiltering.FieldFilterParser;
+import org.hisp.dhis.fieldfiltering.FieldPath;
 import org.hisp.dhis.hibernate.exception.ReadAccessDeniedException;
 import org.hisp.dhis.node.Preset;
 import org.hisp.dhis.query.Order;
@@ -70,6 +85,8 @@ import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
 import org.hisp.dhis.user.UserSettingKey;
 import org.hisp.dhis.user.UserSettingService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
@@ -80,12 +97,18 @@ import org.hisp.dhis.webapi.utils.PaginationUtils;
 import org.hisp.dhis.webapi.webdomain.WebMetadata;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -108,6 +131,19 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
 
     protected static final WebOptions NO_WEB_OPTIONS = new WebOptions( new HashMap<>() );
 
+    /**
+     * Number of entities read and rendered at a time when streaming lists.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    /**
+     * Whether the controller overrides one of the list hooks which streaming
+     * bypasses.
+     */
+    private final boolean listHookOverridden = isOverridden( "getEntityList",
+        WebMetadata.class, WebOptions.class, List.class, List.class )
+        || isOverridden( "postProcessResponseEntities", List.class, WebOptions.class, Map.class );
+
     @Autowired
     protected IdentifiableObjectManager manager;
 
@@ -138,6 +174,12 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
     @Autowired
     protected AttributeService attributeService;
 
+    @Autowired
+    protected ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    protected ModificationStateService modificationStateService;
+
     // --------------------------------------------------------------------------
     // Hooks
     // --------------------------------------------------------------------------
@@ -159,6 +201,33 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
     {
     }
 
+    /**
+     * Streamed lists are read and rendered in batches without calling
+     * {@link #getEntityList} and {@link #postProcessResponseEntities}, so
+     * streaming is disabled for controllers which override either of them.
+     * Override to enable streaming for the options these overrides do not
+     * apply to, or to disable it for other reasons.
+     */
+    protected boolean isStreamingSupported( WebOptions options )
+    {
+        return !listHookOverridden;
+    }
+
+    /**
+     * Override to disable conditional GET requests for the given options.
+     * Responses are considered unchanged as long as no object of the entity
+     * type, of the persisted types it references directly or through other
+     * types, of user groups, of user roles and, when the requested fields
+     * reach user properties, of users was created, updated or deleted, and
+     * the current user was not updated. Controllers whose
+     * responses for the given options include other data, or have side
+     * effects, must return false.
+     */
+    protected boolean isConditionalGetSupported( WebOptions options )
+    {
+        return getSchema().isMetadata() && getSchema().isPersisted();
+    }
+
     /**
      * Allows to append new filters to the incoming ones. Recommended only on
      * very specific cases where forcing a new filter, programmatically, make
@@ -175,8 +244,9 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
     @GetMapping
     public ResponseEntity<JsonRoot> getObjectList(
         @RequestParam Map<String, String> rpParameters, OrderParams orderParams,
-        HttpServletResponse response, @CurrentUser User currentUser )
-        throws QueryParserException
+        HttpServletRequest request, HttpServletResponse response, @CurrentUser User currentUser )
+        throws QueryParserException,
+        IOException
     {
         List<Order> orders = orderParams.getOrders( getSchema() );
         List<String> fields = Lists.newArrayList( contextService.getParameterValues( "fields" ) );
@@ -197,6 +267,17 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
                 "You don't have the proper permissions to read objects of this type." );
         }
 
+        if ( checkNotModified( options, fields, request, response, currentUser ) )
+        {
+            return null;
+        }
+
+        if ( isStreaming( options ) )
+        {
+            streamObjectList( options, filters, orders, fields, response );
+            return null;
+        }
+
         List<T> entities = getEntityList( metadata, options, filters, orders );
 
         Pager pager = metadata.getPager();
@@ -375,6 +456,11 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
             fields.add( "*" );
         }
 
+        if ( checkNotModified( new WebOptions( rpParameters ), fields, request, response, currentUser ) )
+        {
+            return null;
+        }
+
         cachePrivate( response );
 
         return ResponseEntity.ok( getObjectInternal( pvUid, rpParameters, filters, fields, currentUser ) );
@@ -484,6 +570,98 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
         return entityList;
     }
 
+    /**
+     * Streaming is used for unpaged JSON lists which are not based on a free
+     * text query.
+     */
+    private boolean isStreaming( WebOptions options )
+    {
+        if ( options.hasPaging() || options.getOptions().containsKey( "query" ) || !isStreamingSupported( options ) )
+        {
+            return false;
+        }
+
+        try
+        {
+            List<MediaType> mediaTypes = contentNegotiationManager
+                .resolveMediaTypes( new ServletWebRequest( contextService.getRequest() ) );
+
+            return !mediaTypes.isEmpty() && MediaType.APPLICATION_JSON.equalsTypeAndSubtype( mediaTypes.get( 0 ) );
+        }
+        catch ( HttpMediaTypeNotAcceptableException ex )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the list of entities to the response as they are read, one batch
+     * at a time, so that memory use does not depend on the number of entities.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void streamObjectList( WebOptions options, List<String> filters, List<Order> orders,
+        List<String> fields, HttpServletResponse response )
+        throws QueryParserException,
+        IOException
+    {
+        Query query = queryService.getQueryFromUrl( getEntityClass(), filters, orders, new Pagination(),
+            options.getRootJunction() );
+        query.setDefaultOrder();
+        query.setDefaults( Defaults.valueOf( options.get( "defaults", DEFAULTS ) ) );
+
+        cachePrivate( response );
+        response.setContentType( APPLICATION_JSON_VALUE );
+
+        try ( JsonGenerator generator = jsonMapper.getFactory().createGenerator( response.getOutputStream() ) )
+        {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart( getSchema().getCollectionName() );
+
+            queryService.stream( query, STREAM_BATCH_SIZE, batch -> {
+                List<T> entities = (List<T>) batch;
+
+                handleLinksAndAccess( entities, fields, false );
+
+                try
+                {
+                    for ( ObjectNode objectNode : fieldFilterService.toObjectNodes( entities, fields ) )
+                    {
+                        jsonMapper.writeTree( generator, objectNode );
+                    }
+
+                    generator.flush();
+                }
+                catch ( IOException ex )
+                {
+                    throw new UncheckedIOException( ex );
+                }
+            } );
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private boolean isOverridden( String methodName, Class<?>... parameterTypes )
+    {
+        Class<?> type = ClassUtils.getUserClass( getClass() );
+
+        while ( type != AbstractFullReadOnlyController.class )
+        {
+            try
+            {
+                type.getDeclaredMethod( methodName, parameterTypes );
+                return true;
+            }
+            catch ( NoSuchMethodException ex )
+            {
+                type = type.getSuperclass();
+            }
+        }
+
+        return false;
+    }
+
     private long countTotal( WebOptions options, List<String> filters, List<Order> orders )
     {
         Query query = queryService.getQueryFromUrl( getEntityClass(), filters, orders, new Pagination(),
@@ -492,6 +670,197 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
         return queryService.count( query );
     }
 
+    /**
+     * Checks the If-None-Match request header against an ETag derived from the
+     * modification states of the entity type and the types it references, so
+     * that unchanged responses are answered with 304 Not Modified before any
+     * entity is loaded. Users are covered only when the requested fields reach
+     * user properties. If-Modified-Since is not honored, as it has a precision
+     * of one second only. Sets the ETag header on the response in any case.
+     *
+     * @return true if the response was answered with 304 Not Modified.
+     */
+    private boolean checkNotModified( WebOptions options, List<String> fields, HttpServletRequest request,
+        HttpServletResponse response, User currentUser )
+    {
+        if ( currentUser == null || !isConditionalGetSupported( options ) )
+        {
+            return false;
+        }
+
+        List<ModificationState> states = getModificationTypes( isUserFieldRequested( fields ) ).stream()
+            .map( modificationStateService::getModificationState )
+            .collect( toList() );
+
+        String etag = ContextUtils.getModificationStateETag( states, request.getRequestURI(),
+            request.getQueryString(), request.getHeader( HttpHeaders.ACCEPT ), currentUser.getUid(),
+            currentUser.getLastUpdated(), userSettingService.getUserSetting( UserSettingKey.DB_LOCALE ) );
+
+        if ( new ServletWebRequest( request, response ).checkNotModified( etag ) )
+        {
+            cachePrivate( response );
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Indicates whether the given fields reach a user property of the entity
+     * type or of a type nested in it, like {@code users[name]} or
+     * {@code createdBy[name]}. Presets are considered to reach the user
+     * properties of the type they apply to. Exclusions are ignored, which at
+     * worst covers users when not needed.
+     */
+    private boolean isUserFieldRequested( List<String> fields )
+    {
+        for ( FieldPath fieldPath : FieldFilterParser.parse( new HashSet<>( fields ) ) )
+        {
+            if ( fieldPath.isExclude() )
+            {
+                continue;
+            }
+
+            Schema schema = getSchema();
+
+            for ( String name : fieldPath.getPath() )
+            {
+                Property property = schema.getProperty( name );
+
+                if ( property == null )
+                {
+                    schema = null;
+                    break;
+                }
+
+                if ( isUserProperty( property ) )
+                {
+                    return true;
+                }
+
+                schema = getSchema( getPropertyType( property ) );
+
+                if ( schema == null )
+                {
+                    break;
+                }
+            }
+
+            if ( schema == null )
+            {
+                continue;
+            }
+
+            if ( fieldPath.isPreset() ? schema.getProperties().stream().anyMatch( this::isUserProperty )
+                : isUserProperty( schema.getProperty( fieldPath.getName() ) ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isUserProperty( Property property )
+    {
+        return property != null && getPropertyType( property ) == User.class;
+    }
+
+    private Class<?> getPropertyType( Property property )
+    {
+        return property.isCollection() ? property.getItemKlass() : property.getKlass();
+    }
+
+    /**
+     * Returns the entity type, user groups, user roles and the persisted types
+     * reachable from the entity type through the properties of the schemas,
+     * also through embedded objects, as nested fields like
+     * {@code dataSetElements[dataElement[categoryCombo[name]]]} render objects
+     * of types which are not referenced by the entity type itself.
+     * <p>
+     * Users and the types reachable through them are included only if
+     * requested, as most types reference the users who created and last
+     * updated them, which would make any user update, for example on login,
+     * change the state of all types.
+     *
+     * @param includeUsers whether to include users.
+     */
+    private Set<Class<?>> getModificationTypes( boolean includeUsers )
+    {
+        Set<Class<?>> types = includeUsers ? modificationTypesWithUsers : modificationTypes;
+
+        if ( types == null )
+        {
+            types = new TreeSet<>( Comparator.comparing( Class::getName ) );
+            types.add( getEntityClass() );
+            types.add( UserGroup.class );
+            types.add( UserRole.class );
+
+            Set<Class<?>> visited = new HashSet<>();
+            Deque<Class<?>> pending = new ArrayDeque<>();
+            visited.add( getEntityClass() );
+            pending.add( getEntityClass() );
+
+            while ( !pending.isEmpty() )
+            {
+                Schema schema = getSchema( pending.poll() );
+
+                if ( schema == null )
+                {
+                    continue;
+                }
+
+                for ( Property property : schema.getProperties() )
+                {
+                    Class<?> klass = getPropertyType( property );
+
+                    if ( isNestedModificationType( klass, includeUsers ) && visited.add( klass ) )
+                    {
+                        pending.add( klass );
+
+                        if ( isReferencedModificationType( klass ) )
+                        {
+                            types.add( klass );
+                        }
+                    }
+                }
+            }
+
+            types = Collections.unmodifiableSet( types );
+
+            if ( includeUsers )
+            {
+                modificationTypesWithUsers = types;
+            }
+            else
+            {
+                modificationTypes = types;
+            }
+        }
+
+        return types;
+    }
+
+    private boolean isNestedModificationType( Class<?> klass, boolean includeUsers )
+    {
+        return klass != null && (includeUsers || klass != User.class)
+            && (IdentifiableObject.class.isAssignableFrom( klass ) || EmbeddedObject.class.isAssignableFrom( klass ));
+    }
+
+    private boolean isReferencedModificationType( Class<?> klass )
+    {
+        if ( klass == null || !IdentifiableObject.class.isAssignableFrom( klass )
+            || klass.isInterface() || Modifier.isAbstract( klass.getModifiers() ) )
+        {
+            return false;
+        }
+
+        Schema schema = getSchema( klass );
+
+        return schema != null && schema.isPersisted();
+    }
+
     private void cachePrivate( HttpServletResponse response )
     {
         response.setHeader( ContextUtils.HEADER_CACHE_CONTROL,
@@ -533,6 +902,10 @@ public abstract class AbstractFullReadOnlyController<T extends IdentifiableObjec
 
     private String entitySimpleName;
 
+    private volatile Set<Class<?>> modificationTypes;
+
+    private volatile Set<Class<?>> modificationTypesWithUsers;
+
     protected final String getEntityName()
     {
         if ( entityName == null )
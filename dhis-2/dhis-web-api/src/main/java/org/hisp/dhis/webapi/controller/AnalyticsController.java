@@ -48,6 +48,7 @@ import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.cache.CacheStrategy;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
+import org.hisp.dhis.system.grid.CsvGridWriter;
 import org.hisp.dhis.system.grid.GridUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -234,9 +235,7 @@ public class AnalyticsController
         contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_CSV,
             CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
 
-        Grid grid = analyticsService.getRawDataValues( params );
-
-        GridUtils.toCsv( grid, response.getWriter() );
+        analyticsService.getRawDataValues( params, new CsvGridWriter( response.getWriter() ) );
     }
 
     // -------------------------------------------------------------------------
@@ -54,6 +54,7 @@ import org.hisp.dhis.common.EventsAnalyticsQueryCriteria;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.RequestTypeAware;
 import org.hisp.dhis.common.cache.CacheStrategy;
+import org.hisp.dhis.system.grid.CsvGridWriter;
 import org.hisp.dhis.system.grid.GridUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -346,8 +347,12 @@ public class EventAnalyticsController
         HttpServletResponse response )
         throws Exception
     {
-        GridUtils.toCsv( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_CSV,
-            "events.csv", true, response ), response.getWriter() );
+        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_CSV, CacheStrategy.RESPECT_SYSTEM_SETTING,
+            "events.csv", true );
+
+        analyticsService.getEvents( params, new CsvGridWriter( response.getWriter() ) );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.html" )
@@ -124,6 +124,19 @@ public class OrganisationUnitController
         return ok( "Organisation units merged" );
     }
 
+    @Override
+    protected boolean isStreamingSupported( WebOptions options )
+    {
+        return !isAnySpecialPropertySet( options ) && !isAnyQueryPropertySet( options )
+            && options.get( "memberObject" ) == null;
+    }
+
+    @Override
+    protected boolean isConditionalGetSupported( WebOptions options )
+    {
+        return options.get( "memberObject" ) == null && super.isConditionalGetSupported( options );
+    }
+
     @Override
     @SuppressWarnings( "unchecked" )
     protected List<OrganisationUnit> getEntityList( WebMetadata metadata, WebOptions options, List<String> filters,
@@ -134,12 +147,8 @@ public class OrganisationUnitController
 
         User currentUser = currentUserService.getCurrentUser();
 
-        boolean anySpecialPropertySet = ObjectUtils.anyIsTrue( options.isTrue( "userOnly" ),
-            options.isTrue( "userDataViewOnly" ), options.isTrue( "userDataViewFallback" ),
-            options.isTrue( "levelSorted" ) );
-        boolean anyQueryPropertySet = ObjectUtils.firstNonNull( options.get( "query" ), options.getInt( "level" ),
-            options.getInt( "maxLevel" ) ) != null || options.isTrue( "withinUserHierarchy" )
-            || options.isTrue( "withinUserSearchHierarchy" );
+        boolean anySpecialPropertySet = isAnySpecialPropertySet( options );
+        boolean anyQueryPropertySet = isAnyQueryPropertySet( options );
         String memberObject = options.get( "memberObject" );
         String memberCollection = options.get( "memberCollection" );
 
@@ -228,6 +237,20 @@ public class OrganisationUnitController
         return list;
     }
 
+    private boolean isAnySpecialPropertySet( WebOptions options )
+    {
+        return ObjectUtils.anyIsTrue( options.isTrue( "userOnly" ),
+            options.isTrue( "userDataViewOnly" ), options.isTrue( "userDataViewFallback" ),
+            options.isTrue( "levelSorted" ) );
+    }
+
+    private boolean isAnyQueryPropertySet( WebOptions options )
+    {
+        return ObjectUtils.firstNonNull( options.get( "query" ), options.getInt( "level" ),
+            options.getInt( "maxLevel" ) ) != null || options.isTrue( "withinUserHierarchy" )
+            || options.isTrue( "withinUserSearchHierarchy" );
+    }
+
     @Override
     protected List<OrganisationUnit> getEntity( String uid, WebOptions options )
     {
@@ -160,6 +160,12 @@ public class UserController
     // GET
     // -------------------------------------------------------------------------
 
+    @Override
+    protected boolean isConditionalGetSupported( WebOptions options )
+    {
+        return false;
+    }
+
     @Override
     @SuppressWarnings( "unchecked" )
     protected List<User> getEntityList( WebMetadata metadata, WebOptions options, List<String> filters,
@@ -72,6 +72,12 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
  * The example exactly matches and excludes any request to the '/api/dataValues'
  * and '/api/dataValues/files' from the filter.
  *
+ * <p>
+ * Responses which already carry an ETag header, such as the responses of
+ * metadata endpoints which are validated against the modification state of
+ * their types before any object is loaded, keep their ETag. Responses which
+ * were answered with 304 Not Modified by the controller are passed through.
+ *
  * @author Lars Helge Overland
  * @author Halvdan Hoem Grelland
  */
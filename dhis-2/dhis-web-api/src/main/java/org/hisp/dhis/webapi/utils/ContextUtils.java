@@ -30,6 +30,7 @@ package org.hisp.dhis.webapi.utils;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.common.cache.CacheStrategy.RESPECT_SYSTEM_SETTING;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Date;
 import java.util.regex.Matcher;
@@ -42,11 +43,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
+import org.hisp.dhis.common.ModificationState;
 import org.hisp.dhis.common.cache.CacheStrategy;
 import org.hisp.dhis.webapi.service.WebCache;
 import org.springframework.http.CacheControl;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.HandlerMapping;
@@ -113,6 +116,10 @@ public class ContextUtils
 
     private static final String QUOTE = "\"";
 
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    private static final char ETAG_VALUE_SEP = '\n';
+
     private static final String QUERY_STRING_SEP = "?";
 
     /**
@@ -307,6 +314,40 @@ public class ContextUtils
         return false;
     }
 
+    /**
+     * Generates a weak ETag reflecting the given modification states and the
+     * given values a response varies by, such as the request URI and the
+     * current user. The ETag changes when objects of any of the types of the
+     * modification states are created, updated or deleted, and can hence be
+     * compared before the objects of the response are loaded.
+     *
+     * @param states the modification states of the types the response is
+     *        built from.
+     * @param variants the values the response varies by, dates are
+     *        included with millisecond precision.
+     * @return a weak ETag.
+     */
+    public static String getModificationStateETag( Collection<ModificationState> states, Object... variants )
+    {
+        StringBuilder value = new StringBuilder();
+
+        for ( ModificationState state : states )
+        {
+            value.append( state.getType().getName() ).append( ETAG_VALUE_SEP )
+                .append( getTime( state.getLastUpdated() ) ).append( ETAG_VALUE_SEP )
+                .append( getTime( state.getLastDeleted() ) ).append( ETAG_VALUE_SEP )
+                .append( state.getCount() ).append( ETAG_VALUE_SEP );
+        }
+
+        for ( Object variant : variants )
+        {
+            value.append( variant instanceof Date ? getTime( (Date) variant ) : variant ).append( ETAG_VALUE_SEP );
+        }
+
+        return WEAK_ETAG_PREFIX + QUOTE
+            + DigestUtils.md5DigestAsHex( value.toString().getBytes( StandardCharsets.UTF_8 ) ) + QUOTE;
+    }
+
     /**
      * Indicates whether the given requests indicates that it accepts a
      * compressed response.
@@ -383,4 +424,9 @@ public class ContextUtils
     {
         return name != null ? name.replace( "." + format + "." + compression, "" ) : "";
     }
+
+    private static long getTime( Date date )
+    {
+        return date != null ? date.getTime() : -1;
+    }
 }